@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.commands.provider;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.commands.annotation.CommandType;
+import org.apache.fineract.commands.domain.CommandWrapper;
+import org.apache.fineract.commands.handler.NewCommandSourceHandler;
+import org.apache.fineract.commands.service.CommandWrapperBuilder;
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.support.StaticApplicationContext;
+
+/**
+ * Measures the handler lookup done by {@link CommandHandlerProvider} for every processed command, both for commands
+ * routed by entity and action and for commands on datatables, which are routed by the shape of the resource.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CommandHandlerProviderBenchmark {
+
+    private StaticApplicationContext applicationContext;
+    private CommandHandlerProvider commandHandlerProvider;
+    private CommandWrapper createClient;
+    private CommandWrapper updateStaff;
+    private CommandWrapper createDatatableEntry;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.applicationContext = new StaticApplicationContext();
+        this.applicationContext.registerSingleton("createClientCommandHandler", CreateClientHandler.class);
+        this.applicationContext.registerSingleton("updateStaffCommandHandler", UpdateStaffHandler.class);
+        this.applicationContext.registerSingleton("createDatatableEntryCommandHandler", CreateDatatableEntryHandler.class);
+        this.applicationContext.registerSingleton("commandHandlerProvider", CommandHandlerProvider.class);
+        this.applicationContext.refresh();
+        this.commandHandlerProvider = this.applicationContext.getBean(CommandHandlerProvider.class);
+
+        this.createClient = new CommandWrapperBuilder().createClient().build();
+        this.updateStaff = new CommandWrapperBuilder().updateStaff(1L).build();
+        this.createDatatableEntry = new CommandWrapperBuilder().createDatatable("dt_client_details", 1L, null).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.applicationContext.close();
+    }
+
+    @Benchmark
+    public NewCommandSourceHandler lookupByEntityAndAction() {
+        return this.commandHandlerProvider.getHandler(this.createClient);
+    }
+
+    @Benchmark
+    public NewCommandSourceHandler lookupByEntityAndActionUpdate() {
+        return this.commandHandlerProvider.getHandler(this.updateStaff);
+    }
+
+    @Benchmark
+    public NewCommandSourceHandler lookupDatatableRoute() {
+        return this.commandHandlerProvider.getHandler(this.createDatatableEntry);
+    }
+
+    private abstract static class NoopHandler implements NewCommandSourceHandler {
+
+        @Override
+        public CommandProcessingResult processCommand(final JsonCommand command) {
+            return CommandProcessingResult.empty();
+        }
+    }
+
+    @CommandType(entity = "CLIENT", action = "CREATE")
+    public static class CreateClientHandler extends NoopHandler {}
+
+    @CommandType(entity = "STAFF", action = "UPDATE")
+    public static class UpdateStaffHandler extends NoopHandler {}
+
+    @CommandType(entity = CommandHandlerProvider.DATATABLE_ENTITY, action = CommandHandlerProvider.CREATE_ENTRY_ACTION)
+    public static class CreateDatatableEntryHandler extends NoopHandler {}
+}
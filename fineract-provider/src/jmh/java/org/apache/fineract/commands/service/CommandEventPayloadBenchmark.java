@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.commands.service;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.apache.fineract.infrastructure.core.serialization.ExcludeNothingWithPrettyPrintingOffJsonSerializerGoogleGson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the hook event payload of a command as it used to be built for every command, with a new {@link Gson} and
+ * a second parse of the request, to {@link CommandEventPayload}, both when a hook listens to the event and when none
+ * does and the payload is never built.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CommandEventPayloadBenchmark {
+
+    private static final String JSON = "{\"officeId\":1,\"firstname\":\"Jane\",\"lastname\":\"Doe\",\"externalId\":\"786YYH7\","
+            + "\"dateFormat\":\"dd MMMM yyyy\",\"locale\":\"en\",\"active\":true,\"activationDate\":\"04 March 2009\","
+            + "\"submittedOnDate\":\"04 March 2009\",\"legalFormId\":1,\"savingsProductId\":null}";
+
+    private final ExcludeNothingWithPrettyPrintingOffJsonSerializerGoogleGson serializer = //
+            new ExcludeNothingWithPrettyPrintingOffJsonSerializerGoogleGson();
+
+    private JsonElement parsedJson;
+    private CommandProcessingResult result;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.parsedJson = JsonParser.parseString(JSON);
+        this.result = new CommandProcessingResultBuilder().withCommandId(1L).withEntityId(42L).withOfficeId(1L).withClientId(42L)
+                .withResourceIdAsString("42").build();
+    }
+
+    @Benchmark
+    public String eagerPayload() {
+        final Gson gson = new Gson();
+        final Type type = new TypeToken<Map<String, Object>>() {}.getType();
+        final Map<String, Object> request = gson.fromJson(JSON, type);
+
+        final Map<String, Object> payload = new HashMap<>();
+        payload.put("entityName", "CLIENT");
+        payload.put("actionName", "CREATE");
+        payload.put("createdBy", 1L);
+        payload.put("createdByName", "mifos");
+        payload.put("createdByFullName", "App Administrator");
+        payload.put("request", request);
+        final CommandProcessingResult resultCopy = CommandProcessingResult.fromCommandProcessingResult(this.result);
+        payload.put("officeId", resultCopy.getOfficeId());
+        payload.put("clientId", resultCopy.getClientId());
+        resultCopy.setOfficeId(null);
+        payload.put("response", resultCopy);
+        payload.put("timestamp", Instant.now().toString());
+        return this.serializer.serialize(payload);
+    }
+
+    @Benchmark
+    public String lazyPayloadWithSubscriber() {
+        return payload().get();
+    }
+
+    @Benchmark
+    public Supplier<String> lazyPayloadWithoutSubscriber() {
+        return payload();
+    }
+
+    private Supplier<String> payload() {
+        final JsonElement request = CommandEventPayload.eventRequest(this.parsedJson, JSON);
+        return () -> CommandEventPayload.toJson("CLIENT", "CREATE", 1L, "mifos", "App Administrator", request, this.result);
+    }
+}
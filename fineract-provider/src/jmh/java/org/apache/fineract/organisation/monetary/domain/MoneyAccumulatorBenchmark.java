@@ -0,0 +1,81 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.monetary.domain;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures summing the amounts of a few thousand installments or transactions by chaining {@link Money#plus(Money)}
+ * against doing the same with a {@link MoneyAccumulator}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MoneyAccumulatorBenchmark {
+
+    private static final int AMOUNTS = 5000;
+
+    private MonetaryCurrency currency;
+    private Money[] amounts;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        // outside of Spring the rounding mode is not read from the global configuration
+        final Field roundingMode = MoneyHelper.class.getDeclaredField("roundingMode");
+        roundingMode.setAccessible(true);
+        roundingMode.set(null, RoundingMode.HALF_EVEN);
+
+        this.currency = new MonetaryCurrency("USD", 2, null);
+        final Random random = new Random(42);
+        this.amounts = new Money[AMOUNTS];
+        for (int i = 0; i < AMOUNTS; i++) {
+            this.amounts[i] = Money.of(this.currency, BigDecimal.valueOf(random.nextInt(10_000_000), 2));
+        }
+    }
+
+    @Benchmark
+    public Money chainMoney() {
+        Money total = Money.zero(this.currency);
+        for (final Money amount : this.amounts) {
+            total = total.plus(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money accumulate() {
+        final MoneyAccumulator total = MoneyAccumulator.zero(this.currency);
+        for (final Money amount : this.amounts) {
+            total.plus(amount);
+        }
+        return total.toMoney();
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.loanschedule.domain;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.monetary.domain.ApplicationCurrency;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.organisation.workingdays.domain.RepaymentRescheduleType;
+import org.apache.fineract.organisation.workingdays.domain.WorkingDays;
+import org.apache.fineract.portfolio.calendar.domain.Calendar;
+import org.apache.fineract.portfolio.calendar.domain.CalendarEntityType;
+import org.apache.fineract.portfolio.calendar.domain.CalendarFrequencyType;
+import org.apache.fineract.portfolio.calendar.domain.CalendarInstance;
+import org.apache.fineract.portfolio.calendar.domain.CalendarType;
+import org.apache.fineract.portfolio.common.domain.DaysInMonthType;
+import org.apache.fineract.portfolio.common.domain.DaysInYearType;
+import org.apache.fineract.portfolio.common.domain.PeriodFrequencyType;
+import org.apache.fineract.portfolio.loanaccount.data.DisbursementData;
+import org.apache.fineract.portfolio.loanaccount.data.HolidayDetailDTO;
+import org.apache.fineract.portfolio.loanproduct.domain.AmortizationMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestCalculationPeriodMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestRecalculationCompoundingMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.LoanPreClosureInterestCalculationStrategy;
+import org.apache.fineract.portfolio.loanproduct.domain.RecalculationFrequencyType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures generating the schedule of a monthly loan, as a <code>calculateLoanSchedule</code> preview does, for flat and
+ * declining balance interest, declining balance with daily interest recalculation and a loan disbursed in two tranches.
+ *
+ * The generators update the {@link LoanApplicationTerms} while they run, so every invocation assembles fresh terms; that
+ * is a small part of the time measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoanScheduleGeneratorBenchmark {
+
+    private static final LocalDate DISBURSEMENT_DATE = LocalDate.of(2022, 1, 3);
+    private static final BigDecimal PRINCIPAL = BigDecimal.valueOf(120_000);
+    private static final String ALL_WEEK = "FREQ=WEEKLY;INTERVAL=1;BYDAY=MO,TU,WE,TH,FR,SA,SU";
+
+    @Param({ "FLAT", "DECLINING_BALANCE", "INTEREST_RECALCULATION", "MULTI_DISBURSEMENT" })
+    private Scenario scenario;
+
+    @Param({ "12", "60", "240" })
+    private int numberOfRepayments;
+
+    private ApplicationCurrency currency;
+    private HolidayDetailDTO holidayDetails;
+    private MathContext mc;
+    private LoanScheduleGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        // outside of Spring the rounding mode is not read from the global configuration
+        final Field roundingMode = MoneyHelper.class.getDeclaredField("roundingMode");
+        roundingMode.setAccessible(true);
+        roundingMode.set(null, RoundingMode.HALF_EVEN);
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, DISBURSEMENT_DATE)));
+
+        final Constructor<ApplicationCurrency> currencyConstructor = ApplicationCurrency.class.getDeclaredConstructor(String.class,
+                String.class, int.class, Integer.class, String.class, String.class);
+        currencyConstructor.setAccessible(true);
+        this.currency = currencyConstructor.newInstance("USD", "US Dollar", 2, null, "currency.USD", "$");
+
+        final Constructor<WorkingDays> workingDaysConstructor = WorkingDays.class.getDeclaredConstructor(String.class, Integer.class,
+                Boolean.class, Boolean.class);
+        workingDaysConstructor.setAccessible(true);
+        final WorkingDays workingDays = workingDaysConstructor.newInstance(ALL_WEEK, RepaymentRescheduleType.SAME_DAY.getValue(), false,
+                false);
+        this.holidayDetails = new HolidayDetailDTO(false, List.of(), workingDays);
+        this.mc = new MathContext(8, RoundingMode.HALF_EVEN);
+        this.generator = new DefaultLoanScheduleGeneratorFactory().create(this.scenario.interestMethod);
+    }
+
+    @Benchmark
+    public LoanScheduleModel generate() {
+        return this.generator.generate(this.mc, terms(), new HashSet<>(), this.holidayDetails);
+    }
+
+    private LoanApplicationTerms terms() {
+        final MonetaryCurrency monetaryCurrency = new MonetaryCurrency(this.currency.getCode(), this.currency.getDecimalPlaces(), null);
+        final Money principal = Money.of(monetaryCurrency, PRINCIPAL);
+        final boolean multiDisbursement = this.scenario == Scenario.MULTI_DISBURSEMENT;
+        final List<DisbursementData> disbursements = new ArrayList<>();
+        if (multiDisbursement) {
+            // two thirds on disbursement and the rest three months later
+            final BigDecimal firstTranche = PRINCIPAL.multiply(BigDecimal.valueOf(2)).divide(BigDecimal.valueOf(3), 2,
+                    RoundingMode.HALF_EVEN);
+            disbursements.add(new DisbursementData(null, DISBURSEMENT_DATE, null, firstTranche, null, null, null, null));
+            disbursements.add(new DisbursementData(null, DISBURSEMENT_DATE.plusMonths(3), null, PRINCIPAL.subtract(firstTranche), null,
+                    null, null, null));
+        }
+        final boolean interestRecalculation = this.scenario == Scenario.INTEREST_RECALCULATION;
+        CalendarInstance restCalendarInstance = null;
+        if (interestRecalculation) {
+            final Calendar restCalendar = Calendar.createRepeatingCalendar("loan_recalculation_detail", DISBURSEMENT_DATE,
+                    CalendarType.COLLECTION.getValue(), CalendarFrequencyType.DAILY, 1, null, null);
+            restCalendarInstance = CalendarInstance.from(restCalendar, null, CalendarEntityType.LOAN_RECALCULATION_REST_DETAIL.getValue());
+        }
+
+        return LoanApplicationTerms.assembleFrom(this.currency, this.numberOfRepayments, PeriodFrequencyType.MONTHS,
+                this.numberOfRepayments, 1, PeriodFrequencyType.MONTHS, null, null, AmortizationMethod.EQUAL_INSTALLMENTS,
+                this.scenario.interestMethod, BigDecimal.ONE, PeriodFrequencyType.MONTHS, BigDecimal.valueOf(12),
+                interestRecalculation ? InterestCalculationPeriodMethod.DAILY : InterestCalculationPeriodMethod.SAME_AS_REPAYMENT_PERIOD,
+                false, principal, DISBURSEMENT_DATE, null, null, 0, 0, 0, 0, null, principal.zero(), multiDisbursement, null,
+                disbursements, multiDisbursement ? PRINCIPAL : null, null, DaysInMonthType.ACTUAL, DaysInYearType.ACTUAL,
+                interestRecalculation, interestRecalculation ? RecalculationFrequencyType.DAILY : null, restCalendarInstance,
+                interestRecalculation ? InterestRecalculationCompoundingMethod.NONE : null, null, null, null, null,
+                interestRecalculation ? LoanPreClosureInterestCalculationStrategy.TILL_PRE_CLOSURE_DATE : null, null, PRINCIPAL,
+                new ArrayList<>(), false, null, false, this.holidayDetails, false, false, false, null, false, false, null);
+    }
+
+    public enum Scenario {
+
+        FLAT(InterestMethod.FLAT), //
+        DECLINING_BALANCE(InterestMethod.DECLINING_BALANCE), //
+        INTEREST_RECALCULATION(InterestMethod.DECLINING_BALANCE), //
+        MULTI_DISBURSEMENT(InterestMethod.DECLINING_BALANCE);
+
+        private final InterestMethod interestMethod;
+
+        Scenario(final InterestMethod interestMethod) {
+            this.interestMethod = interestMethod;
+        }
+    }
+}
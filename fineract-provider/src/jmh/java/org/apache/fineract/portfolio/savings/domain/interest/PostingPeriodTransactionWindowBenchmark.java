@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain.interest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.infrastructure.core.domain.LocalDateInterval;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures how the transactions of a high volume savings account are matched to its monthly posting periods: the
+ * full history scanned once per period, as interest calculation used to do, against a single sweep with
+ * {@link PostingPeriodTransactionWindow}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostingPeriodTransactionWindowBenchmark {
+
+    private static final LocalDate ACTIVATION_DATE = LocalDate.of(2015, 1, 1);
+    private static final int YEARS_OF_HISTORY = 10;
+
+    @Param({ "1000", "10000", "50000" })
+    private int transactionCount;
+
+    private List<Transaction> transactions;
+    private List<LocalDateInterval> postingPeriods;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final LocalDate lastDate = ACTIVATION_DATE.plusYears(YEARS_OF_HISTORY).minusDays(1);
+        final long days = lastDate.toEpochDay() - ACTIVATION_DATE.toEpochDay() + 1;
+        final List<LocalDate> dates = new ArrayList<>(this.transactionCount);
+        for (int i = 0; i < this.transactionCount; i++) {
+            dates.add(ACTIVATION_DATE.plusDays(i * days / this.transactionCount));
+        }
+        // as after recalculating the daily balances, each balance lasts until the day before the next transaction
+        this.transactions = new ArrayList<>(this.transactionCount);
+        for (int i = 0; i < dates.size(); i++) {
+            final LocalDate date = dates.get(i);
+            final LocalDate nextDate = i + 1 < dates.size() ? dates.get(i + 1) : lastDate.plusDays(1);
+            this.transactions.add(new Transaction(date, nextDate.isAfter(date) ? nextDate.minusDays(1) : date));
+        }
+        this.postingPeriods = new ArrayList<>();
+        for (LocalDate start = ACTIVATION_DATE; start.isBefore(lastDate); start = start.plusMonths(1)) {
+            this.postingPeriods.add(LocalDateInterval.create(start, start.plusMonths(1).minusDays(1)));
+        }
+    }
+
+    @Benchmark
+    public int scanAllTransactionsPerPeriod() {
+        int matched = 0;
+        for (final LocalDateInterval period : this.postingPeriods) {
+            final LocalDate dayAfterPeriodEnd = period.endDate().plusDays(1);
+            for (final Transaction transaction : this.transactions) {
+                final LocalDateInterval balanceInterval = LocalDateInterval.create(transaction.date(), transaction.endOfBalance());
+                if (period.contains(balanceInterval) || balanceInterval.containsPortionOf(period)
+                        || transaction.date().isEqual(dayAfterPeriodEnd)) {
+                    matched++;
+                }
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public int sweepTransactionWindow() {
+        final PostingPeriodTransactionWindow<Transaction> window = new PostingPeriodTransactionWindow<>(this.transactions,
+                Transaction::date, Transaction::endOfBalance);
+        int matched = 0;
+        for (final LocalDateInterval period : this.postingPeriods) {
+            matched += window.transactionsAffecting(period).size();
+        }
+        return matched;
+    }
+
+    private record Transaction(LocalDate date, LocalDate endOfBalance) {}
+}
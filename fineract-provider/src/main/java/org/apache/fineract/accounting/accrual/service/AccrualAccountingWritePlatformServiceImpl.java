@@ -34,6 +34,7 @@ import org.apache.fineract.infrastructure.core.data.DataValidatorBuilder;
 import org.apache.fineract.infrastructure.core.exception.MultiException;
 import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.apache.fineract.portfolio.loanaccount.service.LoanAccrualPlatformService;
+import org.apache.fineract.portfolio.loanaccount.service.LoanReadPlatformService;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -42,13 +43,19 @@ public class AccrualAccountingWritePlatformServiceImpl implements AccrualAccount
 
     private final LoanAccrualPlatformService loanAccrualPlatformService;
     private final AccrualAccountingDataValidator accountingDataValidator;
+    private final LoanReadPlatformService loanReadPlatformService;
 
+    /**
+     * Posts the accruals loan by loan on the calling thread, inside the transaction of the command, so that the command
+     * either posts all of them or none. The chunked, parallel posting is left to the periodic accrual job.
+     */
     @Override
     public CommandProcessingResult executeLoansPeriodicAccrual(JsonCommand command) {
         this.accountingDataValidator.validateLoanPeriodicAccrualData(command.json());
         LocalDate tilldate = command.localDateValueOfParameterNamed(accrueTillParamName);
         try {
-            this.loanAccrualPlatformService.addPeriodicAccruals(tilldate);
+            this.loanAccrualPlatformService.addPeriodicAccruals(tilldate,
+                    this.loanReadPlatformService.retrivePeriodicAccrualData(tilldate, null));
         } catch (MultiException e) {
             final List<ApiParameterError> dataValidationErrors = new ArrayList<>();
             final DataValidatorBuilder baseDataValidator = new DataValidatorBuilder(dataValidationErrors)
@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.accounting.journalentry.data.JournalEntryLeg;
+import org.apache.fineract.accounting.journalentry.exception.JournalEntryInvalidException;
+import org.apache.fineract.accounting.journalentry.exception.JournalEntryInvalidException.GlJournalEntryInvalidReason;
+import org.apache.fineract.infrastructure.core.auditing.CustomDateTimeProvider;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes system generated journal entries with multi-row JDBC inserts instead of one JPA entity per line.
+ *
+ * The legs added during {@link #runInUnitOfWork(Runnable)} are collected and, once the work is done, checked to balance
+ * per currency and inserted {@value #ROWS_PER_STATEMENT} rows per statement. Units of work do not nest: work started
+ * inside another one joins it. A leg added outside of a unit of work goes through the same check on its own, so only a
+ * zero amount leg can be written that way.
+ *
+ * Like the audit fields set through JPA, the created and last modified dates are taken from
+ * {@link CustomDateTimeProvider#INSTANCE}.
+ */
+@Component
+@RequiredArgsConstructor
+public class JournalEntryBatchWriter {
+
+    private static final int ROWS_PER_STATEMENT = 100;
+    private static final int PARAMETERS_PER_ROW = 21;
+    private static final String INSERT_SQL = "INSERT INTO acc_gl_journal_entry (account_id, office_id, currency_code, transaction_id, "
+            + "loan_transaction_id, savings_transaction_id, client_transaction_id, share_transaction_id, payment_details_id, reversed, "
+            + "manual_entry, entry_date, transaction_date, type_enum, amount, description, entity_type_enum, entity_id, ref_num, "
+            + "is_running_balance_calculated, office_running_balance, organization_running_balance, createdby_id, created_date, "
+            + "lastmodifiedby_id, lastmodified_date) VALUES ";
+    private static final String ROW_VALUES = "(?, ?, ?, ?, ?, ?, ?, ?, ?, false, false, ?, ?, ?, ?, ?, ?, ?, ?, false, 0, 0, ?, ?, ?, ?)";
+    private static final String FULL_INSERT_SQL = insertSql(ROWS_PER_STATEMENT);
+
+    private static final ThreadLocal<List<JournalEntryLeg>> UNIT_OF_WORK = new ThreadLocal<>();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditorAware<Long> auditorAware;
+
+    public void runInUnitOfWork(final Runnable work) {
+        if (UNIT_OF_WORK.get() != null) {
+            work.run();
+            return;
+        }
+        final List<JournalEntryLeg> legs = new ArrayList<>();
+        UNIT_OF_WORK.set(legs);
+        try {
+            work.run();
+        } finally {
+            UNIT_OF_WORK.remove();
+        }
+        write(legs);
+    }
+
+    public void add(final JournalEntryLeg leg) {
+        final List<JournalEntryLeg> legs = UNIT_OF_WORK.get();
+        if (legs == null) {
+            write(List.of(leg));
+        } else {
+            legs.add(leg);
+        }
+    }
+
+    /**
+     * Checks that the debits of the given legs equal their credits in every currency and inserts them.
+     */
+    public void write(final List<JournalEntryLeg> legs) {
+        if (legs.isEmpty()) {
+            return;
+        }
+        final Map<String, BigDecimal> balances = new HashMap<>();
+        for (final JournalEntryLeg leg : legs) {
+            final BigDecimal amount = leg.getType().isDebitType() ? leg.getAmount() : leg.getAmount().negate();
+            balances.merge(leg.getCurrencyCode(), amount, BigDecimal::add);
+        }
+        for (final BigDecimal balance : balances.values()) {
+            if (balance.compareTo(BigDecimal.ZERO) != 0) {
+                throw new JournalEntryInvalidException(GlJournalEntryInvalidReason.DEBIT_CREDIT_SUM_MISMATCH,
+                        legs.get(0).getTransactionDate(), null, null);
+            }
+        }
+        insert(legs);
+    }
+
+    private void insert(final List<JournalEntryLeg> legs) {
+        final Long auditor = this.auditorAware.getCurrentAuditor().orElse(null);
+        final LocalDateTime now = LocalDateTime.from(CustomDateTimeProvider.INSTANCE.getNow().orElseThrow());
+        for (int from = 0; from < legs.size(); from += ROWS_PER_STATEMENT) {
+            final List<JournalEntryLeg> rows = legs.subList(from, Math.min(legs.size(), from + ROWS_PER_STATEMENT));
+            final List<Object> params = new ArrayList<>(rows.size() * PARAMETERS_PER_ROW);
+            for (final JournalEntryLeg leg : rows) {
+                params.add(leg.getGlAccountId());
+                params.add(leg.getOfficeId());
+                params.add(leg.getCurrencyCode());
+                params.add(leg.getTransactionId());
+                params.add(leg.getLoanTransactionId());
+                params.add(leg.getSavingsTransactionId());
+                params.add(leg.getClientTransactionId());
+                params.add(leg.getShareTransactionId());
+                params.add(leg.getPaymentDetailId());
+                params.add(leg.getTransactionDate());
+                params.add(leg.getTransactionDate());
+                params.add(leg.getType().getValue());
+                params.add(leg.getAmount());
+                params.add(leg.getDescription());
+                params.add(leg.getEntityType());
+                params.add(leg.getEntityId());
+                params.add(leg.getReferenceNumber());
+                params.add(auditor);
+                params.add(now);
+                params.add(auditor);
+                params.add(now);
+            }
+            this.jdbcTemplate.update(rows.size() == ROWS_PER_STATEMENT ? FULL_INSERT_SQL : insertSql(rows.size()), params.toArray());
+        }
+    }
+
+    private static String insertSql(final int rows) {
+        return INSERT_SQL + String.join(", ", Collections.nCopies(rows, ROW_VALUES));
+    }
+}
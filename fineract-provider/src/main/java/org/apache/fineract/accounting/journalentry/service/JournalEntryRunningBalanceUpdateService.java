@@ -20,10 +20,15 @@ package org.apache.fineract.accounting.journalentry.service;
 
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 
 public interface JournalEntryRunningBalanceUpdateService {
 
-    void updateRunningBalance();
+    /**
+     * Brings the office and organization running balances of every journal entry not calculated yet up to date. Each
+     * GL account is processed on its own, in parallel, resuming from its last checkpoint.
+     */
+    void updateRunningBalance() throws JobExecutionException;
 
     CommandProcessingResult updateOfficeRunningBalance(JsonCommand command);
 
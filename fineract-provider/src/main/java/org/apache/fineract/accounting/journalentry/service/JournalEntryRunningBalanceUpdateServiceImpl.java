@@ -19,41 +19,69 @@
 package org.apache.fineract.accounting.journalentry.service;
 
 import java.math.BigDecimal;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.fineract.accounting.common.AccountingEnumerations;
 import org.apache.fineract.accounting.glaccount.domain.GLAccountType;
 import org.apache.fineract.accounting.journalentry.api.JournalEntryJsonInputParams;
-import org.apache.fineract.accounting.journalentry.data.JournalEntryData;
 import org.apache.fineract.accounting.journalentry.data.JournalEntryDataValidator;
 import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
-import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
 import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.JobWorkerPoolService;
 import org.apache.fineract.organisation.office.domain.OfficeRepositoryWrapper;
-import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * Incremental running balance engine.
+ *
+ * Every GL account is a partition of its own: its entries are streamed in <code>(entry_date, id)</code> order in keyset
+ * pages, and the organization balance and the balances of all offices are carried forward in the same pass. Each page
+ * is written with one parameterized JDBC batch and, in the same transaction, the balances reached after its last entry
+ * are saved as the account's checkpoint. The next run resumes from that checkpoint, unless a back dated entry was posted
+ * before it, in which case the balances are seeded from the last entries before the first entry not calculated yet.
+ *
+ * The job and the update of an office requested through the API may process the same account at the same time, on this
+ * or another instance. Every page transaction therefore locks the account row and checks that the checkpoint is still
+ * the one the balances were carried from; when another run moved it, the page is rolled back and the account is retried
+ * from the new checkpoint.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntryRunningBalanceUpdateService {
 
+    private static final String UPDATE_ENTRY_SQL = "UPDATE acc_gl_journal_entry SET is_running_balance_calculated = true, "
+            + "organization_running_balance = ?, office_running_balance = ? WHERE id = ?";
+
+    private static final RowMapper<JournalEntryRow> ENTRY_MAPPER = (rs, rowNum) -> new JournalEntryRow(rs.getLong("id"),
+            rs.getLong("officeId"), JdbcSupport.getLocalDate(rs, "entryDate"), JournalEntryType.fromInt(rs.getInt("entryType")),
+            rs.getBigDecimal("amount"));
+
+    private static final RowMapper<Checkpoint> CHECKPOINT_MAPPER = (rs, rowNum) -> new Checkpoint(
+            JdbcSupport.getLocalDate(rs, "entry_date"), rs.getLong("entry_id"));
+
     private final JdbcTemplate jdbcTemplate;
 
     private final OfficeRepositoryWrapper officeRepositoryWrapper;
@@ -62,19 +90,16 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
 
     private final FromJsonHelper fromApiJsonHelper;
     private final DatabaseSpecificSQLGenerator sqlGenerator;
-
-    private final GLJournalEntryMapper entryMapper = new GLJournalEntryMapper();
+    private final JobWorkerPoolService jobWorkerPoolService;
+    private final TransactionTemplate txTemplate;
+    private final FineractProperties fineractProperties;
 
     @Override
     @CronTarget(jobName = JobName.ACCOUNTING_RUNNING_BALANCE_UPDATE)
-    public void updateRunningBalance() {
-        String dateFinder = "select MIN(je.entry_date) as entityDate from acc_gl_journal_entry  je "
-                + "where je.is_running_balance_calculated=false ";
-        try {
-            LocalDate entityDate = this.jdbcTemplate.queryForObject(dateFinder, LocalDate.class);
-            updateOrganizationRunningBalance(entityDate);
-        } catch (EmptyResultDataAccessException e) {
-            log.debug("No results found for updation of running balance ");
+    public void updateRunningBalance() throws JobExecutionException {
+        final List<Throwable> errors = updateRunningBalances(null);
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
         }
     }
 
@@ -85,211 +110,191 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
                 command.parsedJson());
         CommandProcessingResultBuilder commandProcessingResultBuilder = new CommandProcessingResultBuilder()
                 .withCommandId(command.commandId());
-        if (officeId == null) {
-            updateRunningBalance();
-        } else {
+        if (officeId != null) {
             this.officeRepositoryWrapper.findOneWithNotFoundDetection(officeId);
-            String dateFinder = "select MIN(je.entry_date) as entityDate " + "from acc_gl_journal_entry  je "
-                    + "where je.is_running_balance_calculated=false  and je.office_id=?";
-            try {
-                LocalDate entityDate = this.jdbcTemplate.queryForObject(dateFinder, LocalDate.class, officeId);
-                updateRunningBalance(officeId, entityDate);
-            } catch (EmptyResultDataAccessException e) {
-                log.debug("No results found for updation of office running balance with office id: {}", officeId);
-            }
             commandProcessingResultBuilder.withOfficeId(officeId);
         }
+        final List<Throwable> errors = updateRunningBalances(officeId);
+        if (!errors.isEmpty()) {
+            throw new PlatformDataIntegrityException("error.msg.journalentry.running.balance.update.failed",
+                    "Running balances of " + errors.size() + " GL account(s) could not be updated", errors.size());
+        }
         return commandProcessingResultBuilder.build();
     }
 
-    private void updateOrganizationRunningBalance(LocalDate entityDate) {
-        Map<Long, BigDecimal> runningBalanceMap = new HashMap<>(5);
-        Map<Long, Map<Long, BigDecimal>> officesRunningBalance = new HashMap<>();
-
-        final String organizationRunningBalanceQuery = "select je.organization_running_balance as runningBalance,je.account_id as accountId from acc_gl_journal_entry je "
-                + "inner join (select max(id) as id from acc_gl_journal_entry where entry_date < ? group by account_id,entry_date) je2 ON je2.id = je.id "
-                + "inner join (select max(entry_date) as date from acc_gl_journal_entry where entry_date < ? group by account_id) je3 ON je.entry_date = je3.date "
-                + "group by je.id order by je.entry_date DESC " + sqlGenerator.limit(10000, 0);
-
-        List<Map<String, Object>> list = jdbcTemplate.queryForList(organizationRunningBalanceQuery, // NOSONAR
-                entityDate, entityDate);
+    /**
+     * Updates every GL account having entries not calculated yet, restricted to the accounts with such entries in the
+     * given office when one is passed. Balances are always recalculated for the whole account, as the organization
+     * balance of an entry depends on the entries of all offices.
+     */
+    private List<Throwable> updateRunningBalances(final Long officeId) {
+        final FineractProperties.FineractRunningBalanceProperties properties = this.fineractProperties.getRunningBalance();
+        final int pageSize = Math.max(1, properties.getPageSize());
+        final String accountPageSql = "select id from acc_gl_account where id > ? order by id " + this.sqlGenerator.limit(pageSize);
+        return this.jobWorkerPoolService.processPages(JobName.ACCOUNTING_RUNNING_BALANCE_UPDATE, properties.getWorkerThreads(),
+                lastAccountId -> this.jdbcTemplate.queryForList(accountPageSql, Long.class, lastAccountId),
+                accountId -> updateAccountRunningBalance(accountId, officeId, pageSize));
+    }
 
-        for (Map<String, Object> entries : list) {
-            Long accountId = Long.parseLong(entries.get("accountId").toString()); // Drizzle
-                                                                                  // is
-                                                                                  // returning
-                                                                                  // Big
-                                                                                  // Integer
-                                                                                  // where
-                                                                                  // as
-                                                                                  // MySQL
-                                                                                  // returns
-                                                                                  // Long.
-            if (!runningBalanceMap.containsKey(accountId)) {
-                runningBalanceMap.put(accountId, (BigDecimal) entries.get("runningBalance"));
-            }
+    private void updateAccountRunningBalance(final Long accountId, final Long officeId, final int pageSize) {
+        final LocalDate firstDate = this.jdbcTemplate.queryForObject("select min(entry_date) from acc_gl_journal_entry "
+                + "where account_id = ? and is_running_balance_calculated = false", LocalDate.class, accountId);
+        if (firstDate == null) {
+            return;
         }
+        if (officeId != null && this.jdbcTemplate.queryForObject("select count(*) from acc_gl_journal_entry where account_id = ? "
+                + "and is_running_balance_calculated = false and office_id = ?", Long.class, accountId, officeId) == 0) {
+            return;
+        }
+        final Long firstId = this.jdbcTemplate.queryForObject("select min(id) from acc_gl_journal_entry where account_id = ? "
+                + "and is_running_balance_calculated = false and entry_date = ?", Long.class, accountId, firstDate);
+        final GLAccountType accountType = GLAccountType
+                .fromInt(this.jdbcTemplate.queryForObject("select classification_enum from acc_gl_account where id = ?", Integer.class,
+                        accountId));
 
-        final String offlineRunningBalanceQuery = "select je.office_running_balance as runningBalance,je.account_id as accountId,je.office_id as officeId "
-                + "from acc_gl_journal_entry je "
-                + "inner join (select max(id) as id from acc_gl_journal_entry where entry_date < ? group by office_id,account_id,entry_date) je2 ON je2.id = je.id "
-                + "inner join (select max(entry_date) as date from acc_gl_journal_entry where entry_date < ? group by office_id,account_id) je3 ON je.entry_date = je3.date "
-                + "group by je.id order by je.entry_date DESC " + sqlGenerator.limit(10000, 0);
-
-        List<Map<String, Object>> officesRunningBalanceList = jdbcTemplate.queryForList(offlineRunningBalanceQuery, // NOSONAR
-                entityDate, entityDate);
-        for (Map<String, Object> entries : officesRunningBalanceList) {
-            Long accountId = Long.parseLong(entries.get("accountId").toString());
-            Long officeId = Long.parseLong(entries.get("officeId").toString());
-            Map<Long, BigDecimal> runningBalance = null;
-            if (officesRunningBalance.containsKey(officeId)) {
-                runningBalance = officesRunningBalance.get(officeId);
-            } else {
-                runningBalance = new HashMap<>();
-                officesRunningBalance.put(officeId, runningBalance);
-            }
-            if (!runningBalance.containsKey(accountId)) {
-                runningBalance.put(accountId, (BigDecimal) entries.get("runningBalance"));
-            }
+        final RunningBalances balances = seedRunningBalances(accountId, firstDate, firstId);
+        final String pageSql = "select je.id as id, je.office_id as officeId, je.entry_date as entryDate, je.type_enum as entryType, "
+                + "je.amount as amount from acc_gl_journal_entry je where je.account_id = ? "
+                + "and (je.entry_date > ? or (je.entry_date = ? and je.id > ?)) order by je.entry_date, je.id "
+                + this.sqlGenerator.limit(pageSize);
+        int entries = 0;
+        List<JournalEntryRow> page = this.jdbcTemplate.query(pageSql, ENTRY_MAPPER, accountId, balances.entryDate, balances.entryDate,
+                balances.entryId);
+        while (!page.isEmpty()) {
+            final List<JournalEntryRow> rows = page;
+            this.txTemplate.executeWithoutResult(status -> writePage(accountId, accountType, balances, rows));
+            entries += rows.size();
+            page = this.jdbcTemplate.query(pageSql, ENTRY_MAPPER, accountId, balances.entryDate, balances.entryDate, balances.entryId);
         }
+        log.debug("Running balances of {} journal entries of GL account {} updated from {}", entries, accountId, firstDate);
+    }
 
-        List<JournalEntryData> entryDatas = jdbcTemplate.query(entryMapper.organizationRunningBalanceSchema(), entryMapper, entityDate);
-        if (entryDatas.size() > 0) {
-            // run a batch update of 1000 SQL statements at a time
-            final Integer batchUpdateSize = 1000;
-            ArrayList<String> updateSql = new ArrayList<>();
-            int batchIndex = 0;
-            for (int index = 0; index < entryDatas.size(); index++) {
-                JournalEntryData entryData = entryDatas.get(index);
-                Map<Long, BigDecimal> officeRunningBalanceMap = null;
-                if (officesRunningBalance.containsKey(entryData.getOfficeId())) {
-                    officeRunningBalanceMap = officesRunningBalance.get(entryData.getOfficeId());
-                } else {
-                    officeRunningBalanceMap = new HashMap<>();
-                    officesRunningBalance.put(entryData.getOfficeId(), officeRunningBalanceMap);
-                }
-                BigDecimal officeRunningBalance = calculateRunningBalance(entryData, officeRunningBalanceMap);
-                BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
-                String sql = "UPDATE acc_gl_journal_entry SET is_running_balance_calculated=true, organization_running_balance="
-                        + runningBalance + ",office_running_balance=" + officeRunningBalance + " WHERE  id=" + entryData.getId();
-                updateSql.add(sql);
-                batchIndex++;
-                if (batchIndex == batchUpdateSize || index == entryDatas.size() - 1) {
-                    // run a batch update of the 1000 update SQL statements
-                    String[] batch = new String[updateSql.size()];
-                    updateSql.toArray(batch);
-                    this.jdbcTemplate.batchUpdate(batch);
-                    // reset counter and string array
-                    batchIndex = 0;
-                    updateSql.clear();
-                }
-            }
+    private RunningBalances seedRunningBalances(final Long accountId, final LocalDate firstDate, final Long firstId) {
+        final RunningBalances balances = new RunningBalances();
+        final Map<Long, BigDecimal> storedOfficeBalances = new HashMap<>();
+        this.jdbcTemplate.query("select office_id, running_balance from acc_gl_office_running_balance_checkpoint where account_id = ?",
+                (RowCallbackHandler) rs -> storedOfficeBalances.put(rs.getLong("office_id"), rs.getBigDecimal("running_balance")),
+                accountId);
+        balances.storedOffices.addAll(storedOfficeBalances.keySet());
+
+        this.jdbcTemplate.query("select entry_date, entry_id, running_balance from acc_gl_running_balance_checkpoint where account_id = ?",
+                (RowCallbackHandler) rs -> {
+                    balances.checkpoint = CHECKPOINT_MAPPER.mapRow(rs, 0);
+                    balances.entryDate = balances.checkpoint.entryDate();
+                    balances.entryId = balances.checkpoint.entryId();
+                    balances.organizationBalance = rs.getBigDecimal("running_balance");
+                }, accountId);
+        if (balances.checkpoint != null && (balances.entryDate.isBefore(firstDate)
+                || (balances.entryDate.isEqual(firstDate) && balances.entryId < firstId))) {
+            balances.officeBalances.putAll(storedOfficeBalances);
+            return balances;
         }
 
+        // a back dated entry was posted before the checkpoint: start again from the day of the first entry to calculate
+        balances.entryDate = firstDate;
+        balances.entryId = 0L;
+        final List<BigDecimal> organizationBalance = this.jdbcTemplate.queryForList(
+                "select organization_running_balance from acc_gl_journal_entry where account_id = ? and entry_date < ? "
+                        + "order by entry_date desc, id desc " + this.sqlGenerator.limit(1),
+                BigDecimal.class, accountId, firstDate);
+        balances.organizationBalance = organizationBalance.isEmpty() ? BigDecimal.ZERO : organizationBalance.get(0);
+        this.jdbcTemplate.query("select last_entry.office_id, last_entry.office_running_balance from (select je.office_id, "
+                + "je.office_running_balance, row_number() over (partition by je.office_id order by je.entry_date desc, je.id desc) as rn "
+                + "from acc_gl_journal_entry je where je.account_id = ? and je.entry_date < ?) last_entry where last_entry.rn = 1",
+                (RowCallbackHandler) rs -> balances.officeBalances.put(rs.getLong("office_id"), rs.getBigDecimal("office_running_balance")),
+                accountId, firstDate);
+        // stored office balances are stale from here on, rewrite them with the first page
+        balances.changedOffices.addAll(balances.storedOffices);
+        balances.changedOffices.addAll(balances.officeBalances.keySet());
+        return balances;
     }
 
-    private void updateRunningBalance(Long officeId, LocalDate entityDate) {
-        Map<Long, BigDecimal> runningBalanceMap = new HashMap<>(5);
+    private void writePage(final Long accountId, final GLAccountType accountType, final RunningBalances balances,
+            final List<JournalEntryRow> rows) {
+        lockCheckpoint(accountId, balances);
+        final List<Object[]> updates = new ArrayList<>(rows.size());
+        for (final JournalEntryRow row : rows) {
+            final BigDecimal amount = isIncrease(accountType, row.entryType()) ? row.amount() : row.amount().negate();
+            balances.organizationBalance = balances.organizationBalance.add(amount);
+            final BigDecimal officeBalance = balances.officeBalances.getOrDefault(row.officeId(), BigDecimal.ZERO).add(amount);
+            balances.officeBalances.put(row.officeId(), officeBalance);
+            balances.changedOffices.add(row.officeId());
+            updates.add(new Object[] { balances.organizationBalance, officeBalance, row.id() });
+        }
+        this.jdbcTemplate.batchUpdate(UPDATE_ENTRY_SQL, updates);
 
-        final String offlineRunningBalanceQuery = "select je.office_running_balance as runningBalance,je.account_id as accountId from acc_gl_journal_entry je "
-                + "inner join (select max(id) as id from acc_gl_journal_entry where office_id=?  and entry_date < ? group by account_id,entry_date) je2 ON je2.id = je.id "
-                + "inner join (select max(entry_date) as date from acc_gl_journal_entry where office_id=? and entry_date < ? group by account_id) je3 ON je.entry_date = je3.date "
-                + "group by je.id order by je.entry_date DESC " + sqlGenerator.limit(10000, 0);
+        final JournalEntryRow last = rows.get(rows.size() - 1);
+        balances.entryDate = last.entryDate();
+        balances.entryId = last.id();
+        if (balances.checkpoint != null) {
+            this.jdbcTemplate.update("update acc_gl_running_balance_checkpoint set entry_date = ?, entry_id = ?, running_balance = ? "
+                    + "where account_id = ?", balances.entryDate, balances.entryId, balances.organizationBalance, accountId);
+        } else {
+            this.jdbcTemplate.update("insert into acc_gl_running_balance_checkpoint (account_id, entry_date, entry_id, running_balance) "
+                    + "values (?, ?, ?, ?)", accountId, balances.entryDate, balances.entryId, balances.organizationBalance);
+        }
+        balances.checkpoint = new Checkpoint(balances.entryDate, balances.entryId);
 
-        List<Map<String, Object>> list = jdbcTemplate.queryForList(offlineRunningBalanceQuery, // NOSONAR
-                officeId, entityDate, officeId, entityDate);
-        for (Map<String, Object> entries : list) {
-            Long accountId = (Long) entries.get("accountId");
-            if (!runningBalanceMap.containsKey(accountId)) {
-                runningBalanceMap.put(accountId, (BigDecimal) entries.get("runningBalance"));
+        final List<Object[]> officeUpdates = new ArrayList<>();
+        final List<Object[]> officeInserts = new ArrayList<>();
+        for (final Long officeId : balances.changedOffices) {
+            final BigDecimal officeBalance = balances.officeBalances.getOrDefault(officeId, BigDecimal.ZERO);
+            if (balances.storedOffices.add(officeId)) {
+                officeInserts.add(new Object[] { accountId, officeId, officeBalance });
+            } else {
+                officeUpdates.add(new Object[] { officeBalance, accountId, officeId });
             }
         }
-        List<JournalEntryData> entryDatas = jdbcTemplate.query(entryMapper.officeRunningBalanceSchema(), entryMapper, officeId, entityDate);
-        String[] updateSql = new String[entryDatas.size()];
-        int i = 0;
-        for (JournalEntryData entryData : entryDatas) {
-            BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
-            String sql = "UPDATE acc_gl_journal_entry SET office_running_balance=" + runningBalance + " WHERE id=" + entryData.getId();
-            updateSql[i++] = sql;
+        if (!officeUpdates.isEmpty()) {
+            this.jdbcTemplate.batchUpdate("update acc_gl_office_running_balance_checkpoint set running_balance = ? "
+                    + "where account_id = ? and office_id = ?", officeUpdates);
+        }
+        if (!officeInserts.isEmpty()) {
+            this.jdbcTemplate.batchUpdate("insert into acc_gl_office_running_balance_checkpoint (account_id, office_id, running_balance) "
+                    + "values (?, ?, ?)", officeInserts);
         }
-        this.jdbcTemplate.batchUpdate(updateSql);
+        balances.changedOffices.clear();
     }
 
-    private BigDecimal calculateRunningBalance(JournalEntryData entry, Map<Long, BigDecimal> runningBalanceMap) {
-        BigDecimal runningBalance = BigDecimal.ZERO;
-        if (runningBalanceMap.containsKey(entry.getGlAccountId())) {
-            runningBalance = runningBalanceMap.get(entry.getGlAccountId());
+    /**
+     * Locks the account against the other runs until the page is committed and fails with an optimistic locking
+     * failure, retried by the worker pool, when one of them has moved the checkpoint since the balances were read.
+     */
+    private void lockCheckpoint(final Long accountId, final RunningBalances balances) {
+        this.jdbcTemplate.queryForList("select id from acc_gl_account where id = ? for update", Long.class, accountId);
+        final List<Checkpoint> stored = this.jdbcTemplate.query(
+                "select entry_date, entry_id from acc_gl_running_balance_checkpoint where account_id = ?", CHECKPOINT_MAPPER, accountId);
+        final Checkpoint checkpoint = stored.isEmpty() ? null : stored.get(0);
+        if (!Objects.equals(checkpoint, balances.checkpoint)) {
+            log.info("Running balance checkpoint of GL account {} moved from {} to {} by another run", accountId, balances.checkpoint,
+                    checkpoint);
+            throw new ObjectOptimisticLockingFailureException("acc_gl_running_balance_checkpoint", accountId);
         }
-        GLAccountType accounttype = GLAccountType.fromInt(entry.getGlAccountType().getId().intValue());
-        JournalEntryType entryType = JournalEntryType.fromInt(entry.getEntryType().getId().intValue());
-        boolean isIncrease = false;
-        switch (accounttype) {
-            case ASSET:
-                if (entryType.isDebitType()) {
-                    isIncrease = true;
-                }
-            break;
-            case EQUITY:
-                if (entryType.isCreditType()) {
-                    isIncrease = true;
-                }
-            break;
-            case EXPENSE:
-                if (entryType.isDebitType()) {
-                    isIncrease = true;
-                }
-            break;
-            case INCOME:
-                if (entryType.isCreditType()) {
-                    isIncrease = true;
-                }
-            break;
-            case LIABILITY:
-                if (entryType.isCreditType()) {
-                    isIncrease = true;
-                }
-            break;
-        }
-        if (isIncrease) {
-            runningBalance = runningBalance.add(entry.getAmount());
-        } else {
-            runningBalance = runningBalance.subtract(entry.getAmount());
-        }
-        runningBalanceMap.put(entry.getGlAccountId(), runningBalance);
-        return runningBalance;
     }
 
-    private static final class GLJournalEntryMapper implements RowMapper<JournalEntryData> {
-
-        public String officeRunningBalanceSchema() {
-            return "select je.id as id,je.account_id as glAccountId,je.type_enum as entryType,je.amount as amount, "
-                    + "glAccount.classification_enum as classification,je.office_id as officeId "
-                    + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
-                    + "and je.office_id=? and je.entry_date >= ? order by je.entry_date,je.id";
-        }
+    private static boolean isIncrease(final GLAccountType accountType, final JournalEntryType entryType) {
+        return switch (accountType) {
+            case ASSET, EXPENSE -> entryType.isDebitType();
+            case EQUITY, INCOME, LIABILITY -> entryType.isCreditType();
+        };
+    }
 
-        public String organizationRunningBalanceSchema() {
-            return "select je.id as id,je.account_id as glAccountId," + "je.type_enum as entryType,je.amount as amount, "
-                    + "glAccount.classification_enum as classification,je.office_id as officeId  "
-                    + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
-                    + "and je.entry_date >= ? order by je.entry_date,je.id";
-        }
+    private record JournalEntryRow(Long id, Long officeId, LocalDate entryDate, JournalEntryType entryType, BigDecimal amount) {}
 
-        @Override
-        public JournalEntryData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+    private record Checkpoint(LocalDate entryDate, long entryId) {}
 
-            final Long id = rs.getLong("id");
-            final Long glAccountId = rs.getLong("glAccountId");
-            final Long officeId = rs.getLong("officeId");
-            final int accountTypeId = JdbcSupport.getInteger(rs, "classification");
-            final EnumOptionData accountType = AccountingEnumerations.gLAccountType(accountTypeId);
-            final BigDecimal amount = rs.getBigDecimal("amount");
-            final int entryTypeId = JdbcSupport.getInteger(rs, "entryType");
-            final EnumOptionData entryType = AccountingEnumerations.journalEntryType(entryTypeId);
+    /**
+     * Balances of one GL account after the entry at <code>(entryDate, entryId)</code>.
+     */
+    private static final class RunningBalances {
 
-            return new JournalEntryData(id, officeId, null, null, glAccountId, null, accountType, null, entryType, amount, null, null, null,
-                    null, null, null, null, null, null, null, null, null, null, null, null);
-        }
+        private LocalDate entryDate;
+        private long entryId;
+        /** stored checkpoint of the account, <code>null</code> until the first page is written */
+        private Checkpoint checkpoint;
+        private BigDecimal organizationBalance;
+        private final Map<Long, BigDecimal> officeBalances = new HashMap<>();
+        private final Set<Long> storedOffices = new HashSet<>();
+        private final Set<Long> changedOffices = new HashSet<>();
     }
-
 }
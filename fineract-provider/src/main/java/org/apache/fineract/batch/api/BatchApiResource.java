@@ -18,6 +18,9 @@
  */
 package org.apache.fineract.batch.api;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -27,6 +30,11 @@ import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import javax.ws.rs.Consumes;
@@ -37,12 +45,16 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import lombok.RequiredArgsConstructor;
 import org.apache.fineract.batch.domain.BatchRequest;
 import org.apache.fineract.batch.domain.BatchResponse;
+import org.apache.fineract.batch.exception.ErrorHandler;
+import org.apache.fineract.batch.exception.ErrorInfo;
 import org.apache.fineract.batch.serialization.BatchRequestJsonHelper;
 import org.apache.fineract.batch.service.BatchApiService;
+import org.apache.fineract.infrastructure.core.serialization.GoogleGsonSerializerHelper;
 import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.springframework.context.annotation.Scope;
@@ -78,12 +90,14 @@ public class BatchApiResource {
     private final ToApiJsonSerializer<BatchResponse> toApiJsonSerializer;
     private final BatchApiService service;
     private final BatchRequestJsonHelper batchRequestJsonHelper;
+    private final Gson gson = GoogleGsonSerializerHelper.createGsonBuilder().create();
 
     /**
      * Rest assured POST method to get {@link BatchRequest} and returns back the consolidated {@link BatchResponse}
      *
      * @param jsonRequestString
      * @param enclosingTransaction
+     * @param parallel
      * @param uriInfo
      * @return serialized JSON
      */
@@ -92,12 +106,15 @@ public class BatchApiResource {
     @Produces({ MediaType.APPLICATION_JSON })
     @Operation(summary = "Batch requests in a single transaction", description = "The Apache Fineract Batch API is also capable of executing all the requests in a single transaction, by setting a Query Parameter, \"enclosingTransaction=true\". So, if one or more of the requests in a batch returns an erroneous response all of the Data base transactions made by other successful requests will be rolled back.\n"
             + "\n"
-            + "If there has been a rollback in a transaction then a single response will be provided, with a '400' status code and a body consisting of the error details of the first failed request.")
+            + "If there has been a rollback in a transaction then a single response will be provided, with a '400' status code and a body consisting of the error details of the first failed request.\n"
+            + "\n"
+            + "Without an enclosing transaction, setting \"parallel=true\" runs independent requests at the same time. A request referencing another one still runs after it, and the responses are still ordered by requestId.")
     @RequestBody(required = true, content = @Content(array = @ArraySchema(schema = @Schema(implementation = BatchRequest.class, description = "request body"))))
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Success", content = @Content(array = @ArraySchema(schema = @Schema(implementation = BatchResponse.class)))) })
     public String handleBatchRequests(
             @DefaultValue("false") @QueryParam("enclosingTransaction") @Parameter(description = "enclosingTransaction", required = false) final boolean enclosingTransaction,
+            @DefaultValue("false") @QueryParam("parallel") @Parameter(description = "parallel", required = false) final boolean parallel,
             @Parameter(hidden = true) final String jsonRequestString, @Context UriInfo uriInfo) {
 
         // Handles user authentication
@@ -113,6 +130,8 @@ public class BatchApiResource {
         // be rolled back on error
         if (enclosingTransaction) {
             result = service.handleBatchRequestsWithEnclosingTransaction(requestList, uriInfo);
+        } else if (parallel) {
+            result = service.handleBatchRequestsInParallel(requestList, uriInfo);
         } else {
             result = service.handleBatchRequestsWithoutEnclosingTransaction(requestList, uriInfo);
         }
@@ -120,4 +139,60 @@ public class BatchApiResource {
         return this.toApiJsonSerializer.serialize(result);
 
     }
+
+    /**
+     * Streaming variant of {@link #handleBatchRequests(boolean, boolean, String, UriInfo)}: requests are read and run
+     * one at a time and each {@link BatchResponse} is written out as soon as it is available.
+     *
+     * @param jsonRequestStream
+     * @param uriInfo
+     * @return streamed JSON
+     */
+    @POST
+    @Path("stream")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    @Operation(summary = "Stream batch requests", description = "Reads the requests one at a time, runs them in the order they are sent and writes every response as soon as it is available, so that very large batches do not have to be held in memory. There is no enclosing transaction and the responses are in request order.\n"
+            + "\n"
+            + "A request can only reference one of the last requests sent before it (1000 by default). A reference to an earlier request gets a '409' response.\n"
+            + "\n"
+            + "When the body stops being a valid JSON array part way, the responses already written are kept and the array is closed with a response without requestId, with a '400' status code and the syntax error as body.")
+    @RequestBody(required = true, content = @Content(array = @ArraySchema(schema = @Schema(implementation = BatchRequest.class, description = "request body"))))
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Success", content = @Content(array = @ArraySchema(schema = @Schema(implementation = BatchResponse.class)))) })
+    public StreamingOutput handleBatchRequestsStreaming(@Parameter(hidden = true) final InputStream jsonRequestStream,
+            @Context UriInfo uriInfo) {
+
+        // Handles user authentication
+        this.context.authenticatedUser();
+
+        return output -> {
+            final JsonWriter writer = new JsonWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            writer.beginArray();
+            try {
+                this.service.handleBatchRequestsStreaming(this.batchRequestJsonHelper.streamRequests(jsonRequestStream), uriInfo,
+                        response -> {
+                            this.gson.toJson(response, BatchResponse.class, writer);
+                            try {
+                                writer.flush();
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+            } catch (JsonParseException e) {
+                // the status is already sent: the responses written so far stay, an error element replaces the rest
+                this.gson.toJson(unreadableRequestsResponse(e), BatchResponse.class, writer);
+            }
+            writer.endArray();
+            writer.flush();
+        };
+    }
+
+    private static BatchResponse unreadableRequestsResponse(final JsonParseException exception) {
+        final ErrorInfo error = ErrorHandler.handler(exception);
+        final BatchResponse response = new BatchResponse();
+        response.setStatusCode(error.getStatusCode());
+        response.setBody(error.getMessage());
+        return response;
+    }
 }
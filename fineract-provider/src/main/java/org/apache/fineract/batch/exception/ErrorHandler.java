@@ -19,12 +19,14 @@
 package org.apache.fineract.batch.exception;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
 import org.apache.fineract.infrastructure.core.exception.AbstractPlatformDomainRuleException;
 import org.apache.fineract.infrastructure.core.exception.AbstractPlatformResourceNotFoundException;
 import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.apache.fineract.infrastructure.core.exception.PlatformInternalServerException;
 import org.apache.fineract.infrastructure.core.exception.UnsupportedParameterException;
+import org.apache.fineract.infrastructure.core.exceptionmapper.JsonSyntaxExceptionMapper;
 import org.apache.fineract.infrastructure.core.exceptionmapper.PlatformApiDataValidationExceptionMapper;
 import org.apache.fineract.infrastructure.core.exceptionmapper.PlatformDataIntegrityExceptionMapper;
 import org.apache.fineract.infrastructure.core.exceptionmapper.PlatformDomainRuleExceptionMapper;
@@ -92,6 +94,13 @@ public class ErrorHandler extends RuntimeException {
 
             return new ErrorInfo(400, 2002, errorBody);
 
+        } else if (exception instanceof JsonSyntaxException) {
+
+            final JsonSyntaxExceptionMapper mapper = new JsonSyntaxExceptionMapper();
+            final String errorBody = jsonHelper.toJson(mapper.toResponse((JsonSyntaxException) exception).getEntity());
+
+            return new ErrorInfo(400, 2003, errorBody);
+
         } else if (exception instanceof PlatformDataIntegrityException) {
 
             final PlatformDataIntegrityExceptionMapper mapper = new PlatformDataIntegrityExceptionMapper();
@@ -18,9 +18,21 @@
  */
 package org.apache.fineract.batch.serialization;
 
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.MalformedJsonException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import org.apache.fineract.batch.domain.BatchRequest;
 import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
 import org.springframework.stereotype.Component;
@@ -48,4 +60,51 @@ public class BatchRequestJsonHelper extends FromJsonHelper {
         final List<BatchRequest> requests = super.getGsonConverter().fromJson(json, listType);
         return requests;
     }
+
+    /**
+     * Returns the batchRequests of the input JSON array one at a time, reading the stream only as far as needed for the
+     * next request.
+     *
+     * @param json
+     * @return Iterator&lt;BatchRequest&gt;
+     */
+    public Iterator<BatchRequest> streamRequests(final InputStream json) {
+        final JsonReader reader = new JsonReader(new InputStreamReader(json, StandardCharsets.UTF_8));
+        try {
+            reader.beginArray();
+        } catch (IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw readFailure(e);
+        }
+        return new Iterator<>() {
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    return reader.hasNext();
+                } catch (IOException e) {
+                    throw readFailure(e);
+                }
+            }
+
+            @Override
+            public BatchRequest next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return getGsonConverter().fromJson(reader, BatchRequest.class);
+            }
+        };
+    }
+
+    /**
+     * Malformed or truncated JSON is a syntax error of the request, any other failure to read it an I/O error.
+     */
+    private static JsonParseException readFailure(final IOException e) {
+        if (e instanceof MalformedJsonException || e instanceof EOFException) {
+            return new JsonSyntaxException(e);
+        }
+        return new JsonIOException(e);
+    }
 }
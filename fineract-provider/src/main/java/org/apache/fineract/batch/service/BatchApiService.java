@@ -18,7 +18,9 @@
  */
 package org.apache.fineract.batch.service;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 import javax.ws.rs.core.UriInfo;
 import org.apache.fineract.batch.domain.BatchRequest;
 import org.apache.fineract.batch.domain.BatchResponse;
@@ -45,6 +47,32 @@ public interface BatchApiService {
      */
     List<BatchResponse> handleBatchRequestsWithoutEnclosingTransaction(List<BatchRequest> requestList, UriInfo uriInfo);
 
+    /**
+     * Same as {@link #handleBatchRequestsWithoutEnclosingTransaction(List, UriInfo)}, except that independent requests,
+     * each together with the requests depending on it, are run at the same time. Dependent requests still run after
+     * the request they depend on, and the responses are returned in <code>requestId</code> order. It will be used when
+     * the Query Parameter "parallel" is set to 'true'.
+     *
+     * @param requestList
+     * @param uriInfo
+     * @return List&lt;BatchResponse&gt;
+     */
+    List<BatchResponse> handleBatchRequestsInParallel(List<BatchRequest> requestList, UriInfo uriInfo);
+
+    /**
+     * Runs the requests one after another, as they are read, and hands every
+     * {@link org.apache.fineract.batch.domain.BatchResponse} to the consumer as soon as it is available, so that
+     * neither the requests nor the responses of the batch have to be held in memory. There is no enclosing
+     * transaction, and a request can only reference one of the last "fineract.batch.streaming-reference-window"
+     * requests handled or referenced before it.
+     *
+     * @param requests
+     * @param uriInfo
+     * @param responseConsumer
+     * @return the number of requests handled
+     */
+    int handleBatchRequestsStreaming(Iterator<BatchRequest> requests, UriInfo uriInfo, Consumer<BatchResponse> responseConsumer);
+
     /**
      * returns a list of {@link org.apache.fineract.batch.domain.BatchResponse}s by getting the appropriate
      * CommandStrategy for every {@link org.apache.fineract.batch.domain.BatchRequest}. It will be used when the Query
@@ -19,10 +19,20 @@
 package org.apache.fineract.batch.service;
 
 import com.google.gson.Gson;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.UriInfo;
@@ -37,6 +47,7 @@ import org.apache.fineract.batch.exception.ClientDetailsNotFoundException;
 import org.apache.fineract.batch.exception.ErrorHandler;
 import org.apache.fineract.batch.exception.ErrorInfo;
 import org.apache.fineract.batch.service.ResolutionHelper.BatchRequestNode;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
 import org.springframework.dao.NonTransientDataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.TransactionException;
@@ -62,6 +73,9 @@ public class BatchApiServiceImpl implements BatchApiService {
     private final CommandStrategyProvider strategyProvider;
     private final ResolutionHelper resolutionHelper;
     private final TransactionTemplate transactionTemplate;
+    private final BatchRequestExecutor batchRequestExecutor;
+    private final MeterRegistry meterRegistry;
+    private final FineractProperties fineractProperties;
 
     /**
      * Returns the response list by getting a proper {@link org.apache.fineract.batch.command.CommandStrategy}.
@@ -69,9 +83,11 @@ public class BatchApiServiceImpl implements BatchApiService {
      *
      * @param requestList
      * @param uriInfo
+     * @param parallel
+     *            run the independent root requests, each with its dependent requests, at the same time
      * @return {@code List<BatchResponse>}
      */
-    private List<BatchResponse> handleBatchRequests(final List<BatchRequest> requestList, final UriInfo uriInfo) {
+    private List<BatchResponse> handleBatchRequests(final List<BatchRequest> requestList, final UriInfo uriInfo, final boolean parallel) {
 
         final List<BatchResponse> responseList = new ArrayList<>(requestList.size());
 
@@ -84,14 +100,16 @@ public class BatchApiServiceImpl implements BatchApiService {
             responseList.add(response);
             return responseList;
         }
-        for (BatchRequestNode rootNode : batchRequestNodes) {
-            final BatchRequest rootRequest = rootNode.getRequest();
-            final CommandStrategy commandStrategy = this.strategyProvider
-                    .getCommandStrategy(CommandContext.resource(rootRequest.getRelativeUrl()).method(rootRequest.getMethod()).build());
-            final BatchResponse rootResponse = safelyExecuteStrategy(commandStrategy, rootRequest, uriInfo);
-
-            responseList.add(rootResponse);
-            responseList.addAll(this.processChildRequests(rootNode, rootResponse, uriInfo));
+        if (parallel && batchRequestNodes.size() > 1) {
+            final List<Callable<List<BatchResponse>>> subtrees = new ArrayList<>(batchRequestNodes.size());
+            for (BatchRequestNode rootNode : batchRequestNodes) {
+                subtrees.add(() -> processRootRequest(rootNode, uriInfo));
+            }
+            this.batchRequestExecutor.invokeAll(subtrees).forEach(responseList::addAll);
+        } else {
+            for (BatchRequestNode rootNode : batchRequestNodes) {
+                responseList.addAll(processRootRequest(rootNode, uriInfo));
+            }
         }
 
         Collections.sort(responseList, Comparator.comparing(BatchResponse::getRequestId));
@@ -100,6 +118,35 @@ public class BatchApiServiceImpl implements BatchApiService {
 
     }
 
+    private List<BatchResponse> processRootRequest(final BatchRequestNode rootNode, final UriInfo uriInfo) {
+        final BatchRequest rootRequest = rootNode.getRequest();
+        final CommandStrategy commandStrategy = this.strategyProvider
+                .getCommandStrategy(CommandContext.resource(rootRequest.getRelativeUrl()).method(rootRequest.getMethod()).build());
+        final BatchResponse rootResponse = safelyExecuteStrategy(commandStrategy, rootRequest, uriInfo);
+
+        final List<BatchResponse> responses = new ArrayList<>();
+        responses.add(rootResponse);
+        responses.addAll(this.processChildRequests(rootNode, rootResponse, uriInfo));
+        return responses;
+    }
+
+    private List<BatchResponse> timed(final String mode, final List<BatchRequest> requestList,
+            final Supplier<List<BatchResponse>> batch) {
+        final long start = System.nanoTime();
+        try {
+            return batch.get();
+        } finally {
+            recordBatch(mode, requestList.size(), start);
+        }
+    }
+
+    private void recordBatch(final String mode, final int size, final long startNanos) {
+        DistributionSummary.builder("fineract.batch.size").description("Number of requests in a batch").tag("mode", mode)
+                .register(this.meterRegistry).record(size);
+        Timer.builder("fineract.batch.duration").description("Time taken to handle a whole batch").tag("mode", mode)
+                .register(this.meterRegistry).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
     private BatchResponse safelyExecuteStrategy(CommandStrategy commandStrategy, BatchRequest request, UriInfo uriInfo) {
         try {
             return commandStrategy.execute(request, uriInfo);
@@ -139,14 +186,8 @@ public class BatchApiServiceImpl implements BatchApiService {
                     } else {
                         // Something went wrong with the parent request, create
                         // a response with status code 409
-                        childResponse = new BatchResponse();
-                        childResponse.setRequestId(childRequest.getRequestId());
-                        childResponse.setStatusCode(Status.CONFLICT.getStatusCode());
-
-                        // Some detail information about the error
-                        final ErrorInfo conflictError = new ErrorInfo(Status.CONFLICT.getStatusCode(), 8001,
+                        childResponse = conflictResponse(childRequest,
                                 "Parent request with id " + rootResponse.getRequestId() + " was erroneous!");
-                        childResponse.setBody(conflictError.getMessage());
                     }
                     childResponses.addAll(this.processChildRequests(childNode, childResponse, uriInfo));
 
@@ -165,14 +206,82 @@ public class BatchApiServiceImpl implements BatchApiService {
         return childResponses;
     }
 
+    private BatchResponse conflictResponse(final BatchRequest request, final String message) {
+        final BatchResponse response = new BatchResponse();
+        response.setRequestId(request.getRequestId());
+        response.setStatusCode(Status.CONFLICT.getStatusCode());
+
+        // Some detail information about the error
+        final ErrorInfo conflictError = new ErrorInfo(Status.CONFLICT.getStatusCode(), 8001, message);
+        response.setBody(conflictError.getMessage());
+        return response;
+    }
+
     @Override
     public List<BatchResponse> handleBatchRequestsWithoutEnclosingTransaction(final List<BatchRequest> requestList, UriInfo uriInfo) {
 
-        return handleBatchRequests(requestList, uriInfo);
+        return timed("sequential", requestList, () -> handleBatchRequests(requestList, uriInfo, false));
+    }
+
+    @Override
+    public List<BatchResponse> handleBatchRequestsInParallel(final List<BatchRequest> requestList, final UriInfo uriInfo) {
+
+        return timed("parallel", requestList, () -> handleBatchRequests(requestList, uriInfo, true));
+    }
+
+    @Override
+    public int handleBatchRequestsStreaming(final Iterator<BatchRequest> requests, final UriInfo uriInfo,
+            final Consumer<BatchResponse> responseConsumer) {
+        final long start = System.nanoTime();
+        final RecentResponses recentResponses = new RecentResponses(this.fineractProperties.getBatch().getStreamingReferenceWindow());
+        int count = 0;
+        try {
+            while (requests.hasNext()) {
+                final BatchRequest request = requests.next();
+                final BatchResponse response = processStreamedRequest(request, recentResponses, uriInfo);
+                recentResponses.put(request.getRequestId(), response);
+                responseConsumer.accept(response);
+                count++;
+            }
+            return count;
+        } finally {
+            recordBatch("streaming", count, start);
+        }
+    }
+
+    private BatchResponse processStreamedRequest(final BatchRequest request, final RecentResponses recentResponses,
+            final UriInfo uriInfo) {
+        BatchRequest resolvedRequest = request;
+        if (request.getReference() != null) {
+            final BatchResponse parentResponse = recentResponses.get(request.getReference());
+            if (parentResponse == null) {
+                return conflictResponse(request, "Parent request with id " + request.getReference() + " is not among the last "
+                        + recentResponses.getCapacity() + " handled or referenced requests of the batch!");
+            }
+            if (!parentResponse.getStatusCode().equals(200)) {
+                return conflictResponse(request, "Parent request with id " + request.getReference() + " was erroneous!");
+            }
+            try {
+                resolvedRequest = this.resolutionHelper.resoluteRequest(request, parentResponse);
+            } catch (RuntimeException ex) {
+                final BatchResponse response = new BatchResponse();
+                response.setRequestId(request.getRequestId());
+                response.setStatusCode(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode());
+                response.setBody(ex.getMessage());
+                return response;
+            }
+        }
+        final CommandStrategy commandStrategy = this.strategyProvider.getCommandStrategy(
+                CommandContext.resource(resolvedRequest.getRelativeUrl()).method(resolvedRequest.getMethod()).build());
+        return safelyExecuteStrategy(commandStrategy, resolvedRequest, uriInfo);
     }
 
     @Override
     public List<BatchResponse> handleBatchRequestsWithEnclosingTransaction(final List<BatchRequest> requestList, final UriInfo uriInfo) {
+        return timed("transaction", requestList, () -> handleBatchRequestsInTransaction(requestList, uriInfo));
+    }
+
+    private List<BatchResponse> handleBatchRequestsInTransaction(final List<BatchRequest> requestList, final UriInfo uriInfo) {
         List<BatchResponse> responseList = new ArrayList<>();
         try {
             return this.transactionTemplate.execute(new TransactionCallback<List<BatchResponse>>() {
@@ -180,7 +289,7 @@ public class BatchApiServiceImpl implements BatchApiService {
                 @Override
                 public List<BatchResponse> doInTransaction(TransactionStatus status) {
                     try {
-                        responseList.addAll(handleBatchRequests(requestList, uriInfo));
+                        responseList.addAll(handleBatchRequests(requestList, uriInfo, false));
                         return responseList;
                     } catch (RuntimeException ex) {
 
@@ -231,4 +340,28 @@ public class BatchApiServiceImpl implements BatchApiService {
             return errResponseList;
         }
     }
+
+    /**
+     * Responses of the most recently handled or referenced requests of a streamed batch, kept for the requests
+     * referencing them. The map is in access order, so a parent which is still being referenced is not evicted by the
+     * requests following it.
+     */
+    private static final class RecentResponses extends LinkedHashMap<Long, BatchResponse> {
+
+        private final int capacity;
+
+        RecentResponses(final int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = Math.max(1, capacity);
+        }
+
+        int getCapacity() {
+            return this.capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Long, BatchResponse> eldest) {
+            return size() > this.capacity;
+        }
+    }
 }
@@ -0,0 +1,195 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.batch.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded pool running the independent parts of a batch at the same time.
+ *
+ * Each task runs with the tenant, business dates and user of the request that submitted it. A single batch never has
+ * more than <code>maxParallelism</code> tasks in flight, and the batches of one tenant never hold more than
+ * <code>maxTenantThreads</code> of the pool's threads, so a busy tenant cannot crowd out the others. A task that
+ * finds its tenant's share in use, or the shared queue full, is run by the request thread itself, so large batches
+ * slow down instead of waiting for or taking over the pool.
+ */
+@Component
+public class BatchRequestExecutor implements MeterBinder, DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+    private final int maxParallelism;
+    private final int maxTenantThreads;
+    private final Map<String, Semaphore> tenantThreads = new ConcurrentHashMap<>();
+
+    public BatchRequestExecutor(final FineractProperties fineractProperties) {
+        final FineractProperties.FineractBatchProperties properties = fineractProperties.getBatch();
+        final int threads = Math.max(1, properties.getThreads());
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())), new CustomizableThreadFactory("batch-request-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.maxParallelism = Math.max(1, properties.getMaxParallelism());
+        this.maxTenantThreads = Math.max(1, properties.getMaxTenantThreads());
+    }
+
+    /**
+     * Runs the tasks and returns their results in the order of the tasks.
+     *
+     * When a task fails, the tasks which have not started yet are skipped and the running ones are waited for before
+     * the failure is thrown, so nothing of the batch is still running once this method returns.
+     */
+    public <T> List<T> invokeAll(final List<Callable<T>> tasks) {
+        final Thread owner = Thread.currentThread();
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        final Semaphore permits = new Semaphore(this.maxParallelism);
+        final Semaphore tenantPermits = this.tenantThreads.computeIfAbsent(tenantIdentifier(context),
+                tenant -> new Semaphore(this.maxTenantThreads));
+        final AtomicBoolean cancelled = new AtomicBoolean();
+
+        final List<Future<T>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (final Callable<T> task : tasks) {
+                permits.acquire();
+                if (cancelled.get()) {
+                    permits.release();
+                    break;
+                }
+                final Callable<T> batchTask = () -> {
+                    try {
+                        // skipped once another task of the batch has failed
+                        return cancelled.get() ? null : callInContext(owner, context, authentication, task);
+                    } catch (Exception e) {
+                        cancelled.set(true);
+                        throw e;
+                    } finally {
+                        permits.release();
+                    }
+                };
+                if (tenantPermits.tryAcquire()) {
+                    futures.add(this.executor.submit(() -> {
+                        try {
+                            return batchTask.call();
+                        } finally {
+                            tenantPermits.release();
+                        }
+                    }));
+                } else {
+                    // the tenant's share of the pool is in use
+                    final FutureTask<T> future = new FutureTask<>(batchTask);
+                    future.run();
+                    futures.add(future);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelled.set(true);
+            throw new IllegalStateException("Interrupted while running batch requests", e);
+        }
+        return awaitAll(futures, cancelled);
+    }
+
+    private static <T> List<T> awaitAll(final List<Future<T>> futures, final AtomicBoolean cancelled) {
+        final List<T> results = new ArrayList<>(futures.size());
+        ExecutionException failure = null;
+        try {
+            for (final Future<T> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    cancelled.set(true);
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelled.set(true);
+            throw new IllegalStateException("Interrupted while running batch requests", e);
+        }
+        if (failure == null) {
+            return results;
+        }
+        if (failure.getCause() instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        throw new IllegalStateException(failure.getCause());
+    }
+
+    private static String tenantIdentifier(final FineractContext context) {
+        return context.getTenantContext() == null ? "" : context.getTenantContext().getTenantIdentifier();
+    }
+
+    private static <T> T callInContext(final Thread owner, final FineractContext context, final Authentication authentication,
+            final Callable<T> task) throws Exception {
+        // the task runs on the request thread itself when the pool queue is full or the tenant's share is in use
+        if (Thread.currentThread() == owner) {
+            return task.call();
+        }
+        try {
+            ThreadLocalContextUtil.init(context);
+            final SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+            securityContext.setAuthentication(authentication);
+            SecurityContextHolder.setContext(securityContext);
+            return task.call();
+        } finally {
+            SecurityContextHolder.clearContext();
+            ThreadLocalContextUtil.clearTenant();
+            ThreadLocalContextUtil.clearDataSourceContext();
+        }
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        Gauge.builder("fineract.batch.executor.active", this.executor, ThreadPoolExecutor::getActiveCount)
+                .description("Batch requests being run in parallel").register(registry);
+        Gauge.builder("fineract.batch.executor.queued", this.executor, executor -> executor.getQueue().size())
+                .description("Batch requests waiting for a thread").register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        this.executor.shutdownNow();
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.cob.domain.BatchBusinessStep;
+import org.apache.fineract.cob.domain.BatchBusinessStepRepository;
+import org.apache.fineract.cob.exception.BusinessStepNotFoundException;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Service;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class COBBusinessStepServiceImpl implements COBBusinessStepService {
+
+    private final BatchBusinessStepRepository batchBusinessStepRepository;
+    private final ApplicationContext applicationContext;
+
+    @Override
+    public <T extends AbstractPersistableCustom, S extends COBBusinessStep<T>> List<S> getBusinessSteps(final String jobName,
+            final Class<S> stepType) {
+        final Map<String, S> registeredSteps = new HashMap<>();
+        for (final S step : this.applicationContext.getBeansOfType(stepType).values()) {
+            registeredSteps.put(step.getEnumStyledName(), step);
+        }
+
+        final List<BatchBusinessStep> configuredSteps = this.batchBusinessStepRepository.findAllByJobNameOrderByStepOrderAsc(jobName);
+        final List<S> businessSteps = new ArrayList<>(configuredSteps.size());
+        for (final BatchBusinessStep configuredStep : configuredSteps) {
+            final S step = registeredSteps.get(configuredStep.getStepName());
+            if (step == null) {
+                throw new BusinessStepNotFoundException(jobName, configuredStep.getStepName());
+            }
+            businessSteps.add(step);
+        }
+        log.debug("Business steps for job {}: {}", jobName, configuredSteps.stream().map(BatchBusinessStep::getStepName).toList());
+        return businessSteps;
+    }
+}
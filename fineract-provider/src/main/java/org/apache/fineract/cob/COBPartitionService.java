@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.apache.fineract.cob.data.COBPartition;
+import org.apache.fineract.cob.exception.COBPartitionLeaseLostException;
+
+public interface COBPartitionService {
+
+    /**
+     * Splits the ids returned by the <code>idRangeReader</code> into contiguous ranges of at most
+     * <code>partitionSize</code> ids and records them as pending partitions of the given job run. Does nothing if the
+     * run has already been partitioned, also by another node at the same time, so a restarted job resumes the existing
+     * partitions.
+     *
+     * @return the number of partitions of the run
+     */
+    int createPartitionsIfAbsent(String jobName, LocalDate cobDate, int partitionSize, COBIdRangeReader idRangeReader);
+
+    /**
+     * Atomically claims a pending partition, or one whose owner stopped sending heartbeats for longer than the lease
+     * timeout, for the calling worker. The returned partition carries the id of the new lease.
+     */
+    Optional<COBPartition> claimPartition(String jobName, LocalDate cobDate, int leaseTimeoutMinutes);
+
+    /**
+     * Moves the checkpoint of a partition. Meant to run in the unit of work of the entity, so
+     * that it is rolled back when the lease has been taken over in the meantime.
+     *
+     * @throws COBPartitionLeaseLostException
+     *             if the lease of the partition has been taken over
+     */
+    void checkpoint(COBPartition partition, Long lastProcessedId);
+
+    /**
+     * Records that the entity with the given id failed, so that it is retried even though the checkpoint has moved past
+     * it.
+     *
+     * @throws COBPartitionLeaseLostException
+     *             if the lease of the partition has been taken over
+     */
+    void failed(COBPartition partition, Long entityId);
+
+    /**
+     * Removes the failure record of an entity whose retry succeeded.
+     *
+     * @throws COBPartitionLeaseLostException
+     *             if the lease of the partition has been taken over
+     */
+    void resolved(COBPartition partition, Long entityId);
+
+    List<Long> retrieveFailedIds(COBPartition partition);
+
+    /**
+     * Finishes a partition: it is completed if none of its entities are still recorded as failed, otherwise it is
+     * marked failed until it is reopened by {@link #reopenFailedPartitions(String, LocalDate)}.
+     *
+     * @throws COBPartitionLeaseLostException
+     *             if the lease of the partition has been taken over
+     */
+    void complete(COBPartition partition);
+
+    /**
+     * Makes the failed partitions of a job run claimable again, so a restarted run retries their failed entities.
+     */
+    int reopenFailedPartitions(String jobName, LocalDate cobDate);
+
+    /**
+     * @return the number of partitions which are either pending or being processed
+     */
+    int countUnfinishedPartitions(String jobName, LocalDate cobDate);
+}
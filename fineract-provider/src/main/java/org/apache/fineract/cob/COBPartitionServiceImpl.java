@@ -0,0 +1,224 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.cob.data.COBPartition;
+import org.apache.fineract.cob.exception.COBPartitionLeaseLostException;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the partitions of a Close of Business run in <code>m_cob_partition</code>. Every state change is a single
+ * statement so that several nodes can share the work of a run without any further coordination. The partitions of a run
+ * are created in one transaction, so a node starting the run concurrently either sees all of them or fails on the unique
+ * key of the partition number once they have been committed, and then resumes them.
+ *
+ * Each claim stores a new lease id as the owner of the partition. Updates on behalf of the owner only match while that
+ * lease is still held and throw {@link COBPartitionLeaseLostException} otherwise, so a worker whose partition has been
+ * taken over rolls back instead of committing work on the same entities as the new owner.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class COBPartitionServiceImpl implements COBPartitionService {
+
+    private static final String PENDING = "PENDING";
+    private static final String PROCESSING = "PROCESSING";
+    private static final String COMPLETED = "COMPLETED";
+    private static final String FAILED = "FAILED";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public int createPartitionsIfAbsent(final String jobName, final LocalDate cobDate, final int partitionSize,
+            final COBIdRangeReader idRangeReader) {
+        final int existing = countPartitions(jobName, cobDate);
+        if (existing > 0) {
+            log.info("Resuming {} existing partitions of {} for {}", existing, jobName, cobDate);
+            return existing;
+        }
+
+        final int created;
+        try {
+            created = this.transactionTemplate.execute(status -> insertPartitions(jobName, cobDate, partitionSize, idRangeReader));
+        } catch (DuplicateKeyException e) {
+            final int concurrentlyCreated = countPartitions(jobName, cobDate);
+            log.info("Resuming {} partitions of {} for {} created concurrently by another node", concurrentlyCreated, jobName, cobDate);
+            return concurrentlyCreated;
+        }
+        log.info("Created {} partitions of {} for {}", created, jobName, cobDate);
+        return created;
+    }
+
+    private int countPartitions(final String jobName, final LocalDate cobDate) {
+        final Integer count = this.jdbcTemplate.queryForObject(
+                "select count(*) from m_cob_partition where job_name = ? and cob_date = ?", Integer.class, jobName, cobDate);
+        return count == null ? 0 : count;
+    }
+
+    private int insertPartitions(final String jobName, final LocalDate cobDate, final int partitionSize,
+            final COBIdRangeReader idRangeReader) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        int partitionNumber = 0;
+        long lastMaxId = 0L;
+        while (true) {
+            final Long[] range = idRangeReader.readNextRange(lastMaxId, partitionSize);
+            if (range == null || range[1] == null) {
+                break;
+            }
+            partitionNumber++;
+            this.jdbcTemplate.update(
+                    "insert into m_cob_partition (job_name, cob_date, partition_no, min_id, max_id, status, created_date, lastmodified_date)"
+                            + " values (?, ?, ?, ?, ?, ?, ?, ?)",
+                    jobName, cobDate, partitionNumber, range[0], range[1], PENDING, now, now);
+            lastMaxId = range[1];
+        }
+        return partitionNumber;
+    }
+
+    @Override
+    public Optional<COBPartition> claimPartition(final String jobName, final LocalDate cobDate, final int leaseTimeoutMinutes) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        final LocalDateTime staleBefore = now.minusMinutes(leaseTimeoutMinutes);
+        final List<Long> candidates = this.jdbcTemplate.queryForList(
+                "select id from m_cob_partition where job_name = ? and cob_date = ? and (status = ? or (status = ? and last_heartbeat < ?))"
+                        + " order by partition_no",
+                Long.class, jobName, cobDate, PENDING, PROCESSING, staleBefore);
+        for (final Long candidate : candidates) {
+            final String leaseId = UUID.randomUUID().toString();
+            final int claimed = this.jdbcTemplate.update(
+                    "update m_cob_partition set status = ?, owner_id = ?, last_heartbeat = ?, lastmodified_date = ?"
+                            + " where id = ? and (status = ? or (status = ? and last_heartbeat < ?))",
+                    PROCESSING, leaseId, now, now, candidate, PENDING, PROCESSING, staleBefore);
+            if (claimed == 1) {
+                return Optional.of(this.jdbcTemplate.queryForObject(
+                        "select id, job_name, cob_date, partition_no, min_id, max_id, last_processed_id, owner_id from m_cob_partition"
+                                + " where id = ?",
+                        new COBPartitionMapper(), candidate));
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void checkpoint(final COBPartition partition, final Long lastProcessedId) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        final int updated = this.jdbcTemplate.update(
+                "update m_cob_partition set last_processed_id = ?, last_heartbeat = ?, lastmodified_date = ? where id = ? and owner_id = ?"
+                        + " and status = ?",
+                lastProcessedId, now, now, partition.getId(), partition.getOwnerId(), PROCESSING);
+        assertOwned(partition, updated);
+    }
+
+    @Override
+    public void failed(final COBPartition partition, final Long entityId) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        final int updated = this.jdbcTemplate.update(
+                "update m_cob_partition set error_count = error_count + 1, last_heartbeat = ?, lastmodified_date = ? where id = ?"
+                        + " and owner_id = ? and status = ?",
+                now, now, partition.getId(), partition.getOwnerId(), PROCESSING);
+        assertOwned(partition, updated);
+        final int recorded = this.jdbcTemplate.update(
+                "update m_cob_partition_failure set attempts = attempts + 1, lastmodified_date = ? where partition_id = ? and entity_id = ?",
+                now, partition.getId(), entityId);
+        if (recorded == 0) {
+            this.jdbcTemplate.update(
+                    "insert into m_cob_partition_failure (partition_id, entity_id, attempts, created_date, lastmodified_date)"
+                            + " values (?, ?, ?, ?, ?)",
+                    partition.getId(), entityId, 1, now, now);
+        }
+    }
+
+    @Override
+    public void resolved(final COBPartition partition, final Long entityId) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        final int updated = this.jdbcTemplate.update(
+                "update m_cob_partition set last_heartbeat = ?, lastmodified_date = ? where id = ? and owner_id = ? and status = ?", now,
+                now, partition.getId(), partition.getOwnerId(), PROCESSING);
+        assertOwned(partition, updated);
+        this.jdbcTemplate.update("delete from m_cob_partition_failure where partition_id = ? and entity_id = ?", partition.getId(),
+                entityId);
+    }
+
+    @Override
+    public List<Long> retrieveFailedIds(final COBPartition partition) {
+        return this.jdbcTemplate.queryForList("select entity_id from m_cob_partition_failure where partition_id = ? order by entity_id",
+                Long.class, partition.getId());
+    }
+
+    @Override
+    public void complete(final COBPartition partition) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        final Integer failures = this.jdbcTemplate.queryForObject("select count(*) from m_cob_partition_failure where partition_id = ?",
+                Integer.class, partition.getId());
+        final int updated = this.jdbcTemplate.update(
+                "update m_cob_partition set status = ?, last_heartbeat = ?, lastmodified_date = ? where id = ? and owner_id = ? and status = ?",
+                failures != null && failures > 0 ? FAILED : COMPLETED, now, now, partition.getId(), partition.getOwnerId(), PROCESSING);
+        assertOwned(partition, updated);
+    }
+
+    @Override
+    public int reopenFailedPartitions(final String jobName, final LocalDate cobDate) {
+        final int reopened = this.jdbcTemplate.update(
+                "update m_cob_partition set status = ?, lastmodified_date = ? where job_name = ? and cob_date = ? and status = ?", PENDING,
+                DateUtils.getLocalDateTimeOfSystem(), jobName, cobDate, FAILED);
+        if (reopened > 0) {
+            log.info("Reopened {} failed partitions of {} for {}", reopened, jobName, cobDate);
+        }
+        return reopened;
+    }
+
+    @Override
+    public int countUnfinishedPartitions(final String jobName, final LocalDate cobDate) {
+        final Integer unfinished = this.jdbcTemplate.queryForObject(
+                "select count(*) from m_cob_partition where job_name = ? and cob_date = ? and status in (?, ?)", Integer.class, jobName,
+                cobDate, PENDING, PROCESSING);
+        return unfinished == null ? 0 : unfinished;
+    }
+
+    private void assertOwned(final COBPartition partition, final int updatedRows) {
+        if (updatedRows == 0) {
+            throw new COBPartitionLeaseLostException(partition.getId(), partition.getOwnerId());
+        }
+    }
+
+    private static final class COBPartitionMapper implements RowMapper<COBPartition> {
+
+        @Override
+        public COBPartition mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new COBPartition(rs.getLong("id"), rs.getString("job_name"), rs.getObject("cob_date", LocalDate.class),
+                    rs.getInt("partition_no"), rs.getLong("min_id"), rs.getLong("max_id"), rs.getObject("last_processed_id", Long.class),
+                    rs.getString("owner_id"));
+        }
+    }
+}
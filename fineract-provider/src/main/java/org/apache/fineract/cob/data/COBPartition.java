@@ -0,0 +1,48 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.data;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * An inclusive range of entity ids processed as one unit of work by a Close of Business job.
+ *
+ * <code>lastProcessedId</code> is the checkpoint: everything up to and including it has already been handled, so a
+ * restarted worker continues from the id right after it. <code>ownerId</code> is the lease under which the partition was
+ * claimed.
+ */
+@Getter
+@AllArgsConstructor
+public class COBPartition {
+
+    private final Long id;
+    private final String jobName;
+    private final LocalDate cobDate;
+    private final Integer partitionNumber;
+    private final Long minId;
+    private final Long maxId;
+    private final Long lastProcessedId;
+    private final String ownerId;
+
+    public Long resumeAfterId() {
+        return this.lastProcessedId == null ? this.minId - 1 : this.lastProcessedId;
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.exception;
+
+import org.apache.fineract.infrastructure.core.exception.AbstractPlatformDomainRuleException;
+
+/**
+ * A {@link RuntimeException} thrown when a Close of Business partition has been taken over by another node. Raised
+ * from inside the unit of work of an entity so that its changes are rolled back instead of being committed twice.
+ */
+public class COBPartitionLeaseLostException extends AbstractPlatformDomainRuleException {
+
+    public COBPartitionLeaseLostException(final Long partitionId, final String ownerId) {
+        super("error.msg.cob.partition.lease.lost", "Close of Business partition " + partitionId + " is no longer owned by " + ownerId,
+                partitionId, ownerId);
+    }
+}
@@ -16,11 +16,13 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.fineract.infrastructure.hooks.listener;
+package org.apache.fineract.cob.loan;
 
-import org.apache.fineract.infrastructure.hooks.event.HookEvent;
-import org.springframework.context.ApplicationListener;
+public final class LoanCOBConstants {
 
-public interface HookListener extends ApplicationListener<HookEvent> {
+    public static final String JOB_NAME = "LOAN_CLOSE_OF_BUSINESS";
 
+    private LoanCOBConstants() {
+
+    }
 }
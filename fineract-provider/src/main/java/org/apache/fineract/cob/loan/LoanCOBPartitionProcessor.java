@@ -0,0 +1,147 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.loan;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.cob.COBBusinessStepService;
+import org.apache.fineract.cob.COBPartitionService;
+import org.apache.fineract.cob.data.COBPartition;
+import org.apache.fineract.cob.exception.COBPartitionLeaseLostException;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepositoryWrapper;
+import org.apache.fineract.portfolio.loanaccount.service.LoanAssembler;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs the configured business steps over every active loan of a partition.
+ *
+ * Each loan is loaded once and handed through all steps inside a single transaction, so every step works on the same
+ * managed entity instead of reloading the loan and its schedule. The partition checkpoint is written in the same
+ * transaction, which makes the processing of a loan and the progress record commit or roll back together, and which
+ * rolls the loan back if the partition has been taken over by another worker in the meantime.
+ *
+ * A loan that fails is recorded against the partition and the checkpoint moves on. Failed loans are retried once the
+ * rest of the partition is done, loans that hit a lock conflict up to the tenant's deadlock retry limit; loans that
+ * still fail stay recorded and are retried when the job is run again for the same date.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoanCOBPartitionProcessor {
+
+    private static final int PAGE_SIZE = 100;
+
+    private final COBBusinessStepService cobBusinessStepService;
+    private final COBPartitionService cobPartitionService;
+    private final RetrieveLoanIdService retrieveLoanIdService;
+    private final LoanAssembler loanAssembler;
+    private final LoanRepositoryWrapper loanRepositoryWrapper;
+    private final TransactionTemplate txTemplate;
+
+    public List<Throwable> process(final COBPartition partition) {
+        final List<LoanCOBBusinessStep> steps = this.cobBusinessStepService.getBusinessSteps(LoanCOBConstants.JOB_NAME,
+                LoanCOBBusinessStep.class);
+        try {
+            final Collection<Long> failedLoanIds = new LinkedHashSet<>(this.cobPartitionService.retrieveFailedIds(partition));
+            long lastProcessedId = partition.resumeAfterId();
+            List<Long> loanIds = this.retrieveLoanIdService.retrieveActiveLoanIds(lastProcessedId, partition.getMaxId(), PAGE_SIZE);
+            while (!loanIds.isEmpty()) {
+                for (final Long loanId : loanIds) {
+                    try {
+                        processLoan(loanId, steps, () -> this.cobPartitionService.checkpoint(partition, loanId));
+                    } catch (COBPartitionLeaseLostException e) {
+                        throw e;
+                    } catch (RuntimeException e) {
+                        log.warn("Close of Business failed for loan {} of partition {}, retrying it at the end of the partition", loanId,
+                                partition.getPartitionNumber(), e);
+                        this.txTemplate.executeWithoutResult(status -> {
+                            this.cobPartitionService.failed(partition, loanId);
+                            this.cobPartitionService.checkpoint(partition, loanId);
+                        });
+                        failedLoanIds.add(loanId);
+                    }
+                    lastProcessedId = loanId;
+                }
+                loanIds = this.retrieveLoanIdService.retrieveActiveLoanIds(lastProcessedId, partition.getMaxId(), PAGE_SIZE);
+            }
+
+            final List<Throwable> errors = retryFailedLoans(partition, steps, failedLoanIds);
+            this.cobPartitionService.complete(partition);
+            log.info("Finished partition {} of {} for {} with {} failed loan(s)", partition.getPartitionNumber(), partition.getJobName(),
+                    partition.getCobDate(), errors.size());
+            return errors;
+        } catch (COBPartitionLeaseLostException e) {
+            log.warn("Stopped working on partition {} of {} for {} as it has been taken over", partition.getPartitionNumber(),
+                    partition.getJobName(), partition.getCobDate());
+            return List.of();
+        }
+    }
+
+    private List<Throwable> retryFailedLoans(final COBPartition partition, final List<LoanCOBBusinessStep> steps,
+            final Collection<Long> failedLoanIds) {
+        final int maxRetriesOnLockConflict = ThreadLocalContextUtil.getTenant().getConnection().getMaxRetriesOnDeadlock();
+        final Map<Long, Throwable> errors = new LinkedHashMap<>();
+        Collection<Long> pending = failedLoanIds;
+        for (int attempt = 0; attempt <= maxRetriesOnLockConflict && !pending.isEmpty(); attempt++) {
+            final Collection<Long> conflicting = new LinkedHashSet<>();
+            for (final Long loanId : pending) {
+                try {
+                    processLoan(loanId, steps, () -> this.cobPartitionService.resolved(partition, loanId));
+                    errors.remove(loanId);
+                } catch (COBPartitionLeaseLostException e) {
+                    throw e;
+                } catch (CannotAcquireLockException | ObjectOptimisticLockingFailureException e) {
+                    errors.put(loanId, e);
+                    conflicting.add(loanId);
+                } catch (RuntimeException e) {
+                    errors.put(loanId, e);
+                }
+            }
+            pending = conflicting;
+        }
+        for (final Map.Entry<Long, Throwable> error : errors.entrySet()) {
+            log.error("Close of Business failed for loan {} of partition {}", error.getKey(), partition.getPartitionNumber(),
+                    error.getValue());
+            this.txTemplate.executeWithoutResult(status -> this.cobPartitionService.failed(partition, error.getKey()));
+        }
+        return new ArrayList<>(errors.values());
+    }
+
+    private void processLoan(final Long loanId, final List<LoanCOBBusinessStep> steps, final Runnable progress) {
+        this.txTemplate.executeWithoutResult(status -> {
+            Loan loan = this.loanAssembler.assembleFrom(loanId);
+            for (final LoanCOBBusinessStep step : steps) {
+                loan = step.execute(loan);
+                this.loanRepositoryWrapper.flush();
+            }
+            progress.run();
+        });
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.loan;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.cob.COBPartitionService;
+import org.apache.fineract.cob.data.COBPartition;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.ActionContext;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.JobWorkerPoolService;
+import org.springframework.stereotype.Service;
+
+/**
+ * Loan Close of Business.
+ *
+ * Replaces the chain of independent nightly loan jobs, each scanning and loading every loan again, with one pass that
+ * runs the configured business steps per loan. Active loans are split into id range partitions which are stored with a
+ * checkpoint, so the job can be resumed after a failure and several nodes can work on the same run: the manager node
+ * creates the partitions and works on them with up to
+ * {@link FineractProperties.FineractCobProperties#getWorkerThreads()} workers of the shared job worker pool, while
+ * worker nodes pick up open partitions through the {@link LoanCOBWorkerPoller}. Loans which still fail after the
+ * retries of their partition leave it failed; running the job again for the same date retries just those loans.
+ */
+@Service
+@RequiredArgsConstructor
+public class LoanCOBServiceImpl implements LoanCOBService {
+
+    private final COBPartitionService cobPartitionService;
+    private final LoanCOBPartitionProcessor partitionProcessor;
+    private final RetrieveLoanIdService retrieveLoanIdService;
+    private final FineractProperties fineractProperties;
+    private final JobWorkerPoolService jobWorkerPoolService;
+
+    @Override
+    @CronTarget(jobName = JobName.LOAN_COB)
+    public void runLoanCOB(@SuppressWarnings("unused") Map<String, String> jobParameters) throws JobExecutionException {
+        useCOBDate();
+        final LocalDate cobDate = DateUtils.getBusinessLocalDate();
+        final FineractProperties.FineractCobProperties cobProperties = this.fineractProperties.getCob();
+        this.cobPartitionService.createPartitionsIfAbsent(LoanCOBConstants.JOB_NAME, cobDate, cobProperties.getPartitionSize(),
+                this.retrieveLoanIdService::retrieveNextActiveLoanIdRange);
+        this.cobPartitionService.reopenFailedPartitions(LoanCOBConstants.JOB_NAME, cobDate);
+
+        final List<Throwable> errors = new ArrayList<>(processOpenPartitions());
+        // partitions claimed by other nodes are waited for, and taken over once their lease expires
+        while (this.cobPartitionService.countUnfinishedPartitions(LoanCOBConstants.JOB_NAME, cobDate) > 0) {
+            try {
+                TimeUnit.SECONDS.sleep(cobProperties.getWorkerPollIntervalSeconds());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                errors.add(e);
+                break;
+            }
+            errors.addAll(processOpenPartitions());
+        }
+
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
+        }
+    }
+
+    @Override
+    public List<Throwable> processOpenPartitions() {
+        useCOBDate();
+        final LocalDate cobDate = DateUtils.getBusinessLocalDate();
+        final int leaseTimeoutMinutes = this.fineractProperties.getCob().getLeaseTimeoutMinutes();
+        final Queue<Throwable> partitionErrors = new ConcurrentLinkedQueue<>();
+
+        final List<Throwable> errors = this.jobWorkerPoolService.runWorkers(JobName.LOAN_COB,
+                this.fineractProperties.getCob().getWorkerThreads(), () -> {
+                    Optional<COBPartition> partition = this.cobPartitionService.claimPartition(LoanCOBConstants.JOB_NAME, cobDate,
+                            leaseTimeoutMinutes);
+                    while (partition.isPresent()) {
+                        partitionErrors.addAll(this.partitionProcessor.process(partition.get()));
+                        partition = this.cobPartitionService.claimPartition(LoanCOBConstants.JOB_NAME, cobDate, leaseTimeoutMinutes);
+                    }
+                });
+        errors.addAll(partitionErrors);
+        return errors;
+    }
+
+    private void useCOBDate() {
+        if (ThreadLocalContextUtil.getBusinessDates().containsKey(BusinessDateType.COB_DATE)) {
+            ThreadLocalContextUtil.setActionContext(ActionContext.COB);
+        }
+    }
+}
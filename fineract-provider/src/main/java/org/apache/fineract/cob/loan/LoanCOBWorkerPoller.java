@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.loan;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.businessdate.service.BusinessDateReadPlatformService;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.apache.fineract.useradministration.domain.AppUserRepositoryWrapper;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.mapping.GrantedAuthoritiesMapper;
+import org.springframework.security.core.authority.mapping.NullAuthoritiesMapper;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lets batch worker nodes, which do not run Quartz jobs, take part in a Loan Close of Business run started by the
+ * batch manager by periodically claiming its open partitions.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoanCOBWorkerPoller {
+
+    private final FineractProperties fineractProperties;
+    private final TenantDetailsService tenantDetailsService;
+    private final AppUserRepositoryWrapper userRepository;
+    private final BusinessDateReadPlatformService businessDateReadPlatformService;
+    private final LoanCOBService loanCOBService;
+    private final GrantedAuthoritiesMapper authoritiesMapper = new NullAuthoritiesMapper();
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void start() {
+        final FineractProperties.FineractModeProperties mode = this.fineractProperties.getMode();
+        if (!mode.isBatchWorkerEnabled() || mode.isBatchManagerEnabled()) {
+            return;
+        }
+        final long interval = this.fineractProperties.getCob().getWorkerPollIntervalSeconds();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        this.scheduler.scheduleWithFixedDelay(this::pollTenants, interval, interval, TimeUnit.SECONDS);
+        log.info("Polling for Loan Close of Business partitions every {} seconds", interval);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+    }
+
+    private void pollTenants() {
+        for (final FineractPlatformTenant tenant : this.tenantDetailsService.findAllTenants()) {
+            try {
+                ThreadLocalContextUtil.setTenant(tenant);
+                final AppUser user = this.userRepository.fetchSystemUser();
+                SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, user.getPassword(),
+                        this.authoritiesMapper.mapAuthorities(user.getAuthorities())));
+                ThreadLocalContextUtil.setBusinessDates(this.businessDateReadPlatformService.getBusinessDates());
+                final List<Throwable> errors = this.loanCOBService.processOpenPartitions();
+                if (!errors.isEmpty()) {
+                    log.warn("Loan Close of Business partitions of tenant {} finished with {} error(s)", tenant.getTenantIdentifier(),
+                            errors.size());
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to process Loan Close of Business partitions of tenant {}", tenant.getTenantIdentifier(), e);
+            } finally {
+                SecurityContextHolder.clearContext();
+                ThreadLocalContextUtil.clearTenant();
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.loan;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class RetrieveLoanIdServiceImpl implements RetrieveLoanIdService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseSpecificSQLGenerator sqlGenerator;
+
+    @Override
+    public Long[] retrieveNextActiveLoanIdRange(final long afterId, final int size) {
+        final String sql = "select min(id), max(id) from (select id from m_loan where loan_status_id = ? and id > ? order by id "
+                + this.sqlGenerator.limit(size) + ") ids";
+        return this.jdbcTemplate.queryForObject(sql,
+                (rs, rowNum) -> new Long[] { rs.getObject(1, Long.class), rs.getObject(2, Long.class) }, LoanStatus.ACTIVE.getValue(),
+                afterId);
+    }
+
+    @Override
+    public List<Long> retrieveActiveLoanIds(final long afterId, final long maxId, final int limit) {
+        final String sql = "select id from m_loan where loan_status_id = ? and id > ? and id <= ? order by id "
+                + this.sqlGenerator.limit(limit);
+        return this.jdbcTemplate.queryForList(sql, Long.class, LoanStatus.ACTIVE.getValue(), afterId, maxId);
+    }
+}
@@ -104,6 +104,21 @@ public class CommandSource extends AbstractPersistableCustom {
                 command.json(), maker, ZonedDateTime.now(DateUtils.getDateTimeZoneOfTenant()));
     }
 
+    /**
+     * Returns the audit entry of changes applied outside of the command pipeline, such as a bulk import, recorded as if
+     * the given command had been processed with the given result.
+     */
+    public static CommandSource processedEntryFrom(final CommandWrapper wrapper, final CommandProcessingResult result,
+            final String changesAsJson, final AppUser maker) {
+        final CommandSource commandSource = new CommandSource(wrapper.actionName(), wrapper.entityName(), wrapper.getHref(),
+                result.resourceId(), result.getSubResourceId(), changesAsJson, maker,
+                ZonedDateTime.now(DateUtils.getDateTimeZoneOfTenant()));
+        commandSource.updateForAudit(result.getOfficeId(), result.getGroupId(), result.getClientId(), result.getLoanId(),
+                result.getSavingsId(), result.getProductId(), result.getTransactionId());
+        commandSource.updateActionNameAndEntityName(result);
+        return commandSource;
+    }
+
     protected CommandSource() {
         //
     }
@@ -20,14 +20,16 @@ package org.apache.fineract.commands.provider;
 
 import com.google.common.base.Preconditions;
 import java.util.HashMap;
+import java.util.Map;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.commands.annotation.CommandType;
+import org.apache.fineract.commands.domain.CommandWrapper;
 import org.apache.fineract.commands.exception.UnsupportedCommandException;
 import org.apache.fineract.commands.handler.NewCommandSourceHandler;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.stereotype.Component;
@@ -36,7 +38,12 @@ import org.springframework.stereotype.Component;
  * {@link CommandHandlerProvider} provides {@link NewCommandSourceHandler}s for a given entity and action. <br>
  * <br>
  * A {@link NewCommandSourceHandler} can be registered and the annotation {@link CommandType} is used to determine the
- * entity and the action the handler is capable to process.
+ * entity and the action the handler is capable to process. <br>
+ * <br>
+ * All handlers are resolved once, after the application context has created its singletons, into an immutable
+ * entity/action table, so that looking up the handler of a command does not touch the application context. Commands on
+ * datatables, notes, surveys and disbursement details, whose handler depends on the shape of the resource rather than
+ * on the entity name, are mapped to the routes defined by the constants of this class.
  *
  * @author Markus Geiss
  * @version 1.0
@@ -47,10 +54,60 @@ import org.springframework.stereotype.Component;
 @Component
 @NoArgsConstructor
 @Slf4j
-public class CommandHandlerProvider implements ApplicationContextAware {
+public class CommandHandlerProvider implements ApplicationContextAware, SmartInitializingSingleton {
+
+    public static final String DATATABLE_ENTITY = "DATATABLE";
+    public static final String NOTE_ENTITY = "NOTE";
+    public static final String SURVEY_ENTITY = "SURVEY";
+    public static final String DISBURSEMENT_DETAIL_ENTITY = "DISBURSEMENTDETAIL";
+
+    public static final String CREATE_ACTION = "CREATE";
+    public static final String UPDATE_ACTION = "UPDATE";
+    public static final String DELETE_ACTION = "DELETE";
+    public static final String REGISTER_ACTION = "REGISTER";
+    public static final String CREATE_ENTRY_ACTION = "CREATE_ENTRY";
+    public static final String UPDATE_ONE_TO_ONE_ENTRY_ACTION = "UPDATE_ONE_TO_ONE_ENTRY";
+    public static final String UPDATE_ONE_TO_MANY_ENTRY_ACTION = "UPDATE_ONE_TO_MANY_ENTRY";
+    public static final String DELETE_ONE_TO_ONE_ENTRY_ACTION = "DELETE_ONE_TO_ONE_ENTRY";
+    public static final String DELETE_ONE_TO_MANY_ENTRY_ACTION = "DELETE_ONE_TO_MANY_ENTRY";
+    public static final String FULFIL_ACTION = "FULFIL";
+    public static final String ADD_AND_DELETE_ACTION = "ADD_AND_DELETE";
 
     private ApplicationContext applicationContext;
-    private HashMap<String, String> registeredHandlers;
+    private Map<String, Map<String, NewCommandSourceHandler>> registeredHandlers;
+
+    /**
+     * Returns the handler for the given command, taking the resources with a dedicated route into account.<br>
+     * <br>
+     * Throws an {@link UnsupportedCommandException} if no handler for the command can be found.
+     *
+     * @param wrapper
+     *            the command to lookup the handler for, must be given.
+     */
+    public NewCommandSourceHandler getHandler(final CommandWrapper wrapper) {
+        final String entity;
+        final String action;
+        if (wrapper.isDatatableResource()) {
+            entity = DATATABLE_ENTITY;
+            action = datatableAction(wrapper);
+        } else if (wrapper.isNoteResource()) {
+            entity = NOTE_ENTITY;
+            action = noteAction(wrapper);
+        } else if (wrapper.isSurveyResource()) {
+            entity = SURVEY_ENTITY;
+            action = surveyAction(wrapper);
+        } else if (wrapper.isLoanDisburseDetailResource()) {
+            entity = DISBURSEMENT_DETAIL_ENTITY;
+            action = disbursementDetailAction(wrapper);
+        } else {
+            return getHandler(wrapper.entityName(), wrapper.actionName());
+        }
+        final NewCommandSourceHandler handler = action == null ? null : lookup(entity, action);
+        if (handler == null) {
+            throw new UnsupportedCommandException(wrapper.commandName());
+        }
+        return handler;
+    }
 
     /**
      * Returns a handler for the given entity and action.<br>
@@ -67,35 +124,100 @@ public class CommandHandlerProvider implements ApplicationContextAware {
         Preconditions.checkArgument(StringUtils.isNoneEmpty(entity), "An entity must be given!");
         Preconditions.checkArgument(StringUtils.isNoneEmpty(action), "An action must be given!");
 
-        final String key = entity + "|" + action;
-        if (!this.registeredHandlers.containsKey(key)) {
-            throw new UnsupportedCommandException(key);
+        final NewCommandSourceHandler handler = lookup(entity, action);
+        if (handler == null) {
+            throw new UnsupportedCommandException(entity + "|" + action);
         }
-        return (NewCommandSourceHandler) this.applicationContext.getBean(this.registeredHandlers.get(key));
+        return handler;
+    }
+
+    private NewCommandSourceHandler lookup(final String entity, final String action) {
+        Preconditions.checkState(this.registeredHandlers != null, "Command handlers are not registered yet!");
+        final Map<String, NewCommandSourceHandler> handlersOfEntity = this.registeredHandlers.get(entity);
+        return handlersOfEntity == null ? null : handlersOfEntity.get(action);
+    }
+
+    private static String datatableAction(final CommandWrapper wrapper) {
+        if (wrapper.isCreateDatatable()) {
+            return CREATE_ACTION;
+        } else if (wrapper.isDeleteDatatable()) {
+            return DELETE_ACTION;
+        } else if (wrapper.isUpdateDatatable()) {
+            return UPDATE_ACTION;
+        } else if (wrapper.isCreate()) {
+            return CREATE_ENTRY_ACTION;
+        } else if (wrapper.isUpdateMultiple()) {
+            return UPDATE_ONE_TO_MANY_ENTRY_ACTION;
+        } else if (wrapper.isUpdateOneToOne()) {
+            return UPDATE_ONE_TO_ONE_ENTRY_ACTION;
+        } else if (wrapper.isDeleteMultiple()) {
+            return DELETE_ONE_TO_MANY_ENTRY_ACTION;
+        } else if (wrapper.isDeleteOneToOne()) {
+            return DELETE_ONE_TO_ONE_ENTRY_ACTION;
+        } else if (wrapper.isRegisterDatatable()) {
+            return REGISTER_ACTION;
+        }
+        return null;
+    }
+
+    private static String noteAction(final CommandWrapper wrapper) {
+        if (wrapper.isCreate()) {
+            return CREATE_ACTION;
+        } else if (wrapper.isUpdate()) {
+            return UPDATE_ACTION;
+        } else if (wrapper.isDelete()) {
+            return DELETE_ACTION;
+        }
+        return null;
+    }
+
+    private static String surveyAction(final CommandWrapper wrapper) {
+        if (wrapper.isRegisterSurvey()) {
+            return REGISTER_ACTION;
+        } else if (wrapper.isFullFilSurvey()) {
+            return FULFIL_ACTION;
+        }
+        return null;
+    }
+
+    private static String disbursementDetailAction(final CommandWrapper wrapper) {
+        if (wrapper.isUpdateDisbursementDate()) {
+            return UPDATE_ACTION;
+        } else if (wrapper.addAndDeleteDisbursementDetails()) {
+            return ADD_AND_DELETE_ACTION;
+        }
+        return null;
     }
 
     private void initializeHandlerRegistry() {
-        if (this.registeredHandlers == null) {
-            this.registeredHandlers = new HashMap<>();
-
-            final String[] commandHandlerBeans = this.applicationContext.getBeanNamesForAnnotation(CommandType.class);
-            if (ArrayUtils.isNotEmpty(commandHandlerBeans)) {
-                for (final String commandHandlerName : commandHandlerBeans) {
-                    log.debug("Register command handler '{}' ...", commandHandlerName);
-                    final CommandType commandType = this.applicationContext.findAnnotationOnBean(commandHandlerName, CommandType.class);
-                    try {
-                        this.registeredHandlers.put(commandType.entity() + "|" + commandType.action(), commandHandlerName);
-                    } catch (final Throwable th) {
-                        log.error("Unable to register command handler '{}'!", commandHandlerName, th);
-                    }
-                }
+        final Map<String, Map<String, NewCommandSourceHandler>> handlers = new HashMap<>();
+        final Map<String, String> handlerNames = new HashMap<>();
+        for (final String commandHandlerName : this.applicationContext.getBeanNamesForAnnotation(CommandType.class)) {
+            log.debug("Register command handler '{}' ...", commandHandlerName);
+            final CommandType commandType = this.applicationContext.findAnnotationOnBean(commandHandlerName, CommandType.class);
+            final String key = commandType.entity() + "|" + commandType.action();
+            final String registeredName = handlerNames.putIfAbsent(key, commandHandlerName);
+            if (registeredName != null) {
+                throw new IllegalStateException(
+                        "Command handlers '" + registeredName + "' and '" + commandHandlerName + "' are both registered for " + key);
             }
+            final NewCommandSourceHandler handler = this.applicationContext.getBean(commandHandlerName, NewCommandSourceHandler.class);
+            handlers.computeIfAbsent(commandType.entity(), entity -> new HashMap<>()).put(commandType.action(), handler);
         }
+
+        final Map<String, Map<String, NewCommandSourceHandler>> registry = new HashMap<>();
+        handlers.forEach((entity, handlersOfEntity) -> registry.put(entity, Map.copyOf(handlersOfEntity)));
+        this.registeredHandlers = Map.copyOf(registry);
+        log.info("Registered {} command handlers", handlerNames.size());
     }
 
     @Override
     public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
         this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
         this.initializeHandlerRegistry();
     }
 }
@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.commands.service;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import org.apache.fineract.batch.exception.ErrorInfo;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.serialization.GoogleGsonSerializerHelper;
+
+/**
+ * Builds the hook event payload of a processed command.
+ *
+ * The payload is written in one pass with a shared {@link Gson}, embedding the request tree the command was already
+ * parsed into instead of parsing its JSON again.
+ */
+public final class CommandEventPayload {
+
+    private static final Gson GSON;
+
+    static {
+        final GsonBuilder builder = new GsonBuilder();
+        GoogleGsonSerializerHelper.registerTypeAdapters(builder);
+        GSON = builder.create();
+    }
+
+    private CommandEventPayload() {}
+
+    /**
+     * Returns the request of the command if it is a JSON object, which is the only kind of request published as event,
+     * or <code>null</code> otherwise.
+     */
+    public static JsonElement eventRequest(final JsonElement parsedJson, final String json) {
+        if (parsedJson != null) {
+            return parsedJson.isJsonObject() ? parsedJson : null;
+        }
+        return json != null && json.startsWith("{") ? JsonParser.parseString(json) : null;
+    }
+
+    /**
+     * Serializes the event of a command to JSON.
+     *
+     * @param result
+     *            either the {@link CommandProcessingResult} of a successful command or the {@link ErrorInfo} of a failed
+     *            one
+     */
+    public static String toJson(final String entityName, final String actionName, final Long userId, final String username,
+            final String userDisplayName, final JsonElement request, final Object result) {
+        final StringWriter out = new StringWriter(512);
+        try (JsonWriter writer = GSON.newJsonWriter(out)) {
+            writer.beginObject();
+            writer.name("entityName").value(entityName);
+            writer.name("actionName").value(actionName);
+            writer.name("createdBy").value(userId);
+            writer.name("createdByName").value(username);
+            writer.name("createdByFullName").value(userDisplayName);
+            writer.name("request");
+            GSON.toJson(request, writer);
+            if (result instanceof CommandProcessingResult commandProcessingResult) {
+                writer.name("officeId").value(commandProcessingResult.getOfficeId());
+                writer.name("clientId").value(commandProcessingResult.getClientId());
+                final JsonObject response = GSON.toJsonTree(commandProcessingResult).getAsJsonObject();
+                response.remove("officeId");
+                writer.name("response");
+                GSON.toJson(response, writer);
+            } else if (result instanceof ErrorInfo errorInfo) {
+                writer.name("status").value("Exception");
+                final JsonObject response = JsonParser.parseString(errorInfo.getMessage()).getAsJsonObject();
+                response.addProperty("errorCode", errorInfo.getErrorCode());
+                response.addProperty("statusCode", errorInfo.getStatusCode());
+                writer.name("response");
+                GSON.toJson(response, writer);
+            }
+            writer.name("timestamp").value(Instant.now().toString());
+            writer.endObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+}
@@ -20,9 +20,10 @@ package org.apache.fineract.infrastructure.bulkimport.data;
 
 import org.apache.fineract.infrastructure.core.domain.FineractContext;
 import org.apache.fineract.infrastructure.core.domain.FineractEvent;
+import org.apache.fineract.infrastructure.core.domain.LongRunningEvent;
 import org.apache.poi.ss.usermodel.Workbook;
 
-public final class BulkImportEvent extends FineractEvent {
+public final class BulkImportEvent extends FineractEvent implements LongRunningEvent {
 
     private final Workbook workbook;
 
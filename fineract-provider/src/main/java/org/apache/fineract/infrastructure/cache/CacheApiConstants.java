@@ -26,5 +26,7 @@ public final class CacheApiConstants {
 
     public static final String RESOURCE_NAME = "CACHE";
     public static final String cacheTypeParameter = "cacheType";
+    public static final String regionParameter = "region";
+    public static final String enabledParameter = "enabled";
 
 }
@@ -43,6 +43,7 @@ import org.apache.fineract.commands.domain.CommandWrapper;
 import org.apache.fineract.commands.service.CommandWrapperBuilder;
 import org.apache.fineract.commands.service.PortfolioCommandSourceWritePlatformService;
 import org.apache.fineract.infrastructure.cache.data.CacheData;
+import org.apache.fineract.infrastructure.cache.data.CacheRegionData;
 import org.apache.fineract.infrastructure.cache.service.RuntimeDelegatingCacheManager;
 import org.apache.fineract.infrastructure.core.api.ApiRequestParameterHelper;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
@@ -65,10 +66,13 @@ import org.springframework.stereotype.Component;
 public class CacheApiResource {
 
     private static final Set<String> RESPONSE_DATA_PARAMETERS = new HashSet<>(Arrays.asList("id"));
+    private static final Set<String> REGION_RESPONSE_DATA_PARAMETERS = new HashSet<>(Arrays.asList("name", "enabled", "heapEntries",
+            "offHeapMb", "timeToLiveSeconds", "timeToIdleSeconds", "hits", "misses", "evictions", "hitPercentage"));
     private final String resourceNameForPermissions = "CACHE";
 
     private final PlatformSecurityContext context;
     private final DefaultToApiJsonSerializer<CacheData> toApiJsonSerializer;
+    private final DefaultToApiJsonSerializer<CacheRegionData> regionToApiJsonSerializer;
     private final ApiRequestParameterHelper apiRequestParameterHelper;
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
     private final RuntimeDelegatingCacheManager cacheService;
@@ -76,11 +80,14 @@ public class CacheApiResource {
     @Autowired
     public CacheApiResource(final PlatformSecurityContext context,
             @Qualifier("runtimeDelegatingCacheManager") final RuntimeDelegatingCacheManager cacheService,
-            final DefaultToApiJsonSerializer<CacheData> toApiJsonSerializer, final ApiRequestParameterHelper apiRequestParameterHelper,
+            final DefaultToApiJsonSerializer<CacheData> toApiJsonSerializer,
+            final DefaultToApiJsonSerializer<CacheRegionData> regionToApiJsonSerializer,
+            final ApiRequestParameterHelper apiRequestParameterHelper,
             final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService) {
         this.context = context;
         this.cacheService = cacheService;
         this.toApiJsonSerializer = toApiJsonSerializer;
+        this.regionToApiJsonSerializer = regionToApiJsonSerializer;
         this.apiRequestParameterHelper = apiRequestParameterHelper;
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
     }
@@ -100,8 +107,25 @@ public class CacheApiResource {
         return this.toApiJsonSerializer.serialize(settings, codes, RESPONSE_DATA_PARAMETERS);
     }
 
+    @GET
+    @Path("regions")
+    @Operation(summary = "Retrieve Cache Regions", description = "Returns the settings and the hit, miss and eviction counts of "
+            + "every cache region of this node.\n" + "\n" + "Example Requests:\n" + "\n" + "caches/regions")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(array = @ArraySchema(schema = @Schema(implementation = CacheApiResourceSwagger.GetCacheRegionsResponse.class)))) })
+    public String retrieveRegions(@Context final UriInfo uriInfo) {
+
+        this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
+
+        final Collection<CacheRegionData> regions = this.cacheService.retrieveRegions();
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.regionToApiJsonSerializer.serialize(settings, regions, REGION_RESPONSE_DATA_PARAMETERS);
+    }
+
     @PUT
-    @Operation(summary = "Switch Cache", description = "Switches the cache to chosen one.")
+    @Operation(summary = "Switch Cache", description = "Switches the cache to chosen one, or with region and enabled given, "
+            + "enables or disables a single cache region of this node.")
     @RequestBody(required = true, content = @Content(schema = @Schema(implementation = CacheApiResourceSwagger.PutCachesRequest.class)))
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = CacheApiResourceSwagger.PutCachesResponse.class))) })
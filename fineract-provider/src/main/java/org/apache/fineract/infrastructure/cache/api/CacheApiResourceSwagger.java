@@ -41,6 +41,35 @@ final class CacheApiResourceSwagger {
         public boolean enabled;
     }
 
+    @Schema(description = "GetCacheRegionsResponse")
+    public static final class GetCacheRegionsResponse {
+
+        private GetCacheRegionsResponse() {
+
+        }
+
+        @Schema(example = "users")
+        public String name;
+        @Schema(example = "true")
+        public boolean enabled;
+        @Schema(example = "10000")
+        public Long heapEntries;
+        @Schema(example = "0")
+        public Long offHeapMb;
+        @Schema(example = "0")
+        public Long timeToLiveSeconds;
+        @Schema(example = "1800")
+        public Long timeToIdleSeconds;
+        @Schema(example = "1250")
+        public long hits;
+        @Schema(example = "40")
+        public long misses;
+        @Schema(example = "0")
+        public long evictions;
+        @Schema(example = "96.9")
+        public float hitPercentage;
+    }
+
     @Schema(description = "PutCachesRequest")
     public static final class PutCachesRequest {
 
@@ -50,6 +79,10 @@ final class CacheApiResourceSwagger {
 
         @Schema(example = "2")
         public Long cacheType;
+        @Schema(example = "users")
+        public String region;
+        @Schema(example = "false")
+        public Boolean enabled;
 
     }
 
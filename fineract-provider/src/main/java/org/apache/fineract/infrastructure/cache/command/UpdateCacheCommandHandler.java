@@ -33,6 +33,7 @@ import org.apache.fineract.infrastructure.cache.CacheApiConstants;
 import org.apache.fineract.infrastructure.cache.domain.CacheType;
 import org.apache.fineract.infrastructure.cache.service.CacheWritePlatformService;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.config.CacheConfig;
 import org.apache.fineract.infrastructure.core.data.ApiParameterError;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
@@ -48,7 +49,8 @@ import org.springframework.transaction.annotation.Transactional;
 public class UpdateCacheCommandHandler implements NewCommandSourceHandler {
 
     private final CacheWritePlatformService cacheService;
-    private static final Set<String> REQUEST_DATA_PARAMETERS = new HashSet<>(Arrays.asList(CacheApiConstants.cacheTypeParameter));
+    private static final Set<String> REQUEST_DATA_PARAMETERS = new HashSet<>(
+            Arrays.asList(CacheApiConstants.cacheTypeParameter, CacheApiConstants.regionParameter, CacheApiConstants.enabledParameter));
 
     @Autowired
     public UpdateCacheCommandHandler(final CacheWritePlatformService cacheService) {
@@ -72,6 +74,21 @@ public class UpdateCacheCommandHandler implements NewCommandSourceHandler {
         final DataValidatorBuilder baseDataValidator = new DataValidatorBuilder(dataValidationErrors)
                 .resource(CacheApiConstants.RESOURCE_NAME.toLowerCase());
 
+        if (command.parameterExists(CacheApiConstants.regionParameter)) {
+            final String region = command.stringValueOfParameterNamed(CacheApiConstants.regionParameter);
+            baseDataValidator.reset().parameter(CacheApiConstants.regionParameter).value(region).notBlank()
+                    .isOneOfTheseStringValues(CacheConfig.CACHE_NAMES);
+            final Boolean enabled = command.booleanObjectValueOfParameterNamed(CacheApiConstants.enabledParameter);
+            baseDataValidator.reset().parameter(CacheApiConstants.enabledParameter).value(enabled).notNull();
+
+            if (!dataValidationErrors.isEmpty()) {
+                throw new PlatformApiDataValidationException(dataValidationErrors);
+            }
+
+            final Map<String, Object> changes = this.cacheService.switchRegion(region, enabled);
+            return new CommandProcessingResultBuilder().withCommandId(command.commandId()).with(changes).build();
+        }
+
         final int cacheTypeEnum = command.integerValueSansLocaleOfParameterNamed(CacheApiConstants.cacheTypeParameter);
         baseDataValidator.reset().parameter(CacheApiConstants.cacheTypeParameter).value(Integer.valueOf(cacheTypeEnum)).notNull()
                 .isOneOfTheseValues(Integer.valueOf(1), Integer.valueOf(2), Integer.valueOf(3));
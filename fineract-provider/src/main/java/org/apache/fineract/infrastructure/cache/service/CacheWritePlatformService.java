@@ -18,10 +18,19 @@
  */
 package org.apache.fineract.infrastructure.cache.service;
 
+import java.util.Collection;
 import java.util.Map;
+import org.apache.fineract.infrastructure.cache.data.CacheRegionData;
 import org.apache.fineract.infrastructure.cache.domain.CacheType;
 
 public interface CacheWritePlatformService {
 
     Map<String, Object> switchToCache(CacheType cacheType);
+
+    /**
+     * Enables or disables a single cache region on this node.
+     */
+    Map<String, Object> switchRegion(String regionName, boolean enabled);
+
+    Collection<CacheRegionData> retrieveRegions();
 }
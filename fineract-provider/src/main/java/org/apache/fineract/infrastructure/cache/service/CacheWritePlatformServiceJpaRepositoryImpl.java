@@ -18,7 +18,9 @@
  */
 package org.apache.fineract.infrastructure.cache.service;
 
+import java.util.Collection;
 import java.util.Map;
+import org.apache.fineract.infrastructure.cache.data.CacheRegionData;
 import org.apache.fineract.infrastructure.cache.domain.CacheType;
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -53,4 +55,14 @@ public class CacheWritePlatformServiceJpaRepositoryImpl implements CacheWritePla
 
         return changes;
     }
+
+    @Override
+    public Map<String, Object> switchRegion(final String regionName, final boolean enabled) {
+        return this.cacheService.switchRegion(regionName, enabled);
+    }
+
+    @Override
+    public Collection<CacheRegionData> retrieveRegions() {
+        return this.cacheService.retrieveRegions();
+    }
 }
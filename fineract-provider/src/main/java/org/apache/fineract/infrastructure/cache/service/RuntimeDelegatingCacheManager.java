@@ -18,14 +18,28 @@
  */
 package org.apache.fineract.infrastructure.cache.service;
 
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
 import org.apache.fineract.infrastructure.cache.CacheApiConstants;
 import org.apache.fineract.infrastructure.cache.CacheEnumerations;
 import org.apache.fineract.infrastructure.cache.data.CacheData;
+import org.apache.fineract.infrastructure.cache.data.CacheRegionData;
 import org.apache.fineract.infrastructure.cache.domain.CacheType;
+import org.apache.fineract.infrastructure.core.config.CacheConfig;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,16 +63,22 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
 
     private final CacheManager cacheManager;
     private final CacheManager noOpCacheManager = new NoOpCacheManager();
+    private final FineractProperties fineractProperties;
+    private final Set<String> disabledRegions = ConcurrentHashMap.newKeySet();
     private CacheManager currentCacheManager;
 
     @Autowired
-    public RuntimeDelegatingCacheManager(final JCacheCacheManager cacheManager) {
+    public RuntimeDelegatingCacheManager(final JCacheCacheManager cacheManager, final FineractProperties fineractProperties) {
         this.cacheManager = cacheManager;
+        this.fineractProperties = fineractProperties;
         this.currentCacheManager = this.noOpCacheManager;
     }
 
     @Override
     public Cache getCache(final String name) {
+        if (this.disabledRegions.contains(name)) {
+            return this.noOpCacheManager.getCache(name);
+        }
         return this.currentCacheManager.getCache(name);
     }
 
@@ -125,6 +145,65 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
         return changes;
     }
 
+    /**
+     * Returns the settings and statistics of every cache region of the single node cache.
+     */
+    public Collection<CacheRegionData> retrieveRegions() {
+        final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        final List<CacheRegionData> regions = new ArrayList<>(CacheConfig.CACHE_NAMES.size());
+        for (final String name : CacheConfig.CACHE_NAMES) {
+            final FineractProperties.FineractCacheRegionProperties settings = CacheConfig.regionSettings(this.fineractProperties.getCache(),
+                    name);
+            final CacheStatisticsMXBean statistics = statistics(mBeanServer, name);
+            final boolean enabled = !this.disabledRegions.contains(name);
+            if (statistics == null) {
+                regions.add(new CacheRegionData(name, enabled, settings.getHeapEntries(), settings.getOffHeapMb(),
+                        seconds(settings.getTimeToLive()), seconds(settings.getTimeToIdle()), 0, 0, 0, 0));
+            } else {
+                regions.add(new CacheRegionData(name, enabled, settings.getHeapEntries(), settings.getOffHeapMb(),
+                        seconds(settings.getTimeToLive()), seconds(settings.getTimeToIdle()), statistics.getCacheHits(),
+                        statistics.getCacheMisses(), statistics.getCacheEvictions(), statistics.getCacheHitPercentage()));
+            }
+        }
+        return regions;
+    }
+
+    /**
+     * Enables or disables a single cache region on this node. A disabled region behaves like no cache; the region is
+     * cleared when it is enabled again, as it missed the evictions done in the meantime.
+     */
+    public Map<String, Object> switchRegion(final String name, final boolean enabled) {
+        final Map<String, Object> changes = new HashMap<>();
+        final boolean changed = enabled ? this.disabledRegions.remove(name) : this.disabledRegions.add(name);
+        if (changed) {
+            changes.put(CacheApiConstants.regionParameter, name);
+            changes.put(CacheApiConstants.enabledParameter, enabled);
+            final Cache cache = this.cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        return changes;
+    }
+
+    private static CacheStatisticsMXBean statistics(final MBeanServer mBeanServer, final String name) {
+        try {
+            final Set<ObjectName> objectNames = mBeanServer
+                    .queryNames(new ObjectName("javax.cache:type=CacheStatistics,CacheManager=*,Cache=" + name), null);
+            if (objectNames.isEmpty()) {
+                return null;
+            }
+            return JMX.newMBeanProxy(mBeanServer, objectNames.iterator().next(), CacheStatisticsMXBean.class);
+        } catch (MalformedObjectNameException e) {
+            LOG.warn("No statistics for cache {}", name, e);
+            return null;
+        }
+    }
+
+    private static Long seconds(final Duration duration) {
+        return duration == null ? null : duration.toSeconds();
+    }
+
     private void clearEhCache() {
         Iterable<String> cacheNames = cacheManager.getCacheNames();
         for (String cacheName : cacheNames) {
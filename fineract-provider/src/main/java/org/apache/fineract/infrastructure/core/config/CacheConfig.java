@@ -19,55 +19,168 @@
 
 package org.apache.fineract.infrastructure.core.config;
 
+import java.io.Serializable;
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 import javax.cache.CacheManager;
 import javax.cache.Caching;
 import javax.cache.spi.CachingProvider;
 import org.ehcache.config.builders.CacheConfigurationBuilder;
 import org.ehcache.config.builders.ExpiryPolicyBuilder;
 import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.expiry.ExpiryPolicy;
 import org.ehcache.jsr107.Eh107Configuration;
 import org.springframework.cache.jcache.JCacheCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+/**
+ * Creates the cache regions used by the platform.
+ *
+ * Every region has its own heap size, optional off-heap tier and expiry, configured under
+ * <code>fineract.cache.regions</code> with <code>fineract.cache.defaults</code> as fallback. Statistics are enabled on
+ * all regions, so their hits, misses and evictions are published as <code>cache.*</code> metrics through actuator.
+ */
 @Configuration
 public class CacheConfig {
 
+    public static final List<String> CACHE_NAMES = List.of("users", "usersByUsername", "tenantsById", "offices", "officesForDropdown",
+            "officesById", "charges", "funds", "code_values", "codes", "hooks", "tfConfig", "userTFAccessToken", "configByName", "tellers",
+            "validationLimit");
+
     @Bean
-    public JCacheCacheManager ehCacheManager() {
+    public JCacheCacheManager ehCacheManager(final FineractProperties fineractProperties) {
         JCacheCacheManager jCacheCacheManager = new JCacheCacheManager();
-        jCacheCacheManager.setCacheManager(getCustomCacheManager());
+        jCacheCacheManager.setCacheManager(getCustomCacheManager(fineractProperties.getCache()));
         return jCacheCacheManager;
     }
 
-    private CacheManager getCustomCacheManager() {
+    /**
+     * Returns the settings of the given region, with the settings it does not define taken from the defaults.
+     */
+    public static FineractProperties.FineractCacheRegionProperties regionSettings(
+            final FineractProperties.FineractCacheProperties properties, final String cacheName) {
+        final FineractProperties.FineractCacheRegionProperties defaults = properties.getDefaults();
+        final FineractProperties.FineractCacheRegionProperties region = properties.getRegions().get(cacheName);
+        final FineractProperties.FineractCacheRegionProperties settings = new FineractProperties.FineractCacheRegionProperties();
+        settings.setHeapEntries(region != null && region.getHeapEntries() != null ? region.getHeapEntries() : defaults.getHeapEntries());
+        settings.setOffHeapMb(region != null && region.getOffHeapMb() != null ? region.getOffHeapMb() : defaults.getOffHeapMb());
+        settings.setTimeToLive(region != null && region.getTimeToLive() != null ? region.getTimeToLive() : defaults.getTimeToLive());
+        settings.setTimeToIdle(region != null && region.getTimeToIdle() != null ? region.getTimeToIdle() : defaults.getTimeToIdle());
+        return settings;
+    }
+
+    private CacheManager getCustomCacheManager(final FineractProperties.FineractCacheProperties properties) {
         CachingProvider provider = Caching.getCachingProvider();
         CacheManager cacheManager = provider.getCacheManager();
 
-        javax.cache.configuration.Configuration<Object, Object> defaultTemplate = Eh107Configuration.fromEhcacheCacheConfiguration(
-                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(10000))
-                        .withExpiry(ExpiryPolicyBuilder.noExpiration()).build());
-
-        cacheManager.createCache("users", defaultTemplate);
-        cacheManager.createCache("usersByUsername", defaultTemplate);
-        cacheManager.createCache("tenantsById", defaultTemplate);
-        cacheManager.createCache("offices", defaultTemplate);
-        cacheManager.createCache("officesForDropdown", defaultTemplate);
-        cacheManager.createCache("officesById", defaultTemplate);
-        cacheManager.createCache("charges", defaultTemplate);
-        cacheManager.createCache("funds", defaultTemplate);
-        cacheManager.createCache("code_values", defaultTemplate);
-        cacheManager.createCache("codes", defaultTemplate);
-        cacheManager.createCache("hooks", defaultTemplate);
-        cacheManager.createCache("tfConfig", defaultTemplate);
-
-        javax.cache.configuration.Configuration<Object, Object> accessTokenTemplate = Eh107Configuration.fromEhcacheCacheConfiguration(
-                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(10000))
-                        .withExpiry(ExpiryPolicyBuilder.timeToIdleExpiration(Duration.ofHours(2))).build());
-
-        cacheManager.createCache("userTFAccessToken", accessTokenTemplate);
+        for (final String cacheName : CACHE_NAMES) {
+            final FineractProperties.FineractCacheRegionProperties settings = regionSettings(properties, cacheName);
+            // the off-heap tier stores entries serialized, so such regions only accept serializable keys and values
+            if (hasOffHeapTier(settings)) {
+                cacheManager.createCache(cacheName, configuration(Serializable.class, settings));
+            } else {
+                cacheManager.createCache(cacheName, configuration(Object.class, settings));
+            }
+            cacheManager.enableStatistics(cacheName, true);
+            cacheManager.enableManagement(cacheName, true);
+        }
 
         return cacheManager;
     }
+
+    private static <T> javax.cache.configuration.Configuration<T, T> configuration(final Class<T> type,
+            final FineractProperties.FineractCacheRegionProperties settings) {
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder.heap(settings.getHeapEntries());
+        if (hasOffHeapTier(settings)) {
+            resourcePools = resourcePools.offheap(settings.getOffHeapMb(), MemoryUnit.MB);
+        }
+        return Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(type, type, resourcePools).withExpiry(expiry(settings)).build());
+    }
+
+    private static boolean hasOffHeapTier(final FineractProperties.FineractCacheRegionProperties settings) {
+        return settings.getOffHeapMb() != null && settings.getOffHeapMb() > 0;
+    }
+
+    /**
+     * An entry expires <code>timeToLive</code> after it was written and <code>timeToIdle</code> after it was last read.
+     * With both set, a read moves the expiry of the entry to <code>timeToIdle</code> from then on, but never past
+     * <code>timeToLive</code> after it was written.
+     */
+    private static ExpiryPolicy<Object, Object> expiry(final FineractProperties.FineractCacheRegionProperties settings) {
+        final Duration timeToLive = settings.getTimeToLive();
+        final Duration timeToIdle = settings.getTimeToIdle();
+        final boolean expiresAfterWrite = timeToLive != null && !timeToLive.isZero();
+        final boolean expiresWhenIdle = timeToIdle != null && !timeToIdle.isZero();
+        if (expiresAfterWrite && expiresWhenIdle) {
+            return new IdleExpiryWithinTimeToLive(timeToLive, timeToIdle, System::nanoTime);
+        } else if (expiresAfterWrite) {
+            return ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive);
+        } else if (expiresWhenIdle) {
+            return ExpiryPolicyBuilder.timeToIdleExpiration(timeToIdle);
+        }
+        return ExpiryPolicyBuilder.noExpiration();
+    }
+
+    /**
+     * Expires an entry <code>timeToLive</code> after it was written, and earlier once it has not been read for
+     * <code>timeToIdle</code>.
+     *
+     * The expiry policy is not told when an entry was written, so the time at which each key runs out of its
+     * <code>timeToLive</code> is kept here. Keys whose time has run out are dropped every <code>timeToLive</code>, so
+     * only the keys written within the last two <code>timeToLive</code> are kept, whether or not the cache still holds
+     * them.
+     */
+    static final class IdleExpiryWithinTimeToLive implements ExpiryPolicy<Object, Object> {
+
+        private final Duration timeToLive;
+        private final Duration timeToIdle;
+        private final LongSupplier nanoClock;
+        private final Map<Object, Long> expiresAt = new ConcurrentHashMap<>();
+        private volatile long nextPurge;
+
+        IdleExpiryWithinTimeToLive(final Duration timeToLive, final Duration timeToIdle, final LongSupplier nanoClock) {
+            this.timeToLive = timeToLive;
+            this.timeToIdle = timeToIdle;
+            this.nanoClock = nanoClock;
+            this.nextPurge = nanoClock.getAsLong() + timeToLive.toNanos();
+        }
+
+        @Override
+        public Duration getExpiryForCreation(final Object key, final Object value) {
+            return written(key);
+        }
+
+        @Override
+        public Duration getExpiryForAccess(final Object key, final Supplier<?> value) {
+            final Long deadline = this.expiresAt.get(key);
+            if (deadline == null) {
+                // unknown write time, the expiry set before cannot be past the time to live
+                return null;
+            }
+            final Duration remaining = Duration.ofNanos(Math.max(0, deadline - this.nanoClock.getAsLong()));
+            return remaining.compareTo(this.timeToIdle) < 0 ? remaining : this.timeToIdle;
+        }
+
+        @Override
+        public Duration getExpiryForUpdate(final Object key, final Supplier<?> oldValue, final Object newValue) {
+            return written(key);
+        }
+
+        private Duration written(final Object key) {
+            final long now = this.nanoClock.getAsLong();
+            if (now - this.nextPurge >= 0) {
+                this.nextPurge = now + this.timeToLive.toNanos();
+                this.expiresAt.values().removeIf(deadline -> deadline - now <= 0);
+            }
+            this.expiresAt.put(key, now + this.timeToLive.toNanos());
+            return this.timeToLive;
+        }
+    }
 }
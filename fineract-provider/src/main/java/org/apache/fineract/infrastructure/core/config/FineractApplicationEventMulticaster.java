@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.config;
+
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.domain.FineractEvent;
+import org.apache.fineract.infrastructure.core.domain.LongRunningEvent;
+import org.apache.fineract.infrastructure.core.exception.EventDispatchRejectedException;
+import org.apache.fineract.infrastructure.core.service.TenantFairEventExecutor;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+import org.springframework.core.ResolvableType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Delivers {@link FineractEvent}s asynchronously on a {@link TenantFairEventExecutor}, {@link LongRunningEvent}s on an
+ * executor of their own. An event the executor cannot take in time is rejected with an
+ * {@link EventDispatchRejectedException}, its listeners never run on the publishing thread.
+ *
+ * The tenant context carried by the event and the authentication of the publishing thread are installed on the
+ * dispatching thread for the duration of the listener call, so listeners do not depend on thread local inheritance.
+ * Other events are delivered on the task executor of the multicaster, as Spring does.
+ */
+public class FineractApplicationEventMulticaster extends SimpleApplicationEventMulticaster {
+
+    private static final String NO_TENANT = "";
+
+    private final TenantFairEventExecutor executor;
+    private final TenantFairEventExecutor longRunningExecutor;
+
+    public FineractApplicationEventMulticaster(final TenantFairEventExecutor executor,
+            final TenantFairEventExecutor longRunningExecutor) {
+        this.executor = executor;
+        this.longRunningExecutor = longRunningExecutor;
+    }
+
+    @Override
+    public void multicastEvent(final ApplicationEvent event, final ResolvableType eventType) {
+        if (!(event instanceof FineractEvent fineractEvent)) {
+            super.multicastEvent(event, eventType);
+            return;
+        }
+        final ResolvableType type = eventType != null ? eventType : ResolvableType.forInstance(event);
+        final FineractContext context = fineractEvent.getContext();
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        final String tenantIdentifier = context != null && context.getTenantContext() != null
+                ? context.getTenantContext().getTenantIdentifier()
+                : NO_TENANT;
+
+        final TenantFairEventExecutor eventExecutor = event instanceof LongRunningEvent ? this.longRunningExecutor : this.executor;
+
+        for (final ApplicationListener<?> listener : getApplicationListeners(event, type)) {
+            final boolean queued = eventExecutor.offer(tenantIdentifier, () -> {
+                final SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+                securityContext.setAuthentication(authentication);
+                SecurityContextHolder.setContext(securityContext);
+                if (context != null) {
+                    ThreadLocalContextUtil.init(context);
+                }
+                try {
+                    invokeListener(listener, event);
+                } finally {
+                    SecurityContextHolder.clearContext();
+                    ThreadLocalContextUtil.clearTenant();
+                    ThreadLocalContextUtil.clearDataSourceContext();
+                }
+            });
+            if (!queued) {
+                throw new EventDispatchRejectedException(event.getClass().getSimpleName());
+            }
+        }
+    }
+}
@@ -19,7 +19,10 @@
 
 package org.apache.fineract.infrastructure.core.config;
 
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -41,6 +44,32 @@ public class FineractProperties {
 
     private FineractTemplateProperties template;
 
+    private FineractCobProperties cob;
+
+    private FineractJobWorkerProperties jobWorker;
+
+    private FineractEventDispatchProperties eventDispatch;
+
+    private FineractHookDeliveryProperties hookDelivery;
+
+    private FineractBatchProperties batch;
+
+    private FineractCacheProperties cache;
+
+    private FineractReportProperties report;
+
+    private FineractRunningBalanceProperties runningBalance;
+
+    private FineractCredentialCacheProperties credentialCache;
+
+    private FineractTenantPoolProperties tenantPool;
+
+    private FineractAccrualProperties accrual;
+
+    private FineractLoanScheduleProperties loanSchedule;
+
+    private FineractRepaymentIngestionProperties repaymentIngestion;
+
     @Getter
     @Setter
     public static class FineractTenantProperties {
@@ -116,4 +145,155 @@ public class FineractProperties {
         private boolean regexWhitelistEnabled;
         private List<String> regexWhitelist;
     }
+
+    @Getter
+    @Setter
+    public static class FineractCobProperties {
+
+        private int partitionSize;
+        private int workerThreads;
+        private int leaseTimeoutMinutes;
+        private int workerPollIntervalSeconds;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractJobWorkerProperties {
+
+        private int maxThreads;
+        private int queueCapacity;
+        private int maxConcurrencyPerJob;
+        private long retryBaseDelayMillis;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractEventDispatchProperties {
+
+        private int threads;
+        private int queueCapacity;
+        private int tenantQueueCapacity;
+        private long offerTimeoutMillis;
+        private int longRunningThreads;
+        private int longRunningQueueCapacity;
+        private int longRunningTenantQueueCapacity;
+    }
+
+    /**
+     * <code>serviceAuthTokens</code> holds the Basic auth token of a service user per tenant identifier, which SMS bridge
+     * hooks and their message templates are given to call back the platform. Set it from a secret, e.g.
+     * <code>FINERACT_HOOKDELIVERY_SERVICEAUTHTOKENS_DEFAULT</code>; without it those hooks are sent without a token.
+     */
+    @Getter
+    @Setter
+    public static class FineractHookDeliveryProperties {
+
+        private boolean enabled;
+        private int threads;
+        private int batchSize;
+        private int pollIntervalSeconds;
+        private int maxAttempts;
+        private int retryBaseDelaySeconds;
+        private int retryMaxDelaySeconds;
+        private int leaseTimeoutMinutes;
+        private int deliveredRetentionDays;
+        private Map<String, String> serviceAuthTokens = new HashMap<>();
+    }
+
+    @Getter
+    @Setter
+    public static class FineractBatchProperties {
+
+        private int threads;
+        private int queueCapacity;
+        private int maxParallelism;
+        private int maxTenantThreads;
+        private int streamingReferenceWindow;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractCacheProperties {
+
+        private FineractCacheRegionProperties defaults;
+        private Map<String, FineractCacheRegionProperties> regions = new HashMap<>();
+    }
+
+    /**
+     * Settings of one cache region. Settings left unset fall back to the defaults, a zero duration disables that
+     * expiry.
+     */
+    @Getter
+    @Setter
+    public static class FineractCacheRegionProperties {
+
+        private Long heapEntries;
+        private Long offHeapMb;
+        private Duration timeToLive;
+        private Duration timeToIdle;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractReportProperties {
+
+        private int fetchSize;
+        private boolean cacheEnabled;
+        private int cacheMaxEntries;
+        private int cacheMaxRows;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractRunningBalanceProperties {
+
+        private int workerThreads;
+        private int pageSize;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractCredentialCacheProperties {
+
+        private boolean enabled;
+        private int maxEntries;
+        private Duration timeToLive;
+    }
+
+    /**
+     * Idle tenant connection pools are closed after <code>idleTimeout</code>, checked every
+     * <code>evictionInterval</code>. A zero duration keeps the pools open.
+     */
+    @Getter
+    @Setter
+    public static class FineractTenantPoolProperties {
+
+        private Duration idleTimeout;
+        private Duration evictionInterval;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractAccrualProperties {
+
+        private int workerThreads;
+        private int chunkSize;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractLoanScheduleProperties {
+
+        private boolean previewCacheEnabled;
+        private int previewCacheMaxEntries;
+        private Duration previewCacheTimeToLive;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractRepaymentIngestionProperties {
+
+        private int workerThreads;
+        private int maxLines;
+    }
 }
@@ -19,6 +19,7 @@
 
 package org.apache.fineract.infrastructure.core.config;
 
+import org.apache.fineract.infrastructure.core.service.TenantFairEventExecutor;
 import org.springframework.beans.factory.config.MethodInvokingFactoryBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -30,14 +31,32 @@ import org.springframework.security.core.context.SecurityContextHolder;
 public class SpringConfig {
 
     @Bean
-    public SimpleApplicationEventMulticaster applicationEventMulticaster() {
-        SimpleApplicationEventMulticaster saem = new SimpleApplicationEventMulticaster();
-        saem.setTaskExecutor(new SimpleAsyncTaskExecutor());
-        return saem;
+    public TenantFairEventExecutor eventDispatchExecutor(FineractProperties fineractProperties) {
+        FineractProperties.FineractEventDispatchProperties properties = fineractProperties.getEventDispatch();
+        return new TenantFairEventExecutor("event-dispatch", properties.getThreads(), properties.getQueueCapacity(),
+                properties.getTenantQueueCapacity(), properties.getOfferTimeoutMillis());
     }
 
-    // The application events (for importing) rely on the inheritable thread local security context strategy
-    // This is NOT compatible with threadpools so if we use threadpools the below will need to be reworked
+    @Bean
+    public TenantFairEventExecutor longRunningEventDispatchExecutor(FineractProperties fineractProperties) {
+        FineractProperties.FineractEventDispatchProperties properties = fineractProperties.getEventDispatch();
+        return new TenantFairEventExecutor("long-running-event-dispatch", properties.getLongRunningThreads(),
+                properties.getLongRunningQueueCapacity(), properties.getLongRunningTenantQueueCapacity(),
+                properties.getOfferTimeoutMillis());
+    }
+
+    @Bean
+    public SimpleApplicationEventMulticaster applicationEventMulticaster(TenantFairEventExecutor eventDispatchExecutor,
+            TenantFairEventExecutor longRunningEventDispatchExecutor) {
+        SimpleApplicationEventMulticaster multicaster = new FineractApplicationEventMulticaster(eventDispatchExecutor,
+                longRunningEventDispatchExecutor);
+        // other application events keep being delivered asynchronously, like every event was before
+        multicaster.setTaskExecutor(new SimpleAsyncTaskExecutor("application-event-"));
+        return multicaster;
+    }
+
+    // Application events carry their tenant context and the multicaster propagates the security context explicitly,
+    // the inheritable strategy is kept for threads started directly by request or job threads
     @Bean
     public MethodInvokingFactoryBean methodInvokingFactoryBean() {
         MethodInvokingFactoryBean mifb = new MethodInvokingFactoryBean();
@@ -16,16 +16,10 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.fineract.infrastructure.hooks.event;
+package org.apache.fineract.infrastructure.core.domain;
 
-import java.io.Serializable;
-import lombok.Getter;
-import lombok.RequiredArgsConstructor;
-
-@RequiredArgsConstructor
-@Getter
-public class HookEventSource implements Serializable {
-
-    private final String entityName;
-    private final String actionName;
-}
+/**
+ * Marks a {@link FineractEvent} whose listeners run for a long time, such as the import of a whole workbook. These
+ * events are dispatched by workers of their own, so that they do not hold up the short listeners.
+ */
+public interface LongRunningEvent {}
@@ -0,0 +1,31 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.exception;
+
+/**
+ * A {@link RuntimeException} thrown when an application event cannot be dispatched because the dispatch queue stayed
+ * full, so that the request publishing it fails instead of the event being lost.
+ */
+public class EventDispatchRejectedException extends AbstractPlatformServiceUnavailableException {
+
+    public EventDispatchRejectedException(final String eventName) {
+        super("error.msg.event.dispatch.rejected", "The server is too busy to dispatch the " + eventName + " event, try again later",
+                eventName);
+    }
+}
@@ -0,0 +1,199 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Bounded executor for application event listeners.
+ *
+ * A fixed set of worker threads serves one FIFO queue per tenant in round robin, so a tenant publishing a burst of
+ * events cannot starve the others. When <code>tenantQueueCapacity</code> events of the tenant are waiting, {@link #offer}
+ * blocks the publisher for up to <code>offerTimeoutMillis</code> until a worker frees a slot of that tenant, which slows
+ * the producer down, and then refuses the task. So a single tenant cannot fill the executor and have the events of the
+ * others refused; <code>queueCapacity</code> only bounds the events of all tenants together as a backstop. Refused tasks
+ * are counted, the publisher has to reject the event.
+ */
+@Slf4j
+public class TenantFairEventExecutor implements MeterBinder, DisposableBean {
+
+    private final String name;
+    private final Object lock = new Object();
+    private final Map<String, Deque<Runnable>> queues = new HashMap<>();
+    private final Deque<String> readyTenants = new ArrayDeque<>();
+    private final int queueCapacity;
+    private final int tenantQueueCapacity;
+    private final long offerTimeoutMillis;
+    private final List<Thread> workers;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong refused = new AtomicLong();
+    private int queued;
+    private boolean shutdown;
+
+    public TenantFairEventExecutor(final String name, final int threads, final int queueCapacity, final int tenantQueueCapacity,
+            final long offerTimeoutMillis) {
+        this.name = name;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.tenantQueueCapacity = Math.max(1, tenantQueueCapacity);
+        this.offerTimeoutMillis = Math.max(0, offerTimeoutMillis);
+        final int workerCount = Math.max(1, threads);
+        this.workers = new ArrayList<>(workerCount);
+        for (int i = 1; i <= workerCount; i++) {
+            final Thread worker = new Thread(this::work, name + "-" + i);
+            worker.setDaemon(true);
+            this.workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Queues the task for the given tenant, waiting for a free slot while the queue of the tenant or the executor is
+     * saturated.
+     *
+     * @return false if the tenant or the executor stayed saturated for <code>offerTimeoutMillis</code> or the executor is
+     *         shut down, in which case the task has not been queued
+     */
+    public boolean offer(final String tenantIdentifier, final Runnable task) {
+        synchronized (this.lock) {
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.offerTimeoutMillis);
+            while (!this.shutdown && isSaturated(tenantIdentifier)) {
+                final long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMillis <= 0) {
+                    break;
+                }
+                try {
+                    this.lock.wait(remainingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            if (this.shutdown || isSaturated(tenantIdentifier)) {
+                this.refused.incrementAndGet();
+                return false;
+            }
+            final Deque<Runnable> queue = this.queues.computeIfAbsent(tenantIdentifier, key -> new ArrayDeque<>());
+            if (queue.isEmpty()) {
+                this.readyTenants.addLast(tenantIdentifier);
+            }
+            queue.addLast(task);
+            this.queued++;
+            this.lock.notifyAll();
+            return true;
+        }
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        Gauge.builder("fineract.events.queued", this, TenantFairEventExecutor::getQueued).tag("executor", this.name)
+                .description("Events waiting for dispatch").register(registry);
+        Gauge.builder("fineract.events.active", this.active, AtomicInteger::get).tag("executor", this.name)
+                .description("Events being dispatched").register(registry);
+        FunctionCounter.builder("fineract.events.dispatched", this.dispatched, AtomicLong::get).tag("executor", this.name)
+                .description("Events dispatched by the event workers").register(registry);
+        FunctionCounter.builder("fineract.events.refused", this.refused, AtomicLong::get).tag("executor", this.name)
+                .description("Events rejected because the dispatch queue stayed full or the executor was shut down")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        synchronized (this.lock) {
+            this.shutdown = true;
+            this.lock.notifyAll();
+        }
+    }
+
+    public int getQueued() {
+        synchronized (this.lock) {
+            return this.queued;
+        }
+    }
+
+    public long getRefused() {
+        return this.refused.get();
+    }
+
+    private boolean isSaturated(final String tenantIdentifier) {
+        if (this.queued >= this.queueCapacity) {
+            return true;
+        }
+        final Deque<Runnable> queue = this.queues.get(tenantIdentifier);
+        return queue != null && queue.size() >= this.tenantQueueCapacity;
+    }
+
+    private void work() {
+        Runnable task = take();
+        while (task != null) {
+            this.active.incrementAndGet();
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Event listener failed", e);
+            } finally {
+                this.active.decrementAndGet();
+                this.dispatched.incrementAndGet();
+            }
+            task = take();
+        }
+    }
+
+    private Runnable take() {
+        synchronized (this.lock) {
+            while (this.readyTenants.isEmpty()) {
+                if (this.shutdown) {
+                    return null;
+                }
+                try {
+                    this.lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+            final String tenantIdentifier = this.readyTenants.pollFirst();
+            final Deque<Runnable> queue = this.queues.get(tenantIdentifier);
+            final Runnable task = queue.pollFirst();
+            this.queued--;
+            // wakes up publishers waiting for a free slot
+            this.lock.notifyAll();
+            if (queue.isEmpty()) {
+                this.queues.remove(tenantIdentifier);
+            } else {
+                this.readyTenants.addLast(tenantIdentifier);
+            }
+            return task;
+        }
+    }
+}
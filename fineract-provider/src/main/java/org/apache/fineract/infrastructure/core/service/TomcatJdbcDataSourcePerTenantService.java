@@ -18,13 +18,27 @@
  */
 package org.apache.fineract.infrastructure.core.service;
 
-import java.util.HashMap;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
 /**
@@ -32,44 +46,169 @@ import org.springframework.stereotype.Service;
  * {@link ThreadLocal} variable for this request.
  *
  * {@link ThreadLocalContextUtil} is used to retrieve the {@link FineractPlatformTenant} for the request.
+ *
+ * This lookup runs for every connection checkout, so finding the pool of a tenant does not lock. The pool of a tenant is
+ * created once, on its first request. Pools without any connection in use for
+ * <code>fineract.tenant-pool.idle-timeout</code> are taken out of the lookup and created again when the tenant comes back.
+ * They are only closed on the next eviction run, so a request that picked the pool just before it was taken out still
+ * gets its connection; a lookup that still finds a closed pool creates the new one right away.
  */
+@Slf4j
 @Service
 public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceService {
 
-    private final Map<Long, DataSource> tenantToDataSourceMap = new HashMap<>(1);
+    private static final long TOUCH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<Long, TenantPool> tenantToDataSourceMap = new ConcurrentHashMap<>();
+    // only used by the eviction thread
+    private final List<TenantPool> retiredPools = new ArrayList<>();
     private final DataSource tenantDataSource;
 
     private final DataSourcePerTenantServiceFactory dataSourcePerTenantServiceFactory;
+    private final FineractProperties fineractProperties;
+
+    private ScheduledExecutorService evictionScheduler;
 
     @Autowired
     public TomcatJdbcDataSourcePerTenantService(final @Qualifier("hikariTenantDataSource") DataSource tenantDataSource,
-            final DataSourcePerTenantServiceFactory dataSourcePerTenantServiceFactory) {
+            final DataSourcePerTenantServiceFactory dataSourcePerTenantServiceFactory, final FineractProperties fineractProperties) {
         this.tenantDataSource = tenantDataSource;
         this.dataSourcePerTenantServiceFactory = dataSourcePerTenantServiceFactory;
+        this.fineractProperties = fineractProperties;
+    }
+
+    @PostConstruct
+    public void start() {
+        final FineractProperties.FineractTenantPoolProperties properties = this.fineractProperties.getTenantPool();
+        if (!isPositive(properties.getIdleTimeout()) || !isPositive(properties.getEvictionInterval())) {
+            return;
+        }
+        this.evictionScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("tenant-pool-eviction-"));
+        final long interval = properties.getEvictionInterval().toMillis();
+        this.evictionScheduler.scheduleWithFixedDelay(this::evictIdlePools, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (this.evictionScheduler != null) {
+            this.evictionScheduler.shutdownNow();
+        }
     }
 
     @Override
     public DataSource retrieveDataSource() {
-        // default to tenant database datasource
-        DataSource tenantDataSource = this.tenantDataSource;
-
         final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
-        if (tenant != null) {
-            final FineractPlatformTenantConnection tenantConnection = tenant.getConnection();
-
-            synchronized (this.tenantToDataSourceMap) {
-                // if tenantConnection information available switch to the
-                // appropriate datasource for that tenant.
-                DataSource possibleDS = this.tenantToDataSourceMap.get(tenantConnection.getConnectionId());
-                if (possibleDS != null) {
-                    tenantDataSource = possibleDS;
-                } else {
-                    tenantDataSource = dataSourcePerTenantServiceFactory.createNewDataSourceFor(tenantConnection);
-                    this.tenantToDataSourceMap.put(tenantConnection.getConnectionId(), tenantDataSource);
+        if (tenant == null) {
+            // default to tenant database datasource
+            return this.tenantDataSource;
+        }
+
+        // if tenantConnection information available switch to the
+        // appropriate datasource for that tenant.
+        final FineractPlatformTenantConnection tenantConnection = tenant.getConnection();
+        while (true) {
+            TenantPool pool = this.tenantToDataSourceMap.get(tenantConnection.getConnectionId());
+            if (pool == null) {
+                pool = this.tenantToDataSourceMap.computeIfAbsent(tenantConnection.getConnectionId(),
+                        connectionId -> new TenantPool(this.dataSourcePerTenantServiceFactory.createNewDataSourceFor(tenantConnection)));
+            }
+            pool.touch();
+            if (!pool.isClosed()) {
+                return pool.dataSource;
+            }
+            // closed by the eviction in the meantime
+            this.tenantToDataSourceMap.remove(tenantConnection.getConnectionId(), pool);
+        }
+    }
+
+    private void evictIdlePools() {
+        closeRetiredPools();
+        final long idleTimeout = this.fineractProperties.getTenantPool().getIdleTimeout().toNanos();
+        for (final Map.Entry<Long, TenantPool> entry : this.tenantToDataSourceMap.entrySet()) {
+            final TenantPool pool = entry.getValue();
+            try {
+                if (!pool.isIdleFor(idleTimeout) || !this.tenantToDataSourceMap.remove(entry.getKey(), pool)) {
+                    continue;
                 }
+                // a lookup may have picked the pool between the idle check and the removal
+                if (!pool.isIdleFor(idleTimeout) && this.tenantToDataSourceMap.putIfAbsent(entry.getKey(), pool) == null) {
+                    continue;
+                }
+                log.info("Retiring connection pool of tenant connection {} after being idle for {}", entry.getKey(),
+                        this.fineractProperties.getTenantPool().getIdleTimeout());
+                this.retiredPools.add(pool);
+            } catch (RuntimeException e) {
+                log.warn("Failed to evict connection pool of tenant connection {}", entry.getKey(), e);
             }
         }
+    }
 
-        return tenantDataSource;
+    /**
+     * Closes the pools retired by the previous run, unless a request that picked one before it was retired still holds a
+     * connection.
+     */
+    private void closeRetiredPools() {
+        for (final Iterator<TenantPool> iterator = this.retiredPools.iterator(); iterator.hasNext();) {
+            final TenantPool pool = iterator.next();
+            try {
+                if (pool.hasActiveConnections()) {
+                    continue;
+                }
+                iterator.remove();
+                pool.close();
+            } catch (RuntimeException e) {
+                iterator.remove();
+                log.warn("Failed to close retired connection pool", e);
+            }
+        }
+    }
+
+    private static boolean isPositive(final Duration duration) {
+        return duration != null && !duration.isZero() && !duration.isNegative();
+    }
+
+    private static final class TenantPool {
+
+        private final DataSource dataSource;
+        private volatile long lastUsed = System.nanoTime();
+
+        TenantPool(final DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        /**
+         * Records the use at most once per second, so tenants under load do not keep writing the same field.
+         */
+        void touch() {
+            final long now = System.nanoTime();
+            if (now - this.lastUsed > TOUCH_INTERVAL_NANOS) {
+                this.lastUsed = now;
+            }
+        }
+
+        boolean isIdleFor(final long idleTimeout) {
+            if (!(this.dataSource instanceof HikariDataSource) || System.nanoTime() - this.lastUsed < idleTimeout) {
+                return false;
+            }
+            return !hasActiveConnections();
+        }
+
+        boolean hasActiveConnections() {
+            if (!(this.dataSource instanceof HikariDataSource hikariDataSource)) {
+                return false;
+            }
+            final HikariPoolMXBean poolBean = hikariDataSource.getHikariPoolMXBean();
+            return poolBean != null && poolBean.getActiveConnections() > 0;
+        }
+
+        boolean isClosed() {
+            return this.dataSource instanceof HikariDataSource hikariDataSource && hikariDataSource.isClosed();
+        }
+
+        void close() {
+            if (this.dataSource instanceof HikariDataSource hikariDataSource) {
+                hikariDataSource.close();
+            }
+        }
     }
 }
@@ -56,6 +56,8 @@ final class ReportsApiResourceSwagger {
         public Boolean coreReport;
         @Schema(example = "true")
         public Boolean useReport;
+        @Schema(example = "60")
+        public Integer cacheTtlSeconds;
         public Collection<ReportParameterData> reportParameters;
 
     }
@@ -91,6 +93,8 @@ final class ReportsApiResourceSwagger {
         public String description;
         @Schema(example = "select 'very good sql' as AComment")
         public String reportSql;
+        @Schema(example = "60")
+        public Integer cacheTtlSeconds;
         public Collection<ReportParameterData> reportParameters;
     }
 
@@ -114,6 +118,8 @@ final class ReportsApiResourceSwagger {
 
         @Schema(example = "Completely New Report")
         public String reportName;
+        @Schema(example = "60")
+        public Integer cacheTtlSeconds;
         public Collection<ReportParameterData> reportParameters;
 
     }
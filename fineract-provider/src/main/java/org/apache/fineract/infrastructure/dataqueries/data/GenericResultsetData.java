@@ -22,25 +22,37 @@ import java.util.List;
 
 /**
  * Immutable data object for generic resultset data.
+ *
+ * The values are held column by column in {@link ResultsetColumns}; <code>data</code> is a row view of them so the
+ * JSON representation stays the same.
  */
 public final class GenericResultsetData {
 
     private final List<ResultsetColumnHeaderData> columnHeaders;
     private final List<ResultsetRowData> data;
+    private final transient ResultsetColumns columns;
 
-    public GenericResultsetData(final List<ResultsetColumnHeaderData> columnHeaders, final List<ResultsetRowData> resultsetDataRows) {
+    public GenericResultsetData(final List<ResultsetColumnHeaderData> columnHeaders, final ResultsetColumns columns) {
         this.columnHeaders = columnHeaders;
-        this.data = resultsetDataRows;
+        this.columns = columns;
+        this.data = columns.getRows();
     }
 
     public List<ResultsetColumnHeaderData> getColumnHeaders() {
         return this.columnHeaders;
     }
 
+    /**
+     * The rows as text, rendered from {@link #getColumns()} on access.
+     */
     public List<ResultsetRowData> getData() {
         return this.data;
     }
 
+    public ResultsetColumns getColumns() {
+        return this.columns;
+    }
+
     public String getColTypeOfColumnNamed(final String columnName) {
 
         String colType = null;
@@ -54,7 +66,7 @@ public final class GenericResultsetData {
     }
 
     public boolean hasNoEntries() {
-        return this.data.isEmpty();
+        return this.columns.getRowCount() == 0;
     }
 
     public boolean hasEntries() {
@@ -62,6 +74,6 @@ public final class GenericResultsetData {
     }
 
     public boolean hasMoreThanOneEntry() {
-        return this.data.size() > 1;
+        return this.columns.getRowCount() > 1;
     }
 }
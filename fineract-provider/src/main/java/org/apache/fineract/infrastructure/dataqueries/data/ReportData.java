@@ -43,6 +43,8 @@ public final class ReportData {
     @SuppressWarnings("unused")
     private final Boolean useReport;
     @SuppressWarnings("unused")
+    private final Integer cacheTtlSeconds;
+    @SuppressWarnings("unused")
     private final Collection<ReportParameterData> reportParameters;
 
     @SuppressWarnings("unused")
@@ -55,6 +57,13 @@ public final class ReportData {
     public ReportData(final Long id, final String reportName, final String reportType, final String reportSubType,
             final String reportCategory, final String description, final String reportSql, final Boolean coreReport,
             final Boolean useReport, final Collection<ReportParameterData> reportParameters) {
+        this(id, reportName, reportType, reportSubType, reportCategory, description, reportSql, coreReport, useReport, null,
+                reportParameters);
+    }
+
+    public ReportData(final Long id, final String reportName, final String reportType, final String reportSubType,
+            final String reportCategory, final String description, final String reportSql, final Boolean coreReport,
+            final Boolean useReport, final Integer cacheTtlSeconds, final Collection<ReportParameterData> reportParameters) {
         this.id = id;
         this.reportName = reportName;
         this.reportType = reportType;
@@ -65,6 +74,7 @@ public final class ReportData {
         this.reportSql = reportSql;
         this.coreReport = coreReport;
         this.useReport = useReport;
+        this.cacheTtlSeconds = cacheTtlSeconds;
         this.allowedReportTypes = null;
         this.allowedReportSubTypes = null;
         this.allowedParameters = null;
@@ -81,6 +91,7 @@ public final class ReportData {
         this.reportSql = null;
         this.coreReport = null;
         this.useReport = null;
+        this.cacheTtlSeconds = null;
         this.allowedReportTypes = null;
         this.allowedReportSubTypes = null;
         this.allowedParameters = null;
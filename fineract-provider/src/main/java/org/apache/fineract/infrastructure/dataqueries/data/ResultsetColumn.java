@@ -0,0 +1,245 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.data;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * One column of {@link ResultsetColumns}. Whole numbers, dates and date-times are kept in primitive arrays and
+ * decimals as {@link BigDecimal}, so that they never have to be parsed back from text; any other type is kept as text.
+ *
+ * Values are rendered as <code>toString()</code> of the object the driver returns for them, which is how the row set
+ * this replaced rendered them.
+ */
+public abstract class ResultsetColumn {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final BitSet nulls = new BitSet();
+    private int size;
+
+    /**
+     * Picks the column implementation for a JDBC type, once per query.
+     */
+    static ResultsetColumn forType(final int sqlType, final boolean signed) {
+        switch (sqlType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return new WholeNumberColumn();
+            case Types.BIGINT:
+                // an unsigned bigint does not fit into a long
+                return signed ? new WholeNumberColumn() : new TextColumn();
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                return new DecimalColumn();
+            case Types.DATE:
+                return new DateColumn();
+            case Types.TIMESTAMP:
+                return new DateTimeColumn();
+            default:
+                return new TextColumn();
+        }
+    }
+
+    final void read(final ResultSet rs, final int columnIndex) throws SQLException {
+        if (!readValue(rs, columnIndex, this.size)) {
+            this.nulls.set(this.size);
+        }
+        this.size++;
+    }
+
+    /**
+     * Reads the value of the current row into the given row slot, returns <code>false</code> for SQL NULL.
+     */
+    abstract boolean readValue(ResultSet rs, int columnIndex, int row) throws SQLException;
+
+    /**
+     * Appends the text of a non null value, as {@link #getString(int)} returns it.
+     */
+    public abstract void appendTo(StringBuilder builder, int row);
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isNull(final int row) {
+        return this.nulls.get(row);
+    }
+
+    public String getString(final int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        final StringBuilder builder = new StringBuilder();
+        appendTo(builder, row);
+        return builder.toString();
+    }
+
+    static int grownCapacity(final int length) {
+        return Math.max(INITIAL_CAPACITY, length * 2);
+    }
+
+    public static final class WholeNumberColumn extends ResultsetColumn {
+
+        private long[] values = new long[0];
+
+        @Override
+        boolean readValue(final ResultSet rs, final int columnIndex, final int row) throws SQLException {
+            if (row == this.values.length) {
+                this.values = Arrays.copyOf(this.values, grownCapacity(row));
+            }
+            this.values[row] = rs.getLong(columnIndex);
+            return !rs.wasNull();
+        }
+
+        public long getLong(final int row) {
+            return this.values[row];
+        }
+
+        @Override
+        public void appendTo(final StringBuilder builder, final int row) {
+            builder.append(this.values[row]);
+        }
+    }
+
+    public static final class DecimalColumn extends ResultsetColumn {
+
+        private BigDecimal[] values = new BigDecimal[0];
+
+        @Override
+        boolean readValue(final ResultSet rs, final int columnIndex, final int row) throws SQLException {
+            if (row == this.values.length) {
+                this.values = Arrays.copyOf(this.values, grownCapacity(row));
+            }
+            this.values[row] = rs.getBigDecimal(columnIndex);
+            return this.values[row] != null;
+        }
+
+        public BigDecimal getDecimal(final int row) {
+            return this.values[row];
+        }
+
+        @Override
+        public void appendTo(final StringBuilder builder, final int row) {
+            builder.append(this.values[row].toString());
+        }
+    }
+
+    public static final class DateColumn extends ResultsetColumn {
+
+        private long[] epochDays = new long[0];
+
+        @Override
+        boolean readValue(final ResultSet rs, final int columnIndex, final int row) throws SQLException {
+            if (row == this.epochDays.length) {
+                this.epochDays = Arrays.copyOf(this.epochDays, grownCapacity(row));
+            }
+            final LocalDate value = rs.getObject(columnIndex, LocalDate.class);
+            if (value == null) {
+                return false;
+            }
+            this.epochDays[row] = value.toEpochDay();
+            return true;
+        }
+
+        public LocalDate getDate(final int row) {
+            return LocalDate.ofEpochDay(this.epochDays[row]);
+        }
+
+        @Override
+        public void appendTo(final StringBuilder builder, final int row) {
+            builder.append(getDate(row));
+        }
+    }
+
+    public static final class DateTimeColumn extends ResultsetColumn {
+
+        // the form of Timestamp.toString(): at least one fraction digit, trailing zeros dropped
+        private static final DateTimeFormatter FORMATTER = new DateTimeFormatterBuilder().appendPattern("yyyy-MM-dd HH:mm:ss")
+                .appendFraction(ChronoField.NANO_OF_SECOND, 1, 9, true).toFormatter();
+
+        private long[] epochSeconds = new long[0];
+        private int[] nanos = new int[0];
+
+        @Override
+        boolean readValue(final ResultSet rs, final int columnIndex, final int row) throws SQLException {
+            if (row == this.epochSeconds.length) {
+                this.epochSeconds = Arrays.copyOf(this.epochSeconds, grownCapacity(row));
+            }
+            if (row == this.nanos.length) {
+                this.nanos = Arrays.copyOf(this.nanos, grownCapacity(row));
+            }
+            final Timestamp value = rs.getTimestamp(columnIndex);
+            if (value == null) {
+                return false;
+            }
+            final LocalDateTime dateTime = value.toLocalDateTime();
+            this.epochSeconds[row] = dateTime.toEpochSecond(ZoneOffset.UTC);
+            this.nanos[row] = dateTime.getNano();
+            return true;
+        }
+
+        public LocalDateTime getDateTime(final int row) {
+            return LocalDateTime.ofEpochSecond(this.epochSeconds[row], this.nanos[row], ZoneOffset.UTC);
+        }
+
+        @Override
+        public void appendTo(final StringBuilder builder, final int row) {
+            FORMATTER.formatTo(getDateTime(row), builder);
+        }
+    }
+
+    public static final class TextColumn extends ResultsetColumn {
+
+        private String[] values = new String[0];
+
+        @Override
+        boolean readValue(final ResultSet rs, final int columnIndex, final int row) throws SQLException {
+            if (row == this.values.length) {
+                this.values = Arrays.copyOf(this.values, grownCapacity(row));
+            }
+            final Object value = rs.getObject(columnIndex);
+            this.values[row] = value == null ? null : value.toString();
+            return value != null;
+        }
+
+        @Override
+        public String getString(final int row) {
+            return this.values[row];
+        }
+
+        @Override
+        public void appendTo(final StringBuilder builder, final int row) {
+            builder.append(this.values[row]);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.data;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * The values of a generic result set stored column by column, see {@link ResultsetColumn}.
+ *
+ * Rows are only offered as views through {@link #getRows()}, their values are rendered to text when they are read.
+ */
+public final class ResultsetColumns {
+
+    private final ResultsetColumn[] columns;
+    private int rowCount;
+
+    private ResultsetColumns(final ResultsetColumn[] columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * Reads all remaining rows of the result set; usable as a
+     * {@link org.springframework.jdbc.core.ResultSetExtractor}.
+     */
+    public static ResultsetColumns read(final ResultSet rs) throws SQLException {
+        final ResultsetColumns result = forResultSet(rs);
+        while (rs.next()) {
+            result.readRow(rs);
+        }
+        return result;
+    }
+
+    /**
+     * Creates empty columns for the rows of the result set, to be added one at a time with {@link #readRow(ResultSet)}.
+     */
+    public static ResultsetColumns forResultSet(final ResultSet rs) throws SQLException {
+        final ResultSetMetaData rsmd = rs.getMetaData();
+        final ResultsetColumn[] columns = new ResultsetColumn[rsmd.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = ResultsetColumn.forType(rsmd.getColumnType(i + 1), rsmd.isSigned(i + 1));
+        }
+        return new ResultsetColumns(columns);
+    }
+
+    /**
+     * Adds the current row of the result set.
+     */
+    public void readRow(final ResultSet rs) throws SQLException {
+        for (int i = 0; i < this.columns.length; i++) {
+            this.columns[i].read(rs, i + 1);
+        }
+        this.rowCount++;
+    }
+
+    public int getColumnCount() {
+        return this.columns.length;
+    }
+
+    public int getRowCount() {
+        return this.rowCount;
+    }
+
+    public ResultsetColumn getColumn(final int columnIndex) {
+        return this.columns[columnIndex];
+    }
+
+    public List<ResultsetRowData> getRows() {
+        return new RowList(this);
+    }
+
+    public List<String> getRow(final int row) {
+        if (row < 0 || row >= this.rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + this.rowCount);
+        }
+        return new RowValues(this, row);
+    }
+
+    // named classes rather than anonymous ones, Gson does not serialize anonymous classes
+    private static final class RowList extends AbstractList<ResultsetRowData> {
+
+        private final ResultsetColumns columns;
+
+        RowList(final ResultsetColumns columns) {
+            this.columns = columns;
+        }
+
+        @Override
+        public ResultsetRowData get(final int row) {
+            return ResultsetRowData.create(this.columns.getRow(row));
+        }
+
+        @Override
+        public int size() {
+            return this.columns.rowCount;
+        }
+    }
+
+    private static final class RowValues extends AbstractList<String> {
+
+        private final ResultsetColumns columns;
+        private final int row;
+
+        RowValues(final ResultsetColumns columns, final int row) {
+            this.columns = columns;
+            this.row = row;
+        }
+
+        @Override
+        public String get(final int columnIndex) {
+            return this.columns.columns[columnIndex].getString(this.row);
+        }
+
+        @Override
+        public int size() {
+            return this.columns.columns.length;
+        }
+    }
+}
@@ -76,6 +76,10 @@ public final class Report extends AbstractPersistableCustom {
     @Column(name = "self_service_user_report")
     private boolean isSelfServiceUserReport;
 
+    // results of the report are cached for that long, see ReportResultCache
+    @Column(name = "cache_ttl_seconds")
+    private Integer cacheTtlSeconds;
+
     public static Report fromJson(final JsonCommand command, final Collection<String> reportTypes) {
 
         String reportName = null;
@@ -85,6 +89,7 @@ public final class Report extends AbstractPersistableCustom {
         String description = null;
         boolean useReport = false;
         String reportSql = null;
+        Integer cacheTtlSeconds = null;
 
         if (command.parameterExists("reportName")) {
             reportName = command.stringValueOfParameterNamed("reportName");
@@ -108,7 +113,12 @@ public final class Report extends AbstractPersistableCustom {
             reportSql = command.stringValueOfParameterNamed("reportSql");
         }
 
-        return new Report(reportName, reportType, reportSubType, reportCategory, description, useReport, reportSql, reportTypes);
+        if (command.parameterExists("cacheTtlSeconds")) {
+            cacheTtlSeconds = command.integerValueSansLocaleOfParameterNamed("cacheTtlSeconds");
+        }
+
+        return new Report(reportName, reportType, reportSubType, reportCategory, description, useReport, reportSql, cacheTtlSeconds,
+                reportTypes);
     }
 
     Report() {
@@ -116,7 +126,8 @@ public final class Report extends AbstractPersistableCustom {
     }
 
     public Report(final String reportName, final String reportType, final String reportSubType, final String reportCategory,
-            final String description, final boolean useReport, final String reportSql, final Collection<String> reportTypes) {
+            final String description, final boolean useReport, final String reportSql, final Integer cacheTtlSeconds,
+            final Collection<String> reportTypes) {
         this.reportName = reportName;
         this.reportType = reportType;
         this.reportSubType = reportSubType;
@@ -125,6 +136,7 @@ public final class Report extends AbstractPersistableCustom {
         this.coreReport = false;
         this.useReport = useReport;
         this.reportSql = reportSql;
+        this.cacheTtlSeconds = cacheTtlSeconds;
         validate(reportTypes);
     }
 
@@ -175,6 +187,13 @@ public final class Report extends AbstractPersistableCustom {
             this.reportSql = StringUtils.defaultIfEmpty(newValue, null);
         }
 
+        paramName = "cacheTtlSeconds";
+        if (command.isChangeInIntegerSansLocaleParameterNamed(paramName, this.cacheTtlSeconds)) {
+            final Integer newValue = command.integerValueSansLocaleOfParameterNamed(paramName);
+            actualChanges.put(paramName, newValue);
+            this.cacheTtlSeconds = newValue;
+        }
+
         final String reportParametersParamName = "reportParameters";
         if (command.hasParameter(reportParametersParamName)) {
             final JsonArray jsonArray = command.arrayOfParameterNamed(reportParametersParamName);
@@ -188,7 +207,7 @@ public final class Report extends AbstractPersistableCustom {
         if (!actualChanges.isEmpty()) {
             if (isCoreReport()) {
                 for (final String key : actualChanges.keySet()) {
-                    if (!key.equals("useReport")) {
+                    if (!key.equals("useReport") && !key.equals("cacheTtlSeconds")) {
                         throw new PlatformDataIntegrityException("error.msg.only.use.report.can.be.updated.for.core.report",
                                 "Only the Use Report field can be updated for Core Reports", key);
                     }
@@ -238,6 +257,8 @@ public final class Report extends AbstractPersistableCustom {
 
         baseDataValidator.reset().parameter("reportCategory").value(this.reportCategory).notExceedingLengthOf(45);
 
+        baseDataValidator.reset().parameter("cacheTtlSeconds").value(this.cacheTtlSeconds).ignoreIfNull().integerZeroOrGreater();
+
         if (StringUtils.isNotBlank(this.reportType)) {
             if (this.reportType.equals("Table") || this.reportType.equals("Chart")) {
                 baseDataValidator.reset().parameter("reportSql").value(this.reportSql).cantBeBlankWhenParameterProvidedIs("reportType",
@@ -37,7 +37,7 @@ public final class ReportCommandFromApiJsonDeserializer {
      * The parameters supported for this command.
      */
     private final Set<String> supportedParameters = new HashSet<>(Arrays.asList("reportName", "reportType", "reportSubType",
-            "reportCategory", "description", "reportSql", "useReport", "reportParameters"));
+            "reportCategory", "description", "reportSql", "useReport", "reportParameters", "cacheTtlSeconds"));
 
     private final FromJsonHelper fromApiJsonHelper;
 
@@ -27,10 +27,8 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.StreamingOutput;
 import org.apache.fineract.infrastructure.core.api.ApiParameterHelper;
-import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
 import org.apache.fineract.infrastructure.dataqueries.api.RunreportsApiResource;
 import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
-import org.apache.fineract.infrastructure.dataqueries.data.ReportData;
 import org.apache.fineract.infrastructure.report.annotation.ReportService;
 import org.apache.fineract.infrastructure.report.service.ReportingProcessService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -41,14 +39,12 @@ import org.springframework.stereotype.Service;
 public class DatatableReportingProcessService implements ReportingProcessService {
 
     private final ReadReportingService readExtraDataAndReportingService;
-    private final ToApiJsonSerializer<ReportData> toApiJsonSerializer;
     private final GenericDataService genericDataService;
 
     @Autowired
     public DatatableReportingProcessService(final ReadReportingService readExtraDataAndReportingService,
-            final GenericDataService genericDataService, final ToApiJsonSerializer<ReportData> toApiJsonSerializer) {
+            final GenericDataService genericDataService) {
         this.readExtraDataAndReportingService = readExtraDataAndReportingService;
-        this.toApiJsonSerializer = toApiJsonSerializer;
         this.genericDataService = genericDataService;
     }
 
@@ -80,23 +76,18 @@ public class DatatableReportingProcessService implements ReportingProcessService
         if (!exportCsv) {
             final Map<String, String> reportParams = getReportParams(queryParams);
 
-            final GenericResultsetData result = this.readExtraDataAndReportingService.retrieveGenericResultset(reportName,
-                    parameterTypeValue, reportParams, isSelfServiceUserReport);
-
-            String json;
             final boolean genericResultSetIsPassed = ApiParameterHelper.genericResultSetPassed(queryParams);
             final boolean genericResultSet = ApiParameterHelper.genericResultSet(queryParams);
-            if (genericResultSetIsPassed) {
-                if (genericResultSet) {
-                    json = this.toApiJsonSerializer.serializePretty(prettyPrint, result);
-                } else {
-                    json = this.genericDataService.generateJsonFromGenericResultsetData(result);
-                }
-            } else {
-                json = this.toApiJsonSerializer.serializePretty(prettyPrint, result);
+            if (genericResultSetIsPassed && !genericResultSet) {
+                final GenericResultsetData result = this.readExtraDataAndReportingService.retrieveGenericResultset(reportName,
+                        parameterTypeValue, reportParams, isSelfServiceUserReport);
+                final String json = this.genericDataService.generateJsonFromGenericResultsetData(result);
+                return Response.ok().entity(json).type(MediaType.APPLICATION_JSON).build();
             }
 
-            return Response.ok().entity(json).type(MediaType.APPLICATION_JSON).build();
+            final StreamingOutput result = this.readExtraDataAndReportingService.retrieveReportJSON(reportName, parameterTypeValue,
+                    reportParams, isSelfServiceUserReport, prettyPrint);
+            return Response.ok().entity(result).type(MediaType.APPLICATION_JSON).build();
         }
 
         // CSV format
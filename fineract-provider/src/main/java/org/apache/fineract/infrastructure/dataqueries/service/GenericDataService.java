@@ -26,6 +26,20 @@ public interface GenericDataService {
 
     GenericResultsetData fillGenericResultSet(String sql);
 
+    /**
+     * Runs the query on a forward only result set and passes its rows to the consumer as they are read, so the result
+     * is never held in memory. If the consumer fails, for example because the client went away, the query is cancelled.
+     */
+    void streamGenericResultSet(String sql, GenericResultsetConsumer consumer);
+
+    /**
+     * Streams the rows like {@link #streamGenericResultSet(String, GenericResultsetConsumer)} and also keeps them, as long
+     * as there are no more than <code>maxRows</code>.
+     *
+     * @return the whole result, or <code>null</code> if it has more than <code>maxRows</code> rows
+     */
+    GenericResultsetData streamAndCaptureGenericResultSet(String sql, GenericResultsetConsumer consumer, int maxRows);
+
     String generateJsonFromGenericResultsetData(GenericResultsetData grs);
 
     String replace(String str, String pattern, String replace);
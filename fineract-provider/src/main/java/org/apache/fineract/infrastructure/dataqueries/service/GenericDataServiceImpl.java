@@ -18,27 +18,38 @@
  */
 package org.apache.fineract.infrastructure.dataqueries.service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoField;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import javax.sql.DataSource;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.core.service.database.DatabaseIndependentQueryService;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseTypeResolver;
 import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
 import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumn;
 import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnValueData;
-import org.apache.fineract.infrastructure.dataqueries.data.ResultsetRowData;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumns;
 import org.apache.fineract.infrastructure.dataqueries.exception.DatatableNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
-import org.springframework.jdbc.support.rowset.SqlRowSetMetaData;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -48,53 +59,131 @@ public class GenericDataServiceImpl implements GenericDataService {
     private final JdbcTemplate jdbcTemplate;
     private final DataSource dataSource;
     private final DatabaseIndependentQueryService databaseIndependentQueryService;
+    private final DatabaseTypeResolver databaseTypeResolver;
+    private final FineractProperties fineractProperties;
 
     @Autowired
     public GenericDataServiceImpl(final RoutingDataSource dataSource, final JdbcTemplate jdbcTemplate,
-            DatabaseIndependentQueryService databaseIndependentQueryService) {
+            DatabaseIndependentQueryService databaseIndependentQueryService, final DatabaseTypeResolver databaseTypeResolver,
+            final FineractProperties fineractProperties) {
         this.dataSource = dataSource;
         this.databaseIndependentQueryService = databaseIndependentQueryService;
+        this.databaseTypeResolver = databaseTypeResolver;
+        this.fineractProperties = fineractProperties;
         this.jdbcTemplate = new JdbcTemplate(this.dataSource);
     }
 
     @Override
     public GenericResultsetData fillGenericResultSet(final String sql) {
         try {
-            final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(sql); // NOSONAR
-
-            final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<>();
-            final List<ResultsetRowData> resultsetDataRows = new ArrayList<>();
-
-            final SqlRowSetMetaData rsmd = rs.getMetaData();
-
-            for (int i = 0; i < rsmd.getColumnCount(); i++) {
+            return this.jdbcTemplate.query(sql, (ResultSetExtractor<GenericResultsetData>) rs -> new GenericResultsetData( // NOSONAR
+                    columnHeaders(rs.getMetaData()), ResultsetColumns.read(rs)));
+        } catch (DataAccessException e) {
+            log.error("Reporting error: {}", e.getMessage());
+            throw new PlatformDataIntegrityException("error.msg.report.unknown.data.integrity.issue", e.getClass().getName(), e);
+        }
+    }
 
-                final String columnName = rsmd.getColumnLabel(i + 1);
-                final String columnType = rsmd.getColumnTypeName(i + 1);
+    private static List<ResultsetColumnHeaderData> columnHeaders(final ResultSetMetaData rsmd) throws SQLException {
+        final int columnCount = rsmd.getColumnCount();
+        final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            columnHeaders.add(ResultsetColumnHeaderData.basic(rsmd.getColumnLabel(i + 1), rsmd.getColumnTypeName(i + 1)));
+        }
+        return columnHeaders;
+    }
 
-                final ResultsetColumnHeaderData columnHeader = ResultsetColumnHeaderData.basic(columnName, columnType);
-                columnHeaders.add(columnHeader);
-            }
+    @Override
+    public void streamGenericResultSet(final String sql, final GenericResultsetConsumer consumer) {
+        streamAndCaptureGenericResultSet(sql, consumer, -1);
+    }
 
-            while (rs.next()) {
-                final List<String> columnValues = new ArrayList<>();
-                for (int i = 0; i < rsmd.getColumnCount(); i++) {
-                    final String columnName = rsmd.getColumnLabel(i + 1);
-                    final String columnValue = rs.getString(columnName);
-                    columnValues.add(columnValue);
+    @Override
+    public GenericResultsetData streamAndCaptureGenericResultSet(final String sql, final GenericResultsetConsumer consumer,
+            final int maxRows) {
+        try {
+            return this.jdbcTemplate.execute((ConnectionCallback<GenericResultsetData>) connection -> {
+                // PostgreSQL only fetches rows in chunks inside a transaction
+                final boolean startTransaction = connection.getAutoCommit() && this.databaseTypeResolver.isPostgreSQL();
+                if (startTransaction) {
+                    connection.setAutoCommit(false);
                 }
-
-                final ResultsetRowData resultsetDataRow = ResultsetRowData.create(columnValues);
-                resultsetDataRows.add(resultsetDataRow);
-            }
-
-            return new GenericResultsetData(columnHeaders, resultsetDataRows);
+                try (PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, // NOSONAR
+                        ResultSet.CONCUR_READ_ONLY)) {
+                    // MySQL only streams rows with this fetch size, any other reads the whole result first
+                    statement.setFetchSize(
+                            this.databaseTypeResolver.isMySQL() ? Integer.MIN_VALUE : this.fineractProperties.getReport().getFetchSize());
+                    try (ResultSet rs = statement.executeQuery()) {
+                        return streamRows(statement, rs, consumer, maxRows);
+                    }
+                } finally {
+                    if (startTransaction) {
+                        connection.rollback();
+                        connection.setAutoCommit(true);
+                    }
+                }
+            });
         } catch (DataAccessException e) {
             log.error("Reporting error: {}", e.getMessage());
             throw new PlatformDataIntegrityException("error.msg.report.unknown.data.integrity.issue", e.getClass().getName(), e);
         }
     }
 
+    /**
+     * Rows are kept in {@link ResultsetColumns} until there are more than <code>maxRows</code> of them, a negative
+     * <code>maxRows</code> keeps none.
+     */
+    private static GenericResultsetData streamRows(final PreparedStatement statement, final ResultSet rs,
+            final GenericResultsetConsumer consumer, final int maxRows) throws SQLException {
+        final List<ResultsetColumnHeaderData> columnHeaders = columnHeaders(rs.getMetaData());
+        final int columnCount = columnHeaders.size();
+        final String[] columnValues = new String[columnCount];
+        final List<String> row = Arrays.asList(columnValues);
+        ResultsetColumns captured = maxRows >= 0 ? ResultsetColumns.forResultSet(rs) : null;
+        boolean completed = false;
+        try {
+            consumer.start(columnHeaders);
+            while (rs.next()) {
+                if (captured != null && captured.getRowCount() == maxRows) {
+                    // too many rows to keep, the rest is only streamed
+                    captured = null;
+                }
+                if (captured != null) {
+                    captured.readRow(rs);
+                    consumer.row(captured.getRow(captured.getRowCount() - 1));
+                    continue;
+                }
+                for (int i = 0; i < columnCount; i++) {
+                    columnValues[i] = valueString(rs, i + 1);
+                }
+                consumer.row(row);
+            }
+            consumer.end();
+            completed = true;
+            return captured == null ? null : new GenericResultsetData(columnHeaders, captured);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (!completed) {
+                // stop the database from sending the rows nobody is going to read
+                try {
+                    statement.cancel();
+                } catch (SQLException cancelFailure) {
+                    log.warn("Could not cancel report query", cancelFailure);
+                }
+            }
+        }
+    }
+
+    /**
+     * Values are rendered as their JDBC object, the way the in-memory result set always rendered them: date-times and
+     * booleans differ from {@link ResultSet#getString(int)}.
+     */
+    private static String valueString(final ResultSet rs, final int columnIndex) throws SQLException {
+        final Object value = rs.getObject(columnIndex);
+        return value == null ? null : value.toString();
+    }
+
     @Override
     public String replace(final String str, final String pattern, final String replace) {
         // JPW - this replace may / may not be any better or quicker than the
@@ -126,82 +215,97 @@ public class GenericDataServiceImpl implements GenericDataService {
 
     @Override
     public String generateJsonFromGenericResultsetData(final GenericResultsetData grs) {
-
-        final StringBuilder writer = new StringBuilder();
-
-        writer.append("[");
-
         final List<ResultsetColumnHeaderData> columnHeaders = grs.getColumnHeaders();
+        final ResultsetColumns columns = grs.getColumns();
+
+        // TODO: Hanlde better. While working on Cl18-255 i discovered statement columnHeaders.get(j) throws an
+        // index out of bounds exception because in method
+        // fillResultsetColumnHeaders(final String datatable, boolean fieldsSkip)
+        // fieldsSkip is passed as true so last two columns are skipped. This means the row data is less 2 columns.
+        // For now hack is to check against columnHeaders size
+        final int columnCount = Math.min(columnHeaders.size(), columns.getColumnCount());
+        final String[] jsonNames = new String[columnCount];
+        final String[] jsonTypes = new String[columnCount];
+        for (int j = 0; j < columnCount; j++) {
+            jsonNames[j] = "\"" + columnHeaders.get(j).getColumnName() + "\": ";
+            jsonTypes[j] = jsonType(columnHeaders.get(j));
+        }
 
-        final List<ResultsetRowData> data = grs.getData();
-        List<String> row;
-        Integer rSize;
-        final String doubleQuote = "\"";
-        final String slashDoubleQuote = "\\\"";
-        String currColType;
-        String currVal;
-
-        for (int i = 0; i < data.size(); i++) {
+        final StringBuilder writer = new StringBuilder();
+        writer.append('[');
+        for (int row = 0; row < columns.getRowCount(); row++) {
+            if (row > 0) {
+                writer.append(',');
+            }
             writer.append("\n{");
-
-            row = data.get(i).getRow();
-            rSize = row.size();
-            // TODO: Hanlde better. While working on Cl18-255 i discovered statement columnHeaders.get(j) throws an
-            // index out of bounds exception because in method
-            // fillResultsetColumnHeaders(final String datatable, boolean fieldsSkip)
-            // fieldsSkip is passed as true so last two columns are skipped. This means the row data is less 2 columns.
-            // For now hack is to check against columnHeaders size
-            for (int j = 0; j < columnHeaders.size() && j < rSize; j++) {
-
-                writer.append(doubleQuote + columnHeaders.get(j).getColumnName() + doubleQuote + ": ");
-                currColType = columnHeaders.get(j).getColumnDisplayType();
-                final String colType = columnHeaders.get(j).getColumnType();
-                if (currColType == null && colType.equalsIgnoreCase("INT")) {
-                    currColType = "INTEGER";
-                }
-                if (currColType == null && colType.equalsIgnoreCase("VARCHAR")) {
-                    currColType = "VARCHAR";
-                }
-                if (currColType == null && colType.equalsIgnoreCase("DATE")) {
-                    currColType = "DATE";
-                }
-                currVal = row.get(j);
-                if (currVal != null && currColType != null) {
-                    if (currColType.equals("DECIMAL") || currColType.equals("INTEGER")) {
-                        writer.append(currVal);
-                    } else {
-                        if (currColType.equals("DATE")) {
-                            final LocalDate localDate = LocalDate.parse(currVal);
-                            writer.append(
-                                    "[" + localDate.getYear() + ", " + localDate.getMonthValue() + ", " + localDate.getDayOfMonth() + "]");
-                        } else if (currColType.equals("DATETIME")) {
-                            final LocalDateTime localDateTime = LocalDateTime.parse(formatDateTimeValue(currVal),
-                                    DateUtils.DEFAULT_DATETIME_FORMATTER);
-                            writer.append("[" + localDateTime.getYear() + ", " + localDateTime.getMonthValue() + ", "
-                                    + localDateTime.getDayOfMonth() + ", " + localDateTime.getHour() + ", " + localDateTime.getMinute()
-                                    + ", " + localDateTime.getSecond() + ", " + localDateTime.get(ChronoField.MILLI_OF_SECOND) + "]");
-                        } else {
-                            writer.append(doubleQuote + replace(currVal, doubleQuote, slashDoubleQuote) + doubleQuote);
-                        }
-                    }
-                } else {
-                    writer.append("null");
-                }
-                if (j < (rSize - 1)) {
+            for (int j = 0; j < columnCount; j++) {
+                if (j > 0) {
                     writer.append(",\n");
                 }
+                writer.append(jsonNames[j]);
+                appendJsonValue(writer, jsonTypes[j], columns.getColumn(j), row);
             }
-
-            if (i < (data.size() - 1)) {
-                writer.append("},");
-            } else {
-                writer.append("}");
-            }
+            writer.append('}');
         }
-
         writer.append("\n]");
         return writer.toString();
+    }
+
+    private static String jsonType(final ResultsetColumnHeaderData columnHeader) {
+        final String displayType = columnHeader.getColumnDisplayType();
+        if (displayType != null) {
+            return displayType;
+        }
+        final String columnType = columnHeader.getColumnType();
+        if (columnType.equalsIgnoreCase("INT")) {
+            return "INTEGER";
+        }
+        if (columnType.equalsIgnoreCase("VARCHAR")) {
+            return "VARCHAR";
+        }
+        if (columnType.equalsIgnoreCase("DATE")) {
+            return "DATE";
+        }
+        return null;
+    }
 
+    private void appendJsonValue(final StringBuilder writer, final String jsonType, final ResultsetColumn column, final int row) {
+        if (jsonType == null || column.isNull(row)) {
+            writer.append("null");
+            return;
+        }
+        switch (jsonType) {
+            case "DECIMAL":
+            case "INTEGER":
+                column.appendTo(writer, row);
+            break;
+            case "DATE":
+                final LocalDate localDate = column instanceof ResultsetColumn.DateColumn dateColumn ? dateColumn.getDate(row)
+                        : LocalDate.parse(column.getString(row));
+                writer.append('[').append(localDate.getYear()).append(", ").append(localDate.getMonthValue()).append(", ")
+                        .append(localDate.getDayOfMonth()).append(']');
+            break;
+            case "DATETIME":
+                final LocalDateTime localDateTime = column instanceof ResultsetColumn.DateTimeColumn dateTimeColumn
+                        ? dateTimeColumn.getDateTime(row)
+                        : LocalDateTime.parse(formatDateTimeValue(column.getString(row)), DateUtils.DEFAULT_DATETIME_FORMATTER);
+                writer.append('[').append(localDateTime.getYear()).append(", ").append(localDateTime.getMonthValue()).append(", ")
+                        .append(localDateTime.getDayOfMonth()).append(", ").append(localDateTime.getHour()).append(", ")
+                        .append(localDateTime.getMinute()).append(", ").append(localDateTime.getSecond()).append(", ")
+                        .append(localDateTime.get(ChronoField.MILLI_OF_SECOND)).append(']');
+            break;
+            default:
+                final String value = column.getString(row);
+                writer.append('"');
+                int start = 0;
+                int quote;
+                while ((quote = value.indexOf('"', start)) >= 0) {
+                    writer.append(value, start, quote).append("\\\"");
+                    start = quote + 1;
+                }
+                writer.append(value, start, value.length()).append('"');
+            break;
+        }
     }
 
     @Override
@@ -0,0 +1,42 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import java.io.IOException;
+import java.util.List;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+
+/**
+ * Receives a generic result set one row at a time, see {@link GenericDataService#streamGenericResultSet}.
+ *
+ * The row passed to {@link #row(List)} is reused for the next row and must not be kept.
+ */
+public interface GenericResultsetConsumer {
+
+    void start(List<ResultsetColumnHeaderData> columnHeaders) throws IOException;
+
+    void row(List<String> row) throws IOException;
+
+    void end() throws IOException;
+
+    /**
+     * Ends a result set which failed before all its rows were passed, possibly before {@link #start(List)}.
+     */
+    default void fail(String message) throws IOException {}
+}
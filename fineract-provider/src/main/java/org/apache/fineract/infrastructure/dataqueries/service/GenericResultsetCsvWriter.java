@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Set;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+
+/**
+ * Writes a streamed report as CSV: headers and text values are quoted, numeric values are written as they are and
+ * nulls are left empty.
+ *
+ * A report failing half way ends with a line starting with <code>#ERROR</code> after the rows written so far.
+ */
+final class GenericResultsetCsvWriter implements GenericResultsetConsumer {
+
+    private static final Set<String> UNQUOTED_TYPES = Set.of("DECIMAL", "DOUBLE", "BIGINT", "SMALLINT", "INT");
+
+    private final Writer writer;
+    private boolean[] quoted;
+
+    GenericResultsetCsvWriter(final Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void start(final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+        this.quoted = new boolean[columnHeaders.size()];
+        for (int i = 0; i < columnHeaders.size(); i++) {
+            if (i > 0) {
+                this.writer.write(',');
+            }
+            this.writer.write('"');
+            this.writer.write(columnHeaders.get(i).getColumnName());
+            this.writer.write('"');
+            this.quoted[i] = !UNQUOTED_TYPES.contains(columnHeaders.get(i).getColumnType());
+        }
+        this.writer.write('\n');
+    }
+
+    @Override
+    public void row(final List<String> row) throws IOException {
+        for (int i = 0; i < row.size(); i++) {
+            if (i > 0) {
+                this.writer.write(',');
+            }
+            final String value = row.get(i);
+            if (value == null) {
+                continue;
+            }
+            if (this.quoted[i]) {
+                writeQuoted(value);
+            } else {
+                this.writer.write(value);
+            }
+        }
+        this.writer.write('\n');
+    }
+
+    private void writeQuoted(final String value) throws IOException {
+        this.writer.write('"');
+        int start = 0;
+        int quote;
+        while ((quote = value.indexOf('"', start)) >= 0) {
+            this.writer.write(value, start, quote + 1 - start);
+            this.writer.write('"');
+            start = quote + 1;
+        }
+        this.writer.write(value, start, value.length() - start);
+        this.writer.write('"');
+    }
+
+    @Override
+    public void end() throws IOException {
+        this.writer.flush();
+    }
+
+    @Override
+    public void fail(final String message) throws IOException {
+        this.writer.write("#ERROR: ");
+        this.writer.write(message);
+        this.writer.write('\n');
+        this.writer.flush();
+    }
+}
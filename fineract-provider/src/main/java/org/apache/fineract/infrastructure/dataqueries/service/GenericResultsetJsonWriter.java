@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import org.apache.fineract.infrastructure.core.serialization.GoogleGsonSerializerHelper;
+import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+
+/**
+ * Writes a streamed report in the JSON shape of a serialized {@link GenericResultsetData}, one row at a time.
+ *
+ * A report failing half way ends with an <code>error</code> member after the rows written so far, which a complete
+ * report never has.
+ */
+final class GenericResultsetJsonWriter implements GenericResultsetConsumer {
+
+    private static final Gson GSON = createGson(false);
+    private static final Gson PRETTY_GSON = createGson(true);
+
+    private final Gson gson;
+    private final JsonWriter writer;
+    private boolean started;
+
+    GenericResultsetJsonWriter(final Writer writer, final boolean prettyPrint) throws IOException {
+        this.gson = prettyPrint ? PRETTY_GSON : GSON;
+        this.writer = this.gson.newJsonWriter(writer);
+    }
+
+    private static Gson createGson(final boolean prettyPrint) {
+        final GsonBuilder builder = new GsonBuilder();
+        GoogleGsonSerializerHelper.registerTypeAdapters(builder);
+        if (prettyPrint) {
+            builder.setPrettyPrinting();
+        }
+        return builder.create();
+    }
+
+    @Override
+    public void start(final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+        this.started = true;
+        this.writer.beginObject();
+        this.writer.name("columnHeaders");
+        this.writer.beginArray();
+        for (final ResultsetColumnHeaderData columnHeader : columnHeaders) {
+            this.gson.toJson(columnHeader, ResultsetColumnHeaderData.class, this.writer);
+        }
+        this.writer.endArray();
+        this.writer.name("data");
+        this.writer.beginArray();
+    }
+
+    @Override
+    public void row(final List<String> row) throws IOException {
+        this.writer.beginObject();
+        this.writer.name("row");
+        this.writer.beginArray();
+        for (final String value : row) {
+            this.writer.value(value);
+        }
+        this.writer.endArray();
+        this.writer.endObject();
+    }
+
+    @Override
+    public void end() throws IOException {
+        this.writer.endArray();
+        this.writer.endObject();
+        this.writer.flush();
+    }
+
+    @Override
+    public void fail(final String message) throws IOException {
+        if (this.started) {
+            this.writer.endArray();
+        } else {
+            this.writer.beginObject();
+        }
+        this.writer.name("error");
+        this.writer.value(message);
+        this.writer.endObject();
+        this.writer.flush();
+    }
+}
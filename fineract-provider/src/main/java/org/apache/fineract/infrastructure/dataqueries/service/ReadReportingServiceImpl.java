@@ -22,12 +22,9 @@ import com.lowagie.text.Document;
 import com.lowagie.text.PageSize;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -43,6 +40,8 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.infrastructure.core.config.FineractProperties;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
 import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
 import org.apache.fineract.infrastructure.dataqueries.data.ReportData;
@@ -73,81 +72,45 @@ public class ReadReportingServiceImpl implements ReadReportingService {
     private final SqlInjectionPreventerService sqlInjectionPreventerService;
     private final DatabaseSpecificSQLGenerator sqlGenerator;
     private final FineractProperties fineractProperties;
+    private final ReportResultCache reportResultCache;
 
     @Override
     public StreamingOutput retrieveReportCSV(final String name, final String type, final Map<String, String> queryParams,
             final boolean isSelfServiceUserReport) {
-        return out -> {
-            try {
-
-                final GenericResultsetData result = retrieveGenericResultset(name, type, queryParams, isSelfServiceUserReport);
-                final StringBuilder sb = generateCsvFileBuffer(result);
-
-                final InputStream in = new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8));
-
-                final byte[] outputByte = new byte[4096];
-                Integer readLen = in.read(outputByte, 0, 4096);
-
-                while (readLen != -1) {
-                    out.write(outputByte, 0, readLen);
-                    readLen = in.read(outputByte, 0, 4096);
-                }
-                // in.close();
-                // out.flush();
-                // out.close();
-            } catch (final Exception e) {
-                throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage(), e);
-            }
-        };
+        return streamReport(name, type, queryParams, isSelfServiceUserReport, GenericResultsetCsvWriter::new);
     }
 
-    private StringBuilder generateCsvFileBuffer(final GenericResultsetData result) {
-        final StringBuilder writer = new StringBuilder();
+    @Override
+    public StreamingOutput retrieveReportJSON(final String name, final String type, final Map<String, String> queryParams,
+            final boolean isSelfServiceUserReport, final boolean prettyPrint) {
+        return streamReport(name, type, queryParams, isSelfServiceUserReport,
+                writer -> new GenericResultsetJsonWriter(writer, prettyPrint));
+    }
 
-        final List<ResultsetColumnHeaderData> columnHeaders = result.getColumnHeaders();
-        log.info("NO. of Columns: {}", columnHeaders.size());
-        final Integer chSize = columnHeaders.size();
-        for (int i = 0; i < chSize; i++) {
-            writer.append('"' + columnHeaders.get(i).getColumnName() + '"');
-            if (i < (chSize - 1)) {
-                writer.append(",");
+    /**
+     * The report query is resolved right away so that an unknown report still fails before the response is committed,
+     * the rows are read from a cursor while the response is written. Cached results are written from the cache
+     * instead, and a report with a cache TTL only keeps its rows for the cache while they are few enough to be cached.
+     */
+    private StreamingOutput streamReport(final String name, final String type, final Map<String, String> queryParams,
+            final boolean isSelfServiceUserReport, final StreamedReportOutput.ReportWriterFactory writerFactory) {
+        final ReportQuery reportQuery = getReportQuery(name, type);
+        final String sql = getSQLtoRun(name, reportQuery.sql(), queryParams, isSelfServiceUserReport);
+        final ReportResultCache.Key cacheKey = cacheKey(name, type, reportQuery, queryParams, isSelfServiceUserReport);
+        return new StreamedReportOutput(writerFactory, consumer -> {
+            final long startTime = System.currentTimeMillis();
+            if (cacheKey == null) {
+                this.genericDataService.streamGenericResultSet(sql, consumer);
+            } else {
+                this.reportResultCache.stream(cacheKey, reportQuery.cacheTtlSeconds(), consumer,
+                        (rowConsumer, maxRows) -> this.genericDataService.streamAndCaptureGenericResultSet(sql, rowConsumer, maxRows));
             }
-        }
-        writer.append('\n');
-
-        final List<ResultsetRowData> data = result.getData();
-        List<String> row;
-        Integer rSize;
-        // String currCol;
-        String currColType;
-        String currVal;
-        final String doubleQuote = "\"";
-        final String twoDoubleQuotes = doubleQuote + doubleQuote;
-        log.info("NO. of Rows: {}", data.size());
-        for (ResultsetRowData element : data) {
-            row = element.getRow();
-            rSize = row.size();
-            for (int j = 0; j < rSize; j++) {
-                // currCol = columnHeaders.get(j).getColumnName();
-                currColType = columnHeaders.get(j).getColumnType();
-                currVal = row.get(j);
-                if (currVal != null) {
-                    if (currColType.equals("DECIMAL") || currColType.equals("DOUBLE") || currColType.equals("BIGINT")
-                            || currColType.equals("SMALLINT") || currColType.equals("INT")) {
-                        writer.append(currVal);
-                    } else {
-                        writer.append('"' + this.genericDataService.replace(currVal, doubleQuote, twoDoubleQuotes) + '"');
-                    }
-
-                }
-                if (j < (rSize - 1)) {
-                    writer.append(",");
-                }
+            if (log.isDebugEnabled()) {
+                log.debug("FINISHING streamed Report/Request Name: {} - {}     Elapsed Time: {}",
+                        LogParameterEscapeUtil.escapeLogParameter(name), type.replaceAll("[\n\r\t]", "_"),
+                        System.currentTimeMillis() - startTime);
             }
-            writer.append('\n');
-        }
-
-        return writer;
+        });
     }
 
     @Override
@@ -160,9 +123,17 @@ public class ReadReportingServiceImpl implements ReadReportingService {
                     LogParameterEscapeUtil.escapeLogParameter(type));
         }
 
-        final String sql = getSQLtoRun(name, type, queryParams, isSelfServiceUserReport);
+        final ReportQuery reportQuery = getReportQuery(name, type);
+        final String sql = getSQLtoRun(name, reportQuery.sql(), queryParams, isSelfServiceUserReport);
+        final ReportResultCache.Key cacheKey = cacheKey(name, type, reportQuery, queryParams, isSelfServiceUserReport);
 
-        final GenericResultsetData result = this.genericDataService.fillGenericResultSet(sql);
+        final GenericResultsetData result;
+        if (cacheKey == null) {
+            result = this.genericDataService.fillGenericResultSet(sql);
+        } else {
+            result = this.reportResultCache.get(cacheKey, reportQuery.cacheTtlSeconds(),
+                    () -> this.genericDataService.fillGenericResultSet(sql));
+        }
 
         final long elapsed = System.currentTimeMillis() - startTime;
         if (log.isDebugEnabled()) {
@@ -172,10 +143,25 @@ public class ReadReportingServiceImpl implements ReadReportingService {
         return result;
     }
 
-    private String getSQLtoRun(final String name, final String type, final Map<String, String> queryParams,
+    /**
+     * Results are only cached for reports with a cache TTL. The key includes the office hierarchy of the user and, if
+     * the report SQL refers to it, the user id, so users never see rows they could not have run the report for.
+     */
+    private ReportResultCache.Key cacheKey(final String name, final String type, final ReportQuery reportQuery,
+            final Map<String, String> queryParams, final boolean isSelfServiceUserReport) {
+        if (reportQuery.cacheTtlSeconds() == null || reportQuery.cacheTtlSeconds() <= 0 || !this.reportResultCache.isEnabled()) {
+            return null;
+        }
+        final AppUser currentUser = this.context.authenticatedUser();
+        final Long userId = reportQuery.sql().contains("${currentUserId}") ? currentUser.getId() : null;
+        return new ReportResultCache.Key(ThreadLocalContextUtil.getTenant().getTenantIdentifier(), name, type, queryParams,
+                currentUser.getOffice().getHierarchy(), userId, isSelfServiceUserReport, DateUtils.getBusinessLocalDate());
+    }
+
+    private String getSQLtoRun(final String name, final String reportSql, final Map<String, String> queryParams,
             final boolean isSelfServiceUserReport) {
 
-        String sql = getSql(name, type);
+        String sql = reportSql;
 
         final Set<String> keys = queryParams.keySet();
         for (final String key : keys) {
@@ -205,11 +191,17 @@ public class ReadReportingServiceImpl implements ReadReportingService {
     }
 
     private String getSql(final String name, final String type) {
+        return getReportQuery(name, type).sql();
+    }
+
+    private ReportQuery getReportQuery(final String name, final String type) {
         final String encodedName = sqlInjectionPreventerService.encodeSql(name);
         final String encodedType = sqlInjectionPreventerService.encodeSql(type);
 
-        final String inputSql = "select " + encodedType + "_sql as the_sql from stretchy_" + encodedType + " where " + encodedType
-                + "_name = ?";
+        // only reports can be cached, parameters have no TTL
+        final String cacheTtlColumn = "report".equals(encodedType) ? "cache_ttl_seconds" : "null";
+        final String inputSql = "select " + encodedType + "_sql as the_sql, " + cacheTtlColumn + " as cache_ttl from stretchy_"
+                + encodedType + " where " + encodedType + "_name = ?";
 
         final String inputSqlWrapped = this.genericDataService.wrapSQL(inputSql);
 
@@ -217,11 +209,14 @@ public class ReadReportingServiceImpl implements ReadReportingService {
         final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(inputSqlWrapped, encodedName);
 
         if (rs.next() && rs.getString("the_sql") != null) {
-            return rs.getString("the_sql");
+            final int cacheTtl = rs.getInt("cache_ttl");
+            return new ReportQuery(rs.getString("the_sql"), rs.wasNull() ? null : cacheTtl);
         }
         throw new ReportNotFoundException(encodedName);
     }
 
+    private record ReportQuery(String sql, Integer cacheTtlSeconds) {}
+
     @Override
     public String getReportType(final String reportName, final boolean isSelfServiceUserReport, final boolean isParameterType) {
         String reportType = "Table";
@@ -348,6 +343,7 @@ public class ReadReportingServiceImpl implements ReadReportingService {
         String description = null;
         Boolean coreReport = null;
         Boolean useReport = null;
+        Integer cacheTtlSeconds = null;
         String reportSql = null;
 
         Long prevReportId = (long) -1234;
@@ -368,7 +364,7 @@ public class ReadReportingServiceImpl implements ReadReportingService {
                 } else {
                     // write report entry
                     reportList.add(new ReportData(reportId, reportName, reportType, reportSubType, reportCategory, description, reportSql,
-                            coreReport, useReport, reportParameters));
+                            coreReport, useReport, cacheTtlSeconds, reportParameters));
                 }
 
                 prevReportId = rpJoin.getReportId();
@@ -382,6 +378,7 @@ public class ReadReportingServiceImpl implements ReadReportingService {
                 reportSql = rpJoin.getReportSql();
                 coreReport = rpJoin.getCoreReport();
                 useReport = rpJoin.getUseReport();
+                cacheTtlSeconds = rpJoin.getCacheTtlSeconds();
 
                 if (rpJoin.getReportParameterId() != null) {
                     // report has at least one parameter
@@ -396,7 +393,7 @@ public class ReadReportingServiceImpl implements ReadReportingService {
         }
         // write last report
         reportList.add(new ReportData(reportId, reportName, reportType, reportSubType, reportCategory, description, reportSql, coreReport,
-                useReport, reportParameters));
+                useReport, cacheTtlSeconds, reportParameters));
 
         return reportList;
     }
@@ -415,6 +412,7 @@ public class ReadReportingServiceImpl implements ReadReportingService {
 
             String sql = "select r.id as reportId, r.report_name as reportName, r.report_type as reportType, "
                     + " r.report_subtype as reportSubType, r.report_category as reportCategory, r.description, r.core_report as coreReport, r.use_report as useReport, "
+                    + " r.cache_ttl_seconds as cacheTtlSeconds, "
                     + " rp.id as reportParameterId, rp.parameter_id as parameterId, rp.report_parameter_name as reportParameterName, p.parameter_name as parameterName";
 
             if (reportId != null) {
@@ -451,6 +449,7 @@ public class ReadReportingServiceImpl implements ReadReportingService {
             final String description = rs.getString("description");
             final Boolean coreReport = rs.getBoolean("coreReport");
             final Boolean useReport = rs.getBoolean("useReport");
+            final Integer cacheTtlSeconds = JdbcSupport.getInteger(rs, "cacheTtlSeconds");
 
             String reportSql;
             // reportSql might not be on the select list of columns
@@ -466,7 +465,7 @@ public class ReadReportingServiceImpl implements ReadReportingService {
             final String parameterName = rs.getString("parameterName");
 
             return new ReportParameterJoinData(reportId, reportName, reportType, reportSubType, reportCategory, description, reportSql,
-                    coreReport, useReport, reportParameterId, parameterId, reportParameterName, parameterName);
+                    coreReport, useReport, cacheTtlSeconds, reportParameterId, parameterId, reportParameterName, parameterName);
         }
     }
 
@@ -0,0 +1,344 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumns;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the results of stretchy reports that have a <code>cache_ttl_seconds</code> for that long.
+ *
+ * Results are keyed by everything that changes the rows a report returns, see {@link Key}. The cache holds at most
+ * <code>fineract.report.cache-max-entries</code> results and evicts the least recently used one beyond that; results
+ * with more than <code>fineract.report.cache-max-rows</code> rows are never cached, and a streamed report stops keeping
+ * its rows once it has more. Concurrent requests for a result that is not cached yet run the report once and share its
+ * result.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReportResultCache implements MeterBinder {
+
+    private final FineractProperties fineractProperties;
+
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentMap<Key, CompletableFuture<GenericResultsetData>> loading = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong shared = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public boolean isEnabled() {
+        return this.fineractProperties.getReport().isCacheEnabled();
+    }
+
+    /**
+     * Returns the cached result for the key, or runs the loader and caches its result for the given time.
+     */
+    public GenericResultsetData get(final Key key, final int ttlSeconds, final Supplier<GenericResultsetData> loader) {
+        final GenericResultsetData cached = lookup(key);
+        if (cached != null) {
+            this.hits.incrementAndGet();
+            return cached;
+        }
+
+        final CompletableFuture<GenericResultsetData> load = new CompletableFuture<>();
+        final CompletableFuture<GenericResultsetData> running = this.loading.putIfAbsent(key, load);
+        if (running != null) {
+            final GenericResultsetData result = awaitRunning(running);
+            if (result != null) {
+                this.shared.incrementAndGet();
+                return result;
+            }
+            // the running request streamed more rows than are kept
+            this.misses.incrementAndGet();
+            return loader.get();
+        }
+
+        this.misses.incrementAndGet();
+        try {
+            final GenericResultsetData result = loader.get();
+            store(key, result, ttlSeconds);
+            load.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.loading.remove(key, load);
+        }
+    }
+
+    /**
+     * Streams the cached result for the key to the consumer, or streams the report to it and caches its result for the
+     * given time. The rows are only kept while there are no more than <code>fineract.report.cache-max-rows</code>, so a
+     * large report is never held in memory.
+     */
+    public void stream(final Key key, final int ttlSeconds, final GenericResultsetConsumer consumer, final ReportStream report)
+            throws IOException {
+        final GenericResultsetData cached = lookup(key);
+        if (cached != null) {
+            this.hits.incrementAndGet();
+            replay(cached, consumer);
+            return;
+        }
+
+        final CompletableFuture<GenericResultsetData> load = new CompletableFuture<>();
+        final CompletableFuture<GenericResultsetData> running = this.loading.putIfAbsent(key, load);
+        if (running != null) {
+            final GenericResultsetData result = awaitRunning(running);
+            if (result != null) {
+                this.shared.incrementAndGet();
+                replay(result, consumer);
+                return;
+            }
+            this.misses.incrementAndGet();
+            report.stream(consumer, -1);
+            return;
+        }
+
+        this.misses.incrementAndGet();
+        GenericResultsetData result = null;
+        try {
+            result = report.stream(consumer, this.fineractProperties.getReport().getCacheMaxRows());
+            if (result != null) {
+                store(key, result, ttlSeconds);
+            }
+        } finally {
+            // requests waiting for a result that is not kept, or failed, run the report themselves
+            load.complete(result);
+            this.loading.remove(key, load);
+        }
+    }
+
+    private static void replay(final GenericResultsetData result, final GenericResultsetConsumer consumer) throws IOException {
+        final ResultsetColumns columns = result.getColumns();
+        consumer.start(result.getColumnHeaders());
+        for (int row = 0; row < columns.getRowCount(); row++) {
+            consumer.row(columns.getRow(row));
+        }
+        consumer.end();
+    }
+
+    /**
+     * Waits for the result of the identical request that is already running the report, <code>null</code> if that
+     * request did not keep it.
+     */
+    GenericResultsetData awaitRunning(final CompletableFuture<GenericResultsetData> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private GenericResultsetData lookup(final Key key) {
+        synchronized (this.entries) {
+            final Entry entry = this.entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.isExpired(System.nanoTime())) {
+                this.entries.remove(key);
+                return null;
+            }
+            return entry.result;
+        }
+    }
+
+    private void store(final Key key, final GenericResultsetData result, final int ttlSeconds) {
+        final FineractProperties.FineractReportProperties properties = this.fineractProperties.getReport();
+        if (result.getColumns().getRowCount() > properties.getCacheMaxRows()) {
+            log.debug("Not caching report {} with {} rows", key.getReportName(), result.getColumns().getRowCount());
+            return;
+        }
+        final long expiresAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(ttlSeconds);
+        synchronized (this.entries) {
+            this.entries.put(key, new Entry(result, expiresAt));
+            final Iterator<Entry> eldest = this.entries.values().iterator();
+            while (this.entries.size() > properties.getCacheMaxEntries() && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                this.evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Drops every cached result of a report of the tenant, e.g. after the report changed. Inside a transaction the results
+     * are dropped once it has committed, so a request running the report before the commit cannot cache the old result
+     * again.
+     */
+    public void evictReport(final String tenantIdentifier, final String reportName) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            removeReport(tenantIdentifier, reportName);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                removeReport(tenantIdentifier, reportName);
+            }
+        });
+    }
+
+    private void removeReport(final String tenantIdentifier, final String reportName) {
+        synchronized (this.entries) {
+            this.entries.keySet().removeIf(key -> key.tenantIdentifier.equals(tenantIdentifier) && key.reportName.equals(reportName));
+        }
+    }
+
+    public void clear() {
+        synchronized (this.entries) {
+            this.entries.clear();
+        }
+    }
+
+    private int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionCounter.builder("fineract.report.cache.requests", this.hits, AtomicLong::get).tag("result", "hit")
+                .description("Report requests answered from the report result cache").register(registry);
+        FunctionCounter.builder("fineract.report.cache.requests", this.shared, AtomicLong::get).tag("result", "shared")
+                .description("Report requests that waited for an identical request already running the report").register(registry);
+        FunctionCounter.builder("fineract.report.cache.requests", this.misses, AtomicLong::get).tag("result", "miss")
+                .description("Report requests that ran the report").register(registry);
+        FunctionCounter.builder("fineract.report.cache.evictions", this.evictions, AtomicLong::get)
+                .description("Cached report results evicted to stay within the maximum number of entries").register(registry);
+        Gauge.builder("fineract.report.cache.size", this, ReportResultCache::size).description("Cached report results")
+                .register(registry);
+    }
+
+    /**
+     * Runs a report for {@link #stream}, see {@link GenericDataService#streamAndCaptureGenericResultSet}.
+     */
+    @FunctionalInterface
+    public interface ReportStream {
+
+        /**
+         * Streams the report to the consumer.
+         *
+         * @return the whole result, or <code>null</code> if it has more than <code>maxRows</code> rows; a negative
+         *         <code>maxRows</code> keeps no rows
+         */
+        GenericResultsetData stream(GenericResultsetConsumer consumer, int maxRows);
+    }
+
+    private static final class Entry {
+
+        private final GenericResultsetData result;
+        private final long expiresAt;
+
+        Entry(final GenericResultsetData result, final long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(final long now) {
+            return now - this.expiresAt >= 0;
+        }
+    }
+
+    /**
+     * Identifies a report result: the tenant, the report, its parameters and the parts of the user running it that the
+     * report SQL can refer to.
+     */
+    public static final class Key {
+
+        private final String tenantIdentifier;
+        private final String reportName;
+        private final String reportType;
+        private final SortedMap<String, String> parameters;
+        private final String officeHierarchy;
+        private final Long userId;
+        private final boolean selfServiceUserReport;
+        private final LocalDate businessDate;
+
+        public Key(final String tenantIdentifier, final String reportName, final String reportType, final Map<String, String> parameters,
+                final String officeHierarchy, final Long userId, final boolean selfServiceUserReport, final LocalDate businessDate) {
+            this.tenantIdentifier = tenantIdentifier;
+            this.reportName = reportName;
+            this.reportType = reportType;
+            this.parameters = new TreeMap<>(parameters);
+            this.officeHierarchy = officeHierarchy;
+            this.userId = userId;
+            this.selfServiceUserReport = selfServiceUserReport;
+            this.businessDate = businessDate;
+        }
+
+        public String getReportName() {
+            return this.reportName;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return this.selfServiceUserReport == other.selfServiceUserReport && this.tenantIdentifier.equals(other.tenantIdentifier)
+                    && this.reportName.equals(other.reportName) && this.reportType.equals(other.reportType)
+                    && this.parameters.equals(other.parameters) && Objects.equals(this.officeHierarchy, other.officeHierarchy)
+                    && Objects.equals(this.userId, other.userId) && Objects.equals(this.businessDate, other.businessDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.tenantIdentifier, this.reportName, this.reportType, this.parameters, this.officeHierarchy,
+                    this.userId, this.selfServiceUserReport, this.businessDate);
+        }
+    }
+}
@@ -30,6 +30,7 @@ import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.dataqueries.domain.Report;
 import org.apache.fineract.infrastructure.dataqueries.domain.ReportParameter;
 import org.apache.fineract.infrastructure.dataqueries.domain.ReportParameterRepository;
@@ -64,12 +65,14 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
     private final ReportParameterRepository reportParameterRepository;
     private final PermissionRepository permissionRepository;
     private final ReportingProcessServiceProvider reportingProcessServiceProvider;
+    private final ReportResultCache reportResultCache;
 
     @Autowired
     public ReportWritePlatformServiceImpl(final PlatformSecurityContext context,
             final ReportCommandFromApiJsonDeserializer fromApiJsonDeserializer, final ReportRepository reportRepository,
             final ReportParameterRepository reportParameterRepository, final ReportParameterUsageRepository reportParameterUsageRepository,
-            final PermissionRepository permissionRepository, final ReportingProcessServiceProvider reportingProcessServiceProvider) {
+            final PermissionRepository permissionRepository, final ReportingProcessServiceProvider reportingProcessServiceProvider,
+            final ReportResultCache reportResultCache) {
         this.context = context;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.reportRepository = reportRepository;
@@ -77,6 +80,7 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
         this.reportParameterUsageRepository = reportParameterUsageRepository;
         this.permissionRepository = permissionRepository;
         this.reportingProcessServiceProvider = reportingProcessServiceProvider;
+        this.reportResultCache = reportResultCache;
     }
 
     @Transactional
@@ -121,6 +125,7 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
             this.fromApiJsonDeserializer.validate(command.json());
 
             final Report report = this.reportRepository.findById(reportId).orElseThrow(() -> new ReportNotFoundException(reportId));
+            final String previousReportName = report.getReportName();
 
             final Map<String, Object> changes = report.update(command, this.reportingProcessServiceProvider.findAllReportingTypes());
 
@@ -134,6 +139,7 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
 
             if (!changes.isEmpty()) {
                 this.reportRepository.saveAndFlush(report);
+                evictCachedResults(previousReportName);
             }
 
             return new CommandProcessingResultBuilder() //
@@ -169,12 +175,17 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
 
         this.reportRepository.delete(report);
         this.permissionRepository.delete(permission);
+        evictCachedResults(report.getReportName());
 
         return new CommandProcessingResultBuilder() //
                 .withEntityId(reportId) //
                 .build();
     }
 
+    private void evictCachedResults(final String reportName) {
+        this.reportResultCache.evictReport(ThreadLocalContextUtil.getTenant().getTenantIdentifier(), reportName);
+    }
+
     /*
      * Guaranteed to throw an exception no matter what the data integrity issue is.
      */
@@ -0,0 +1,82 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * Writes a report straight to the response while its rows are read, so the client receives the first rows before the
+ * query has finished, and a client going away fails the next write, which cancels the query.
+ *
+ * A report failing half way is ended with the error trailer of {@link GenericResultsetConsumer#fail(String)} so that
+ * it cannot be taken for a complete one, and the failure is thrown: as long as nothing has been sent yet, it still
+ * turns into an error response.
+ */
+final class StreamedReportOutput implements StreamingOutput {
+
+    static final String FAILURE_MESSAGE = "The report failed before all its rows were written";
+
+    private final ReportWriterFactory writerFactory;
+    private final ReportBody body;
+
+    StreamedReportOutput(final ReportWriterFactory writerFactory, final ReportBody body) {
+        this.writerFactory = writerFactory;
+        this.body = body;
+    }
+
+    @Override
+    public void write(final OutputStream out) throws IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        final GenericResultsetConsumer consumer = this.writerFactory.create(writer);
+        try {
+            this.body.write(consumer);
+        } catch (final UncheckedIOException e) {
+            // the client went away, nothing left to write to
+            throw e.getCause();
+        } catch (final RuntimeException e) {
+            try {
+                consumer.fail(FAILURE_MESSAGE);
+                writer.flush();
+            } catch (final IOException trailerFailure) {
+                e.addSuppressed(trailerFailure);
+            }
+            throw e;
+        }
+        writer.flush();
+    }
+
+    @FunctionalInterface
+    interface ReportWriterFactory {
+
+        GenericResultsetConsumer create(Writer writer) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface ReportBody {
+
+        void write(GenericResultsetConsumer consumer) throws IOException;
+    }
+}
@@ -131,6 +131,10 @@ public class Hook extends AbstractAuditableCustom {
         return templateId;
     }
 
+    public boolean isActive() {
+        return Boolean.TRUE.equals(this.isActive);
+    }
+
     public Set<HookConfiguration> getHookConfig() {
         return this.config;
     }
@@ -16,33 +16,18 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.fineract.notification.cache;
+package org.apache.fineract.infrastructure.hooks.exception;
 
-public class CacheNotificationResponseHeader {
+import org.apache.fineract.infrastructure.core.exception.AbstractPlatformDomainRuleException;
 
-    private boolean hasNotifications;
-    private Long lastFetch;
-
-    public CacheNotificationResponseHeader() {}
-
-    public CacheNotificationResponseHeader(boolean hasNotifications, Long lastFetch) {
-        this.hasNotifications = hasNotifications;
-        this.lastFetch = lastFetch;
-    }
-
-    public boolean hasNotifications() {
-        return hasNotifications;
-    }
-
-    public void setHasNotifications(boolean hasNotifications) {
-        this.hasNotifications = hasNotifications;
-    }
-
-    public Long getLastFetch() {
-        return lastFetch;
-    }
+/**
+ * A {@link RuntimeException} thrown when a hook outbox entry has been claimed by another node, because the claim of
+ * this one expired. The entry is left to the new owner.
+ */
+public class HookOutboxLeaseLostException extends AbstractPlatformDomainRuleException {
 
-    public void setLastFetch(Long lastFetch) {
-        this.lastFetch = lastFetch;
+    public HookOutboxLeaseLostException(final Long entryId, final String ownerId) {
+        super("error.msg.hook.outbox.lease.lost", "Hook outbox entry " + entryId + " is no longer owned by " + ownerId, entryId,
+                ownerId);
     }
 }
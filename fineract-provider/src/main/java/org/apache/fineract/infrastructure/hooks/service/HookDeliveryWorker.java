@@ -0,0 +1,280 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.smsTemplateName;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.businessdate.service.BusinessDateReadPlatformService;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.hooks.data.HookOutboxEntry;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.domain.HookRepository;
+import org.apache.fineract.infrastructure.hooks.exception.HookOutboxLeaseLostException;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessor;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessorProvider;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.apache.fineract.useradministration.domain.AppUserRepositoryWrapper;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.mapping.GrantedAuthoritiesMapper;
+import org.springframework.security.core.authority.mapping.NullAuthoritiesMapper;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Delivers the entries of <code>m_hook_outbox</code>, on the nodes running batch work only.
+ *
+ * Entries are claimed per hook, so every receiver gets its events in order on one delivery thread while other
+ * receivers are served in parallel. A failed delivery is retried with exponential backoff, together with the entries
+ * queued behind it, and moved to the dead letter status once it has used up its attempts. Delivered entries are purged
+ * once they are older than the retention period.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HookDeliveryWorker {
+
+    private final FineractProperties fineractProperties;
+    private final TenantDetailsService tenantDetailsService;
+    private final AppUserRepositoryWrapper userRepository;
+    private final BusinessDateReadPlatformService businessDateReadPlatformService;
+    private final HookOutboxService hookOutboxService;
+    private final HookRepository hookRepository;
+    private final HookProcessorProvider hookProcessorProvider;
+    private final TransactionTemplate transactionTemplate;
+    private final GrantedAuthoritiesMapper authoritiesMapper = new NullAuthoritiesMapper();
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService deliveryExecutor;
+
+    @PostConstruct
+    public void start() {
+        final FineractProperties.FineractHookDeliveryProperties properties = this.fineractProperties.getHookDelivery();
+        if (!properties.isEnabled()) {
+            return;
+        }
+        this.deliveryExecutor = Executors.newFixedThreadPool(Math.max(1, properties.getThreads()),
+                new CustomizableThreadFactory("hook-delivery-"));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("hook-delivery-poller-"));
+        final long interval = properties.getPollIntervalSeconds();
+        this.scheduler.scheduleWithFixedDelay(this::pollTenants, interval, interval, TimeUnit.SECONDS);
+        log.info("Delivering hook events every {} seconds with {} threads", interval, properties.getThreads());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+        if (this.deliveryExecutor != null) {
+            this.deliveryExecutor.shutdownNow();
+        }
+    }
+
+    private void pollTenants() {
+        // API-only nodes leave the outbox to the batch nodes; the mode can be switched at runtime
+        final FineractProperties.FineractModeProperties mode = this.fineractProperties.getMode();
+        if (!mode.isBatchWorkerEnabled() && !mode.isBatchManagerEnabled()) {
+            return;
+        }
+        for (final FineractPlatformTenant tenant : this.tenantDetailsService.findAllTenants()) {
+            try {
+                ThreadLocalContextUtil.setTenant(tenant);
+                final AppUser user = this.userRepository.fetchSystemUser();
+                SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, user.getPassword(),
+                        this.authoritiesMapper.mapAuthorities(user.getAuthorities())));
+                ThreadLocalContextUtil.setBusinessDates(this.businessDateReadPlatformService.getBusinessDates());
+                deliverDueEntries();
+                purgeDeliveredEntries();
+            } catch (RuntimeException e) {
+                log.error("Failed to deliver hook events of tenant {}", tenant.getTenantIdentifier(), e);
+            } finally {
+                SecurityContextHolder.clearContext();
+                ThreadLocalContextUtil.clearTenant();
+            }
+        }
+    }
+
+    private void deliverDueEntries() {
+        final FineractProperties.FineractHookDeliveryProperties properties = this.fineractProperties.getHookDelivery();
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        List<HookOutboxEntry> entries;
+        do {
+            entries = this.hookOutboxService.claimDueEntries(properties.getBatchSize(), properties.getLeaseTimeoutMinutes());
+
+            final Map<Long, List<HookOutboxEntry>> entriesByHook = new LinkedHashMap<>();
+            for (final HookOutboxEntry entry : entries) {
+                entriesByHook.computeIfAbsent(entry.getHookId(), hookId -> new ArrayList<>()).add(entry);
+            }
+            final List<Future<?>> deliveries = new ArrayList<>(entriesByHook.size());
+            for (final Map.Entry<Long, List<HookOutboxEntry>> hookEntries : entriesByHook.entrySet()) {
+                deliveries.add(this.deliveryExecutor
+                        .submit(() -> deliverInContext(context, authentication, hookEntries.getKey(), hookEntries.getValue())));
+            }
+            for (final Future<?> delivery : deliveries) {
+                try {
+                    delivery.get();
+                } catch (ExecutionException e) {
+                    log.error("Hook delivery failed", e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        } while (entries.size() >= properties.getBatchSize());
+    }
+
+    private void purgeDeliveredEntries() {
+        final FineractProperties.FineractHookDeliveryProperties properties = this.fineractProperties.getHookDelivery();
+        final LocalDateTime deliveredBefore = DateUtils.getLocalDateTimeOfSystem().minusDays(properties.getDeliveredRetentionDays());
+        int purged;
+        do {
+            purged = this.hookOutboxService.purgeDelivered(deliveredBefore, properties.getBatchSize());
+        } while (purged >= properties.getBatchSize());
+    }
+
+    private void deliverInContext(final FineractContext context, final Authentication authentication, final Long hookId,
+            final List<HookOutboxEntry> entries) {
+        try {
+            ThreadLocalContextUtil.init(context);
+            final SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+            securityContext.setAuthentication(authentication);
+            SecurityContextHolder.setContext(securityContext);
+            deliver(context, hookId, entries);
+        } finally {
+            SecurityContextHolder.clearContext();
+            ThreadLocalContextUtil.clearTenant();
+            ThreadLocalContextUtil.clearDataSourceContext();
+        }
+    }
+
+    void deliver(final FineractContext context, final Long hookId, final List<HookOutboxEntry> entries) {
+        try {
+            final Optional<Hook> hook = this.hookRepository.findById(hookId);
+            final HookProcessor processor = hook.map(this.hookProcessorProvider::getProcessor).orElse(null);
+            if (processor == null || !hook.get().isActive()) {
+                for (final HookOutboxEntry entry : entries) {
+                    this.hookOutboxService.deadLetter(entry, entry.getAttempts(), "Hook " + hookId + " is inactive or has no processor");
+                }
+                return;
+            }
+
+            for (int i = 0; i < entries.size(); i++) {
+                final HookOutboxEntry entry = entries.get(i);
+                final RuntimeException failure = send(processor, hook.get(), entry, context);
+                if (failure == null) {
+                    this.hookOutboxService.delivered(entry);
+                } else if (!handleFailure(hookId, entry, failure, entries.subList(i + 1, entries.size()))) {
+                    return;
+                }
+            }
+        } catch (HookOutboxLeaseLostException e) {
+            // the claim expired and another node took the hook's queue over, it delivers the rest
+            log.warn("Hook {} outbox entries were claimed by another node: {}", hookId, e.getDefaultUserMessage());
+        }
+    }
+
+    private RuntimeException send(final HookProcessor processor, final Hook hook, final HookOutboxEntry entry,
+            final FineractContext context) {
+        // hooks calling back the platform get the tenant's service token, never the credentials of the user whose request
+        // produced the event
+        final FineractContext entryContext = new FineractContext(context.getContextHolder(), context.getTenantContext(),
+                serviceAuthToken(hook, context), context.getBusinessDateContext(), context.getActionContext());
+        try {
+            this.transactionTemplate.executeWithoutResult(status -> process(processor, hook, entry, entryContext));
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private String serviceAuthToken(final Hook hook, final FineractContext context) {
+        if (hook.getHookTemplate() == null || !smsTemplateName.equalsIgnoreCase(hook.getHookTemplate().getName())) {
+            return null;
+        }
+        final String tenantIdentifier = context.getTenantContext().getTenantIdentifier();
+        return this.fineractProperties.getHookDelivery().getServiceAuthTokens().get(tenantIdentifier);
+    }
+
+    /**
+     * @return whether the entries queued behind the failed one can still be delivered
+     */
+    private boolean handleFailure(final Long hookId, final HookOutboxEntry entry, final RuntimeException failure,
+            final List<HookOutboxEntry> queuedBehind) {
+        final int attempts = entry.getAttempts() + 1;
+        final String error = failure.getCause() == null ? failure.toString() : failure.getCause().toString();
+        if (attempts >= this.fineractProperties.getHookDelivery().getMaxAttempts()) {
+            log.error("Hook {} failed {} times for {}/{}, moving outbox entry {} to the dead letters", hookId, attempts,
+                    entry.getEntityName(), entry.getActionName(), entry.getId(), failure);
+            this.hookOutboxService.deadLetter(entry, attempts, error);
+            return true;
+        }
+        final LocalDateTime nextAttemptAt = nextAttemptAt(attempts);
+        log.warn("Hook {} failed for {}/{}, retrying outbox entry {} at {}: {}", hookId, entry.getEntityName(), entry.getActionName(),
+                entry.getId(), nextAttemptAt, error);
+        this.hookOutboxService.retryAt(entry, attempts, nextAttemptAt, error);
+        // keep the order of the receiver's events: whatever is queued behind the failed entry waits for it
+        for (final HookOutboxEntry deferred : queuedBehind) {
+            this.hookOutboxService.retryAt(deferred, deferred.getAttempts(), nextAttemptAt, null);
+        }
+        return false;
+    }
+
+    private void process(final HookProcessor processor, final Hook hook, final HookOutboxEntry entry, final FineractContext context) {
+        try {
+            processor.process(hook, entry.getPayload(), entry.getEntityName(), entry.getActionName(), context);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private LocalDateTime nextAttemptAt(final int attempts) {
+        final FineractProperties.FineractHookDeliveryProperties properties = this.fineractProperties.getHookDelivery();
+        final long delay = Math.min((long) properties.getRetryBaseDelaySeconds() << Math.min(attempts - 1, 20),
+                properties.getRetryMaxDelaySeconds());
+        return DateUtils.getLocalDateTimeOfSystem().plusSeconds(delay);
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+import org.apache.fineract.infrastructure.hooks.data.HookOutboxEntry;
+
+public interface HookOutboxService {
+
+    /**
+     * Records the event for every active hook listening to it, as part of the caller's transaction. The payload is only
+     * built if at least one hook listens to the event.
+     */
+    void enqueue(String entityName, String actionName, Supplier<String> payload);
+
+    /**
+     * Same as {@link #enqueue(String, String, Supplier)} but commits on its own, for events describing a command whose
+     * transaction is about to be rolled back.
+     */
+    void enqueueIndependently(String entityName, String actionName, Supplier<String> payload);
+
+    /**
+     * Claims the due entries of up to <code>batchSize</code> hooks, at most <code>batchSize</code> entries per hook.
+     * A hook is due when the oldest of its undelivered entries is due, or held by a claim that has expired; its entries
+     * are then claimed from that oldest one on, in id order, so that one receiver is never served by two nodes at once
+     * nor gets its events out of order. The entries are returned grouped by hook, in id order.
+     */
+    List<HookOutboxEntry> claimDueEntries(int batchSize, int leaseTimeoutMinutes);
+
+    /**
+     * Marks the claimed entry delivered.
+     *
+     * @throws org.apache.fineract.infrastructure.hooks.exception.HookOutboxLeaseLostException
+     *             if the entry has been claimed by another node in the meantime
+     */
+    void delivered(HookOutboxEntry entry);
+
+    /**
+     * Releases the claimed entry, to be delivered again at <code>nextAttemptAt</code>.
+     *
+     * @throws org.apache.fineract.infrastructure.hooks.exception.HookOutboxLeaseLostException
+     *             if the entry has been claimed by another node in the meantime
+     */
+    void retryAt(HookOutboxEntry entry, int attempts, LocalDateTime nextAttemptAt, String error);
+
+    /**
+     * Gives up on the claimed entry.
+     *
+     * @throws org.apache.fineract.infrastructure.hooks.exception.HookOutboxLeaseLostException
+     *             if the entry has been claimed by another node in the meantime
+     */
+    void deadLetter(HookOutboxEntry entry, int attempts, String error);
+
+    /**
+     * Deletes up to <code>batchSize</code> entries delivered before <code>deliveredBefore</code>.
+     *
+     * @return the number of entries deleted
+     */
+    int purgeDelivered(LocalDateTime deliveredBefore, int batchSize);
+}
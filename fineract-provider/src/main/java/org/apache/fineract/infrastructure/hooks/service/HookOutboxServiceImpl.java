@@ -0,0 +1,222 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.hooks.data.HookOutboxEntry;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.exception.HookOutboxLeaseLostException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps hook events in <code>m_hook_outbox</code> until they have been delivered. Events are written together with
+ * the command that produced them, so a hook is neither sent for a command that was rolled back nor lost when the
+ * server stops before delivering it.
+ *
+ * No credentials of the user whose request produced an event are kept with it, hooks that call back the platform are
+ * given the tenant's service token by the {@link HookDeliveryWorker}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HookOutboxServiceImpl implements HookOutboxService {
+
+    private static final String PENDING = "PENDING";
+    private static final String PROCESSING = "PROCESSING";
+    private static final String DELIVERED = "DELIVERED";
+    private static final String DEAD_LETTER = "DEAD_LETTER";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final DatabaseSpecificSQLGenerator sqlGenerator;
+    private final HookReadPlatformService hookReadPlatformService;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(final String entityName, final String actionName, final Supplier<String> payload) {
+        insert(entityName, actionName, payload);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void enqueueIndependently(final String entityName, final String actionName, final Supplier<String> payload) {
+        insert(entityName, actionName, payload);
+    }
+
+    private void insert(final String entityName, final String actionName, final Supplier<String> payloadSupplier) {
+        final List<Hook> hooks = this.hookReadPlatformService.retrieveHooksByEvent(entityName, actionName);
+        if (hooks.isEmpty()) {
+            return;
+        }
+        final String payload;
+        try {
+            payload = payloadSupplier.get();
+        } catch (RuntimeException e) {
+            // a payload that cannot be built must not fail the command publishing it
+            log.error("Failed to build the payload of hook event {} {}", entityName, actionName, e);
+            return;
+        }
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        this.jdbcTemplate.batchUpdate(
+                "insert into m_hook_outbox (hook_id, entity_name, action_name, payload, status, attempts, next_attempt_at, created_date,"
+                        + " lastmodified_date) values (?, ?, ?, ?, ?, 0, ?, ?, ?)",
+                hooks, hooks.size(), (ps, hook) -> {
+                    ps.setLong(1, hook.getId());
+                    ps.setString(2, entityName);
+                    ps.setString(3, actionName);
+                    ps.setString(4, payload);
+                    ps.setString(5, PENDING);
+                    ps.setObject(6, now);
+                    ps.setObject(7, now);
+                    ps.setObject(8, now);
+                });
+    }
+
+    @Override
+    public List<HookOutboxEntry> claimDueEntries(final int batchSize, final int leaseTimeoutMinutes) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        final LocalDateTime staleBefore = now.minusMinutes(leaseTimeoutMinutes);
+        // the oldest undelivered entry of a hook decides whether the hook is due: while it waits for a retry or is held
+        // by a live claim, nothing queued behind it may be delivered
+        final List<Long> hookIds = this.jdbcTemplate.queryForList(
+                "select o.hook_id from m_hook_outbox o join (select hook_id, min(id) as head_id from m_hook_outbox where status in (?, ?)"
+                        + " group by hook_id) h on h.head_id = o.id where (o.status = ? and o.next_attempt_at <= ?)"
+                        + " or (o.status = ? and o.claimed_at < ?) order by o.id " + this.sqlGenerator.limit(batchSize),
+                Long.class, PENDING, PROCESSING, PENDING, now, PROCESSING, staleBefore);
+        if (hookIds.isEmpty()) {
+            return List.of();
+        }
+
+        final String claimId = UUID.randomUUID().toString();
+        final List<HookOutboxEntry> claimed = new ArrayList<>();
+        for (final Long hookId : hookIds) {
+            claimed.addAll(claimHook(hookId, claimId, batchSize, now, staleBefore));
+        }
+        return claimed;
+    }
+
+    private List<HookOutboxEntry> claimHook(final Long hookId, final String claimId, final int batchSize, final LocalDateTime now,
+            final LocalDateTime staleBefore) {
+        final List<Long> candidates = this.jdbcTemplate.queryForList(
+                "select id from m_hook_outbox where hook_id = ? and status in (?, ?) order by id " + this.sqlGenerator.limit(batchSize),
+                Long.class, hookId, PENDING, PROCESSING);
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        // the guard is repeated so that entries claimed by another node in the meantime are left alone
+        final int claimedCount = this.namedParameterJdbcTemplate.update(
+                "update m_hook_outbox set status = :processing, owner_id = :claimId, claimed_at = :now, lastmodified_date = :now"
+                        + " where id in (:ids) and (status = :pending or (status = :processing and claimed_at < :staleBefore))",
+                Map.of("processing", PROCESSING, "pending", PENDING, "claimId", claimId, "now", now, "staleBefore", staleBefore, "ids",
+                        candidates));
+        if (claimedCount < candidates.size()) {
+            // another node claimed part of the queue first: leave all of it to that node, so that the receiver gets its
+            // events neither twice nor out of order
+            release(hookId, claimId, now);
+            return List.of();
+        }
+        return this.jdbcTemplate.query(
+                "select id, hook_id, entity_name, action_name, payload, attempts, owner_id from m_hook_outbox"
+                        + " where owner_id = ? and hook_id = ? order by id",
+                new HookOutboxEntryMapper(), claimId, hookId);
+    }
+
+    private void release(final Long hookId, final String claimId, final LocalDateTime now) {
+        this.jdbcTemplate.update(
+                "update m_hook_outbox set status = ?, owner_id = null, claimed_at = null, lastmodified_date = ? where hook_id = ?"
+                        + " and owner_id = ? and status = ?",
+                PENDING, now, hookId, claimId, PROCESSING);
+    }
+
+    @Override
+    public void delivered(final HookOutboxEntry entry) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        assertOwned(entry, this.jdbcTemplate.update(
+                "update m_hook_outbox set status = ?, attempts = attempts + 1, last_error = null, lastmodified_date = ?"
+                        + " where id = ? and owner_id = ? and status = ?",
+                DELIVERED, now, entry.getId(), entry.getOwnerId(), PROCESSING));
+    }
+
+    @Override
+    public void retryAt(final HookOutboxEntry entry, final int attempts, final LocalDateTime nextAttemptAt, final String error) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        assertOwned(entry, this.jdbcTemplate.update(
+                "update m_hook_outbox set status = ?, attempts = ?, next_attempt_at = ?, owner_id = null, claimed_at = null,"
+                        + " last_error = ?, lastmodified_date = ? where id = ? and owner_id = ? and status = ?",
+                PENDING, attempts, nextAttemptAt, StringUtils.abbreviate(error, MAX_ERROR_LENGTH), now, entry.getId(), entry.getOwnerId(),
+                PROCESSING));
+    }
+
+    @Override
+    public void deadLetter(final HookOutboxEntry entry, final int attempts, final String error) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        assertOwned(entry, this.jdbcTemplate.update(
+                "update m_hook_outbox set status = ?, attempts = ?, last_error = ?, lastmodified_date = ?"
+                        + " where id = ? and owner_id = ? and status = ?",
+                DEAD_LETTER, attempts, StringUtils.abbreviate(error, MAX_ERROR_LENGTH), now, entry.getId(), entry.getOwnerId(),
+                PROCESSING));
+    }
+
+    private static void assertOwned(final HookOutboxEntry entry, final int updated) {
+        if (updated == 0) {
+            throw new HookOutboxLeaseLostException(entry.getId(), entry.getOwnerId());
+        }
+    }
+
+    @Override
+    public int purgeDelivered(final LocalDateTime deliveredBefore, final int batchSize) {
+        final List<Long> ids = this.jdbcTemplate.queryForList(
+                "select id from m_hook_outbox where status = ? and lastmodified_date < ? " + this.sqlGenerator.limit(batchSize), Long.class,
+                DELIVERED, deliveredBefore);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return this.namedParameterJdbcTemplate.update("delete from m_hook_outbox where id in (:ids) and status = :delivered",
+                Map.of("ids", ids, "delivered", DELIVERED));
+    }
+
+    private static final class HookOutboxEntryMapper implements RowMapper<HookOutboxEntry> {
+
+        @Override
+        public HookOutboxEntry mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new HookOutboxEntry(rs.getLong("id"), rs.getLong("hook_id"), rs.getString("entity_name"), rs.getString("action_name"),
+                    rs.getString("payload"), rs.getInt("attempts"), rs.getString("owner_id"));
+        }
+    }
+}
@@ -57,7 +57,7 @@ public enum JobName {
                                                                                                                                                                                                                                                                                     "Notify Failed Standing Instructions"), POST_LOAN_OVERDUE_REMINDER(
                                                                                                                                                                                                                                                                                             "Post Loan Overdue Reminder"), PROCESS_LOAN_OVERDUE_REMINDER(
                                                                                                                                                                                                                                                                                                     "Process Loan Overdue Reminder"), UPDATE_NEXT_WITHDRAWAL_DATE_ON_SAVINGS_ACCOUNT(
-                                                                                                                                                                                                                                                                                                            "Update next withdrawal date for savings account");
+                                                                                                                                                                                                                                                                                                            "Update next withdrawal date for savings account"), LOAN_COB("Loan COB"), LOAN_REPAYMENT_INGESTION("Loan Repayment Ingestion");
 
     private final String name;
 
@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * Shared, bounded worker pool for scheduled jobs.
+ *
+ * Jobs no longer create their own thread pool per run: every run borrows at most
+ * <code>fineract.job-worker.max-concurrency-per-job</code> workers of one application wide pool of
+ * <code>fineract.job-worker.max-threads</code> threads, so heavy jobs running at the same time cannot exhaust the
+ * tenant connection pool. The tenant, business dates and authentication of the calling job thread are propagated to
+ * the workers.
+ */
+public interface JobWorkerPoolService {
+
+    /**
+     * Processes every id handed out by <code>pageFetcher</code>. The fetcher receives the last id of the previous page
+     * (0 for the first one) and returns the next page of ids in ascending order, or an empty list when done. Idle
+     * workers pull the next page themselves, so one slow page does not hold back the others.
+     *
+     * <code>pagePreparer</code> runs once per page, for instance to load data shared by its items, and its result is
+     * passed to <code>itemProcessor</code> for every id of the page. Items failing with a lock or optimistic locking
+     * conflict are retried, up to the tenant's deadlock retry limit, after a jittered exponential backoff without
+     * blocking a worker thread.
+     *
+     * @return the errors of the items which could not be processed
+     */
+    <C> List<Throwable> processPages(JobName jobName, int concurrency, LongFunction<List<Long>> pageFetcher,
+            Function<List<Long>, C> pagePreparer, BiConsumer<Long, C> itemProcessor);
+
+    default List<Throwable> processPages(JobName jobName, int concurrency, LongFunction<List<Long>> pageFetcher,
+            Consumer<Long> itemProcessor) {
+        return processPages(jobName, concurrency, pageFetcher, page -> null, (id, ignored) -> itemProcessor.accept(id));
+    }
+
+    /**
+     * Runs <code>worker</code> on up to <code>concurrency</code> workers of the pool and waits for all of them to finish.
+     *
+     * @return the errors thrown by the workers
+     */
+    List<Throwable> runWorkers(JobName jobName, int concurrency, Runnable worker);
+}
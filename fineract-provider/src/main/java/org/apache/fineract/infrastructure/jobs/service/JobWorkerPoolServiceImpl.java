@@ -0,0 +1,265 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+public class JobWorkerPoolServiceImpl implements JobWorkerPoolService, DisposableBean {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final FineractProperties.FineractJobWorkerProperties properties;
+    private final ThreadPoolExecutor workerPool;
+    private final ScheduledExecutorService retryScheduler;
+    private final ConcurrentMap<JobName, Semaphore> jobPermits = new ConcurrentHashMap<>();
+
+    @Autowired
+    public JobWorkerPoolServiceImpl(final FineractProperties fineractProperties) {
+        this.properties = fineractProperties.getJobWorker();
+        final int maxThreads = Math.max(1, this.properties.getMaxThreads());
+        this.workerPool = new ThreadPoolExecutor(maxThreads, maxThreads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, this.properties.getQueueCapacity())), new CustomizableThreadFactory("job-worker-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.workerPool.allowCoreThreadTimeOut(true);
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("job-worker-retry-"));
+    }
+
+    @Override
+    public <C> List<Throwable> processPages(final JobName jobName, final int concurrency, final LongFunction<List<Long>> pageFetcher,
+            final Function<List<Long>, C> pagePreparer, final BiConsumer<Long, C> itemProcessor) {
+        final JobRun run = new JobRun(jobName);
+        final PageSource pages = new PageSource(pageFetcher);
+        return execute(run, concurrency, () -> {
+            List<Long> page = pages.next();
+            while (page != null) {
+                try {
+                    final C pageContext = pagePreparer.apply(page);
+                    for (final Long id : page) {
+                        processItem(run, id, () -> itemProcessor.accept(id, pageContext), 0);
+                    }
+                } catch (RuntimeException e) {
+                    log.error("{}: failed to process page starting at id {}", jobName, page.get(0), e);
+                    run.errors.add(e);
+                }
+                page = pages.next();
+            }
+        });
+    }
+
+    @Override
+    public List<Throwable> runWorkers(final JobName jobName, final int concurrency, final Runnable worker) {
+        final JobRun run = new JobRun(jobName);
+        return execute(run, concurrency, () -> {
+            try {
+                worker.run();
+            } catch (RuntimeException e) {
+                log.error("{}: worker failed", jobName, e);
+                run.errors.add(e);
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        this.retryScheduler.shutdownNow();
+        this.workerPool.shutdownNow();
+    }
+
+    private List<Throwable> execute(final JobRun run, final int concurrency, final Runnable worker) {
+        final int maxConcurrencyPerJob = Math.max(1, this.properties.getMaxConcurrencyPerJob());
+        final int workers = Math.max(1, Math.min(concurrency, maxConcurrencyPerJob));
+        final Semaphore permits = this.jobPermits.computeIfAbsent(run.jobName, name -> new Semaphore(maxConcurrencyPerJob, true));
+        try {
+            permits.acquire(workers);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.errors.add(e);
+            return new ArrayList<>(run.errors);
+        }
+        try {
+            log.info("{}: starting {} worker(s), {} of {} pool threads busy", run.jobName, workers, this.workerPool.getActiveCount(),
+                    this.workerPool.getMaximumPoolSize());
+            for (int i = 0; i < workers; i++) {
+                submit(run, worker);
+            }
+            run.phaser.awaitAdvanceInterruptibly(run.phaser.arrive());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.errors.add(e);
+        } finally {
+            permits.release(workers);
+        }
+        return new ArrayList<>(run.errors);
+    }
+
+    private void submit(final JobRun run, final Runnable task) {
+        run.phaser.register();
+        try {
+            this.workerPool.execute(() -> {
+                try {
+                    run.enter();
+                    task.run();
+                } finally {
+                    run.exit();
+                    run.phaser.arriveAndDeregister();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            run.errors.add(e);
+            run.phaser.arriveAndDeregister();
+        }
+    }
+
+    private void processItem(final JobRun run, final Long id, final Runnable action, final int attempt) {
+        try {
+            action.run();
+        } catch (CannotAcquireLockException | ObjectOptimisticLockingFailureException e) {
+            if (attempt >= run.maxRetries) {
+                log.error("{}: id {} has been retried for the max allowed attempts of {} and will be rolled back", run.jobName, id,
+                        attempt);
+                run.errors.add(e);
+                return;
+            }
+            final long delay = backoffMillis(attempt, run.maxRetryIntervalMillis);
+            log.info("{}: lock conflict on id {}, retry {} in {} ms", run.jobName, id, attempt + 1, delay);
+            // keeps the run open until the retry has been executed
+            run.phaser.register();
+            try {
+                this.retryScheduler.schedule(() -> {
+                    submit(run, () -> processItem(run, id, action, attempt + 1));
+                    run.phaser.arriveAndDeregister();
+                }, delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException rejected) {
+                run.errors.add(e);
+                run.phaser.arriveAndDeregister();
+            }
+        } catch (RuntimeException e) {
+            log.error("{}: failed to process id {}", run.jobName, id, e);
+            run.errors.add(e);
+        }
+    }
+
+    private long backoffMillis(final int attempt, final long maxIntervalMillis) {
+        final long baseDelay = Math.max(1L, this.properties.getRetryBaseDelayMillis());
+        final long ceiling = Math.max(1L, Math.min(maxIntervalMillis, baseDelay << Math.min(attempt, 16)));
+        return baseDelay + RANDOM.nextLong(ceiling + 1);
+    }
+
+    /**
+     * Hands out pages of ids to the workers one at a time.
+     */
+    private static final class PageSource {
+
+        private final LongFunction<List<Long>> pageFetcher;
+        private long lastId;
+        private boolean exhausted;
+
+        PageSource(final LongFunction<List<Long>> pageFetcher) {
+            this.pageFetcher = pageFetcher;
+        }
+
+        synchronized List<Long> next() {
+            if (this.exhausted) {
+                return null;
+            }
+            final List<Long> page = this.pageFetcher.apply(this.lastId);
+            if (page == null || page.isEmpty()) {
+                this.exhausted = true;
+                return null;
+            }
+            this.lastId = page.get(page.size() - 1);
+            return page;
+        }
+    }
+
+    /**
+     * State of one job run, shared by its workers and pending retries.
+     */
+    private static final class JobRun {
+
+        private final JobName jobName;
+        private final Thread owner = Thread.currentThread();
+        private final FineractContext context = ThreadLocalContextUtil.getContext();
+        private final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        private final int maxRetries;
+        private final long maxRetryIntervalMillis;
+        private final Phaser phaser = new Phaser(1);
+        private final Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+
+        JobRun(final JobName jobName) {
+            this.jobName = jobName;
+            final FineractPlatformTenantConnection connection = this.context.getTenantContext().getConnection();
+            this.maxRetries = connection.getMaxRetriesOnDeadlock();
+            this.maxRetryIntervalMillis = connection.getMaxIntervalBetweenRetries() * 1000L;
+        }
+
+        void enter() {
+            // a task may run on the job thread itself when the pool queue is full
+            if (Thread.currentThread() == this.owner) {
+                return;
+            }
+            ThreadLocalContextUtil.init(this.context);
+            final SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+            securityContext.setAuthentication(this.authentication);
+            SecurityContextHolder.setContext(securityContext);
+        }
+
+        void exit() {
+            if (Thread.currentThread() == this.owner) {
+                return;
+            }
+            SecurityContextHolder.clearContext();
+            ThreadLocalContextUtil.clearTenant();
+            ThreadLocalContextUtil.clearDataSourceContext();
+        }
+    }
+}
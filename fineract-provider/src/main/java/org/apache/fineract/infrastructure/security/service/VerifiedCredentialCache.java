@@ -0,0 +1,127 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.security.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers the credentials a user was last authenticated with, so that following Basic Auth requests with the same
+ * credentials skip the password encoder.
+ *
+ * Only a keyed HMAC of the presented password and the stored password hash is kept, under a key that is generated on
+ * startup and never leaves this instance. A changed password therefore no longer matches even before the entry is
+ * evicted. The cache holds at most <code>fineract.credential-cache.max-entries</code> users, evicting the least recently
+ * used one beyond that, and an entry is verified again after <code>fineract.credential-cache.time-to-live</code>.
+ */
+@Component
+public class VerifiedCredentialCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final FineractProperties.FineractCredentialCacheProperties properties;
+    private final SecretKeySpec key;
+    private final Map<UserKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Autowired
+    public VerifiedCredentialCache(final FineractProperties fineractProperties) {
+        this.properties = fineractProperties.getCredentialCache();
+        final byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+    }
+
+    public boolean isEnabled() {
+        return this.properties.isEnabled();
+    }
+
+    public boolean isVerified(final String tenantIdentifier, final String username, final String presentedPassword,
+            final String encodedPassword) {
+        final Entry entry;
+        synchronized (this.entries) {
+            entry = this.entries.get(new UserKey(tenantIdentifier, username));
+        }
+        if (entry == null || entry.isExpired(System.nanoTime())) {
+            return false;
+        }
+        return MessageDigest.isEqual(entry.mac, mac(presentedPassword, encodedPassword));
+    }
+
+    public void verified(final String tenantIdentifier, final String username, final String presentedPassword,
+            final String encodedPassword) {
+        final Entry entry = new Entry(mac(presentedPassword, encodedPassword),
+                System.nanoTime() + this.properties.getTimeToLive().toNanos());
+        synchronized (this.entries) {
+            this.entries.put(new UserKey(tenantIdentifier, username), entry);
+            final Iterator<Entry> eldest = this.entries.values().iterator();
+            while (this.entries.size() > this.properties.getMaxEntries() && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Forgets the credentials of a user, e.g. after the password, the status or the roles of the user changed.
+     */
+    public void evict(final String tenantIdentifier, final String username) {
+        synchronized (this.entries) {
+            this.entries.remove(new UserKey(tenantIdentifier, username));
+        }
+    }
+
+    private byte[] mac(final String presentedPassword, final String encodedPassword) {
+        try {
+            final Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(this.key);
+            mac.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(presentedPassword.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " is not available", e);
+        }
+    }
+
+    private record UserKey(String tenantIdentifier, String username) {}
+
+    private static final class Entry {
+
+        private final byte[] mac;
+        private final long expiresAt;
+
+        Entry(final byte[] mac, final long expiresAt) {
+            this.mac = mac;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(final long now) {
+            return now - this.expiresAt >= 0;
+        }
+    }
+}
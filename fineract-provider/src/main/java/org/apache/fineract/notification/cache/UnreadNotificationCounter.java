@@ -0,0 +1,88 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the number of unread notifications of every user in memory, per tenant, so the notification header of an
+ * authenticated request does not have to query <code>notification_mapper</code>.
+ *
+ * The count of a user is loaded once from the database and then maintained by the notification write path. Notifications
+ * created or read through another instance are not seen here, so a loaded count is reloaded after
+ * {@link #RELOAD_AFTER_MILLIS}. Changes made inside a transaction are only applied once it has committed, so
+ * notifications which are rolled back are never counted.
+ */
+@Component
+public class UnreadNotificationCounter {
+
+    static final long RELOAD_AFTER_MILLIS = 60_000L;
+
+    private final Map<Long, Map<Long, UnreadCount>> tenantUnreadCounts = new ConcurrentHashMap<>();
+
+    public boolean hasUnreadNotifications(final Long tenantId, final Long appUserId, final LongSupplier unreadCountLoader) {
+        final long now = System.currentTimeMillis();
+        final UnreadCount unreadCount = unreadCountsOf(tenantId).compute(appUserId, (userId, current) -> {
+            if (current == null || now - current.loadedAt() > RELOAD_AFTER_MILLIS) {
+                return new UnreadCount(unreadCountLoader.getAsLong(), now);
+            }
+            return current;
+        });
+        return unreadCount.count() > 0;
+    }
+
+    /**
+     * Counts new unread notifications of a user. Users whose count was not loaded yet are skipped, their first lookup
+     * reads the count from the database anyway.
+     */
+    public void notificationsCreated(final Long tenantId, final Long appUserId, final long created) {
+        afterCommit(() -> unreadCountsOf(tenantId).computeIfPresent(appUserId,
+                (userId, current) -> new UnreadCount(current.count() + created, current.loadedAt())));
+    }
+
+    public void notificationsRead(final Long tenantId, final Long appUserId) {
+        afterCommit(() -> unreadCountsOf(tenantId).computeIfPresent(appUserId,
+                (userId, current) -> new UnreadCount(0, current.loadedAt())));
+    }
+
+    private static void afterCommit(final Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    private Map<Long, UnreadCount> unreadCountsOf(final Long tenantId) {
+        return this.tenantUnreadCounts.computeIfAbsent(tenantId, id -> new ConcurrentHashMap<>());
+    }
+
+    private record UnreadCount(long count, long loadedAt) {}
+}
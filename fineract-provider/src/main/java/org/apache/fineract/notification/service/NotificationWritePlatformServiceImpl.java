@@ -23,6 +23,8 @@ import java.util.Collection;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.notification.cache.UnreadNotificationCounter;
 import org.apache.fineract.notification.domain.Notification;
 import org.apache.fineract.notification.domain.NotificationMapper;
 import org.apache.fineract.useradministration.domain.AppUser;
@@ -39,6 +41,7 @@ public class NotificationWritePlatformServiceImpl implements NotificationWritePl
     private final NotificationGeneratorReadRepositoryWrapper notificationGeneratorReadRepositoryWrapper;
     private final AppUserRepository appUserRepository;
     private final NotificationMapperWritePlatformService notificationMapperWritePlatformService;
+    private final UnreadNotificationCounter unreadNotificationCounter;
 
     @Override
     public Long notify(Long userId, String objectType, Long objectIdentifier, String action, Long actorId, String notificationContent,
@@ -47,6 +50,7 @@ public class NotificationWritePlatformServiceImpl implements NotificationWritePl
         Long generatedNotificationId = insertIntoNotificationGenerator(objectType, objectIdentifier, action, actorId, notificationContent,
                 isSystemGenerated);
         insertIntoNotificationMapper(userId, generatedNotificationId);
+        this.unreadNotificationCounter.notificationsCreated(ThreadLocalContextUtil.getTenant().getId(), userId, 1);
         return generatedNotificationId;
     }
 
@@ -89,6 +93,7 @@ public class NotificationWritePlatformServiceImpl implements NotificationWritePl
                     DateUtils.getLocalDateTimeOfSystem());
             this.notificationMapperWritePlatformService.create(notificationMapper);
             mappedIds.add(notificationMapper.getId());
+            this.unreadNotificationCounter.notificationsCreated(ThreadLocalContextUtil.getTenant().getId(), userId, 1);
         }
         return mappedIds;
     }
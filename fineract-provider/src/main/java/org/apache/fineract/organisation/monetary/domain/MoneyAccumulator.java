@@ -0,0 +1,152 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.monetary.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Mutable running total of {@link Money} amounts for summing loops, such as the per period charge totals of the loan
+ * schedule generator.
+ *
+ * Adding amounts that are already at the scale of the currency never needs rounding, so the total is kept as a
+ * <code>long</code> count of the smallest currency unit instead of allocating and rounding a new {@link Money} per
+ * addition. Whenever the fast path could give a different answer - an amount with more decimals than the currency, a
+ * long overflow, or a currency rounded into multiples - the accumulator carries on with plain {@link Money} arithmetic,
+ * so {@link #toMoney()} always equals the result of chaining {@link Money#plus(Money)} and {@link Money#minus(Money)}.
+ */
+public final class MoneyAccumulator {
+
+    private final MonetaryCurrency currency;
+    private long units;
+    private Money slowTotal;
+
+    private MoneyAccumulator(final MonetaryCurrency currency) {
+        this.currency = currency;
+        if (isRoundedToMultiples(currency)) {
+            this.slowTotal = Money.zero(currency);
+        }
+    }
+
+    public static MoneyAccumulator zero(final MonetaryCurrency currency) {
+        return new MoneyAccumulator(currency);
+    }
+
+    public static MoneyAccumulator of(final Money initial) {
+        final MoneyAccumulator accumulator = new MoneyAccumulator(initial.getCurrency());
+        final Long initialUnits = accumulator.slowTotal == null ? accumulator.unitsOf(initial.getAmount()) : null;
+        if (initialUnits == null) {
+            accumulator.slowTotal = initial;
+        } else {
+            accumulator.units = initialUnits;
+        }
+        return accumulator;
+    }
+
+    public MoneyAccumulator plus(final Money money) {
+        checkCurrency(money);
+        if (this.slowTotal == null && addUnits(money.getAmount(), false)) {
+            return this;
+        }
+        this.slowTotal = this.slowTotal.plus(money);
+        return this;
+    }
+
+    /**
+     * Adds an amount the way {@link Money#plus(BigDecimal)} does: an amount with more decimals than the currency is added
+     * first and the total is rounded afterwards.
+     */
+    public MoneyAccumulator plus(final BigDecimal amount) {
+        if (amount == null || amount.signum() == 0) {
+            return this;
+        }
+        if (this.slowTotal == null && addUnits(amount, false)) {
+            return this;
+        }
+        this.slowTotal = this.slowTotal.plus(amount);
+        return this;
+    }
+
+    public MoneyAccumulator minus(final Money money) {
+        checkCurrency(money);
+        if (this.slowTotal == null && addUnits(money.getAmount(), true)) {
+            return this;
+        }
+        this.slowTotal = this.slowTotal.minus(money);
+        return this;
+    }
+
+    public boolean isZero() {
+        return this.slowTotal == null ? this.units == 0 : this.slowTotal.isZero();
+    }
+
+    public boolean isGreaterThanZero() {
+        return this.slowTotal == null ? this.units > 0 : this.slowTotal.isGreaterThanZero();
+    }
+
+    public boolean isLessThanZero() {
+        return this.slowTotal == null ? this.units < 0 : this.slowTotal.isLessThanZero();
+    }
+
+    public Money toMoney() {
+        return this.slowTotal == null ? fastTotal() : this.slowTotal;
+    }
+
+    /**
+     * Adds the amount on the fast path, or switches over to {@link Money} arithmetic and returns false when it cannot.
+     */
+    private boolean addUnits(final BigDecimal amount, final boolean subtract) {
+        final Long moneyUnits = unitsOf(amount);
+        if (moneyUnits != null) {
+            try {
+                this.units = subtract ? Math.subtractExact(this.units, moneyUnits) : Math.addExact(this.units, moneyUnits);
+                return true;
+            } catch (ArithmeticException e) {
+                // the total no longer fits, carry on with Money
+            }
+        }
+        this.slowTotal = fastTotal();
+        return false;
+    }
+
+    private Money fastTotal() {
+        return Money.of(this.currency, BigDecimal.valueOf(this.units, this.currency.getDigitsAfterDecimal()));
+    }
+
+    private Long unitsOf(final BigDecimal amount) {
+        try {
+            final int digits = this.currency.getDigitsAfterDecimal();
+            final BigDecimal scaled = amount.scale() == digits ? amount : amount.setScale(digits, RoundingMode.UNNECESSARY);
+            return scaled.scaleByPowerOfTen(digits).longValueExact();
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+    private void checkCurrency(final Money money) {
+        if (!this.currency.getCode().equals(money.getCurrencyCode())) {
+            throw new UnsupportedOperationException("currencies are different.");
+        }
+    }
+
+    private static boolean isRoundedToMultiples(final MonetaryCurrency currency) {
+        final Integer inMultiplesOf = currency.getCurrencyInMultiplesOf();
+        return inMultiplesOf != null && inMultiplesOf > 0 && currency.getDigitsAfterDecimal() == 0;
+    }
+}
@@ -57,6 +57,8 @@ public interface TellerManagementReadPlatformService {
 
     Collection<TellerData> retrieveAllTellers(String sqlSearch, Long officeId, String status);
 
+    Collection<TellerData> retrieveAllTellers(boolean includeAllTellers);
+
     Collection<CashierData> getCashiersForTeller(Long tellerId, LocalDate fromDate, LocalDate toDate);
 
     Collection<CashierData> retrieveCashiersForTellers(String sqlSearch, Long tellerId);
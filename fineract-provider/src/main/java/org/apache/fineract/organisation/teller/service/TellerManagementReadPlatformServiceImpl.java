@@ -346,7 +346,8 @@ public class TellerManagementReadPlatformServiceImpl implements TellerManagement
         return null;
     }
 
-    @Cacheable(value = "tellers", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#root.target.context.authenticatedUser().getOffice().getHierarchy()+'of')")
+    @Override
+    @Cacheable(value = "tellers", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#includeAllTellers ? 'all' : T(org.springframework.security.core.context.SecurityContextHolder).getContext().getAuthentication().getPrincipal().getOffice().getHierarchy()).concat('of')")
     public Collection<TellerData> retrieveAllTellers(final boolean includeAllTellers) {
         final AppUser currentUser = this.context.authenticatedUser();
         final String hierarchy = currentUser.getOffice().getHierarchy();
@@ -56,6 +56,7 @@ import org.apache.fineract.useradministration.domain.AppUser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.orm.jpa.JpaSystemException;
 import org.springframework.stereotype.Service;
@@ -99,6 +100,7 @@ public class TellerWritePlatformServiceJpaImpl implements TellerWritePlatformSer
 
     @Override
     @Transactional
+    @CacheEvict(value = "tellers", allEntries = true)
     public CommandProcessingResult createTeller(JsonCommand command) {
         try {
             this.context.authenticatedUser();
@@ -132,6 +134,7 @@ public class TellerWritePlatformServiceJpaImpl implements TellerWritePlatformSer
 
     @Override
     @Transactional
+    @CacheEvict(value = "tellers", allEntries = true)
     public CommandProcessingResult modifyTeller(Long tellerId, JsonCommand command) {
         try {
 
@@ -183,6 +186,7 @@ public class TellerWritePlatformServiceJpaImpl implements TellerWritePlatformSer
 
     @Override
     @Transactional
+    @CacheEvict(value = "tellers", allEntries = true)
     public CommandProcessingResult deleteTeller(Long tellerId) {
         // TODO Auto-generated method stub
 
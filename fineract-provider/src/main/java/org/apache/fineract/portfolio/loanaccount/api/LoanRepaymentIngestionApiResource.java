@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.api;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.infrastructure.core.serialization.GoogleGsonSerializerHelper;
+import org.apache.fineract.portfolio.loanaccount.data.LoanRepaymentIngestionFile;
+import org.apache.fineract.portfolio.loanaccount.data.LoanRepaymentIngestionResult;
+import org.apache.fineract.portfolio.loanaccount.service.LoanRepaymentIngestionService;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+@Path("/loans/repaymentingestion")
+@Component
+@Scope("singleton")
+@Tag(name = "Loan Repayment Ingestion", description = "Applies files of loan repayments, such as the daily collections of a payment aggregator, in bulk.")
+@RequiredArgsConstructor
+public class LoanRepaymentIngestionApiResource {
+
+    private final LoanRepaymentIngestionService loanRepaymentIngestionService;
+    private final Gson gson = GoogleGsonSerializerHelper.createGsonBuilder().create();
+
+    @POST
+    @Consumes({ "text/csv", MediaType.APPLICATION_OCTET_STREAM })
+    @Produces({ MediaType.APPLICATION_JSON })
+    @Operation(summary = "Ingest a repayment file", description = "Applies the repayments of a UTF-8 CSV file whose first row names the columns: externalId, loanId, transactionDate (yyyy-MM-dd) and transactionAmount are required, paymentTypeId, receiptNumber and note are optional.\n"
+            + "\n"
+            + "The repayments of a loan are applied in transaction date order and the loans are processed in parallel. A repayment whose externalId is already used by a loan transaction is not applied again, so a file can safely be submitted again.\n"
+            + "\n"
+            + "The response is a JSON array with one result per line, APPLIED, DUPLICATE, INVALID or FAILED, streamed as soon as the repayments of its loan are done, so results are not in file order.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(array = @ArraySchema(schema = @Schema(implementation = LoanRepaymentIngestionResult.class)))) })
+    public StreamingOutput ingestRepayments(@Parameter(hidden = true) final InputStream file) {
+
+        // the file is read before responding, so that a file which cannot be applied is rejected as a whole
+        final LoanRepaymentIngestionFile repayments = this.loanRepaymentIngestionService.read(file);
+
+        return output -> {
+            final JsonWriter writer = new JsonWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            writer.beginArray();
+            this.loanRepaymentIngestionService.apply(repayments, result -> {
+                this.gson.toJson(result, LoanRepaymentIngestionResult.class, writer);
+                try {
+                    writer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.endArray();
+            writer.flush();
+        };
+    }
+}
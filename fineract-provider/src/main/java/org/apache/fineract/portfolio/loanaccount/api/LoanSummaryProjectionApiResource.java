@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.UriInfo;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.infrastructure.core.api.ApiRequestParameterHelper;
+import org.apache.fineract.infrastructure.core.serialization.ApiRequestJsonSerializationSettings;
+import org.apache.fineract.infrastructure.core.serialization.DefaultToApiJsonSerializer;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.portfolio.loanaccount.data.LoanSummaryProjectionData;
+import org.apache.fineract.portfolio.loanaccount.service.LoanSummaryProjectionReadPlatformService;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+@Path("/loans/summaries")
+@Component
+@Scope("singleton")
+@Tag(name = "Loan Summaries", description = "Lightweight loan summaries for list and dashboard pages, read from a projection kept up to date with every loan change instead of from the loan accounts themselves.")
+@RequiredArgsConstructor
+public class LoanSummaryProjectionApiResource {
+
+    private static final String RESOURCE_NAME_FOR_PERMISSIONS = "LOAN";
+
+    private final PlatformSecurityContext context;
+    private final LoanSummaryProjectionReadPlatformService loanSummaryProjectionReadPlatformService;
+    private final DefaultToApiJsonSerializer<LoanSummaryProjectionData> toApiJsonSerializer;
+    private final ApiRequestParameterHelper apiRequestParameterHelper;
+
+    @GET
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    @Operation(summary = "List loan summaries", description = "Lists the summaries of the loans of an office, of a loan officer or with a status, in loan id order. To get the next page, pass the loanId of the last summary of a page as afterLoanId.\n"
+            + "\n" + "Example Requests:\n" + "\n" + "loans/summaries?officeId=1&status=300\n" + "\n"
+            + "loans/summaries?loanOfficerId=4&status=300&afterLoanId=1250&limit=100")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(array = @ArraySchema(schema = @Schema(implementation = LoanSummaryProjectionData.class)))) })
+    public String retrieveLoanSummaries(@Context final UriInfo uriInfo,
+            @QueryParam("officeId") @Parameter(description = "officeId") final Long officeId,
+            @QueryParam("loanOfficerId") @Parameter(description = "loanOfficerId") final Long loanOfficerId,
+            @QueryParam("status") @Parameter(description = "loan status id, e.g. 300 for active loans") final Integer status,
+            @QueryParam("afterLoanId") @Parameter(description = "afterLoanId") final Long afterLoanId,
+            @QueryParam("limit") @Parameter(description = "limit, 50 by default and at most 500") final Integer limit) {
+
+        this.context.authenticatedUser().validateHasReadPermission(RESOURCE_NAME_FOR_PERMISSIONS);
+
+        final List<LoanSummaryProjectionData> summaries = this.loanSummaryProjectionReadPlatformService.retrieveLoanSummaries(officeId,
+                loanOfficerId, status, afterLoanId, limit);
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.toApiJsonSerializer.serialize(settings, summaries);
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.data;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Immutable data object representing the outcome of one line of a repayment ingestion file.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class LoanRepaymentIngestionResult {
+
+    public enum Status {
+        /** The repayment was applied. */
+        APPLIED,
+        /** A transaction with the same external id exists already or appears earlier in the file, nothing was applied. */
+        DUPLICATE,
+        /** The line could not be read. */
+        INVALID,
+        /** The repayment was rejected by the loan. */
+        FAILED
+    }
+
+    private final long lineNumber;
+    private final String externalId;
+    private final Long loanId;
+    private final Status status;
+    private final Long transactionId;
+    private final String message;
+
+    public static LoanRepaymentIngestionResult applied(final LoanRepaymentIngestionLine line, final Long transactionId) {
+        return new LoanRepaymentIngestionResult(line.getLineNumber(), line.getExternalId(), line.getLoanId(), Status.APPLIED,
+                transactionId, null);
+    }
+
+    public static LoanRepaymentIngestionResult duplicate(final LoanRepaymentIngestionLine line, final Long transactionId,
+            final String message) {
+        return new LoanRepaymentIngestionResult(line.getLineNumber(), line.getExternalId(), line.getLoanId(), Status.DUPLICATE,
+                transactionId, message);
+    }
+
+    public static LoanRepaymentIngestionResult invalid(final long lineNumber, final String externalId, final String message) {
+        return new LoanRepaymentIngestionResult(lineNumber, externalId, null, Status.INVALID, null, message);
+    }
+
+    public static LoanRepaymentIngestionResult failed(final LoanRepaymentIngestionLine line, final String message) {
+        return new LoanRepaymentIngestionResult(line.getLineNumber(), line.getExternalId(), line.getLoanId(), Status.FAILED, null,
+                message);
+    }
+}
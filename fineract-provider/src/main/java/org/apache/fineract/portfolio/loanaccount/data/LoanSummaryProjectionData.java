@@ -0,0 +1,53 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Immutable data object representing a row of the loan summary projection, with the arrears of the loan.
+ */
+@Getter
+@AllArgsConstructor
+public class LoanSummaryProjectionData {
+
+    private final Long loanId;
+    private final String accountNo;
+    private final Long officeId;
+    private final String officeName;
+    private final Long loanOfficerId;
+    private final Long clientId;
+    private final Long groupId;
+    private final Long productId;
+    private final LoanStatusEnumData status;
+    private final String currencyCode;
+    private final BigDecimal principalDisbursed;
+    private final BigDecimal principalOutstanding;
+    private final BigDecimal interestOutstanding;
+    private final BigDecimal feeChargesOutstanding;
+    private final BigDecimal penaltyChargesOutstanding;
+    private final BigDecimal totalOutstanding;
+    private final BigDecimal totalOverdue;
+    private final LocalDate overdueSinceDate;
+    private final LocalDate disbursedOnDate;
+    private final LocalDate expectedMaturityDate;
+}
@@ -3357,12 +3357,17 @@ public class Loan extends AbstractAuditableWithUTCDateTimeCustom {
             }
         }
         if (reprocess) {
+            // a backdated transaction or adjustment leaves everything before it as it was, unless the schedule is
+            // regenerated or adjusted for a foreclosure
+            LocalDate reprocessFromDate = isForeclosure() ? null : recalculateFrom;
             if (this.repaymentScheduleDetail().isInterestRecalculationEnabled()) {
                 regenerateRepaymentScheduleWithInterestRecalculation(scheduleGeneratorDTO);
+                reprocessFromDate = null;
             }
             final List<LoanTransaction> allNonContraTransactionsPostDisbursement = retreiveListOfTransactionsPostDisbursement();
-            changedTransactionDetail = loanRepaymentScheduleTransactionProcessor.handleTransaction(getDisbursementDate(),
-                    allNonContraTransactionsPostDisbursement, getCurrency(), getRepaymentScheduleInstallments(), charges());
+            changedTransactionDetail = loanRepaymentScheduleTransactionProcessor.handleTransactionsFrom(reprocessFromDate,
+                    getDisbursementDate(), allNonContraTransactionsPostDisbursement, getCurrency(), getRepaymentScheduleInstallments(),
+                    charges());
             for (final Map.Entry<Long, LoanTransaction> mapEntry : changedTransactionDetail.getNewTransactionMappings().entrySet()) {
                 mapEntry.getValue().updateLoan(this);
             }
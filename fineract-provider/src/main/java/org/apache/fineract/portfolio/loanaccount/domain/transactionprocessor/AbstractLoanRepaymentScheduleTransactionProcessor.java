@@ -28,6 +28,7 @@ import java.util.List;
 import java.util.Set;
 import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
 import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyAccumulator;
 import org.apache.fineract.portfolio.loanaccount.data.LoanChargePaidDetail;
 import org.apache.fineract.portfolio.loanaccount.domain.ChangedTransactionDetail;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanCharge;
@@ -64,6 +65,13 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
     public ChangedTransactionDetail handleTransaction(final LocalDate disbursementDate,
             final List<LoanTransaction> transactionsPostDisbursement, final MonetaryCurrency currency,
             final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges) {
+        return handleTransactionsFrom(null, disbursementDate, transactionsPostDisbursement, currency, installments, charges);
+    }
+
+    @Override
+    public ChangedTransactionDetail handleTransactionsFrom(final LocalDate reprocessFromDate, final LocalDate disbursementDate,
+            final List<LoanTransaction> transactionsPostDisbursement, final MonetaryCurrency currency,
+            final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges) {
 
         if (charges != null) {
             for (final LoanCharge loanCharge : charges) {
@@ -140,7 +148,24 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
             }
         }
 
+        // existing transactions before the reprocessing date are unaffected by the change, so as long as no new or
+        // re-processed transaction precedes them their persisted allocations can be replayed as they are
+        boolean replayAllocations = isAllocationReplayPossible(reprocessFromDate, transactionsPostDisbursement);
         for (final LoanTransaction loanTransaction : transactionstoBeProcessed) {
+            if (replayAllocations && !isReprocessed(loanTransaction)) {
+                // accruals and the like do not change the installments, they neither need nor prevent a replay
+                continue;
+            }
+            replayAllocations = replayAllocations && loanTransaction.getId() != null
+                    && loanTransaction.getTransactionDate().isBefore(reprocessFromDate);
+            if (replayAllocations) {
+                if (replayAllocation(loanTransaction, currency, installments, charges)) {
+                    continue;
+                }
+                // a re-processed transaction may allocate differently than before, so the ones after it can no longer be
+                // replayed either
+                replayAllocations = false;
+            }
 
             if (!loanTransaction.getTypeOf().equals(LoanTransactionType.REFUND_FOR_ACTIVE_LOAN)) {
                 final Comparator<LoanRepaymentScheduleInstallment> byDate = new Comparator<LoanRepaymentScheduleInstallment>() {
@@ -195,6 +220,104 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
         return changedTransactionDetail;
     }
 
+    private static boolean isReprocessed(final LoanTransaction loanTransaction) {
+        return loanTransaction.isRepaymentType() || loanTransaction.isInterestWaiver() || loanTransaction.isRecoveryRepayment()
+                || loanTransaction.isWriteOff() || loanTransaction.isRefundForActiveLoan();
+    }
+
+    private boolean isAllocationReplayPossible(final LocalDate reprocessFromDate,
+            final List<LoanTransaction> transactionsPostDisbursement) {
+        if (reprocessFromDate == null || !isAllocationReplaySupported()) {
+            return false;
+        }
+        // charge payments are re-processed ahead of all other transactions, so a changed one affects all of them
+        for (final LoanTransaction loanTransaction : transactionsPostDisbursement) {
+            if (loanTransaction.isChargePayment()
+                    && (loanTransaction.getId() == null || !loanTransaction.getTransactionDate().isBefore(reprocessFromDate))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies the persisted installment allocations of an existing repayment or interest waiver to the installments,
+     * and the charges it paid to the loan charges, exactly as re-processing it would.
+     *
+     * Returns false without changing anything when the allocations cannot be replayed as they are, in which case the
+     * transaction has to be re-processed. Recovery repayments are always re-processed, as they follow a write-off that
+     * may have been reversed since.
+     */
+    private boolean replayAllocation(final LoanTransaction loanTransaction, final MonetaryCurrency currency,
+            final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges) {
+        if (!(loanTransaction.isRepaymentType() || loanTransaction.isInterestWaiver())) {
+            return false;
+        }
+
+        final Set<LoanTransactionToRepaymentScheduleMapping> mappings = loanTransaction.getLoanTransactionToRepaymentScheduleMappings();
+        final MoneyAccumulator principalPortion = MoneyAccumulator.zero(currency);
+        final MoneyAccumulator interestPortion = MoneyAccumulator.zero(currency);
+        final MoneyAccumulator feeChargesPortion = MoneyAccumulator.zero(currency);
+        final MoneyAccumulator penaltyChargesPortion = MoneyAccumulator.zero(currency);
+        for (final LoanTransactionToRepaymentScheduleMapping mapping : mappings) {
+            final LoanRepaymentScheduleInstallment installment = mapping.getLoanRepaymentScheduleInstallment();
+            if (!containsInstallment(installments, installment)
+                    || mapping.getPrincipalPortion(currency).isGreaterThan(installment.getPrincipalOutstanding(currency))
+                    || mapping.getInterestPortion(currency).isGreaterThan(installment.getInterestOutstanding(currency))
+                    || mapping.getFeeChargesPortion(currency).isGreaterThan(installment.getFeeChargesOutstanding(currency))
+                    || mapping.getPenaltyChargesPortion(currency).isGreaterThan(installment.getPenaltyChargesOutstanding(currency))) {
+                return false;
+            }
+            principalPortion.plus(mapping.getPrincipalPortion(currency));
+            interestPortion.plus(mapping.getInterestPortion(currency));
+            feeChargesPortion.plus(mapping.getFeeChargesPortion(currency));
+            penaltyChargesPortion.plus(mapping.getPenaltyChargesPortion(currency));
+        }
+        if (!principalPortion.toMoney().isEqualTo(loanTransaction.getPrincipalPortion(currency))
+                || !interestPortion.toMoney().isEqualTo(loanTransaction.getInterestPortion(currency))
+                || !feeChargesPortion.toMoney().isEqualTo(loanTransaction.getFeeChargesPortion(currency))
+                || !penaltyChargesPortion.toMoney().isEqualTo(loanTransaction.getPenaltyChargesPortion(currency))) {
+            return false;
+        }
+
+        final LocalDate transactionDate = loanTransaction.getTransactionDate();
+        for (final LoanTransactionToRepaymentScheduleMapping mapping : mappings) {
+            final LoanRepaymentScheduleInstallment installment = mapping.getLoanRepaymentScheduleInstallment();
+            if (loanTransaction.isInterestWaiver()) {
+                installment.waiveInterestComponent(transactionDate, mapping.getInterestPortion(currency));
+            } else {
+                installment.payPenaltyChargesComponent(transactionDate, mapping.getPenaltyChargesPortion(currency));
+                installment.payFeeChargesComponent(transactionDate, mapping.getFeeChargesPortion(currency));
+                installment.payInterestComponent(transactionDate, mapping.getInterestPortion(currency));
+                installment.payPrincipalComponent(transactionDate, mapping.getPrincipalPortion(currency));
+            }
+        }
+
+        if (loanTransaction.isNotWaiver() && !loanTransaction.isAccrual()) {
+            // re-processing records the charges paid on a throwaway copy of an unchanged transaction as well
+            final LoanTransaction copyOfTransaction = LoanTransaction.copyTransactionProperties(loanTransaction);
+            final Money feeCharges = loanTransaction.getFeeChargesPortion(currency);
+            if (feeCharges.isGreaterThanZero()) {
+                updateChargesPaidAmountBy(copyOfTransaction, feeCharges, extractFeeCharges(charges), null);
+            }
+            final Money penaltyCharges = loanTransaction.getPenaltyChargesPortion(currency);
+            if (penaltyCharges.isGreaterThanZero()) {
+                updateChargesPaidAmountBy(copyOfTransaction, penaltyCharges, extractPenaltyCharges(charges), null);
+            }
+        }
+        return true;
+    }
+
+    private boolean containsInstallment(final List<LoanRepaymentScheduleInstallment> installments,
+            final LoanRepaymentScheduleInstallment installment) {
+        for (final LoanRepaymentScheduleInstallment candidate : installments) {
+            if (candidate == installment) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Provides support for processing the latest transaction (which should be latest transaction) against the loan
      * schedule.
@@ -391,25 +514,25 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
             final List<LoanRepaymentScheduleInstallment> installments) {
 
         final LocalDate transactionDate = loanTransaction.getTransactionDate();
-        Money principalPortion = Money.zero(currency);
-        Money interestPortion = Money.zero(currency);
-        Money feeChargesPortion = Money.zero(currency);
-        Money penaltychargesPortion = Money.zero(currency);
+        final MoneyAccumulator principalPortion = MoneyAccumulator.zero(currency);
+        final MoneyAccumulator interestPortion = MoneyAccumulator.zero(currency);
+        final MoneyAccumulator feeChargesPortion = MoneyAccumulator.zero(currency);
+        final MoneyAccumulator penaltychargesPortion = MoneyAccumulator.zero(currency);
 
         // determine how much is written off in total and breakdown for
         // principal, interest and charges
         for (final LoanRepaymentScheduleInstallment currentInstallment : installments) {
 
             if (currentInstallment.isNotFullyPaidOff()) {
-                principalPortion = principalPortion.plus(currentInstallment.writeOffOutstandingPrincipal(transactionDate, currency));
-                interestPortion = interestPortion.plus(currentInstallment.writeOffOutstandingInterest(transactionDate, currency));
-                feeChargesPortion = feeChargesPortion.plus(currentInstallment.writeOffOutstandingFeeCharges(transactionDate, currency));
-                penaltychargesPortion = penaltychargesPortion
-                        .plus(currentInstallment.writeOffOutstandingPenaltyCharges(transactionDate, currency));
+                principalPortion.plus(currentInstallment.writeOffOutstandingPrincipal(transactionDate, currency));
+                interestPortion.plus(currentInstallment.writeOffOutstandingInterest(transactionDate, currency));
+                feeChargesPortion.plus(currentInstallment.writeOffOutstandingFeeCharges(transactionDate, currency));
+                penaltychargesPortion.plus(currentInstallment.writeOffOutstandingPenaltyCharges(transactionDate, currency));
             }
         }
 
-        loanTransaction.updateComponentsAndTotal(principalPortion, interestPortion, feeChargesPortion, penaltychargesPortion);
+        loanTransaction.updateComponentsAndTotal(principalPortion.toMoney(), interestPortion.toMoney(), feeChargesPortion.toMoney(),
+                penaltychargesPortion.toMoney());
     }
 
     // abstract interface
@@ -506,6 +629,15 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
         return false;
     }
 
+    /**
+     * Whether the persisted installment mappings of a transaction record every change this processor makes to the
+     * installments, so that {@link #handleTransactionsFrom(LocalDate, LocalDate, List, MonetaryCurrency, List, Set)} can
+     * replay them instead of re-processing the transaction.
+     */
+    protected boolean isAllocationReplaySupported() {
+        return false;
+    }
+
     @Override
     public void handleRefund(LoanTransaction loanTransaction, MonetaryCurrency currency,
             List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges) {
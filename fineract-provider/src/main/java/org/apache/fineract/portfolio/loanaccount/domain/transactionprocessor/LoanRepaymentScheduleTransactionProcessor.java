@@ -36,6 +36,18 @@ public interface LoanRepaymentScheduleTransactionProcessor {
     ChangedTransactionDetail handleTransaction(LocalDate disbursementDate, List<LoanTransaction> repaymentsOrWaivers,
             MonetaryCurrency currency, List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments, Set<LoanCharge> charges);
 
+    /**
+     * Re-processes the transactions like {@link #handleTransaction(LocalDate, List, MonetaryCurrency, List, Set)} when
+     * nothing dated before <code>reprocessFromDate</code> has changed.
+     *
+     * Existing transactions dated before it are replayed from their persisted installment allocations instead of being
+     * run through the allocation strategy again; a <code>null</code> date or a processor that does not support this
+     * falls back to the full re-processing.
+     */
+    ChangedTransactionDetail handleTransactionsFrom(LocalDate reprocessFromDate, LocalDate disbursementDate,
+            List<LoanTransaction> repaymentsOrWaivers, MonetaryCurrency currency,
+            List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments, Set<LoanCharge> charges);
+
     void handleWriteOff(LoanTransaction loanTransaction, MonetaryCurrency loanCurrency,
             List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments);
 
@@ -182,4 +182,9 @@ public class FineractStyleLoanRepaymentScheduleTransactionProcessor extends Abst
     public boolean isPenaltyFirstTransactionProcessor() {
         return true;
     }
+
+    @Override
+    protected boolean isAllocationReplaySupported() {
+        return true;
+    }
 }
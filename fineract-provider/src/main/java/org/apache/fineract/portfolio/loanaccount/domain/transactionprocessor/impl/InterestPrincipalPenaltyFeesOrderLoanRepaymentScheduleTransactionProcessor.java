@@ -168,4 +168,9 @@ public class InterestPrincipalPenaltyFeesOrderLoanRepaymentScheduleTransactionPr
     public boolean isInterestFirstRepaymentScheduleTransactionProcessor() {
         return true;
     }
+
+    @Override
+    protected boolean isAllocationReplaySupported() {
+        return true;
+    }
 }
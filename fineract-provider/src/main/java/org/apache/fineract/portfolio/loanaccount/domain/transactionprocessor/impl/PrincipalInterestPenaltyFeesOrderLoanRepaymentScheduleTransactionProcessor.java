@@ -167,4 +167,8 @@ public class PrincipalInterestPenaltyFeesOrderLoanRepaymentScheduleTransactionPr
         return transactionAmountRemaining;
     }
 
+    @Override
+    protected boolean isAllocationReplaySupported() {
+        return true;
+    }
 }
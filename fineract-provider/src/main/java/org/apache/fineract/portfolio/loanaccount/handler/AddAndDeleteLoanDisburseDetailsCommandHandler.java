@@ -19,6 +19,7 @@
 package org.apache.fineract.portfolio.loanaccount.handler;
 
 import lombok.RequiredArgsConstructor;
+import org.apache.fineract.commands.annotation.CommandType;
 import org.apache.fineract.commands.handler.NewCommandSourceHandler;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
@@ -27,6 +28,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@CommandType(entity = "DISBURSEMENTDETAIL", action = "ADD_AND_DELETE")
 @RequiredArgsConstructor
 public class AddAndDeleteLoanDisburseDetailsCommandHandler implements NewCommandSourceHandler {
 
@@ -42,6 +42,7 @@ import org.apache.fineract.infrastructure.core.data.DataValidatorBuilder;
 import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.organisation.holiday.domain.Holiday;
 import org.apache.fineract.organisation.holiday.domain.HolidayRepository;
@@ -145,6 +146,7 @@ public class LoanScheduleAssembler {
     private final LoanUtilService loanUtilService;
     private final LoanRepaymentScheduleInstallmentRepository repaymentScheduleInstallmentRepository;
     private final LoanRepositoryWrapper loanRepositoryWrapper;
+    private final LoanSchedulePreviewCache loanSchedulePreviewCache;
 
     @Autowired
     public LoanScheduleAssembler(final FromJsonHelper fromApiJsonHelper, final LoanProductRepository loanProductRepository,
@@ -158,7 +160,7 @@ public class LoanScheduleAssembler {
             final VariableLoanScheduleFromApiJsonValidator variableLoanScheduleFromApiJsonValidator,
             final CalendarInstanceRepository calendarInstanceRepository, final PlatformSecurityContext context,
             final LoanUtilService loanUtilService, final LoanRepaymentScheduleInstallmentRepository repaymentScheduleInstallmentRepository,
-            final LoanRepositoryWrapper loanRepositoryWrapper) {
+            final LoanRepositoryWrapper loanRepositoryWrapper, final LoanSchedulePreviewCache loanSchedulePreviewCache) {
         this.fromApiJsonHelper = fromApiJsonHelper;
         this.loanProductRepository = loanProductRepository;
         this.applicationCurrencyRepository = applicationCurrencyRepository;
@@ -178,6 +180,7 @@ public class LoanScheduleAssembler {
         this.loanUtilService = loanUtilService;
         this.repaymentScheduleInstallmentRepository = repaymentScheduleInstallmentRepository;
         this.loanRepositoryWrapper = loanRepositoryWrapper;
+        this.loanSchedulePreviewCache = loanSchedulePreviewCache;
     }
 
     public LoanApplicationTerms assembleLoanTerms(final JsonElement element) {
@@ -630,6 +633,18 @@ public class LoanScheduleAssembler {
     }
 
     public LoanScheduleModel assembleLoanScheduleFrom(final JsonElement element) {
+        return assembleLoanScheduleFrom(element, false);
+    }
+
+    /**
+     * Same as {@link #assembleLoanScheduleFrom(JsonElement)}, but answers a preview with the same inputs as an earlier
+     * one from the {@link LoanSchedulePreviewCache}. The returned schedule may be shared and must not be modified.
+     */
+    public LoanScheduleModel assembleLoanSchedulePreviewFrom(final JsonElement element) {
+        return assembleLoanScheduleFrom(element, this.loanSchedulePreviewCache.isEnabled());
+    }
+
+    private LoanScheduleModel assembleLoanScheduleFrom(final JsonElement element, final boolean cached) {
         // This method is getting called from calculate loan schedule.
         final LoanApplicationTerms loanApplicationTerms = assembleLoanTerms(element);
         // Get holiday details
@@ -659,7 +674,26 @@ public class LoanScheduleAssembler {
 
         List<LoanDisbursementDetails> loanDisbursementDetails = this.loanUtilService.fetchDisbursementData(element.getAsJsonObject());
 
-        return assembleLoanScheduleFrom(loanApplicationTerms, isHolidayEnabled, holidays, workingDays, element, loanDisbursementDetails);
+        if (!cached) {
+            return assembleLoanScheduleFrom(loanApplicationTerms, isHolidayEnabled, holidays, workingDays, element,
+                    loanDisbursementDetails);
+        }
+
+        final Set<LoanCharge> loanCharges = this.loanChargeAssembler.fromParsedJson(element, loanDisbursementDetails);
+        final HolidayDetailDTO detailDTO = new HolidayDetailDTO(isHolidayEnabled, holidays, workingDays);
+        // the generator updates the terms while it runs, so the key has to be taken before
+        final String inputDigest;
+        try {
+            inputDigest = LoanScheduleInputDigest.of(loanApplicationTerms, detailDTO, loanCharges, MoneyHelper.getRoundingMode(),
+                    DateUtils.getBusinessLocalDate());
+        } catch (IllegalArgumentException e) {
+            // inputs the digest cannot describe by value are never answered from the cache
+            LOG.debug("Loan schedule preview not cached: {}", e.getMessage());
+            return generateLoanSchedule(loanApplicationTerms, loanCharges, detailDTO);
+        }
+        final LoanSchedulePreviewCache.Key key = new LoanSchedulePreviewCache.Key(ThreadLocalContextUtil.getTenant().getTenantIdentifier(),
+                inputDigest);
+        return this.loanSchedulePreviewCache.get(key, () -> generateLoanSchedule(loanApplicationTerms, loanCharges, detailDTO));
     }
 
     public LoanScheduleModel assembleLoanScheduleFrom(final LoanApplicationTerms loanApplicationTerms, final boolean isHolidayEnabled,
@@ -667,10 +701,14 @@ public class LoanScheduleAssembler {
             List<LoanDisbursementDetails> disbursementDetails) {
 
         final Set<LoanCharge> loanCharges = this.loanChargeAssembler.fromParsedJson(element, disbursementDetails);
+        HolidayDetailDTO detailDTO = new HolidayDetailDTO(isHolidayEnabled, holidays, workingDays);
+        return generateLoanSchedule(loanApplicationTerms, loanCharges, detailDTO);
+    }
 
+    private LoanScheduleModel generateLoanSchedule(final LoanApplicationTerms loanApplicationTerms, final Set<LoanCharge> loanCharges,
+            final HolidayDetailDTO detailDTO) {
         final RoundingMode roundingMode = MoneyHelper.getRoundingMode();
         final MathContext mc = new MathContext(8, roundingMode);
-        HolidayDetailDTO detailDTO = new HolidayDetailDTO(isHolidayEnabled, holidays, workingDays);
 
         LoanScheduleGenerator loanScheduleGenerator = this.loanScheduleFactory.create(loanApplicationTerms.getInterestMethod());
         if (loanApplicationTerms.isEqualAmortization()) {
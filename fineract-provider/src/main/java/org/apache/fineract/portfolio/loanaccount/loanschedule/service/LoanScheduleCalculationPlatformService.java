@@ -27,6 +27,13 @@ public interface LoanScheduleCalculationPlatformService {
 
     LoanScheduleModel calculateLoanSchedule(JsonQuery query, Boolean validateParams);
 
+    /**
+     * Calculates the schedule of a loan application for display, answering a repeated preview from the
+     * {@link LoanSchedulePreviewCache}. The returned schedule may be shared between requests and must not be modified or
+     * attached to a loan; use {@link #calculateLoanSchedule(JsonQuery, Boolean)} for that.
+     */
+    LoanScheduleModel calculateLoanSchedulePreview(JsonQuery query);
+
     void updateFutureSchedule(LoanScheduleData loanScheduleData, Long loanId);
 
     LoanScheduleData generateLoanScheduleForVariableInstallmentRequest(Long loanId, String json);
@@ -110,7 +110,17 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
 
     @Override
     public LoanScheduleModel calculateLoanSchedule(final JsonQuery query, Boolean validateParams) {
+        validateLoanScheduleQuery(query, validateParams);
+        return this.loanScheduleAssembler.assembleLoanScheduleFrom(query.parsedJson());
+    }
 
+    @Override
+    public LoanScheduleModel calculateLoanSchedulePreview(final JsonQuery query) {
+        validateLoanScheduleQuery(query, true);
+        return this.loanScheduleAssembler.assembleLoanSchedulePreviewFrom(query.parsedJson());
+    }
+
+    private void validateLoanScheduleQuery(final JsonQuery query, final Boolean validateParams) {
         /***
          * TODO: Vishwas, this is probably not required, test and remove the same
          **/
@@ -151,8 +161,6 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
         if (!dataValidationErrors.isEmpty()) {
             throw new PlatformApiDataValidationException(dataValidationErrors);
         }
-
-        return this.loanScheduleAssembler.assembleLoanScheduleFrom(query.parsedJson());
     }
 
     @Override
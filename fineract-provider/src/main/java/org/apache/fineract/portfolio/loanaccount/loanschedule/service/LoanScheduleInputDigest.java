@@ -0,0 +1,224 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.loanschedule.service;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.ManyToMany;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+import javax.persistence.OneToOne;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+
+/**
+ * Computes a digest of the inputs of a loan schedule calculation, such as the {@code LoanApplicationTerms}, the
+ * holidays, the working days and the loan charges, that is equal for two calculations exactly when their inputs have
+ * the same values.
+ *
+ * Platform objects are described field by field, in field name order and including the fields of their super classes.
+ * Collections other than lists are described independent of their iteration order. Entities that are already persisted
+ * are described by their id and their own columns, without following their associations, so that computing the digest
+ * never triggers lazy loading; a persisted calendar for example is identified by its id and its current recurrence.
+ * Other objects must be JDK types with their own <code>toString</code>; anything else is rejected, as its description
+ * would not reflect its value.
+ */
+public final class LoanScheduleInputDigest {
+
+    private static final String PLATFORM_PACKAGE = "org.apache.fineract.";
+    private static final String JDK_PACKAGE = "java.";
+    private static final int MAX_DEPTH = 16;
+
+    private static final ClassValue<List<Field>> FIELDS = new ClassValue<>() {
+
+        @Override
+        protected List<Field> computeValue(final Class<?> type) {
+            final List<Field> fields = new ArrayList<>();
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (final Field field : current.getDeclaredFields()) {
+                    if (isDescribed(field)) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+            fields.sort(Comparator.comparing((Field field) -> field.getName()).thenComparing(field -> field.getDeclaringClass().getName()));
+            return Collections.unmodifiableList(fields);
+        }
+    };
+
+    private static final ClassValue<Boolean> DESCRIBED_BY_TO_STRING = new ClassValue<>() {
+
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            try {
+                return type.getName().startsWith(JDK_PACKAGE) && type.getMethod("toString").getDeclaringClass() != Object.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private final IdentityHashMap<Object, Boolean> path = new IdentityHashMap<>();
+
+    private LoanScheduleInputDigest() {}
+
+    /**
+     * Returns the hex encoded SHA-256 digest of the canonical description of the given inputs.
+     */
+    public static String of(final Object... inputs) {
+        final StringBuilder description = new StringBuilder();
+        new LoanScheduleInputDigest().describe(description, List.of(inputs), 0);
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(description.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Returns the canonical description the digest is computed from.
+     */
+    static String describe(final Object value) {
+        final StringBuilder description = new StringBuilder();
+        new LoanScheduleInputDigest().describe(description, value, 0);
+        return description.toString();
+    }
+
+    private void describe(final StringBuilder out, final Object value, final int depth) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof BigDecimal decimal) {
+            out.append(decimal.signum() == 0 ? "0" : decimal.stripTrailingZeros().toPlainString());
+        } else if (value instanceof CharSequence || value instanceof Character) {
+            out.append('"').append(value.toString().replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        } else if (value instanceof Number || value instanceof Boolean || value instanceof TemporalAccessor) {
+            out.append(value);
+        } else if (value instanceof Enum<?> constant) {
+            out.append(constant.getDeclaringClass().getName()).append('.').append(constant.name());
+        } else if (value instanceof List<?> list) {
+            describeElements(out, list, depth);
+        } else if (value instanceof Collection<?> collection) {
+            describeUnordered(out, collection, depth);
+        } else if (value instanceof Map<?, ?> map) {
+            describeUnordered(out, map.entrySet(), depth);
+        } else if (value instanceof Map.Entry<?, ?> entry) {
+            describe(out, entry.getKey(), depth + 1);
+            out.append('=');
+            describe(out, entry.getValue(), depth + 1);
+        } else if (value.getClass().isArray()) {
+            final List<Object> elements = new ArrayList<>(Array.getLength(value));
+            for (int i = 0; i < Array.getLength(value); i++) {
+                elements.add(Array.get(value, i));
+            }
+            describeElements(out, elements, depth);
+        } else if (value.getClass().getName().startsWith(PLATFORM_PACKAGE)) {
+            describeFields(out, value, depth);
+        } else if (DESCRIBED_BY_TO_STRING.get(value.getClass())) {
+            out.append(value.getClass().getName()).append(':').append(value);
+        } else {
+            throw new IllegalArgumentException("Loan schedule input " + value.getClass().getName()
+                    + " can not be described by value, it is neither a platform type nor a JDK type with its own toString");
+        }
+    }
+
+    private void describeElements(final StringBuilder out, final Collection<?> elements, final int depth) {
+        out.append('[');
+        boolean first = true;
+        for (final Object element : elements) {
+            if (!first) {
+                out.append(',');
+            }
+            describe(out, element, depth + 1);
+            first = false;
+        }
+        out.append(']');
+    }
+
+    private void describeUnordered(final StringBuilder out, final Collection<?> elements, final int depth) {
+        final List<String> descriptions = new ArrayList<>(elements.size());
+        for (final Object element : elements) {
+            final StringBuilder description = new StringBuilder();
+            describe(description, element, depth + 1);
+            descriptions.add(description.toString());
+        }
+        Collections.sort(descriptions);
+        out.append('{').append(String.join(",", descriptions)).append('}');
+    }
+
+    private void describeFields(final StringBuilder out, final Object value, final int depth) {
+        final Class<?> type = value.getClass();
+        if (depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Loan schedule inputs nest deeper than " + MAX_DEPTH + " levels at " + type.getName());
+        }
+        if (this.path.put(value, Boolean.TRUE) != null) {
+            // a back reference, e.g. from a charge of a disbursement to its loan charge
+            out.append('^').append(type.getName());
+            return;
+        }
+        final boolean persisted = value instanceof AbstractPersistableCustom entity && entity.getId() != null;
+        out.append(type.getName()).append('(');
+        if (persisted) {
+            out.append("id=").append(((AbstractPersistableCustom) value).getId());
+        }
+        for (final Field field : FIELDS.get(type)) {
+            if (persisted && isAssociation(field)) {
+                continue;
+            }
+            out.append(',').append(field.getName()).append('=');
+            describe(out, read(field, value), depth + 1);
+        }
+        out.append(')');
+        this.path.remove(value);
+    }
+
+    private static Object read(final Field field, final Object value) {
+        try {
+            return field.get(value);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot read " + field, e);
+        }
+    }
+
+    private static boolean isDescribed(final Field field) {
+        final int modifiers = field.getModifiers();
+        // skips the fields added by JPA weaving as well, as they hold runtime state of the entity
+        return !Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()
+                && !field.getName().startsWith("_") && !field.isAnnotationPresent(javax.persistence.Transient.class);
+    }
+
+    private static boolean isAssociation(final Field field) {
+        return field.isAnnotationPresent(ManyToOne.class) || field.isAnnotationPresent(OneToOne.class)
+                || field.isAnnotationPresent(OneToMany.class) || field.isAnnotationPresent(ManyToMany.class);
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.loanschedule.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.LoanScheduleModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the loan schedules calculated for <code>calculateLoanSchedule</code> previews, so that a preview repeated with
+ * the same terms, e.g. while a loan officer goes back and forth in the loan application form, is not generated again.
+ *
+ * Schedules are keyed by the tenant and the {@link LoanScheduleInputDigest} of everything the schedule generator reads,
+ * so a changed holiday, working day or calendar leads to a different key instead of a stale hit. The cache holds at
+ * most <code>fineract.loan-schedule.preview-cache-max-entries</code> schedules, evicting the least recently used one
+ * beyond that, and a schedule is generated again after <code>fineract.loan-schedule.preview-cache-time-to-live</code>.
+ * Cached schedules are shared between requests and must not be modified.
+ */
+@Component
+public class LoanSchedulePreviewCache implements MeterBinder {
+
+    private final FineractProperties.FineractLoanScheduleProperties properties;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Autowired
+    public LoanSchedulePreviewCache(final FineractProperties fineractProperties) {
+        this.properties = fineractProperties.getLoanSchedule();
+    }
+
+    public boolean isEnabled() {
+        return this.properties.isPreviewCacheEnabled();
+    }
+
+    /**
+     * Returns the cached schedule for the key, or generates the schedule and caches it. A disabled cache generates the
+     * schedule every time.
+     */
+    public LoanScheduleModel get(final Key key, final Supplier<LoanScheduleModel> generator) {
+        if (!isEnabled()) {
+            return generator.get();
+        }
+        final Entry cached;
+        synchronized (this.entries) {
+            cached = this.entries.get(key);
+        }
+        if (cached != null && !cached.isExpired(System.nanoTime())) {
+            this.hits.incrementAndGet();
+            return cached.schedule;
+        }
+
+        this.misses.incrementAndGet();
+        final LoanScheduleModel schedule = generator.get();
+        final Entry entry = new Entry(schedule, System.nanoTime() + this.properties.getPreviewCacheTimeToLive().toNanos());
+        synchronized (this.entries) {
+            this.entries.put(key, entry);
+            final Iterator<Entry> eldest = this.entries.values().iterator();
+            while (this.entries.size() > this.properties.getPreviewCacheMaxEntries() && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return schedule;
+    }
+
+    public void clear() {
+        synchronized (this.entries) {
+            this.entries.clear();
+        }
+    }
+
+    int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionCounter.builder("fineract.loan.schedule.preview.cache.requests", this.hits, AtomicLong::get).tag("result", "hit")
+                .description("Loan schedule previews answered from the preview cache").register(registry);
+        FunctionCounter.builder("fineract.loan.schedule.preview.cache.requests", this.misses, AtomicLong::get).tag("result", "miss")
+                .description("Loan schedule previews that generated the schedule").register(registry);
+        Gauge.builder("fineract.loan.schedule.preview.cache.size", this, LoanSchedulePreviewCache::size)
+                .description("Cached loan schedule previews").register(registry);
+    }
+
+    /**
+     * Identifies a schedule preview by the tenant and the digest of its inputs.
+     */
+    public record Key(String tenantIdentifier, String inputDigest) {}
+
+    private static final class Entry {
+
+        private final LoanScheduleModel schedule;
+        private final long expiresAt;
+
+        Entry(final LoanScheduleModel schedule, final long expiresAt) {
+            this.schedule = schedule;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(final long now) {
+            return now - this.expiresAt >= 0;
+        }
+    }
+}
@@ -82,6 +82,7 @@ import org.apache.fineract.portfolio.loanaccount.rescheduleloan.domain.LoanResch
 import org.apache.fineract.portfolio.loanaccount.rescheduleloan.domain.LoanRescheduleRequestRepository;
 import org.apache.fineract.portfolio.loanaccount.rescheduleloan.exception.LoanRescheduleRequestNotFoundException;
 import org.apache.fineract.portfolio.loanaccount.service.LoanAssembler;
+import org.apache.fineract.portfolio.loanaccount.service.LoanSummaryProjectionWriter;
 import org.apache.fineract.portfolio.loanaccount.service.LoanUtilService;
 import org.apache.fineract.portfolio.note.domain.Note;
 import org.apache.fineract.portfolio.note.domain.NoteRepository;
@@ -122,6 +123,7 @@ public class LoanRescheduleRequestWritePlatformServiceImpl implements LoanResche
 
     private final NoteRepository noteRepository;
     private final LoanRepaymentReminderRepository loanRepaymentReminderRepository;
+    private final LoanSummaryProjectionWriter loanSummaryProjectionWriter;
 
     /**
      * LoanRescheduleRequestWritePlatformServiceImpl constructor
@@ -144,7 +146,8 @@ public class LoanRescheduleRequestWritePlatformServiceImpl implements LoanResche
             final AccountTransfersWritePlatformService accountTransfersWritePlatformService,
             final LoanAccountDomainService loanAccountDomainService,
             final LoanRepaymentScheduleInstallmentRepository repaymentScheduleInstallmentRepository, NoteRepository noteRepository,
-            final LoanRepaymentReminderRepository loanRepaymentReminderRepository) {
+            final LoanRepaymentReminderRepository loanRepaymentReminderRepository,
+            final LoanSummaryProjectionWriter loanSummaryProjectionWriter) {
         this.codeValueRepositoryWrapper = codeValueRepositoryWrapper;
         this.platformSecurityContext = platformSecurityContext;
         this.loanRescheduleRequestDataValidator = loanRescheduleRequestDataValidator;
@@ -165,6 +168,7 @@ public class LoanRescheduleRequestWritePlatformServiceImpl implements LoanResche
         this.repaymentScheduleInstallmentRepository = repaymentScheduleInstallmentRepository;
         this.noteRepository = noteRepository;
         this.loanRepaymentReminderRepository = loanRepaymentReminderRepository;
+        this.loanSummaryProjectionWriter = loanSummaryProjectionWriter;
     }
 
     /**
@@ -549,6 +553,7 @@ public class LoanRescheduleRequestWritePlatformServiceImpl implements LoanResche
             postJournalEntries(loan, existingTransactionIds, existingReversedTransactionIds);
 
             this.loanAccountDomainService.recalculateAccruals(loan, true);
+            this.loanSummaryProjectionWriter.write(loan);
 
             return new CommandProcessingResultBuilder().withCommandId(jsonCommand.commandId()).withEntityId(loanRescheduleRequestId)
                     .withLoanId(loanRescheduleRequest.getLoan().getId()).with(changes).withClientId(loan.getClientId())
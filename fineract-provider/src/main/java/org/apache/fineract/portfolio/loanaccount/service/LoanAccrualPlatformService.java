@@ -26,6 +26,10 @@ import org.apache.fineract.portfolio.loanaccount.data.LoanScheduleAccrualData;
 
 public interface LoanAccrualPlatformService {
 
+    /**
+     * Adds the periodic accruals of the whole portfolio in chunks of loans posted in their own transactions on the job
+     * worker pool; not to be called inside a transaction.
+     */
     void addPeriodicAccruals(LocalDate tilldate) throws MultiException;
 
     void addPeriodicAccruals(LocalDate tilldate, Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas) throws MultiException;
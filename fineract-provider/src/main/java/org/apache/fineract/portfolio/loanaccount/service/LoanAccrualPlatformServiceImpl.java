@@ -22,13 +22,16 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
 import org.apache.fineract.infrastructure.core.exception.MultiException;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.JobWorkerPoolService;
 import org.apache.fineract.portfolio.loanaccount.data.LoanScheduleAccrualData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,12 +45,17 @@ public class LoanAccrualPlatformServiceImpl implements LoanAccrualPlatformServic
 
     private final LoanReadPlatformService loanReadPlatformService;
     private final LoanAccrualWritePlatformService loanAccrualWritePlatformService;
+    private final JobWorkerPoolService jobWorkerPoolService;
+    private final FineractProperties fineractProperties;
 
     @Autowired
     public LoanAccrualPlatformServiceImpl(final LoanReadPlatformService loanReadPlatformService,
-            final LoanAccrualWritePlatformService loanAccrualWritePlatformService) {
+            final LoanAccrualWritePlatformService loanAccrualWritePlatformService, final JobWorkerPoolService jobWorkerPoolService,
+            final FineractProperties fineractProperties) {
         this.loanReadPlatformService = loanReadPlatformService;
         this.loanAccrualWritePlatformService = loanAccrualWritePlatformService;
+        this.jobWorkerPoolService = jobWorkerPoolService;
+        this.fineractProperties = fineractProperties;
     }
 
     @Override
@@ -89,25 +97,72 @@ public class LoanAccrualPlatformServiceImpl implements LoanAccrualPlatformServic
         }
     }
 
+    /**
+     * Adds the periodic accruals of the whole portfolio without loading it at once: the loans having accruals to post
+     * are read in pages of <code>fineract.accrual.chunk-size</code> loans in loan id order, and every page is posted in
+     * one transaction, by up to <code>fineract.accrual.worker-threads</code> workers in parallel. When a page fails its
+     * loans are posted again one by one, so only the failing loans are left out.
+     */
     @Override
     public void addPeriodicAccruals(final LocalDate tilldate) throws JobExecutionException {
-        Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas = this.loanReadPlatformService.retrivePeriodicAccrualData(tilldate);
-        addPeriodicAccruals(tilldate, loanScheduleAccrualDatas);
+        final FineractProperties.FineractAccrualProperties properties = this.fineractProperties.getAccrual();
+        final int chunkSize = Math.max(1, properties.getChunkSize());
+        final List<Throwable> errors = this.jobWorkerPoolService.processPages(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES,
+                properties.getWorkerThreads(),
+                lastLoanId -> this.loanReadPlatformService.retrieveLoanIdsWithPeriodicAccrualData(tilldate, lastLoanId, chunkSize),
+                loanIds -> addPeriodicAccrualsOfChunk(tilldate, loanIds),
+                (loanId, failedChunk) -> addPeriodicAccrualsOfLoan(tilldate, loanId, failedChunk));
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
+        }
+    }
+
+    /**
+     * @return <code>null</code> when the accruals of the chunk were posted, otherwise its accrual data by loan to post
+     *         them loan by loan
+     */
+    private Map<Long, Collection<LoanScheduleAccrualData>> addPeriodicAccrualsOfChunk(final LocalDate tilldate, final List<Long> loanIds) {
+        final Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = groupByLoan(
+                this.loanReadPlatformService.retrivePeriodicAccrualData(tilldate, loanIds.get(0), loanIds.get(loanIds.size() - 1)));
+        try {
+            this.loanAccrualWritePlatformService.addPeriodicAccruals(tilldate, loanDataMap);
+            return null;
+        } catch (RuntimeException e) {
+            LOG.warn("Failed to add accrual transactions for loans {} to {}, adding them loan by loan: {}", loanIds.get(0),
+                    loanIds.get(loanIds.size() - 1), e.getMessage());
+            return loanDataMap;
+        }
+    }
+
+    private void addPeriodicAccrualsOfLoan(final LocalDate tilldate, final Long loanId,
+            final Map<Long, Collection<LoanScheduleAccrualData>> failedChunk) {
+        if (failedChunk == null || !failedChunk.containsKey(loanId)) {
+            return;
+        }
+        try {
+            this.loanAccrualWritePlatformService.addPeriodicAccruals(tilldate, loanId, failedChunk.get(loanId));
+        } catch (RuntimeException e) {
+            LOG.error("Failed to add accural transaction for loan {}", loanId, e);
+            throw e;
+        } catch (Exception e) {
+            LOG.error("Failed to add accural transaction for loan {}", loanId, e);
+            throw new IllegalStateException("Failed to add accrual transactions for loan " + loanId, e);
+        }
+    }
+
+    private static Map<Long, Collection<LoanScheduleAccrualData>> groupByLoan(
+            final Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas) {
+        final Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = new LinkedHashMap<>();
+        for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
+            loanDataMap.computeIfAbsent(accrualData.getLoanId(), loanId -> new ArrayList<>()).add(accrualData);
+        }
+        return loanDataMap;
     }
 
     @Override
     public void addPeriodicAccruals(final LocalDate tilldate, Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas)
             throws JobExecutionException {
-        Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = new HashMap<>();
-        for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
-            if (loanDataMap.containsKey(accrualData.getLoanId())) {
-                loanDataMap.get(accrualData.getLoanId()).add(accrualData);
-            } else {
-                Collection<LoanScheduleAccrualData> accrualDatas = new ArrayList<>();
-                accrualDatas.add(accrualData);
-                loanDataMap.put(accrualData.getLoanId(), accrualDatas);
-            }
-        }
+        Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = groupByLoan(loanScheduleAccrualDatas);
 
         List<Throwable> errors = new ArrayList<>();
         for (Map.Entry<Long, Collection<LoanScheduleAccrualData>> mapEntry : loanDataMap.entrySet()) {
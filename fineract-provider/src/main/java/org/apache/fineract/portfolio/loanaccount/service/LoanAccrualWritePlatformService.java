@@ -20,6 +20,7 @@ package org.apache.fineract.portfolio.loanaccount.service;
 
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.Map;
 import org.apache.fineract.portfolio.loanaccount.data.LoanScheduleAccrualData;
 
 public interface LoanAccrualWritePlatformService {
@@ -29,5 +30,11 @@ public interface LoanAccrualWritePlatformService {
     void addPeriodicAccruals(LocalDate tilldate, Long loanId, Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas)
             throws Exception;
 
+    /**
+     * Adds the periodic accruals of several loans in one transaction, writing the journal entries of all of them
+     * together.
+     */
+    void addPeriodicAccruals(LocalDate tilldate, Map<Long, ? extends Collection<LoanScheduleAccrualData>> loanScheduleAccrualDatas);
+
     void addIncomeAndAccrualTransactions(Long loanId) throws Exception;
 }
@@ -28,6 +28,7 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import org.apache.fineract.accounting.journalentry.service.JournalEntryBatchWriter;
 import org.apache.fineract.accounting.journalentry.service.JournalEntryWritePlatformService;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
@@ -64,13 +65,14 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
     private final AppUserRepositoryWrapper userRepository;
     private final LoanRepositoryWrapper loanRepositoryWrapper;
     private final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepository;
+    private final JournalEntryBatchWriter journalEntryBatchWriter;
 
     @Autowired
     public LoanAccrualWritePlatformServiceImpl(final JdbcTemplate jdbcTemplate, final LoanReadPlatformService loanReadPlatformService,
             final JournalEntryWritePlatformService journalEntryWritePlatformService,
             final LoanChargeReadPlatformService loanChargeReadPlatformService, final AppUserRepositoryWrapper userRepository,
             final LoanRepositoryWrapper loanRepositoryWrapper, final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepository,
-            DatabaseSpecificSQLGenerator sqlGenerator) {
+            DatabaseSpecificSQLGenerator sqlGenerator, final JournalEntryBatchWriter journalEntryBatchWriter) {
         this.loanReadPlatformService = loanReadPlatformService;
         this.sqlGenerator = sqlGenerator;
         this.jdbcTemplate = jdbcTemplate;
@@ -79,6 +81,7 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
         this.userRepository = userRepository;
         this.loanRepositoryWrapper = loanRepositoryWrapper;
         this.applicationCurrencyRepository = applicationCurrencyRepository;
+        this.journalEntryBatchWriter = journalEntryBatchWriter;
     }
 
     @Override
@@ -134,6 +137,23 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
         }
     }
 
+    @Override
+    @Transactional
+    public void addPeriodicAccruals(final LocalDate tilldate,
+            final Map<Long, ? extends Collection<LoanScheduleAccrualData>> loanScheduleAccrualDatas) {
+        this.journalEntryBatchWriter.runInUnitOfWork(() -> {
+            for (final Map.Entry<Long, ? extends Collection<LoanScheduleAccrualData>> loan : loanScheduleAccrualDatas.entrySet()) {
+                try {
+                    addPeriodicAccruals(tilldate, loan.getKey(), loan.getValue());
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException("Failed to add accrual transactions for loan " + loan.getKey(), e);
+                }
+            }
+        });
+    }
+
     private void addAccrualTillSpecificDate(final LocalDate tilldate, final LoanScheduleAccrualData accrualData) throws Exception {
         LocalDate interestStartDate = accrualData.getFromDateAsLocaldate();
         if (accrualData.getInterestCalculatedFrom() != null
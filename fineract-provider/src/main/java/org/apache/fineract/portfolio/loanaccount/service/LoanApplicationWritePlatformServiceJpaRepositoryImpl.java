@@ -221,6 +221,7 @@ public class LoanApplicationWritePlatformServiceJpaRepositoryImpl implements Loa
     private final LoanDecisionRepository loanDecisionRepository;
     private final LoanApprovalMatrixRepository loanApprovalMatrixRepository;
     private final LoanDecisionAssembler loanDecisionAssembler;
+    private final LoanSummaryProjectionWriter loanSummaryProjectionWriter;
 
     private LoanLifecycleStateMachine defaultLoanLifecycleStateMachine() {
         final List<LoanStatus> allowedLoanStatuses = Arrays.asList(LoanStatus.values());
@@ -1266,6 +1267,7 @@ public class LoanApplicationWritePlatformServiceJpaRepositoryImpl implements Loa
             // pointer exception after saveAndFlush
             // http://stackoverflow.com/questions/17151757/hibernate-cascade-update-gives-null-pointer/17334374#17334374
             this.loanRepositoryWrapper.saveAndFlush(existingLoanApplication);
+            this.loanSummaryProjectionWriter.write(existingLoanApplication);
 
             if (productRelatedDetail.isInterestRecalculationEnabled()) {
                 this.fromApiJsonDeserializer.validateLoanForInterestRecalculation(existingLoanApplication);
@@ -2063,6 +2065,7 @@ public class LoanApplicationWritePlatformServiceJpaRepositoryImpl implements Loa
 
         if (!changes.isEmpty()) {
             this.loanRepositoryWrapper.saveAndFlush(loan);
+            this.loanSummaryProjectionWriter.write(loan);
 
             final String noteText = command.stringValueOfParameterNamed("note");
             if (StringUtils.isNotBlank(noteText)) {
@@ -123,8 +123,24 @@ public interface LoanReadPlatformService {
 
     Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(LocalDate tillDate);
 
+    Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(LocalDate tillDate, Long loanId);
+
+    /**
+     * Returns the periodic accrual data of the loans with ids from <code>fromLoanId</code> to <code>toLoanId</code>, both
+     * inclusive, ordered by loan id and due date.
+     */
+    Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(LocalDate tillDate, Long fromLoanId, Long toLoanId);
+
+    /**
+     * Returns, in ascending order, the ids of at most <code>limit</code> loans after <code>afterLoanId</code> having
+     * periodic accruals to post till the given date.
+     */
+    List<Long> retrieveLoanIdsWithPeriodicAccrualData(LocalDate tillDate, Long afterLoanId, int limit);
+
     Collection<Long> fetchLoansForInterestRecalculation();
 
+    boolean isInterestRecalculationRequired(Long loanId);
+
     List<Long> fetchLoansForInterestRecalculation(Integer pageSize, Long maxLoanIdInList, String officeHierarchy);
 
     LoanTransactionData retrieveLoanPrePaymentTemplate(LoanTransactionType repaymentTransactionType, Long loanId, LocalDate onDate);
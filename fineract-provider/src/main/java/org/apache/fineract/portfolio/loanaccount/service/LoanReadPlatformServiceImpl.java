@@ -181,6 +181,7 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
     private final SearchReadPlatformService searchReadPlatformService;
     private final ConfigurationReadPlatformService configurationReadPlatformService;
     private final LoanDueDiligenceInfoRepository loanDueDiligenceInfoRepository;
+    private final LoanSummaryProjectionReadPlatformService loanSummaryProjectionReadPlatformService;
 
     @Autowired
     public LoanReadPlatformServiceImpl(final PlatformSecurityContext context,
@@ -198,7 +199,8 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
             final AccountDetailsReadPlatformService accountDetailsReadPlatformService, final LoanRepositoryWrapper loanRepositoryWrapper,
             final ColumnValidator columnValidator, DatabaseSpecificSQLGenerator sqlGenerator, PaginationHelper paginationHelper,
             SearchReadPlatformService searchReadPlatformService, final LoanDueDiligenceInfoRepository loanDueDiligenceInfoRepository,
-            final ConfigurationReadPlatformService configurationReadPlatformService) {
+            final ConfigurationReadPlatformService configurationReadPlatformService,
+            final LoanSummaryProjectionReadPlatformService loanSummaryProjectionReadPlatformService) {
         this.context = context;
         this.loanRepositoryWrapper = loanRepositoryWrapper;
         this.applicationCurrencyRepository = applicationCurrencyRepository;
@@ -227,6 +229,7 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         this.searchReadPlatformService = searchReadPlatformService;
         this.loanDueDiligenceInfoRepository = loanDueDiligenceInfoRepository;
         this.configurationReadPlatformService = configurationReadPlatformService;
+        this.loanSummaryProjectionReadPlatformService = loanSummaryProjectionReadPlatformService;
     }
 
     @Override
@@ -337,6 +340,10 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         Boolean isExtendLoanLifeCycleConfig = configurationReadPlatformService
                 .retrieveGlobalConfiguration("Add-More-Stages-To-A-Loan-Life-Cycle").isEnabled();
 
+        if (!isExtendLoanLifeCycleConfig && this.loanSummaryProjectionReadPlatformService.canSearchLoans(searchParameters)) {
+            return retrieveAllFromSummaryProjection(searchParameters);
+        }
+
         final String hierarchy = currentUser.getOffice().getHierarchy();
         final String hierarchySearchString = hierarchy + "%";
 
@@ -414,6 +421,22 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), finalObjectArray, this.loaanLoanMapper);
     }
 
+    /**
+     * Filters, orders and pages the loans on the narrow loan summary projection, then loads only the loans of the page.
+     */
+    private Page<LoanAccountData> retrieveAllFromSummaryProjection(final SearchParameters searchParameters) {
+        final Page<Long> loanIds = this.loanSummaryProjectionReadPlatformService.searchLoanIds(searchParameters);
+        if (loanIds.getPageItems().isEmpty()) {
+            return new Page<>(new ArrayList<>(), loanIds.getTotalFilteredRecords());
+        }
+
+        final String sql = "select " + this.loaanLoanMapper.loanSchema() + " where l.id in ("
+                + String.join(",", Collections.nCopies(loanIds.getPageItems().size(), "?")) + ") order by "
+                + this.loanSummaryProjectionReadPlatformService.searchLoanOrder(searchParameters);
+        final List<LoanAccountData> loans = this.jdbcTemplate.query(sql, this.loaanLoanMapper, loanIds.getPageItems().toArray()); // NOSONAR
+        return new Page<>(loans, loanIds.getTotalFilteredRecords());
+    }
+
     @Override
     public LoanAccountData retrieveTemplateWithClientAndProductDetails(final Long clientId, final Long productId) {
 
@@ -1835,28 +1858,68 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
 
     @Override
     public Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(final LocalDate tillDate) {
+        return retrivePeriodicAccrualData(tillDate, null);
+    }
+
+    @Override
+    public Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(final LocalDate tillDate, final Long loanId) {
+        return retrivePeriodicAccrualData(tillDate, loanId, loanId);
+    }
+
+    @Override
+    public Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(final LocalDate tillDate, final Long fromLoanId,
+            final Long toLoanId) {
 
         LoanSchedulePeriodicAccrualMapper mapper = new LoanSchedulePeriodicAccrualMapper();
-        LocalDate organisationStartDate = this.configurationDomainService.retrieveOrganisationStartDate();
         final StringBuilder sqlBuilder = new StringBuilder(400);
-        sqlBuilder.append("select ").append(mapper.schema()).append(
+        sqlBuilder.append("select ").append(mapper.schema());
+        Map<String, Object> paramMap = new HashMap<>(6);
+        appendPeriodicAccrualCriteria(sqlBuilder, paramMap, tillDate);
+        if (fromLoanId != null) {
+            sqlBuilder.append(" and loan.id >= :fromLoanId ");
+            paramMap.put("fromLoanId", fromLoanId);
+        }
+        if (toLoanId != null) {
+            sqlBuilder.append(" and loan.id <= :toLoanId ");
+            paramMap.put("toLoanId", toLoanId);
+        }
+        sqlBuilder.append(" order by loan.id,ls.duedate ");
+
+        return this.namedParameterJdbcTemplate.query(sqlBuilder.toString(), paramMap, mapper);
+    }
+
+    @Override
+    public List<Long> retrieveLoanIdsWithPeriodicAccrualData(final LocalDate tillDate, final Long afterLoanId, final int limit) {
+        final StringBuilder sqlBuilder = new StringBuilder(400);
+        sqlBuilder.append("select distinct loan.id from m_loan_repayment_schedule ls ")
+                .append(" left join m_loan loan on loan.id=ls.loan_id ")
+                .append(" left join m_product_loan mpl on mpl.id = loan.product_id")
+                .append(" left join m_loan_recalculation_details as recaldet on loan.id = recaldet.loan_id ");
+        Map<String, Object> paramMap = new HashMap<>(5);
+        appendPeriodicAccrualCriteria(sqlBuilder, paramMap, tillDate);
+        sqlBuilder.append(" and loan.id > :afterLoanId order by loan.id ").append(sqlGenerator.limit(limit));
+        paramMap.put("afterLoanId", afterLoanId);
+
+        return this.namedParameterJdbcTemplate.queryForList(sqlBuilder.toString(), paramMap, Long.class);
+    }
+
+    private void appendPeriodicAccrualCriteria(final StringBuilder sqlBuilder, final Map<String, Object> paramMap,
+            final LocalDate tillDate) {
+        sqlBuilder.append(
                 " where  (recaldet.is_compounding_to_be_posted_as_transaction is null or recaldet.is_compounding_to_be_posted_as_transaction = false) ")
                 .append(" and (((ls.fee_charges_amount <> COALESCE(ls.accrual_fee_charges_derived, 0))")
                 .append(" or (ls.penalty_charges_amount <> COALESCE(ls.accrual_penalty_charges_derived, 0))")
                 .append(" or (ls.interest_amount <> COALESCE(ls.accrual_interest_derived, 0)))")
                 .append(" and loan.loan_status_id=:active and mpl.accounting_type=:type and (loan.closedon_date <= :tillDate or loan.closedon_date is null)")
                 .append(" and loan.is_npa=false and (ls.duedate <= :tillDate or (ls.duedate > :tillDate and ls.fromdate < :tillDate))) ");
-        Map<String, Object> paramMap = new HashMap<>(4);
+        LocalDate organisationStartDate = this.configurationDomainService.retrieveOrganisationStartDate();
         if (organisationStartDate != null) {
             sqlBuilder.append(" and ls.duedate > :organisationStartDate ");
             paramMap.put("organisationStartDate", organisationStartDate);
         }
-        sqlBuilder.append(" order by loan.id,ls.duedate ");
         paramMap.put("active", LoanStatus.ACTIVE.getValue());
         paramMap.put("type", AccountingRuleType.ACCRUAL_PERIODIC.getValue());
         paramMap.put("tillDate", tillDate);
-
-        return this.namedParameterJdbcTemplate.query(sqlBuilder.toString(), paramMap, mapper);
     }
 
     private static final class LoanSchedulePeriodicAccrualMapper implements RowMapper<LoanScheduleAccrualData> {
@@ -2008,6 +2071,16 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
 
     @Override
     public Collection<Long> fetchLoansForInterestRecalculation() {
+        return fetchLoansForInterestRecalculation((Long) null);
+    }
+
+    @Override
+    public boolean isInterestRecalculationRequired(final Long loanId) {
+        final Collection<Long> loanIds = fetchLoansForInterestRecalculation(loanId);
+        return loanIds != null && !loanIds.isEmpty();
+    }
+
+    private Collection<Long> fetchLoansForInterestRecalculation(final Long loanId) {
         StringBuilder sqlBuilder = new StringBuilder();
         sqlBuilder.append("SELECT ml.id FROM m_loan ml ");
         sqlBuilder.append(" INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
@@ -2022,6 +2095,9 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         sqlBuilder.append(" left join  m_floating_rates bfr on  bfr.is_base_lending_rate = true");
         sqlBuilder.append(" left join  m_floating_rates_periods bfrp on  bfr.id = bfrp.floating_rates_id and bfrp.created_date >= ?");
         sqlBuilder.append(" WHERE ml.loan_status_id = ? ");
+        if (loanId != null) {
+            sqlBuilder.append(" and ml.id = ? ");
+        }
         sqlBuilder.append(" and ml.is_npa = false ");
         sqlBuilder.append(" and ((");
         sqlBuilder.append("ml.interest_recalculation_enabled = true ");
@@ -2042,6 +2118,10 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
             LocalDate currentdate = DateUtils.getBusinessLocalDate();
             // will look only for yesterday modified rates
             LocalDate yesterday = DateUtils.getBusinessLocalDate().minusDays(1);
+            if (loanId != null) {
+                return this.jdbcTemplate.queryForList(sqlBuilder.toString(), Long.class, yesterday, LoanStatus.ACTIVE.getValue(), loanId,
+                        currentdate, currentdate, currentdate, yesterday);
+            }
             return this.jdbcTemplate.queryForList(sqlBuilder.toString(), Long.class, yesterday, LoanStatus.ACTIVE.getValue(), currentdate,
                     currentdate, currentdate, yesterday);
         } catch (final EmptyResultDataAccessException e) {
@@ -2085,8 +2165,9 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
                 .append("(bfrp.id is not null and frp.is_differential_to_base_lending_rate = true and frp.from_date >= bfrp.from_date)) ");
         sqlBuilder.append("and lrr.loan_id is null");
         sqlBuilder.append(" ))");
-        sqlBuilder.append(" and ml.id >= ?  and o.hierarchy like ? ");
+        sqlBuilder.append(" and ml.id > ?  and o.hierarchy like ? ");
         sqlBuilder.append(" group by ml.id ");
+        sqlBuilder.append(" order by ml.id ");
         sqlBuilder.append(" limit ? ");
         try {
             return Collections.synchronizedList(
@@ -0,0 +1,216 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.data.ApiParameterError;
+import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.apache.fineract.portfolio.loanaccount.data.LoanRepaymentIngestionFile;
+import org.apache.fineract.portfolio.loanaccount.data.LoanRepaymentIngestionLine;
+import org.apache.fineract.portfolio.loanaccount.data.LoanRepaymentIngestionResult;
+
+/**
+ * Reads repayment ingestion files: UTF-8 CSV files whose first row names the columns, in any order, and every other
+ * row is one repayment. <code>externalId</code>, <code>loanId</code>, <code>transactionDate</code> (yyyy-MM-dd) and
+ * <code>transactionAmount</code> are required, <code>paymentTypeId</code>, <code>receiptNumber</code> and
+ * <code>note</code> are optional. Fields may be enclosed in double quotes, but a quoted field cannot span lines.
+ *
+ * A row which cannot be read is reported as invalid and the others are still read, whereas a missing column or a file
+ * with more than the maximum number of rows is rejected as a whole.
+ */
+final class LoanRepaymentIngestionFileReader {
+
+    static final String EXTERNAL_ID = "externalId";
+    static final String LOAN_ID = "loanId";
+    static final String TRANSACTION_DATE = "transactionDate";
+    static final String TRANSACTION_AMOUNT = "transactionAmount";
+    static final String PAYMENT_TYPE_ID = "paymentTypeId";
+    static final String RECEIPT_NUMBER = "receiptNumber";
+    static final String NOTE = "note";
+
+    private static final List<String> REQUIRED_COLUMNS = List.of(EXTERNAL_ID, LOAN_ID, TRANSACTION_DATE, TRANSACTION_AMOUNT);
+    private static final List<String> OPTIONAL_COLUMNS = List.of(PAYMENT_TYPE_ID, RECEIPT_NUMBER, NOTE);
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final int maxLines;
+
+    LoanRepaymentIngestionFileReader(final int maxLines) {
+        this.maxLines = maxLines;
+    }
+
+    LoanRepaymentIngestionFile read(final InputStream file) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file, StandardCharsets.UTF_8))) {
+            final String header = reader.readLine();
+            if (StringUtils.isBlank(header)) {
+                throw validationError("validation.msg.loan.repayment.ingestion.file.empty", "The file has no header row", "file");
+            }
+            final Map<String, Integer> columns = columns(header);
+
+            final List<LoanRepaymentIngestionLine> lines = new ArrayList<>();
+            final List<LoanRepaymentIngestionResult> invalidLines = new ArrayList<>();
+            long lineNumber = 1;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                lineNumber++;
+                if (StringUtils.isBlank(text)) {
+                    continue;
+                }
+                if (lines.size() + invalidLines.size() >= this.maxLines) {
+                    throw validationError("validation.msg.loan.repayment.ingestion.too.many.lines",
+                            "The file has more than " + this.maxLines + " repayments", "file", this.maxLines);
+                }
+                List<String> fields = null;
+                try {
+                    fields = split(text);
+                    lines.add(line(lineNumber, fields, columns));
+                } catch (IllegalArgumentException e) {
+                    invalidLines.add(LoanRepaymentIngestionResult.invalid(lineNumber, field(fields, columns, EXTERNAL_ID), e.getMessage()));
+                }
+            }
+            return new LoanRepaymentIngestionFile(lines, invalidLines);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, Integer> columns(final String header) {
+        final List<String> names = split(header.charAt(0) == BYTE_ORDER_MARK ? header.substring(1) : header);
+        final Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+        final List<ApiParameterError> errors = new ArrayList<>();
+        for (final String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                errors.add(ApiParameterError.parameterError("validation.msg.loan.repayment.ingestion.column.missing",
+                        "The file has no " + column + " column", column));
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new PlatformApiDataValidationException(errors);
+        }
+        for (final String column : OPTIONAL_COLUMNS) {
+            columns.putIfAbsent(column, -1);
+        }
+        return columns;
+    }
+
+    private static LoanRepaymentIngestionLine line(final long lineNumber, final List<String> fields, final Map<String, Integer> columns) {
+        final String externalId = required(fields, columns, EXTERNAL_ID);
+        final Long loanId = toLong(required(fields, columns, LOAN_ID), LOAN_ID);
+        if (loanId <= 0) {
+            throw new IllegalArgumentException(LOAN_ID + " must be greater than zero");
+        }
+        final LocalDate transactionDate;
+        try {
+            transactionDate = LocalDate.parse(required(fields, columns, TRANSACTION_DATE));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(TRANSACTION_DATE + " is not a yyyy-MM-dd date", e);
+        }
+        final BigDecimal transactionAmount;
+        try {
+            transactionAmount = new BigDecimal(required(fields, columns, TRANSACTION_AMOUNT));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(TRANSACTION_AMOUNT + " is not a number", e);
+        }
+        if (transactionAmount.signum() <= 0) {
+            throw new IllegalArgumentException(TRANSACTION_AMOUNT + " must be greater than zero");
+        }
+        final String paymentTypeId = field(fields, columns, PAYMENT_TYPE_ID);
+        return new LoanRepaymentIngestionLine(lineNumber, externalId, loanId, transactionDate, transactionAmount,
+                paymentTypeId == null ? null : toLong(paymentTypeId, PAYMENT_TYPE_ID), field(fields, columns, RECEIPT_NUMBER),
+                field(fields, columns, NOTE));
+    }
+
+    private static String required(final List<String> fields, final Map<String, Integer> columns, final String column) {
+        final String value = field(fields, columns, column);
+        if (value == null) {
+            throw new IllegalArgumentException(column + " is mandatory");
+        }
+        return value;
+    }
+
+    private static String field(final List<String> fields, final Map<String, Integer> columns, final String column) {
+        final int index = columns.get(column);
+        if (fields == null || index < 0 || index >= fields.size()) {
+            return null;
+        }
+        return StringUtils.trimToNull(fields.get(index));
+    }
+
+    private static Long toLong(final String value, final String column) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a whole number", e);
+        }
+    }
+
+    /**
+     * Splits a CSV row into its fields. A double quote inside a quoted field is written as two double quotes.
+     */
+    static List<String> split(final String text) {
+        final List<String> fields = new ArrayList<>();
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append(c);
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("The line has an unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static PlatformApiDataValidationException validationError(final String code, final String message, final String parameter,
+            final Object... args) {
+        return new PlatformApiDataValidationException(List.of(ApiParameterError.parameterError(code, message, parameter, args)));
+    }
+}
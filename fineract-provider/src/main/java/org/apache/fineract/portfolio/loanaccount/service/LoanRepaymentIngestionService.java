@@ -0,0 +1,48 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import java.io.InputStream;
+import java.util.function.Consumer;
+import org.apache.fineract.portfolio.loanaccount.data.LoanRepaymentIngestionFile;
+import org.apache.fineract.portfolio.loanaccount.data.LoanRepaymentIngestionResult;
+
+/**
+ * Applies files of loan repayments, such as the daily collections of a payment aggregator, in bulk.
+ */
+public interface LoanRepaymentIngestionService {
+
+    /**
+     * Checks that the current user may apply repayments and reads the file, rejecting it as a whole if it lacks a
+     * required column or has more than <code>fineract.repayment-ingestion.max-lines</code> repayments.
+     */
+    LoanRepaymentIngestionFile read(InputStream file);
+
+    /**
+     * Applies the repayments of the file. The repayments of a loan are applied in transaction date order, in one
+     * transaction loading the loan once, and the loans are processed in parallel by up to
+     * <code>fineract.repayment-ingestion.worker-threads</code> workers. If the repayments of a loan cannot be applied
+     * together they are applied one by one, so only the failing ones are left out.
+     *
+     * A repayment whose external id is already used by a loan transaction is reported as a duplicate and not applied,
+     * so a file can safely be submitted again. Every line gets exactly one result, reported to <code>results</code> as
+     * soon as its loan is done; <code>results</code> is called by one thread at a time, but not always the same one.
+     */
+    void apply(LoanRepaymentIngestionFile file, Consumer<LoanRepaymentIngestionResult> results);
+}
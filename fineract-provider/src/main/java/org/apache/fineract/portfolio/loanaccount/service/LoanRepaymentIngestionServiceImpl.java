@@ -0,0 +1,361 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.accounting.journalentry.service.JournalEntryBatchWriter;
+import org.apache.fineract.commands.domain.CommandSource;
+import org.apache.fineract.commands.domain.CommandSourceRepository;
+import org.apache.fineract.commands.domain.CommandWrapper;
+import org.apache.fineract.commands.service.CommandWrapperBuilder;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.exception.AbstractPlatformException;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
+import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.JobWorkerPoolService;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.portfolio.loanaccount.data.LoanRepaymentIngestionFile;
+import org.apache.fineract.portfolio.loanaccount.data.LoanRepaymentIngestionLine;
+import org.apache.fineract.portfolio.loanaccount.data.LoanRepaymentIngestionResult;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.apache.fineract.portfolio.paymentdetail.domain.PaymentDetail;
+import org.apache.fineract.portfolio.paymentdetail.service.PaymentDetailWritePlatformService;
+import org.apache.fineract.portfolio.paymenttype.domain.PaymentType;
+import org.apache.fineract.portfolio.paymenttype.domain.PaymentTypeRepositoryWrapper;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoanRepaymentIngestionServiceImpl implements LoanRepaymentIngestionService {
+
+    private static final String REPAYMENT_PERMISSION = "REPAYMENT_LOAN";
+    private static final String DATE_FORMAT = "yyyy-MM-dd";
+    private static final int EXTERNAL_IDS_PER_QUERY = 500;
+    private static final int LOANS_PER_PAGE = 100;
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+    private static final String INTEGRITY_VIOLATION_SQL_STATE = "23000";
+    private static final int MYSQL_DUPLICATE_KEY_ERROR = 1062;
+
+    private final PlatformSecurityContext context;
+    private final ConfigurationDomainService configurationDomainService;
+    private final FineractProperties fineractProperties;
+    private final LoanAssembler loanAssembler;
+    private final LoanWritePlatformService loanWritePlatformService;
+    private final PaymentTypeRepositoryWrapper paymentTypeRepositoryWrapper;
+    private final PaymentDetailWritePlatformService paymentDetailWritePlatformService;
+    private final JournalEntryBatchWriter journalEntryBatchWriter;
+    private final CommandSourceRepository commandSourceRepository;
+    private final ToApiJsonSerializer<Map<String, Object>> toApiJsonSerializer;
+    private final JobWorkerPoolService jobWorkerPoolService;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public LoanRepaymentIngestionFile read(final InputStream file) {
+        validateCanApplyRepayments();
+        return new LoanRepaymentIngestionFileReader(this.fineractProperties.getRepaymentIngestion().getMaxLines()).read(file);
+    }
+
+    @Override
+    public void apply(final LoanRepaymentIngestionFile file, final Consumer<LoanRepaymentIngestionResult> results) {
+        final AppUser currentUser = validateCanApplyRepayments();
+        final Consumer<LoanRepaymentIngestionResult> resultSink = result -> {
+            synchronized (results) {
+                results.accept(result);
+            }
+        };
+        file.getInvalidLines().forEach(resultSink);
+
+        final NavigableMap<Long, List<LoanRepaymentIngestionLine>> linesByLoan = groupByLoan(file.getLines(), resultSink);
+        if (linesByLoan.isEmpty()) {
+            return;
+        }
+
+        final Set<Long> completedLoanIds = ConcurrentHashMap.newKeySet();
+        final Map<String, LoanRepaymentIngestionResult> appliedResults = new ConcurrentHashMap<>();
+        final Map<Long, RuntimeException> loanErrors = new ConcurrentHashMap<>();
+        final List<Throwable> errors = this.jobWorkerPoolService.processPages(JobName.LOAN_REPAYMENT_INGESTION,
+                this.fineractProperties.getRepaymentIngestion().getWorkerThreads(),
+                lastLoanId -> linesByLoan.tailMap(lastLoanId, false).keySet().stream().limit(LOANS_PER_PAGE).toList(), loanId -> {
+                    final List<LoanRepaymentIngestionResult> loanResults;
+                    try {
+                        loanResults = applyRepayments(currentUser, linesByLoan.get(loanId), appliedResults);
+                    } catch (RuntimeException e) {
+                        // the error of the last attempt is reported if the worker pool gives up on the loan
+                        loanErrors.put(loanId, e);
+                        throw e;
+                    }
+                    // a failure to report the results must not be taken for a failure to apply them
+                    completedLoanIds.add(loanId);
+                    loanResults.forEach(resultSink);
+                });
+        if (!errors.isEmpty()) {
+            log.warn("Failed to apply the repayments of {} loans", errors.size());
+        }
+        for (final Map.Entry<Long, List<LoanRepaymentIngestionLine>> loan : linesByLoan.entrySet()) {
+            if (!completedLoanIds.contains(loan.getKey())) {
+                final String message = unfinishedLoanMessage(loanErrors.get(loan.getKey()));
+                for (final LoanRepaymentIngestionLine line : loan.getValue()) {
+                    final LoanRepaymentIngestionResult applied = appliedResults.get(line.getExternalId());
+                    resultSink.accept(applied != null ? applied : LoanRepaymentIngestionResult.failed(line, message));
+                }
+            }
+        }
+    }
+
+    private AppUser validateCanApplyRepayments() {
+        final AppUser currentUser = this.context.authenticatedUser();
+        currentUser.validateHasPermissionTo(REPAYMENT_PERMISSION);
+        if (this.configurationDomainService.isMakerCheckerEnabledForTask(REPAYMENT_PERMISSION)) {
+            throw new GeneralPlatformDomainRuleException("error.msg.loan.repayment.ingestion.maker.checker.enabled",
+                    "Repayments cannot be ingested while maker checker is enabled for loan repayments");
+        }
+        return currentUser;
+    }
+
+    /**
+     * Groups the repayments by loan in transaction date order, leaving out, as duplicates, those whose external id
+     * appears earlier in the file or is used by an existing loan transaction.
+     */
+    private NavigableMap<Long, List<LoanRepaymentIngestionLine>> groupByLoan(final List<LoanRepaymentIngestionLine> lines,
+            final Consumer<LoanRepaymentIngestionResult> resultSink) {
+        final Map<String, LoanRepaymentIngestionLine> linesByExternalId = new LinkedHashMap<>();
+        for (final LoanRepaymentIngestionLine line : lines) {
+            final LoanRepaymentIngestionLine firstLine = linesByExternalId.putIfAbsent(line.getExternalId(), line);
+            if (firstLine != null) {
+                resultSink.accept(LoanRepaymentIngestionResult.duplicate(line, null,
+                        "The externalId is already used on line " + firstLine.getLineNumber()));
+            }
+        }
+
+        final Map<String, Long> existingTransactionIds = findTransactionIdsByExternalId(linesByExternalId.keySet());
+        final NavigableMap<Long, List<LoanRepaymentIngestionLine>> linesByLoan = new TreeMap<>();
+        for (final LoanRepaymentIngestionLine line : linesByExternalId.values()) {
+            final Long transactionId = existingTransactionIds.get(line.getExternalId());
+            if (transactionId != null) {
+                resultSink.accept(LoanRepaymentIngestionResult.duplicate(line, transactionId,
+                        "A loan transaction with the externalId exists already"));
+            } else {
+                linesByLoan.computeIfAbsent(line.getLoanId(), loanId -> new ArrayList<>()).add(line);
+            }
+        }
+        // stable sort: repayments of the same day keep their file order
+        linesByLoan.values().forEach(loanLines -> loanLines.sort(Comparator.comparing(LoanRepaymentIngestionLine::getTransactionDate)));
+        return linesByLoan;
+    }
+
+    private Map<String, Long> findTransactionIdsByExternalId(final Collection<String> externalIds) {
+        final Map<String, Long> transactionIds = new HashMap<>();
+        final List<String> batch = new ArrayList<>(EXTERNAL_IDS_PER_QUERY);
+        final Iterator<String> iterator = externalIds.iterator();
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            if (batch.size() == EXTERNAL_IDS_PER_QUERY || !iterator.hasNext()) {
+                this.namedParameterJdbcTemplate.query("SELECT external_id, id FROM m_loan_transaction WHERE external_id IN (:externalIds)",
+                        Map.of("externalIds", batch), rs -> {
+                            transactionIds.put(rs.getString("external_id"), rs.getLong("id"));
+                        });
+                batch.clear();
+            }
+        }
+        return transactionIds;
+    }
+
+    /**
+     * Applies the repayments of a loan in one transaction, or one by one when that fails. Lock conflicts are left to the
+     * worker pool, which retries the loan; the repayments an earlier attempt applied are kept in
+     * <code>appliedResults</code> and not applied again.
+     */
+    private List<LoanRepaymentIngestionResult> applyRepayments(final AppUser currentUser, final List<LoanRepaymentIngestionLine> lines,
+            final Map<String, LoanRepaymentIngestionResult> appliedResults) {
+        final List<LoanRepaymentIngestionLine> pendingLines = lines.stream()
+                .filter(line -> !appliedResults.containsKey(line.getExternalId())).toList();
+        if (pendingLines.size() > 1) {
+            try {
+                this.transactionTemplate.execute(status -> applyInOneTransaction(currentUser, pendingLines))
+                        .forEach(result -> appliedResults.put(result.getExternalId(), result));
+            } catch (CannotAcquireLockException | ObjectOptimisticLockingFailureException e) {
+                // nothing was applied, the worker pool retries the whole loan
+                throw e;
+            } catch (RuntimeException e) {
+                log.warn("Failed to apply the {} repayments of loan {} together, applying them one by one: {}", pendingLines.size(),
+                        pendingLines.get(0).getLoanId(), errorMessage(e));
+            }
+        }
+        final Map<String, LoanRepaymentIngestionResult> failedResults = new HashMap<>();
+        for (final LoanRepaymentIngestionLine line : pendingLines) {
+            if (appliedResults.containsKey(line.getExternalId())) {
+                continue;
+            }
+            try {
+                this.transactionTemplate.execute(status -> applyInOneTransaction(currentUser, List.of(line)))
+                        .forEach(result -> appliedResults.put(result.getExternalId(), result));
+            } catch (CannotAcquireLockException | ObjectOptimisticLockingFailureException e) {
+                // the worker pool retries the loan from this repayment on
+                throw e;
+            } catch (RuntimeException e) {
+                failedResults.put(line.getExternalId(), failure(line, e));
+            }
+        }
+        final List<LoanRepaymentIngestionResult> results = new ArrayList<>(lines.size());
+        for (final LoanRepaymentIngestionLine line : lines) {
+            final LoanRepaymentIngestionResult applied = appliedResults.get(line.getExternalId());
+            results.add(applied != null ? applied : failedResults.get(line.getExternalId()));
+        }
+        return results;
+    }
+
+    /**
+     * A repayment rejected for its external id, posted meanwhile by another request, is a duplicate rather than a
+     * failure.
+     */
+    private LoanRepaymentIngestionResult failure(final LoanRepaymentIngestionLine line, final RuntimeException e) {
+        if (isExternalIdValidationFailure(e)) {
+            return LoanRepaymentIngestionResult.duplicate(line, findTransactionId(line),
+                    "A loan transaction with the externalId exists already");
+        }
+        if (isUniqueViolation(e)) {
+            // another unique key of the transaction may be the one violated
+            final Long transactionId = findTransactionId(line);
+            if (transactionId != null) {
+                return LoanRepaymentIngestionResult.duplicate(line, transactionId, "A loan transaction with the externalId exists already");
+            }
+        }
+        return LoanRepaymentIngestionResult.failed(line, errorMessage(e));
+    }
+
+    private Long findTransactionId(final LoanRepaymentIngestionLine line) {
+        return findTransactionIdsByExternalId(List.of(line.getExternalId())).get(line.getExternalId());
+    }
+
+    private static boolean isExternalIdValidationFailure(final RuntimeException e) {
+        return e instanceof PlatformApiDataValidationException validationException
+                && validationException.getErrors().stream().anyMatch(error -> "externalId".equals(error.getParameterName())
+                        && error.getUserMessageGlobalisationCode().endsWith(".value.must.be.unique"));
+    }
+
+    /**
+     * PostgreSQL reports a unique violation with its own SQLState, MySQL and MariaDB with the integrity constraint class
+     * and their duplicate key error code.
+     */
+    private static boolean isUniqueViolation(final Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                return UNIQUE_VIOLATION_SQL_STATE.equals(sqlException.getSQLState())
+                        || (INTEGRITY_VIOLATION_SQL_STATE.equals(sqlException.getSQLState())
+                                && sqlException.getErrorCode() == MYSQL_DUPLICATE_KEY_ERROR);
+            }
+        }
+        return false;
+    }
+
+    private static String unfinishedLoanMessage(final RuntimeException e) {
+        if (e == null) {
+            // the worker pool could not run the loan at all
+            return "The repayments of the loan could not be applied";
+        }
+        if (e instanceof CannotAcquireLockException || e instanceof ObjectOptimisticLockingFailureException) {
+            return "The loan is locked by other transactions";
+        }
+        return errorMessage(e);
+    }
+
+    private List<LoanRepaymentIngestionResult> applyInOneTransaction(final AppUser currentUser,
+            final List<LoanRepaymentIngestionLine> lines) {
+        final Loan loan = this.loanAssembler.assembleFrom(lines.get(0).getLoanId());
+        final List<LoanRepaymentIngestionResult> results = new ArrayList<>(lines.size());
+        final List<CommandSource> auditEntries = new ArrayList<>(lines.size());
+        final CommandWrapper auditedCommand = new CommandWrapperBuilder().loanRepaymentTransaction(loan.getId()).build();
+        this.journalEntryBatchWriter.runInUnitOfWork(() -> {
+            for (final LoanRepaymentIngestionLine line : lines) {
+                final Map<String, Object> changes = changes(line);
+                final CommandProcessingResult result = this.loanWritePlatformService.makeLoanRepayment(loan, line.getTransactionDate(),
+                        line.getTransactionAmount(), paymentDetail(line), line.getNote(), line.getExternalId(), changes);
+                results.add(LoanRepaymentIngestionResult.applied(line, result.resourceId()));
+                auditEntries.add(CommandSource.processedEntryFrom(auditedCommand, result,
+                        this.toApiJsonSerializer.serializeResult(result.getChanges()), currentUser));
+            }
+        });
+        this.commandSourceRepository.saveAll(auditEntries);
+        return results;
+    }
+
+    private PaymentDetail paymentDetail(final LoanRepaymentIngestionLine line) {
+        if (line.getPaymentTypeId() == null) {
+            return null;
+        }
+        final PaymentType paymentType = this.paymentTypeRepositoryWrapper.findOneWithNotFoundDetection(line.getPaymentTypeId());
+        return this.paymentDetailWritePlatformService
+                .persistPaymentDetail(PaymentDetail.instance(paymentType, null, null, null, line.getReceiptNumber(), null));
+    }
+
+    private static Map<String, Object> changes(final LoanRepaymentIngestionLine line) {
+        final Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("transactionDate", line.getTransactionDate().toString());
+        changes.put("transactionAmount", line.getTransactionAmount().toPlainString());
+        changes.put("dateFormat", DATE_FORMAT);
+        changes.put("externalId", line.getExternalId());
+        if (line.getPaymentTypeId() != null) {
+            changes.put("paymentTypeId", line.getPaymentTypeId());
+        }
+        if (line.getReceiptNumber() != null) {
+            changes.put("receiptNumber", line.getReceiptNumber());
+        }
+        if (line.getNote() != null) {
+            changes.put("note", line.getNote());
+        }
+        return changes;
+    }
+
+    private static String errorMessage(final RuntimeException e) {
+        if (e instanceof PlatformApiDataValidationException validationException && !validationException.getErrors().isEmpty()) {
+            return validationException.getErrors().get(0).getDefaultUserMessage();
+        }
+        if (e instanceof AbstractPlatformException platformException) {
+            return platformException.getDefaultUserMessage();
+        }
+        return e.getMessage();
+    }
+}
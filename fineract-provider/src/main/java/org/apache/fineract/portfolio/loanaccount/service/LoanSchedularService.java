@@ -27,7 +27,7 @@ public interface LoanSchedularService {
 
     void recalculateInterest() throws JobExecutionException;
 
-    void recalculateInterest(@SuppressWarnings("unused") Map<String, String> jobParameters);
+    void recalculateInterest(Map<String, String> jobParameters) throws JobExecutionException;
 
     void postLoanRepaymentReminder() throws JobExecutionException;
 
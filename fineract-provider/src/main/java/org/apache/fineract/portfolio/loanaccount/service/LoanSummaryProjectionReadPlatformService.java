@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import java.util.List;
+import org.apache.fineract.infrastructure.core.service.Page;
+import org.apache.fineract.infrastructure.core.service.SearchParameters;
+import org.apache.fineract.portfolio.loanaccount.data.LoanSummaryProjectionData;
+
+public interface LoanSummaryProjectionReadPlatformService {
+
+    /**
+     * Returns a page of the summaries of the loans visible to the current user, in loan id order, read from the loan
+     * summary projection. Pages are chained by passing the last loan id of a page as <code>afterLoanId</code> of the next
+     * one, so every page is an index range scan whatever its position.
+     */
+    List<LoanSummaryProjectionData> retrieveLoanSummaries(Long officeId, Long loanOfficerId, Integer loanStatusId, Long afterLoanId,
+            Integer limit);
+
+    /**
+     * Tells whether a loan search can be answered from the loan summary projection: a limited page without a free text
+     * criteria or an external id, ordered by id or account number if at all.
+     */
+    boolean canSearchLoans(SearchParameters searchParameters);
+
+    /**
+     * Returns the page of the ids of the loans visible to the current user that match the search, together with the
+     * number of matching loans, read from the loan summary projection.
+     */
+    Page<Long> searchLoanIds(SearchParameters searchParameters);
+
+    /**
+     * Returns the column of <code>m_loan</code> the loans of a search page are ordered by, with its direction.
+     */
+    String searchLoanOrder(SearchParameters searchParameters);
+}
@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.service.Page;
+import org.apache.fineract.infrastructure.core.service.PaginationHelper;
+import org.apache.fineract.infrastructure.core.service.SearchParameters;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.portfolio.loanaccount.data.LoanSummaryProjectionData;
+import org.apache.fineract.portfolio.loanproduct.service.LoanEnumerations;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class LoanSummaryProjectionReadPlatformServiceImpl implements LoanSummaryProjectionReadPlatformService {
+
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 500;
+
+    /**
+     * The loan search orderings the projection can serve, by the <code>m_loan</code> column they map to.
+     */
+    private static final Map<String, String> SEARCH_ORDER_COLUMNS = Map.of("id", "id", "l.id", "id", "accountNo", "account_no",
+            "account_no", "account_no", "l.account_no", "account_no");
+
+    private final PlatformSecurityContext context;
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseSpecificSQLGenerator sqlGenerator;
+    private final PaginationHelper paginationHelper;
+
+    @Override
+    public List<LoanSummaryProjectionData> retrieveLoanSummaries(final Long officeId, final Long loanOfficerId,
+            final Integer loanStatusId, final Long afterLoanId, final Integer limit) {
+        final AppUser currentUser = this.context.authenticatedUser();
+
+        final LoanSummaryProjectionMapper rm = new LoanSummaryProjectionMapper();
+        final StringBuilder sqlBuilder = new StringBuilder("select ").append(rm.schema());
+        final List<Object> params = new ArrayList<>();
+        sqlBuilder.append(" where o.hierarchy like ? and p.loan_id > ?");
+        params.add(currentUser.getOffice().getHierarchy() + "%");
+        params.add(afterLoanId == null ? 0L : afterLoanId);
+        if (officeId != null) {
+            sqlBuilder.append(" and p.office_id = ?");
+            params.add(officeId);
+        }
+        if (loanOfficerId != null) {
+            sqlBuilder.append(" and p.loan_officer_id = ?");
+            params.add(loanOfficerId);
+        }
+        if (loanStatusId != null) {
+            sqlBuilder.append(" and p.loan_status_id = ?");
+            params.add(loanStatusId);
+        }
+        sqlBuilder.append(" order by p.loan_id ").append(this.sqlGenerator.limit(pageSize(limit)));
+
+        return this.jdbcTemplate.query(sqlBuilder.toString(), rm, params.toArray());
+    }
+
+    @Override
+    public boolean canSearchLoans(final SearchParameters searchParameters) {
+        if (searchParameters == null || !searchParameters.isLimited() || StringUtils.isNotBlank(searchParameters.getSqlSearch())
+                || StringUtils.isNotBlank(searchParameters.getExternalId())) {
+            return false;
+        }
+        if (!searchParameters.isOrderByRequested()) {
+            return true;
+        }
+        return SEARCH_ORDER_COLUMNS.containsKey(searchParameters.getOrderBy())
+                && (!searchParameters.isSortOrderProvided() || "ASC".equalsIgnoreCase(searchParameters.getSortOrder())
+                        || "DESC".equalsIgnoreCase(searchParameters.getSortOrder()));
+    }
+
+    @Override
+    public Page<Long> searchLoanIds(final SearchParameters searchParameters) {
+        final AppUser currentUser = this.context.authenticatedUser();
+        final String hierarchySearchString = currentUser.getOffice().getHierarchy() + "%";
+
+        // same data scope as the m_loan search: loans of the offices under the user's, or of clients being transferred
+        // to one of them
+        final StringBuilder sqlBuilder = new StringBuilder(200);
+        sqlBuilder.append("select ").append(this.sqlGenerator.calcFoundRows()).append(" p.loan_id from m_loan_summary_projection p ")
+                .append("join m_office o on o.id = p.office_id left join m_client c on c.id = p.client_id ")
+                .append("left join m_office transferToOffice on transferToOffice.id = c.transfer_to_office_id ")
+                .append("where (o.hierarchy like ? or transferToOffice.hierarchy like ?)");
+        final List<Object> params = new ArrayList<>();
+        params.add(hierarchySearchString);
+        params.add(hierarchySearchString);
+        if (searchParameters.getOfficeId() != null) {
+            sqlBuilder.append(" and p.office_id = ? and p.client_id is not null");
+            params.add(searchParameters.getOfficeId());
+        }
+        if (StringUtils.isNotBlank(searchParameters.getAccountNo())) {
+            sqlBuilder.append(" and p.account_no = ?");
+            params.add(searchParameters.getAccountNo());
+        }
+        sqlBuilder.append(" order by ").append(searchLoanOrder(searchParameters, "p.")).append(' ');
+        if (searchParameters.isOffset()) {
+            sqlBuilder.append(this.sqlGenerator.limit(searchParameters.getLimit(), searchParameters.getOffset()));
+        } else {
+            sqlBuilder.append(this.sqlGenerator.limit(searchParameters.getLimit()));
+        }
+
+        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), params.toArray(),
+                (rs, rowNum) -> rs.getLong("loan_id"));
+    }
+
+    @Override
+    public String searchLoanOrder(final SearchParameters searchParameters) {
+        return searchLoanOrder(searchParameters, "l.");
+    }
+
+    private static String searchLoanOrder(final SearchParameters searchParameters, final String alias) {
+        String column = searchParameters.isOrderByRequested() ? SEARCH_ORDER_COLUMNS.get(searchParameters.getOrderBy()) : "id";
+        if ("p.".equals(alias) && "id".equals(column)) {
+            column = "loan_id";
+        }
+        final boolean descending = searchParameters.isSortOrderProvided() && "DESC".equalsIgnoreCase(searchParameters.getSortOrder());
+        return alias + column + (descending ? " desc" : " asc");
+    }
+
+    static int pageSize(final Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    private static final class LoanSummaryProjectionMapper implements RowMapper<LoanSummaryProjectionData> {
+
+        public String schema() {
+            return " p.loan_id, p.account_no, p.office_id, o.name as office_name, p.loan_officer_id, p.client_id, p.group_id, "
+                    + "p.product_id, p.loan_status_id, p.currency_code, p.principal_disbursed, p.principal_outstanding, "
+                    + "p.interest_outstanding, p.fee_charges_outstanding, p.penalty_charges_outstanding, p.total_outstanding, "
+                    + "la.total_overdue_derived, la.overdue_since_date_derived, p.disbursed_on_date, p.expected_maturity_date "
+                    + "from m_loan_summary_projection p join m_office o on o.id = p.office_id "
+                    + "left join m_loan_arrears_aging la on la.loan_id = p.loan_id";
+        }
+
+        @Override
+        public LoanSummaryProjectionData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new LoanSummaryProjectionData(rs.getLong("loan_id"), rs.getString("account_no"), rs.getLong("office_id"),
+                    rs.getString("office_name"), JdbcSupport.getLong(rs, "loan_officer_id"), JdbcSupport.getLong(rs, "client_id"),
+                    JdbcSupport.getLong(rs, "group_id"), rs.getLong("product_id"),
+                    LoanEnumerations.status(JdbcSupport.getInteger(rs, "loan_status_id")), rs.getString("currency_code"),
+                    rs.getBigDecimal("principal_disbursed"), rs.getBigDecimal("principal_outstanding"),
+                    rs.getBigDecimal("interest_outstanding"), rs.getBigDecimal("fee_charges_outstanding"),
+                    rs.getBigDecimal("penalty_charges_outstanding"), rs.getBigDecimal("total_outstanding"),
+                    JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "total_overdue_derived"),
+                    JdbcSupport.getLocalDate(rs, "overdue_since_date_derived"), JdbcSupport.getLocalDate(rs, "disbursed_on_date"),
+                    JdbcSupport.getLocalDate(rs, "expected_maturity_date"));
+        }
+    }
+}
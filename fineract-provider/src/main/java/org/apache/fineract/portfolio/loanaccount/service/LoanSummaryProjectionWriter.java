@@ -0,0 +1,163 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Function;
+import javax.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.portfolio.businessevent.domain.BusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.LoanAcceptTransferBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.LoanAdjustTransactionBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.LoanApplyOverdueChargeBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.LoanApprovedBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.LoanBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.LoanCloseAsRescheduleBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.LoanCloseBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.LoanCreatedBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.LoanDisbursalBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.LoanInitiateTransferBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.LoanInterestRecalculationBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.LoanReassignOfficerBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.LoanRejectTransferBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.LoanRejectedBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.LoanRemoveOfficerBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.LoanUndoApprovalBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.LoanUndoDisbursalBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.LoanUndoLastDisbursalBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.LoanWithdrawTransferBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.charge.LoanAddChargeBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.charge.LoanChargeBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.charge.LoanDeleteChargeBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.charge.LoanUpdateChargeBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.charge.LoanWaiveChargeBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.charge.LoanWaiveChargeUndoBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.transaction.LoanChargePaymentPostBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.transaction.LoanCreditBalanceRefundPostBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.transaction.LoanForeClosurePostBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.transaction.LoanRefundPostBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.transaction.LoanTransactionBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.transaction.LoanTransactionGoodwillCreditPostBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.transaction.LoanTransactionMakeRepaymentPostBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.transaction.LoanTransactionMerchantIssuedRefundPostBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.transaction.LoanTransactionPayoutRefundPostBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.transaction.LoanTransactionRecoveryPaymentPostBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.transaction.LoanUndoWrittenOffBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.transaction.LoanWaiveInterestBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.transaction.LoanWrittenOffPostBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.service.BusinessEventNotifierService;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanSummary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps <code>m_loan_summary_projection</code> up to date: a narrow, denormalized copy of the loan fields that list and
+ * dashboard pages filter on and show, so that they neither join <code>m_loan</code> with its clients, groups and offices
+ * nor load loan aggregates.
+ *
+ * The row of a loan is rewritten from the aggregate the write path has already loaded whenever one of the loan business
+ * events is raised, as part of the transaction raising it. Write paths that raise no event (modifying or withdrawing an
+ * application, approving a reschedule request) call {@link #write(Loan)} themselves. Arrears are not copied, they change
+ * with the business date and are read from <code>m_loan_arrears_aging</code> instead.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoanSummaryProjectionWriter {
+
+    private static final List<Class<? extends LoanBusinessEvent>> LOAN_EVENTS = List.of(LoanCreatedBusinessEvent.class,
+            LoanApprovedBusinessEvent.class, LoanUndoApprovalBusinessEvent.class, LoanRejectedBusinessEvent.class,
+            LoanDisbursalBusinessEvent.class, LoanUndoDisbursalBusinessEvent.class, LoanUndoLastDisbursalBusinessEvent.class,
+            LoanCloseBusinessEvent.class, LoanCloseAsRescheduleBusinessEvent.class, LoanInterestRecalculationBusinessEvent.class,
+            LoanApplyOverdueChargeBusinessEvent.class, LoanReassignOfficerBusinessEvent.class, LoanRemoveOfficerBusinessEvent.class,
+            LoanInitiateTransferBusinessEvent.class, LoanAcceptTransferBusinessEvent.class, LoanRejectTransferBusinessEvent.class,
+            LoanWithdrawTransferBusinessEvent.class);
+    private static final List<Class<? extends LoanTransactionBusinessEvent>> TRANSACTION_EVENTS = List.of(
+            LoanTransactionMakeRepaymentPostBusinessEvent.class, LoanTransactionRecoveryPaymentPostBusinessEvent.class,
+            LoanTransactionGoodwillCreditPostBusinessEvent.class, LoanTransactionMerchantIssuedRefundPostBusinessEvent.class,
+            LoanTransactionPayoutRefundPostBusinessEvent.class, LoanChargePaymentPostBusinessEvent.class,
+            LoanCreditBalanceRefundPostBusinessEvent.class, LoanForeClosurePostBusinessEvent.class, LoanRefundPostBusinessEvent.class,
+            LoanWaiveInterestBusinessEvent.class, LoanWrittenOffPostBusinessEvent.class, LoanUndoWrittenOffBusinessEvent.class);
+    private static final List<Class<? extends LoanChargeBusinessEvent>> CHARGE_EVENTS = List.of(LoanAddChargeBusinessEvent.class,
+            LoanUpdateChargeBusinessEvent.class, LoanDeleteChargeBusinessEvent.class, LoanWaiveChargeBusinessEvent.class,
+            LoanWaiveChargeUndoBusinessEvent.class);
+
+    private static final String UPDATE_SQL = "UPDATE m_loan_summary_projection SET account_no = ?, office_id = ?, loan_officer_id = ?, "
+            + "client_id = ?, group_id = ?, product_id = ?, loan_status_id = ?, currency_code = ?, principal_disbursed = ?, "
+            + "principal_outstanding = ?, interest_outstanding = ?, fee_charges_outstanding = ?, penalty_charges_outstanding = ?, "
+            + "total_outstanding = ?, disbursed_on_date = ?, expected_maturity_date = ?, last_modified_on_utc = ? WHERE loan_id = ?";
+    private static final String INSERT_SQL = "INSERT INTO m_loan_summary_projection (account_no, office_id, loan_officer_id, client_id, "
+            + "group_id, product_id, loan_status_id, currency_code, principal_disbursed, principal_outstanding, interest_outstanding, "
+            + "fee_charges_outstanding, penalty_charges_outstanding, total_outstanding, disbursed_on_date, expected_maturity_date, "
+            + "last_modified_on_utc, loan_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final BusinessEventNotifierService businessEventNotifierService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void addListeners() {
+        LOAN_EVENTS.forEach(eventType -> addListener(eventType, LoanBusinessEvent::get));
+        TRANSACTION_EVENTS.forEach(eventType -> addListener(eventType, event -> event.get().getLoan()));
+        CHARGE_EVENTS.forEach(eventType -> addListener(eventType, event -> event.get().getLoan()));
+        addListener(LoanAdjustTransactionBusinessEvent.class, event -> event.get().getTransactionToAdjust().getLoan());
+    }
+
+    private <T extends BusinessEvent<?>> void addListener(final Class<T> eventType, final Function<T, Loan> loanOfEvent) {
+        this.businessEventNotifierService.addPostBusinessEventListener(eventType, event -> write(loanOfEvent.apply(event)));
+    }
+
+    /**
+     * Writes the projection row of the loan, in the current transaction.
+     */
+    public void write(final Loan loan) {
+        if (loan == null || loan.getId() == null) {
+            return;
+        }
+        final Object[] row = row(loan);
+        if (this.jdbcTemplate.update(UPDATE_SQL, row) == 0) {
+            this.jdbcTemplate.update(INSERT_SQL, row);
+        }
+    }
+
+    /**
+     * @return the column values of the loan's row, in statement parameter order, the loan id last
+     */
+    static Object[] row(final Loan loan) {
+        final LoanSummary summary = loan.getSummary();
+        return new Object[] { loan.getAccountNumber(), loan.getOfficeId(),
+                loan.getLoanOfficer() == null ? null : loan.getLoanOfficer().getId(), loan.getClientId(), loan.getGroupId(),
+                loan.productId(), loan.status().getValue(), loan.getCurrencyCode(),
+                summary == null ? null : summary.getTotalPrincipalDisbursed(),
+                summary == null ? null : summary.getTotalPrincipalOutstanding(),
+                summary == null ? null : summary.getTotalInterestOutstanding(),
+                summary == null ? null : summary.getTotalFeeChargesOutstanding(),
+                summary == null ? null : summary.getTotalPenaltyChargesOutstanding(),
+                summary == null ? null : summary.getTotalOutstanding(), toSqlDate(loan.getDisbursementDate()),
+                toSqlDate(loan.getExpectedMaturityDate()), Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)), loan.getId() };
+    }
+
+    private static Date toSqlDate(final LocalDate date) {
+        return date == null ? null : Date.valueOf(date);
+    }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.portfolio.loanaccount.service;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.Map;
@@ -34,6 +35,7 @@ import org.apache.fineract.portfolio.loanaccount.domain.Loan;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanTransactionType;
 import org.apache.fineract.portfolio.loanaccount.loanschedule.data.OverdueLoanScheduleData;
+import org.apache.fineract.portfolio.paymentdetail.domain.PaymentDetail;
 
 public interface LoanWritePlatformService {
 
@@ -47,6 +49,14 @@ public interface LoanWritePlatformService {
     CommandProcessingResult makeLoanRepayment(LoanTransactionType repaymentTransactionType, Long loanId, JsonCommand command,
             boolean isRecoveryRepayment, final boolean isPayOff);
 
+    /**
+     * Applies a repayment to a loan already loaded in the current transaction, with the same side effects as
+     * {@link #makeLoanRepayment(LoanTransactionType, Long, JsonCommand, boolean, boolean)}, so that several repayments of
+     * one loan can be applied without loading it again for each of them.
+     */
+    CommandProcessingResult makeLoanRepayment(Loan loan, LocalDate transactionDate, BigDecimal transactionAmount,
+            PaymentDetail paymentDetail, String noteText, String txnExternalId, Map<String, Object> changes);
+
     Map<String, Object> makeLoanBulkRepayment(CollectionSheetBulkRepaymentCommand bulkRepaymentCommand);
 
     CommandProcessingResult adjustLoanTransaction(Long loanId, Long transactionId, JsonCommand command);
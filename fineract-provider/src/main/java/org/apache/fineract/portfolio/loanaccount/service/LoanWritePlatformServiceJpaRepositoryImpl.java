@@ -1031,6 +1031,30 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
                 commandProcessingResultBuilder, transactionDate, transactionAmount, paymentDetail, noteText, txnExternalId,
                 isRecoveryRepayment, isAccountTransfer, holidayDetailDto, isHolidayValidationDone);
 
+        completeRepayment(loan, loanTransaction, currentUser, transactionDate, transactionAmount, paymentDetail);
+        return commandProcessingResultBuilder.withCommandId(command.commandId()) //
+                .withLoanId(loanId) //
+                .with(changes) //
+                .build();
+    }
+
+    @Transactional
+    @Override
+    public CommandProcessingResult makeLoanRepayment(final Loan loan, final LocalDate transactionDate, final BigDecimal transactionAmount,
+            final PaymentDetail paymentDetail, final String noteText, final String txnExternalId, final Map<String, Object> changes) {
+        final AppUser currentUser = getAppUserIfPresent();
+        final CommandProcessingResultBuilder commandProcessingResultBuilder = new CommandProcessingResultBuilder();
+        final LoanTransaction loanTransaction = this.loanAccountDomainService.makeRepayment(LoanTransactionType.REPAYMENT, loan,
+                commandProcessingResultBuilder, transactionDate, transactionAmount, paymentDetail, noteText, txnExternalId, false, false,
+                null, false);
+        completeRepayment(loan, loanTransaction, currentUser, transactionDate, transactionAmount, paymentDetail);
+        return commandProcessingResultBuilder.withLoanId(loan.getId()) //
+                .with(changes) //
+                .build();
+    }
+
+    private void completeRepayment(final Loan loan, final LoanTransaction loanTransaction, final AppUser currentUser,
+            final LocalDate transactionDate, final BigDecimal transactionAmount, final PaymentDetail paymentDetail) {
         // Update loan transaction on repayment.
         if (AccountType.fromInt(loan.getLoanType()).isIndividualAccount()) {
             Set<LoanCollateralManagement> loanCollateralManagements = loan.getLoanCollateralManagements();
@@ -1050,7 +1074,7 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
         try {
             final LoanRepaymentConfirmationData repaymentConfirmationData = loanReadPlatformService
                     .generateLoanPaymentReceipt(loanTransaction.getId());
-            List<LoanRepaymentScheduleData> scheduleDataList = loanReadPlatformService.getLoanRepaymentScheduleData(loanId);
+            List<LoanRepaymentScheduleData> scheduleDataList = loanReadPlatformService.getLoanRepaymentScheduleData(loan.getId());
             repaymentConfirmationData.setScheduleDataList(scheduleDataList);
 
             activeMqNotificationDomainService.buildNotification("ALL_FUNCTION", "LoanRepaymentConfirmation",
@@ -1063,7 +1087,7 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
         }
 
         if (loan.getTotalOverpaid() != null) {
-            loanRepositoryWrapper.updateRedrawAmount(loan, currentUser, loanId, loan.getTotalOverpaid(), true, transactionDate,
+            loanRepositoryWrapper.updateRedrawAmount(loan, currentUser, loan.getId(), loan.getTotalOverpaid(), true, transactionDate,
                     paymentDetail);
         }
         if (loan.isGLIMLoan() && loan.getGlimId() != null) {
@@ -1071,10 +1095,6 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
             loan.setLastRepaymentAmount(transactionAmount);
             loanRepositoryWrapper.saveAndFlush(loan);
         }
-        return commandProcessingResultBuilder.withCommandId(command.commandId()) //
-                .withLoanId(loanId) //
-                .with(changes) //
-                .build();
     }
 
     @Transactional
@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.portfolio.note.handler;
 
+import org.apache.fineract.commands.annotation.CommandType;
 import org.apache.fineract.commands.handler.NewCommandSourceHandler;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
@@ -27,6 +28,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@CommandType(entity = "NOTE", action = "DELETE")
 public class DeleteNoteCommandHandler implements NewCommandSourceHandler {
 
     private final NoteWritePlatformService writePlatformService;
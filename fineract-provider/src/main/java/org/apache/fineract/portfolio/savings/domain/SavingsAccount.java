@@ -113,6 +113,7 @@ import org.apache.fineract.portfolio.savings.SavingsPeriodFrequencyType;
 import org.apache.fineract.portfolio.savings.SavingsPostingInterestPeriodType;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionDTO;
 import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriod;
+import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriodTransactionWindow;
 import org.apache.fineract.portfolio.savings.exception.InsufficientAccountBalanceException;
 import org.apache.fineract.portfolio.savings.exception.SavingsAccountBlockedException;
 import org.apache.fineract.portfolio.savings.exception.SavingsAccountCreditsBlockedException;
@@ -1144,6 +1145,15 @@ public class SavingsAccount extends AbstractPersistableCustom {
         final Money minBalanceForInterestCalculation = Money.of(getCurrency(), minBalanceForInterestCalculation());
         final Money minOverdraftForInterestCalculation = Money.of(getCurrency(), this.minOverdraftForInterestCalculation);
 
+        // the transactions do not change while the periods are built, so sort them once and let each period see only
+        // the slice of them that can affect it
+        final List<SavingsAccountTransaction> orderedNonInterestPostingTransactions = backdatedTxnsAllowedTill
+                ? retreiveOrderedNonInterestPostingSavingsTransactionsWithPivotConfig()
+                : retreiveOrderedNonInterestPostingTransactions();
+        final PostingPeriodTransactionWindow<SavingsAccountTransaction> transactionWindow = new PostingPeriodTransactionWindow<>(
+                orderedNonInterestPostingTransactions, SavingsAccountTransaction::transactionLocalDate,
+                SavingsAccountTransaction::getEndOfBalanceLocalDate);
+
         for (final LocalDateInterval periodInterval : postingPeriodIntervals) {
 
             boolean isUserPosting = false;
@@ -1151,19 +1161,12 @@ public class SavingsAccount extends AbstractPersistableCustom {
                 isUserPosting = true;
             }
 
-            PostingPeriod postingPeriod = null;
-            List<SavingsAccountTransaction> orderedNonInterestPostingTransactions = null;
-            if (backdatedTxnsAllowedTill) {
-                orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingSavingsTransactionsWithPivotConfig();
-            } else {
-                orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingTransactions();
-            }
-
-            postingPeriod = PostingPeriod.createFrom(periodInterval, periodStartingBalance, orderedNonInterestPostingTransactions,
-                    this.currency, compoundingPeriodType, interestCalculationType, interestRateAsFraction, daysInYearType.getValue(),
-                    upToInterestCalculationDate, interestPostTransactions, isInterestTransfer, minBalanceForInterestCalculation,
-                    isSavingsInterestPostingAtCurrentPeriodEnd, overdraftInterestRateAsFraction, minOverdraftForInterestCalculation,
-                    isUserPosting, financialYearBeginningMonth, this, mc);
+            final PostingPeriod postingPeriod = PostingPeriod.createFrom(periodInterval, periodStartingBalance,
+                    transactionWindow.transactionsAffecting(periodInterval), this.currency, compoundingPeriodType, interestCalculationType,
+                    interestRateAsFraction, daysInYearType.getValue(), upToInterestCalculationDate, interestPostTransactions,
+                    isInterestTransfer, minBalanceForInterestCalculation, isSavingsInterestPostingAtCurrentPeriodEnd,
+                    overdraftInterestRateAsFraction, minOverdraftForInterestCalculation, isUserPosting, financialYearBeginningMonth, this,
+                    mc);
 
             periodStartingBalance = postingPeriod.closingBalance();
 
@@ -1266,6 +1269,14 @@ public class SavingsAccount extends AbstractPersistableCustom {
         final Collection<Long> interestPostTransactions = this.savingsHelper.fetchPostInterestTransactionIds(getId());
         final Money minBalanceForInterestCalculation = Money.of(getCurrency(), minBalanceForInterestCalculation());
         final Money minOverdraftForInterestCalculation = Money.of(getCurrency(), this.minOverdraftForInterestCalculation);
+        // filter the transactions once and slide over them period by period; the per period lookup is only needed
+        // when the loaded transactions are not in date order
+        final List<SavingsAccountTransaction> postingTransactions = retrieveListOfTransactions().stream()
+                .filter(transaction -> !(transaction.isAccrualInterestPostingAndNotReversed()
+                        || transaction.isOverdraftAccrualInterestAndNotReversed()) && transaction.isNotReversed())
+                .collect(Collectors.toList());
+        final PostingPeriodTransactionWindow<SavingsAccountTransaction> transactionWindow = new PostingPeriodTransactionWindow<>(
+                postingTransactions, SavingsAccountTransaction::transactionLocalDate, SavingsAccountTransaction::getEndOfBalanceLocalDate);
 
         for (final LocalDateInterval periodInterval : postingPeriodIntervals) {
 
@@ -1283,10 +1294,12 @@ public class SavingsAccount extends AbstractPersistableCustom {
                 periodStartingBalance = this.getRunningBalanceAt(periodInterval.startDate());
             }
 
-            final PostingPeriod postingPeriod = PostingPeriod.createFrom(periodInterval, periodStartingBalance,
-                    retrieveOrderedTransactionsSince(periodInterval.startDate()), this.currency, compoundingPeriodType,
-                    interestCalculationType, interestRateAsFraction, daysInYearType.getValue(), upToInterestCalculationDate,
-                    interestPostTransactions, isInterestTransfer, minBalanceForInterestCalculation,
+            final List<SavingsAccountTransaction> periodTransactions = transactionWindow.isOrderedByTransactionDate()
+                    ? transactionWindow.transactionsSince(periodInterval)
+                    : retrieveOrderedTransactionsSince(periodInterval.startDate());
+            final PostingPeriod postingPeriod = PostingPeriod.createFrom(periodInterval, periodStartingBalance, periodTransactions,
+                    this.currency, compoundingPeriodType, interestCalculationType, interestRateAsFraction, daysInYearType.getValue(),
+                    upToInterestCalculationDate, interestPostTransactions, isInterestTransfer, minBalanceForInterestCalculation,
                     isSavingsInterestPostingAtCurrentPeriodEnd, overdraftInterestRateAsFraction, minOverdraftForInterestCalculation,
                     isUserPosting, financialYearBeginningMonth, includePostingAndWithHoldTax, this, mc);
 
@@ -4696,6 +4709,8 @@ public class SavingsAccount extends AbstractPersistableCustom {
         final BigDecimal overdraftInterestRateAsFraction = getEffectiveOverdraftInterestRateAsFraction(mc);
         final Money minBalForInterestCalculation = Money.of(getCurrency(), minBalanceForInterestCalculation());
         final Money minOdForInterestCalculation = Money.of(getCurrency(), this.minOverdraftForInterestCalculation);
+        final List<SavingsAccountTransaction> orderedTransactions = retrieveOrderedTransactionsWithInterestPostings(
+                startInterestAccrualCalculationOn);
 
         for (final LocalDateInterval periodInterval : postingPeriodIntervals) {
 
@@ -4703,12 +4718,11 @@ public class SavingsAccount extends AbstractPersistableCustom {
             if (postedAsOnDates.contains(periodInterval.endDate().plusDays(1))) {
                 isUserPosting = true;
             }
-            final PostingPeriod postingPeriod = PostingPeriod.createFrom(periodInterval, periodStartingBalance,
-                    retrieveOrderedTransactionsWithInterestPostings(startInterestAccrualCalculationOn), this.currency,
-                    compoundingPeriodType, savingsInterestCalculationType, interestRateAsFraction, daysInYearType.getValue(),
-                    interestPostingUpToDate, interestPostTransactions, isInterestTransfer, minBalForInterestCalculation,
-                    isSavingsInterestPostingAtCurrentPeriodEnd, overdraftInterestRateAsFraction, minOdForInterestCalculation, isUserPosting,
-                    financialYearBeginningMonth, includePostingAndWithHoldTax, this, mc);
+            final PostingPeriod postingPeriod = PostingPeriod.createFrom(periodInterval, periodStartingBalance, orderedTransactions,
+                    this.currency, compoundingPeriodType, savingsInterestCalculationType, interestRateAsFraction,
+                    daysInYearType.getValue(), interestPostingUpToDate, interestPostTransactions, isInterestTransfer,
+                    minBalForInterestCalculation, isSavingsInterestPostingAtCurrentPeriodEnd, overdraftInterestRateAsFraction,
+                    minOdForInterestCalculation, isUserPosting, financialYearBeginningMonth, includePostingAndWithHoldTax, this, mc);
 
             periodStartingBalance = postingPeriod.closingBalance();
             allPostingPeriods.add(postingPeriod);
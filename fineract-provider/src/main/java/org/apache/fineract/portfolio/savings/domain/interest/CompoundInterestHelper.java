@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.List;
 import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
 import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyAccumulator;
 
 public class CompoundInterestHelper {
 
@@ -42,7 +43,7 @@ public class CompoundInterestHelper {
             LocalDate lockUntil, Boolean interestTransferEnabled) {
 
         // sum up the 'rounded' values that are posted each posting period
-        Money interestEarned = Money.zero(currency);
+        final MoneyAccumulator interestEarned = MoneyAccumulator.zero(currency);
 
         // total interest earned in previous periods but not yet recognised
         BigDecimal compoundedInterest = BigDecimal.ZERO;
@@ -54,7 +55,7 @@ public class CompoundInterestHelper {
 
             final Money moneyToBePostedForPeriod = Money.of(currency, interestEarnedThisPeriod);
 
-            interestEarned = interestEarned.plus(moneyToBePostedForPeriod);
+            interestEarned.plus(moneyToBePostedForPeriod);
 
             if (!(postingPeriod.isInterestTransfered() || !interestTransferEnabled
                     || (lockUntil != null && !postingPeriod.dateOfPostingTransaction().isAfter(lockUntil)))) {
@@ -62,7 +63,7 @@ public class CompoundInterestHelper {
             }
         }
 
-        return interestEarned;
+        return interestEarned.toMoney();
     }
 
     public List<Money> calculateInterestForAllPostingPeriods(final MonetaryCurrency currency, final List<PostingPeriod> allPeriods,
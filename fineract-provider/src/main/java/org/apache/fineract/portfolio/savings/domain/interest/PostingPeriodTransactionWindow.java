@@ -0,0 +1,125 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain.interest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+import org.apache.fineract.infrastructure.core.domain.LocalDateInterval;
+
+/**
+ * Moving view over savings transactions ordered by transaction date, used to hand each posting period only the
+ * transactions {@link PostingPeriod} can actually use instead of the full history.
+ *
+ * A transaction whose balance ends before a period starts, or which occurs after the day following the period end,
+ * contributes nothing to that period. As posting periods are visited in ascending order both edges of the window only
+ * move forward, so building all periods of an account walks its transactions once. Transactions that turn out not to be
+ * in date order are handed over in full, as before.
+ */
+public final class PostingPeriodTransactionWindow<T> {
+
+    private final List<T> orderedTransactions;
+    private final Function<T, LocalDate> transactionDate;
+    private final Function<T, LocalDate> endOfBalanceDate;
+    private final boolean orderedByTransactionDate;
+    private int from;
+    private int to;
+    private LocalDate lastPeriodStartDate;
+
+    public PostingPeriodTransactionWindow(final List<T> orderedTransactions, final Function<T, LocalDate> transactionDate,
+            final Function<T, LocalDate> endOfBalanceDate) {
+        this.orderedTransactions = orderedTransactions;
+        this.transactionDate = transactionDate;
+        this.endOfBalanceDate = endOfBalanceDate;
+        this.orderedByTransactionDate = isOrderedByTransactionDate();
+    }
+
+    public boolean isOrderedByTransactionDate() {
+        return this.orderedByTransactionDate;
+    }
+
+    /**
+     * Transactions whose balance overlaps the period, plus those up to the day after its end (checked for interest
+     * transfers).
+     */
+    public List<T> transactionsAffecting(final LocalDateInterval periodInterval) {
+        if (!this.orderedByTransactionDate) {
+            return this.orderedTransactions;
+        }
+        moveTo(periodInterval.startDate());
+        while (this.from < this.orderedTransactions.size() && balanceEndsBefore(this.orderedTransactions.get(this.from),
+                periodInterval.startDate())) {
+            this.from++;
+        }
+        return upToDayAfter(this.from, periodInterval);
+    }
+
+    /**
+     * Transactions from the period start onwards, keeping only the last of several transactions on the start date - the
+     * same view {@code SavingsAccount.retrieveOrderedTransactionsSince(LocalDate)} builds, capped at the day after the
+     * period end. Only valid when the transactions are ordered by transaction date.
+     */
+    public List<T> transactionsSince(final LocalDateInterval periodInterval) {
+        final LocalDate startDate = periodInterval.startDate();
+        moveTo(startDate);
+        while (this.from < this.orderedTransactions.size() && dateOf(this.from).isBefore(startDate)) {
+            this.from++;
+        }
+        int first = this.from;
+        while (first + 1 < this.orderedTransactions.size() && dateOf(first).isEqual(startDate) && dateOf(first + 1).isEqual(startDate)) {
+            first++;
+        }
+        return upToDayAfter(first, periodInterval);
+    }
+
+    private void moveTo(final LocalDate periodStartDate) {
+        if (this.lastPeriodStartDate != null && periodStartDate.isBefore(this.lastPeriodStartDate)) {
+            this.from = 0;
+            this.to = 0;
+        }
+        this.lastPeriodStartDate = periodStartDate;
+    }
+
+    private List<T> upToDayAfter(final int first, final LocalDateInterval periodInterval) {
+        final LocalDate dayAfterPeriodEnd = periodInterval.endDate().plusDays(1);
+        this.to = Math.max(this.to, first);
+        while (this.to < this.orderedTransactions.size() && !dateOf(this.to).isAfter(dayAfterPeriodEnd)) {
+            this.to++;
+        }
+        return this.orderedTransactions.subList(first, this.to);
+    }
+
+    private boolean balanceEndsBefore(final T transaction, final LocalDate date) {
+        final LocalDate endOfBalance = this.endOfBalanceDate.apply(transaction);
+        return endOfBalance != null && endOfBalance.isBefore(date);
+    }
+
+    private boolean isOrderedByTransactionDate() {
+        for (int i = 1; i < this.orderedTransactions.size(); i++) {
+            if (dateOf(i).isBefore(dateOf(i - 1))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private LocalDate dateOf(final int index) {
+        return this.transactionDate.apply(this.orderedTransactions.get(index));
+    }
+}
@@ -43,6 +43,7 @@ import org.apache.fineract.portfolio.savings.domain.SavingsAccountChargesPaidByD
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransactionDataComparator;
 import org.apache.fineract.portfolio.savings.domain.SavingsHelper;
 import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriod;
+import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriodTransactionWindow;
 import org.apache.fineract.portfolio.tax.data.TaxComponentData;
 import org.apache.fineract.portfolio.tax.service.TaxUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -269,6 +270,9 @@ public class SavingsAccountInterestPostingServiceImpl implements SavingsAccountI
         final Money minOverdraftForInterestCalculation = Money.of(savingsAccountData.currency(),
                 savingsAccountData.getMinOverdraftForInterestCalculation());
         final MonetaryCurrency monetaryCurrency = MonetaryCurrency.fromCurrencyData(savingsAccountData.currency());
+        final PostingPeriodTransactionWindow<SavingsAccountTransactionData> transactionWindow = new PostingPeriodTransactionWindow<>(
+                retreiveOrderedNonInterestPostingTransactions(savingsAccountData), SavingsAccountTransactionData::getTransactionLocalDate,
+                SavingsAccountTransactionData::getEndOfBalanceLocalDate);
 
         for (final LocalDateInterval periodInterval : postingPeriodIntervals) {
 
@@ -277,7 +281,7 @@ public class SavingsAccountInterestPostingServiceImpl implements SavingsAccountI
                 isUserPosting = true;
             }
             final PostingPeriod postingPeriod = PostingPeriod.createFromDTO(periodInterval, periodStartingBalance,
-                    retreiveOrderedNonInterestPostingTransactions(savingsAccountData), monetaryCurrency, compoundingPeriodType,
+                    transactionWindow.transactionsAffecting(periodInterval), monetaryCurrency, compoundingPeriodType,
                     interestCalculationType, interestRateAsFraction, daysInYearType.getValue(), upToInterestCalculationDate,
                     interestPostTransactions, isInterestTransfer, minBalanceForInterestCalculation,
                     isSavingsInterestPostingAtCurrentPeriodEnd, overdraftInterestRateAsFraction, minOverdraftForInterestCalculation,
@@ -19,7 +19,6 @@
 package org.apache.fineract.portfolio.savings.service;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import java.math.BigDecimal;
 import java.security.SecureRandom;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -31,7 +30,10 @@ import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.Callable;
 import lombok.Setter;
+import org.apache.fineract.accounting.journalentry.data.JournalEntryLeg;
 import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
+import org.apache.fineract.accounting.journalentry.service.JournalEntryBatchWriter;
+import org.apache.fineract.accounting.producttoaccountmapping.domain.PortfolioProductType;
 import org.apache.fineract.batch.command.CommandStrategyProvider;
 import org.apache.fineract.batch.service.ResolutionHelper;
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
@@ -81,6 +83,7 @@ public class SavingsSchedularInterestPoster implements Callable<Void> {
     private TransactionTemplate transactionTemplate;
     private CommandStrategyProvider strategyProvider;
     private ResolutionHelper resolutionHelper;
+    private JournalEntryBatchWriter journalEntryBatchWriter;
     private SavingsAccountReadPlatformService savingsAccountReadPlatformService;
 
     @Override
@@ -172,8 +175,7 @@ public class SavingsSchedularInterestPoster implements Callable<Void> {
     private void batchUpdateJournalEntries(final List<SavingsAccountData> savingsAccountDataList,
             final HashMap<String, SavingsAccountTransactionData> savingsAccountTransactionDataHashMap)
             throws DataAccessException, NullPointerException {
-        String queryForJGLUpdate = batchQueryForJournalEntries();
-        List<Object[]> paramsForGLInsertion = new ArrayList<>();
+        final List<JournalEntryLeg> journalEntryLegs = new ArrayList<>();
         for (SavingsAccountData savingsAccountData : savingsAccountDataList) {
             String currencyCode = savingsAccountData.getCurrency().getCode();
 
@@ -182,62 +184,31 @@ public class SavingsSchedularInterestPoster implements Callable<Void> {
                 if (savingsAccountTransactionData.getId() == null) {
                     final String key = savingsAccountTransactionData.getRefNo();
                     if (savingsAccountTransactionDataHashMap.containsKey(key)) {
-                        LocalDate currentDate = DateUtils.getLocalDateOfTenant();
                         final SavingsAccountTransactionData dataFromFetch = savingsAccountTransactionDataHashMap.get(key);
                         savingsAccountTransactionData.setId(dataFromFetch.getId());
                         if (savingsAccountData.getGlAccountIdForSavingsControl() != 0
                                 && savingsAccountData.getGlAccountIdForInterestOnSavings() != 0) {
-                            paramsForGLInsertion.add(new Object[] { savingsAccountData.getGlAccountIdForSavingsControl(),
-                                    savingsAccountData.getOfficeId(), null, currencyCode,
-                                    SAVINGS_TRANSACTION_IDENTIFIER + savingsAccountTransactionData.getId().toString(),
-                                    savingsAccountTransactionData.getId(), null, false, null, false,
-                                    Date.from(savingsAccountTransactionData.getTransactionDate()
-                                            .atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant()),
-                                    JournalEntryType.CREDIT.getValue().longValue(), savingsAccountTransactionData.getAmount(), null,
-                                    JournalEntryType.CREDIT.getValue().longValue(), savingsAccountData.getId(),
-                                    Date.from(currentDate.atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant()),
-                                    Date.from(currentDate.atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant()), false,
-                                    BigDecimal.ZERO, BigDecimal.ZERO, null,
-                                    Date.from(savingsAccountTransactionData.getTransactionDate()
-                                            .atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant()),
-                                    null, Integer.valueOf(1), Integer.valueOf(1) });
-
-                            paramsForGLInsertion.add(new Object[] { savingsAccountData.getGlAccountIdForInterestOnSavings(),
-                                    savingsAccountData.getOfficeId(), null, currencyCode,
-                                    SAVINGS_TRANSACTION_IDENTIFIER + savingsAccountTransactionData.getId().toString(),
-                                    savingsAccountTransactionData.getId(), null, false, null, false,
-                                    Date.from(savingsAccountTransactionData.getTransactionDate()
-                                            .atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant()),
-                                    JournalEntryType.DEBIT.getValue().longValue(), savingsAccountTransactionData.getAmount(), null,
-                                    JournalEntryType.DEBIT.getValue().longValue(), savingsAccountData.getId(),
-                                    Date.from(currentDate.atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant()),
-                                    Date.from(currentDate.atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant()), false,
-                                    BigDecimal.ZERO, BigDecimal.ZERO, null,
-                                    Date.from(savingsAccountTransactionData.getTransactionDate()
-                                            .atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant()),
-                                    null, Integer.valueOf(1), Integer.valueOf(1) });
+                            journalEntryLegs.add(interestPostingLeg(savingsAccountData, currencyCode, savingsAccountTransactionData,
+                                    savingsAccountData.getGlAccountIdForSavingsControl(), JournalEntryType.CREDIT));
+                            journalEntryLegs.add(interestPostingLeg(savingsAccountData, currencyCode, savingsAccountTransactionData,
+                                    savingsAccountData.getGlAccountIdForInterestOnSavings(), JournalEntryType.DEBIT));
                         }
                     }
                 }
             }
         }
 
-        if (paramsForGLInsertion != null && paramsForGLInsertion.size() > 0) {
-            this.jdbcTemplate.batchUpdate(queryForJGLUpdate, paramsForGLInsertion);
-        }
+        this.journalEntryBatchWriter.write(journalEntryLegs);
     }
 
-    private String batchQueryForJournalEntries() {
-        StringBuilder query = new StringBuilder(100);
-
-        query.append("INSERT INTO acc_gl_journal_entry(account_id,office_id,reversal_id,currency_code,transaction_id,");
-        query.append("savings_transaction_id,client_transaction_id,reversed,ref_num,manual_entry,entry_date,type_enum,");
-        query.append("amount,description,entity_type_enum,entity_id,created_date,");
-        query.append("lastmodified_date,is_running_balance_calculated,office_running_balance,organization_running_balance,");
-        query.append("payment_details_id,transaction_date,share_transaction_id, createdby_id, lastmodifiedby_id) ");
-        query.append("VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
-
-        return query.toString();
+    private JournalEntryLeg interestPostingLeg(final SavingsAccountData savingsAccountData, final String currencyCode,
+            final SavingsAccountTransactionData savingsAccountTransactionData, final Long glAccountId, final JournalEntryType type) {
+        return JournalEntryLeg.builder().officeId(savingsAccountData.getOfficeId()).glAccountId(glAccountId).currencyCode(currencyCode)
+                .transactionId(SAVINGS_TRANSACTION_IDENTIFIER + savingsAccountTransactionData.getId())
+                .savingsTransactionId(savingsAccountTransactionData.getId())
+                .transactionDate(savingsAccountTransactionData.getTransactionDate()).type(type)
+                .amount(savingsAccountTransactionData.getAmount()).entityType(PortfolioProductType.SAVING.getValue())
+                .entityId(savingsAccountData.getId()).build();
     }
 
     private List<SavingsAccountTransactionData> fetchTransactionsFromIds(final List<String> refNo) throws DataAccessException {
@@ -37,8 +37,10 @@ import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuild
 import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.apache.fineract.infrastructure.core.service.PlatformEmailSendException;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.security.service.PlatformPasswordEncoder;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.infrastructure.security.service.VerifiedCredentialCache;
 import org.apache.fineract.organisation.office.domain.Office;
 import org.apache.fineract.organisation.office.domain.OfficeRepositoryWrapper;
 import org.apache.fineract.organisation.staff.domain.Staff;
@@ -82,6 +84,7 @@ public class AppUserWritePlatformServiceJpaRepositoryImpl implements AppUserWrit
     private final AppUserPreviousPasswordRepository appUserPreviewPasswordRepository;
     private final StaffRepositoryWrapper staffRepositoryWrapper;
     private final ClientRepositoryWrapper clientRepositoryWrapper;
+    private final VerifiedCredentialCache verifiedCredentialCache;
 
     @Override
     @Transactional
@@ -163,6 +166,7 @@ public class AppUserWritePlatformServiceJpaRepositoryImpl implements AppUserWrit
             this.fromApiJsonDeserializer.validateForUpdate(command.json());
 
             final AppUser userToUpdate = this.appUserRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
+            evictVerifiedCredentials(userToUpdate);
 
             final AppUserPreviousPassword currentPasswordToSaveAsPreview = getCurrentPasswordToSaveAsPreview(userToUpdate, command);
 
@@ -253,6 +257,13 @@ public class AppUserWritePlatformServiceJpaRepositoryImpl implements AppUserWrit
         return currentPasswordToSaveAsPreview;
     }
 
+    /**
+     * Password, status and role changes must not be bypassed by credentials verified before the change.
+     */
+    private void evictVerifiedCredentials(final AppUser user) {
+        this.verifiedCredentialCache.evict(ThreadLocalContextUtil.getTenant().getTenantIdentifier(), user.getUsername());
+    }
+
     private Set<Role> assembleSetOfRoles(final String[] rolesArray) {
         final Set<Role> allRoles = new HashSet<>();
 
@@ -276,6 +287,7 @@ public class AppUserWritePlatformServiceJpaRepositoryImpl implements AppUserWrit
             throw new UserNotFoundException(userId);
         }
 
+        evictVerifiedCredentials(user);
         user.delete();
         this.appUserRepository.save(user);
 
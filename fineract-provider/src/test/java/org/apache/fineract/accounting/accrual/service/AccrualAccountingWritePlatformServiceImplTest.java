@@ -0,0 +1,98 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.accrual.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.gson.JsonParser;
+import java.time.LocalDate;
+import java.util.List;
+import org.apache.fineract.accounting.accrual.serialization.AccrualAccountingDataValidator;
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.exception.MultiException;
+import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
+import org.apache.fineract.portfolio.loanaccount.data.LoanScheduleAccrualData;
+import org.apache.fineract.portfolio.loanaccount.service.LoanAccrualPlatformService;
+import org.apache.fineract.portfolio.loanaccount.service.LoanReadPlatformService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class AccrualAccountingWritePlatformServiceImplTest {
+
+    private static final LocalDate TILL_DATE = LocalDate.of(2022, 6, 30);
+
+    @Mock
+    private LoanAccrualPlatformService loanAccrualPlatformService;
+
+    @Mock
+    private AccrualAccountingDataValidator accountingDataValidator;
+
+    @Mock
+    private LoanReadPlatformService loanReadPlatformService;
+
+    @Mock
+    private FromJsonHelper fromApiJsonHelper;
+
+    @Mock
+    private LoanScheduleAccrualData accrualData;
+
+    @InjectMocks
+    private AccrualAccountingWritePlatformServiceImpl underTest;
+
+    private JsonCommand command;
+
+    @BeforeEach
+    public void setUp() {
+        this.command = JsonCommand.fromJsonElement(null, JsonParser.parseString("{\"tillDate\": \"30 June 2022\"}"),
+                this.fromApiJsonHelper);
+        when(this.fromApiJsonHelper.extractLocalDateNamed(eq("tillDate"), any())).thenReturn(TILL_DATE);
+        when(this.loanReadPlatformService.retrivePeriodicAccrualData(TILL_DATE, null)).thenReturn(List.of(this.accrualData));
+    }
+
+    @Test
+    public void postsTheAccrualsLoanByLoanInTheCommandTransaction() throws Exception {
+        this.underTest.executeLoansPeriodicAccrual(this.command);
+
+        verify(this.loanAccrualPlatformService).addPeriodicAccruals(TILL_DATE, List.of(this.accrualData));
+        verify(this.loanAccrualPlatformService, never()).addPeriodicAccruals(any(LocalDate.class));
+    }
+
+    @Test
+    public void reportsTheLoansThatFailed() throws Exception {
+        doThrow(new MultiException(List.of(new IllegalStateException("loan 1 failed")))).when(this.loanAccrualPlatformService)
+                .addPeriodicAccruals(TILL_DATE, List.of(this.accrualData));
+
+        assertThrows(PlatformApiDataValidationException.class, () -> this.underTest.executeLoansPeriodicAccrual(this.command));
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.apache.fineract.accounting.journalentry.data.JournalEntryLeg;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
+import org.apache.fineract.accounting.journalentry.exception.JournalEntryInvalidException;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class JournalEntryBatchWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private AuditorAware<Long> auditorAware;
+
+    private JournalEntryBatchWriter underTest;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        when(this.auditorAware.getCurrentAuditor()).thenReturn(Optional.of(1L));
+        this.underTest = new JournalEntryBatchWriter(this.jdbcTemplate, this.auditorAware);
+    }
+
+    @Test
+    public void writesBalancedLegsWithMultiRowInserts() {
+        final List<JournalEntryLeg> legs = new ArrayList<>();
+        for (int i = 0; i < 75; i++) {
+            legs.add(leg("S" + i, JournalEntryType.DEBIT, "10.50"));
+            legs.add(leg("S" + i, JournalEntryType.CREDIT, "10.5"));
+        }
+
+        this.underTest.write(legs);
+
+        final List<Object[]> inserts = insertParameters();
+        assertEquals(2, inserts.size());
+        assertEquals(100 * 21, inserts.get(0).length);
+        assertEquals(50 * 21, inserts.get(1).length);
+    }
+
+    @Test
+    public void rejectsUnbalancedLegs() {
+        final List<JournalEntryLeg> legs = List.of(leg("L1", JournalEntryType.DEBIT, "100"), leg("L1", JournalEntryType.CREDIT, "99.99"));
+
+        assertThrows(JournalEntryInvalidException.class, () -> this.underTest.write(legs));
+        assertTrue(insertParameters().isEmpty());
+    }
+
+    @Test
+    public void collectsLegsUntilTheUnitOfWorkEnds() {
+        this.underTest.runInUnitOfWork(() -> {
+            this.underTest.add(leg("L1", JournalEntryType.DEBIT, "25"));
+            this.underTest.runInUnitOfWork(() -> this.underTest.add(leg("L1", JournalEntryType.CREDIT, "25")));
+            assertTrue(insertParameters().isEmpty());
+        });
+
+        final List<Object[]> inserts = insertParameters();
+        assertEquals(1, inserts.size());
+        assertEquals(2 * 21, inserts.get(0).length);
+    }
+
+    @Test
+    public void checksLegsAddedOutsideOfAUnitOfWork() {
+        assertThrows(JournalEntryInvalidException.class, () -> this.underTest.add(leg("L1", JournalEntryType.DEBIT, "25")));
+        assertTrue(insertParameters().isEmpty());
+    }
+
+    @Test
+    public void setsTheAuditDatesInTheSystemTimeZone() {
+        final LocalDateTime before = LocalDateTime.now(ZoneId.systemDefault());
+
+        this.underTest.write(List.of(leg("L1", JournalEntryType.DEBIT, "25"), leg("L1", JournalEntryType.CREDIT, "25")));
+
+        final LocalDateTime after = LocalDateTime.now(ZoneId.systemDefault());
+        final Object[] row = insertParameters().get(0);
+        for (final int index : new int[] { 18, 20 }) {
+            final LocalDateTime auditDate = (LocalDateTime) row[index];
+            assertFalse(auditDate.isBefore(before) || auditDate.isAfter(after), auditDate + " is not between " + before + " and " + after);
+        }
+    }
+
+    private List<Object[]> insertParameters() {
+        return mockingDetails(this.jdbcTemplate).getInvocations().stream()
+                .filter(invocation -> "update".equals(invocation.getMethod().getName()))
+                .map(invocation -> (Object[]) invocation.getRawArguments()[1]).toList();
+    }
+
+    private static JournalEntryLeg leg(final String transactionId, final JournalEntryType type, final String amount) {
+        return JournalEntryLeg.builder().officeId(1L).glAccountId(type.isDebitType() ? 1L : 2L).currencyCode("USD")
+                .transactionId(transactionId).transactionDate(LocalDate.of(2022, 1, 1)).type(type).amount(new BigDecimal(amount))
+                .entityType(1).entityId(1L).build();
+    }
+}
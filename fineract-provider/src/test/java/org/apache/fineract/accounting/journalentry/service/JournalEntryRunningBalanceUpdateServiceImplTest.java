@@ -0,0 +1,396 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import org.apache.fineract.accounting.journalentry.data.JournalEntryDataValidator;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractRunningBalanceProperties;
+import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.JobWorkerPoolService;
+import org.apache.fineract.organisation.office.domain.OfficeRepositoryWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class JournalEntryRunningBalanceUpdateServiceImplTest {
+
+    private static final Long ACCOUNT_ID = 1L;
+
+    private FakeLedger ledger;
+    private JournalEntryRunningBalanceUpdateServiceImpl job;
+    private JournalEntryRunningBalanceUpdateServiceImpl api;
+
+    @BeforeEach
+    public void setUp() {
+        this.ledger = new FakeLedger();
+        this.ledger.add(1, 1, "2022-01-01", JournalEntryType.DEBIT, "100");
+        this.ledger.add(2, 2, "2022-01-02", JournalEntryType.DEBIT, "50");
+        this.ledger.add(3, 1, "2022-01-03", JournalEntryType.CREDIT, "30");
+        this.ledger.add(4, 2, "2022-01-04", JournalEntryType.DEBIT, "20");
+        this.ledger.add(5, 1, "2022-01-05", JournalEntryType.DEBIT, "10");
+        this.job = service(this.ledger);
+        this.api = service(this.ledger);
+    }
+
+    @Test
+    public void calculatesRunningBalancesPageByPageUnderTheAccountLock() throws Exception {
+        this.job.updateRunningBalance();
+
+        assertBalances();
+        assertEquals(List.of("lock", "write", "lock", "write", "lock", "write"), this.ledger.pageStatements);
+        assertEquals(List.of(LocalDate.parse("2022-01-05"), 5L, new BigDecimal("150")), this.ledger.checkpoint);
+    }
+
+    @Test
+    public void retriesFromTheCheckpointMovedByTheApiRun() throws Exception {
+        // the office update requested through the API runs while the job waits for the lock of its second page
+        this.ledger.onLock(2, () -> this.api.updateOfficeRunningBalance(officeCommand(2L)));
+
+        this.job.updateRunningBalance();
+
+        assertBalances();
+        this.ledger.entries.forEach(entry -> assertEquals(1, entry.writes, "writes of entry " + entry.id));
+    }
+
+    @Test
+    public void retriesFromTheCheckpointMovedByTheJob() {
+        this.ledger.onLock(1, () -> {
+            try {
+                this.job.updateRunningBalance();
+            } catch (JobExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        this.api.updateOfficeRunningBalance(officeCommand(1L));
+
+        assertBalances();
+        this.ledger.entries.forEach(entry -> assertEquals(1, entry.writes, "writes of entry " + entry.id));
+    }
+
+    @Test
+    public void failsWhenTheCheckpointKeepsMoving() {
+        this.ledger.moveCheckpointOnEveryLock = true;
+
+        assertThrows(JobExecutionException.class, () -> this.job.updateRunningBalance());
+        assertThrows(PlatformDataIntegrityException.class, () -> this.api.updateOfficeRunningBalance(officeCommand(1L)));
+        this.ledger.entries.forEach(entry -> assertEquals(0, entry.writes, "writes of entry " + entry.id));
+    }
+
+    private void assertBalances() {
+        final List<String> expected = List.of("1:100:100", "2:150:50", "3:120:70", "4:140:70", "5:150:80");
+        assertEquals(expected, this.ledger.entries.stream()
+                .map(entry -> entry.id + ":" + entry.organizationBalance.toPlainString() + ":" + entry.officeBalance.toPlainString())
+                .toList());
+        assertEquals(Map.of(1L, new BigDecimal("80"), 2L, new BigDecimal("70")), this.ledger.officeCheckpoints);
+    }
+
+    private static JsonCommand officeCommand(final Long officeId) {
+        return JsonCommand.fromJsonElement(null, JsonParser.parseString("{\"officeId\": " + officeId + "}"));
+    }
+
+    private static JournalEntryRunningBalanceUpdateServiceImpl service(final FakeLedger ledger) {
+        final FromJsonHelper fromApiJsonHelper = mock(FromJsonHelper.class);
+        when(fromApiJsonHelper.extractLongNamed(eq("officeId"), any()))
+                .thenAnswer(invocation -> ((JsonObject) invocation.getArgument(1)).get("officeId").getAsLong());
+        final DatabaseSpecificSQLGenerator sqlGenerator = mock(DatabaseSpecificSQLGenerator.class);
+        when(sqlGenerator.limit(anyInt())).thenAnswer(invocation -> "LIMIT " + invocation.getArgument(0));
+        final FineractProperties properties = new FineractProperties();
+        final FineractRunningBalanceProperties runningBalance = new FineractRunningBalanceProperties();
+        runningBalance.setWorkerThreads(1);
+        runningBalance.setPageSize(2);
+        properties.setRunningBalance(runningBalance);
+        final TransactionTemplate txTemplate = new TransactionTemplate() {
+
+            @Override
+            public <T> T execute(final TransactionCallback<T> action) {
+                final TransactionStatus status = new SimpleTransactionStatus();
+                return action.doInTransaction(status);
+            }
+        };
+        return new JournalEntryRunningBalanceUpdateServiceImpl(ledger, mock(OfficeRepositoryWrapper.class),
+                mock(JournalEntryDataValidator.class), fromApiJsonHelper, sqlGenerator, new RetryingWorkerPool(), txTemplate, properties);
+    }
+
+    /**
+     * Processes the items on the calling thread and retries optimistic locking failures, as the job worker pool does.
+     */
+    private static final class RetryingWorkerPool implements JobWorkerPoolService {
+
+        private static final int MAX_RETRIES = 3;
+
+        @Override
+        public <C> List<Throwable> processPages(final JobName jobName, final int concurrency, final LongFunction<List<Long>> pageFetcher,
+                final Function<List<Long>, C> pagePreparer, final BiConsumer<Long, C> itemProcessor) {
+            final List<Throwable> errors = new ArrayList<>();
+            long lastId = 0L;
+            List<Long> page = pageFetcher.apply(lastId);
+            while (!page.isEmpty()) {
+                final C pageContext = pagePreparer.apply(page);
+                for (final Long id : page) {
+                    for (int attempt = 0;; attempt++) {
+                        try {
+                            itemProcessor.accept(id, pageContext);
+                            break;
+                        } catch (ObjectOptimisticLockingFailureException e) {
+                            if (attempt >= MAX_RETRIES) {
+                                errors.add(e);
+                                break;
+                            }
+                        }
+                    }
+                }
+                lastId = page.get(page.size() - 1);
+                page = pageFetcher.apply(lastId);
+            }
+            return errors;
+        }
+
+        @Override
+        public List<Throwable> runWorkers(final JobName jobName, final int concurrency, final Runnable worker) {
+            worker.run();
+            return List.of();
+        }
+    }
+
+    private static final class Entry {
+
+        private final long id;
+        private final long officeId;
+        private final LocalDate entryDate;
+        private final JournalEntryType type;
+        private final BigDecimal amount;
+        private boolean calculated;
+        private BigDecimal organizationBalance;
+        private BigDecimal officeBalance;
+        private int writes;
+
+        Entry(final long id, final long officeId, final LocalDate entryDate, final JournalEntryType type, final BigDecimal amount) {
+            this.id = id;
+            this.officeId = officeId;
+            this.entryDate = entryDate;
+            this.type = type;
+            this.amount = amount;
+        }
+
+        boolean isAfter(final LocalDate date, final long entryId) {
+            return this.entryDate.isAfter(date) || (this.entryDate.isEqual(date) && this.id > entryId);
+        }
+    }
+
+    /**
+     * In memory journal of a single asset GL account, answering the statements of the running balance engine.
+     */
+    private static final class FakeLedger extends JdbcTemplate {
+
+        private final List<Entry> entries = new ArrayList<>();
+        private final Map<Long, BigDecimal> officeCheckpoints = new HashMap<>();
+        private final List<String> pageStatements = new ArrayList<>();
+        private List<Object> checkpoint;
+        private int locks;
+        private int lockHookAt;
+        private Runnable lockHook;
+        private boolean moveCheckpointOnEveryLock;
+
+        void add(final long id, final long officeId, final String entryDate, final JournalEntryType type, final String amount) {
+            this.entries.add(new Entry(id, officeId, LocalDate.parse(entryDate), type, new BigDecimal(amount)));
+        }
+
+        void onLock(final int lock, final Runnable hook) {
+            this.lockHookAt = this.locks + lock;
+            this.lockHook = hook;
+        }
+
+        @Override
+        public <T> T queryForObject(final String sql, final Class<T> requiredType, final Object... args) {
+            final List<Entry> pending = this.entries.stream().filter(entry -> !entry.calculated).toList();
+            if (sql.startsWith("select min(entry_date)")) {
+                return requiredType.cast(pending.stream().map(entry -> entry.entryDate).min(Comparator.naturalOrder()).orElse(null));
+            } else if (sql.startsWith("select count(*)")) {
+                return requiredType.cast(pending.stream().filter(entry -> Objects.equals(entry.officeId, args[1])).count());
+            } else if (sql.startsWith("select min(id)")) {
+                return requiredType.cast(pending.stream().filter(entry -> entry.entryDate.equals(args[1])).mapToLong(entry -> entry.id)
+                        .min().getAsLong());
+            } else if (sql.startsWith("select classification_enum")) {
+                return requiredType.cast(1);
+            }
+            throw new IllegalArgumentException(sql);
+        }
+
+        @Override
+        public <T> List<T> queryForList(final String sql, final Class<T> elementType, final Object... args) {
+            if (sql.startsWith("select id from acc_gl_account where id > ?")) {
+                return ACCOUNT_ID > (Long) args[0] ? List.of(elementType.cast(ACCOUNT_ID)) : List.of();
+            } else if (sql.endsWith("for update")) {
+                lock();
+                return List.of(elementType.cast(ACCOUNT_ID));
+            } else if (sql.startsWith("select organization_running_balance")) {
+                return lastBefore((LocalDate) args[1], null).stream().map(entry -> elementType.cast(entry.organizationBalance)).toList();
+            }
+            throw new IllegalArgumentException(sql);
+        }
+
+        @Override
+        public void query(final String sql, final RowCallbackHandler rch, final Object... args) {
+            final List<Map<String, Object>> rows = new ArrayList<>();
+            if (sql.contains("from acc_gl_office_running_balance_checkpoint")) {
+                this.officeCheckpoints.forEach((officeId, balance) -> rows.add(Map.of("office_id", officeId, "running_balance", balance)));
+            } else if (sql.contains("from acc_gl_running_balance_checkpoint")) {
+                if (this.checkpoint != null) {
+                    rows.add(Map.of("entry_date", Date.valueOf((LocalDate) this.checkpoint.get(0)), "entry_id", this.checkpoint.get(1),
+                            "running_balance", this.checkpoint.get(2)));
+                }
+            } else if (sql.contains("last_entry")) {
+                this.entries.stream().map(entry -> entry.officeId).distinct()
+                        .forEach(officeId -> lastBefore((LocalDate) args[1], officeId).forEach(entry -> rows
+                                .add(Map.of("office_id", entry.officeId, "office_running_balance", entry.officeBalance))));
+            } else {
+                throw new IllegalArgumentException(sql);
+            }
+            try {
+                for (final Map<String, Object> row : rows) {
+                    rch.processRow(resultSet(row));
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public <T> List<T> query(final String sql, final RowMapper<T> rowMapper, final Object... args) {
+            final List<Map<String, Object>> rows = new ArrayList<>();
+            if (sql.startsWith("select je.id as id")) {
+                final int pageSize = Integer.parseInt(sql.substring(sql.lastIndexOf(' ') + 1));
+                this.entries.stream().filter(entry -> entry.isAfter((LocalDate) args[1], (Long) args[3]))
+                        .sorted(Comparator.comparing((Entry entry) -> entry.entryDate).thenComparing(entry -> entry.id)).limit(pageSize)
+                        .forEach(entry -> rows.add(Map.of("id", entry.id, "officeId", entry.officeId, "entryDate",
+                                Date.valueOf(entry.entryDate), "entryType", entry.type.getValue(), "amount", entry.amount)));
+            } else if (sql.startsWith("select entry_date, entry_id from acc_gl_running_balance_checkpoint")) {
+                if (this.checkpoint != null) {
+                    rows.add(Map.of("entry_date", Date.valueOf((LocalDate) this.checkpoint.get(0)), "entry_id", this.checkpoint.get(1)));
+                }
+            } else {
+                throw new IllegalArgumentException(sql);
+            }
+            final List<T> results = new ArrayList<>();
+            try {
+                for (int i = 0; i < rows.size(); i++) {
+                    results.add(rowMapper.mapRow(resultSet(rows.get(i)), i));
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            return results;
+        }
+
+        @Override
+        public int[] batchUpdate(final String sql, final List<Object[]> batchArgs) {
+            for (final Object[] args : batchArgs) {
+                if (sql.startsWith("UPDATE acc_gl_journal_entry")) {
+                    final Entry entry = this.entries.stream().filter(candidate -> candidate.id == (Long) args[2]).findFirst().orElseThrow();
+                    entry.calculated = true;
+                    entry.organizationBalance = (BigDecimal) args[0];
+                    entry.officeBalance = (BigDecimal) args[1];
+                    entry.writes++;
+                } else if (sql.startsWith("update acc_gl_office_running_balance_checkpoint")) {
+                    this.officeCheckpoints.put((Long) args[2], (BigDecimal) args[0]);
+                } else if (sql.startsWith("insert into acc_gl_office_running_balance_checkpoint")) {
+                    this.officeCheckpoints.put((Long) args[1], (BigDecimal) args[2]);
+                } else {
+                    throw new IllegalArgumentException(sql);
+                }
+            }
+            if (sql.startsWith("UPDATE acc_gl_journal_entry")) {
+                this.pageStatements.add("write");
+            }
+            return new int[batchArgs.size()];
+        }
+
+        @Override
+        public int update(final String sql, final Object... args) {
+            if (sql.startsWith("update acc_gl_running_balance_checkpoint")) {
+                this.checkpoint = List.of(args[0], args[1], args[2]);
+            } else if (sql.startsWith("insert into acc_gl_running_balance_checkpoint")) {
+                this.checkpoint = List.of(args[1], args[2], args[3]);
+            } else {
+                throw new IllegalArgumentException(sql);
+            }
+            return 1;
+        }
+
+        private void lock() {
+            this.locks++;
+            this.pageStatements.add("lock");
+            if (this.moveCheckpointOnEveryLock) {
+                this.checkpoint = List.of(LocalDate.parse("2021-12-31"), (long) -this.locks, BigDecimal.ZERO);
+            } else if (this.lockHook != null && this.locks == this.lockHookAt) {
+                final Runnable hook = this.lockHook;
+                this.lockHook = null;
+                hook.run();
+            }
+        }
+
+        private List<Entry> lastBefore(final LocalDate date, final Long officeId) {
+            return this.entries.stream().filter(entry -> entry.entryDate.isBefore(date))
+                    .filter(entry -> officeId == null || entry.officeId == officeId)
+                    .max(Comparator.comparing((Entry entry) -> entry.entryDate).thenComparing(entry -> entry.id)).stream().toList();
+        }
+
+        private static ResultSet resultSet(final Map<String, Object> row) {
+            return mock(ResultSet.class, invocation -> row.get(invocation.getArgument(0)));
+        }
+    }
+}
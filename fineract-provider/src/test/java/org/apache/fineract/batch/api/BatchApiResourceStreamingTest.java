@@ -0,0 +1,155 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.batch.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import org.apache.fineract.batch.domain.BatchRequest;
+import org.apache.fineract.batch.domain.BatchResponse;
+import org.apache.fineract.batch.serialization.BatchRequestJsonHelper;
+import org.apache.fineract.batch.service.BatchApiService;
+import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class BatchApiResourceStreamingTest {
+
+    private static final String FIRST_REQUEST = "{\"requestId\": 1, \"relativeUrl\": \"clients/1\", \"method\": \"GET\"}";
+
+    @Mock
+    private PlatformSecurityContext context;
+
+    @Mock
+    private ToApiJsonSerializer<BatchResponse> toApiJsonSerializer;
+
+    @Mock
+    private BatchApiService service;
+
+    private BatchApiResource underTest;
+
+    @BeforeEach
+    public void setUp() {
+        this.underTest = new BatchApiResource(this.context, this.toApiJsonSerializer, this.service, new BatchRequestJsonHelper());
+        doAnswer(invocation -> {
+            final Iterator<BatchRequest> requests = invocation.getArgument(0);
+            final Consumer<BatchResponse> responseConsumer = invocation.getArgument(2);
+            int count = 0;
+            while (requests.hasNext()) {
+                final BatchRequest request = requests.next();
+                responseConsumer.accept(new BatchResponse(request.getRequestId(), 200, null, "{\"resourceId\": 1}"));
+                count++;
+            }
+            return count;
+        }).when(this.service).handleBatchRequestsStreaming(any(), any(), any());
+    }
+
+    @Test
+    public void writesAResponsePerRequest() throws IOException {
+        final JsonArray responses = stream(
+                "[" + FIRST_REQUEST + ", {\"requestId\": 2, \"relativeUrl\": \"clients/2\", \"method\": \"GET\"}]");
+
+        assertEquals(2, responses.size());
+        assertEquals(1L, responses.get(0).getAsJsonObject().get("requestId").getAsLong());
+        assertEquals(2L, responses.get(1).getAsJsonObject().get("requestId").getAsLong());
+    }
+
+    @Test
+    public void closesTheArrayWithAnErrorWhenARequestIsTruncated() throws IOException {
+        final JsonArray responses = stream("[" + FIRST_REQUEST + ", {\"requestId\": 2, \"method\": ");
+
+        assertEquals(2, responses.size());
+        assertEquals(200, responses.get(0).getAsJsonObject().get("statusCode").getAsInt());
+        assertSyntaxError(responses.get(1).getAsJsonObject());
+    }
+
+    @Test
+    public void closesTheArrayWithAnErrorWhenTheArrayIsUnterminated() throws IOException {
+        final JsonArray responses = stream("[" + FIRST_REQUEST);
+
+        assertEquals(2, responses.size());
+        assertSyntaxError(responses.get(1).getAsJsonObject());
+    }
+
+    @Test
+    public void closesTheArrayWithAnErrorOnMalformedJsonBetweenRequests() throws IOException {
+        final JsonArray responses = stream("[" + FIRST_REQUEST + "} {\"requestId\": 2}]");
+
+        assertEquals(2, responses.size());
+        assertSyntaxError(responses.get(1).getAsJsonObject());
+    }
+
+    @Test
+    public void answersWithAnErrorElementWhenTheBodyIsNotAnArray() throws IOException {
+        final JsonArray responses = stream(FIRST_REQUEST);
+
+        assertEquals(1, responses.size());
+        assertSyntaxError(responses.get(0).getAsJsonObject());
+    }
+
+    @Test
+    public void doesNotHideFailuresToWriteTheResponses() {
+        final OutputStream closedOutput = new OutputStream() {
+
+            @Override
+            public void write(final int b) throws IOException {
+                throw new IOException("connection reset");
+            }
+        };
+
+        assertThrows(UncheckedIOException.class, () -> this.underTest
+                .handleBatchRequestsStreaming(new ByteArrayInputStream(("[" + FIRST_REQUEST + "]").getBytes(StandardCharsets.UTF_8)), null)
+                .write(closedOutput));
+    }
+
+    private JsonArray stream(final String json) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        this.underTest.handleBatchRequestsStreaming(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), null).write(output);
+        return JsonParser.parseString(output.toString(StandardCharsets.UTF_8)).getAsJsonArray();
+    }
+
+    private static void assertSyntaxError(final JsonObject response) {
+        assertFalse(response.has("requestId"));
+        assertEquals(400, response.get("statusCode").getAsInt());
+        assertTrue(response.get("body").getAsString().contains("error.msg.invalid.request.body"), response.toString());
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.batch.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.batch.command.CommandStrategy;
+import org.apache.fineract.batch.command.CommandStrategyProvider;
+import org.apache.fineract.batch.domain.BatchRequest;
+import org.apache.fineract.batch.domain.BatchResponse;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class BatchApiServiceImplTest {
+
+    private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+    private BatchRequestExecutor batchRequestExecutor;
+    private BatchApiServiceImpl underTest;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, LocalDate.of(2022, 6, 1))));
+
+        final FineractProperties.FineractBatchProperties batch = new FineractProperties.FineractBatchProperties();
+        batch.setThreads(4);
+        batch.setQueueCapacity(10);
+        batch.setMaxParallelism(4);
+        batch.setMaxTenantThreads(4);
+        final FineractProperties properties = new FineractProperties();
+        properties.setBatch(batch);
+        this.batchRequestExecutor = new BatchRequestExecutor(properties);
+
+        // each request sleeps for the milliseconds given in its body
+        final CommandStrategy strategy = (request, uriInfo) -> {
+            this.events.add("start " + request.getRequestId());
+            try {
+                Thread.sleep(Long.parseLong(request.getBody()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.events.add("end " + request.getRequestId());
+            return new BatchResponse(request.getRequestId(), 200, null, "{\"resourceId\": " + request.getRequestId() + "}");
+        };
+        final CommandStrategyProvider strategyProvider = mock(CommandStrategyProvider.class);
+        when(strategyProvider.getCommandStrategy(any())).thenReturn(strategy);
+        final ResolutionHelper resolutionHelper = spy(new ResolutionHelper(mock(FromJsonHelper.class)));
+        doAnswer(invocation -> invocation.getArgument(0)).when(resolutionHelper).resoluteRequest(any(), any());
+
+        this.underTest = new BatchApiServiceImpl(strategyProvider, resolutionHelper, mock(TransactionTemplate.class),
+                this.batchRequestExecutor, new SimpleMeterRegistry(), properties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.batchRequestExecutor.destroy();
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void testParallelResponsesAreOrderedByRequestId() {
+        final List<BatchRequest> requests = new ArrayList<>();
+        for (long id = 1; id <= 6; id++) {
+            // the first requests take the longest
+            requests.add(request(id, null, (7 - id) * 10));
+        }
+
+        final List<BatchResponse> responses = this.underTest.handleBatchRequestsInParallel(requests, null);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), responses.stream().map(BatchResponse::getRequestId).toList());
+    }
+
+    @Test
+    public void testParallelChildRequestsRunAfterTheirParent() {
+        final List<BatchRequest> requests = List.of(request(1L, null, 30), request(2L, null, 5), request(3L, 1L, 5),
+                request(4L, 2L, 20), request(5L, 3L, 5), request(6L, 2L, 5));
+
+        final List<BatchResponse> responses = this.underTest.handleBatchRequestsInParallel(requests, null);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), responses.stream().map(BatchResponse::getRequestId).toList());
+        assertEquals(12, this.events.size());
+        for (final BatchRequest request : requests) {
+            if (request.getReference() != null) {
+                assertTrue(this.events.indexOf("end " + request.getReference()) < this.events.indexOf("start " + request.getRequestId()),
+                        "request " + request.getRequestId() + " started before its parent ended: " + this.events);
+            }
+        }
+    }
+
+    private static BatchRequest request(final Long requestId, final Long reference, final long millis) {
+        final BatchRequest request = new BatchRequest();
+        request.setRequestId(requestId);
+        request.setRelativeUrl("clients");
+        request.setMethod("POST");
+        request.setReference(reference);
+        request.setBody(String.valueOf(millis));
+        return request;
+    }
+}
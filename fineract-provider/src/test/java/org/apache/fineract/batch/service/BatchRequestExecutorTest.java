@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.batch.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+public class BatchRequestExecutorTest {
+
+    private final List<BatchRequestExecutor> executors = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, LocalDate.of(2022, 6, 1))));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("mifos", "password"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.executors.forEach(BatchRequestExecutor::destroy);
+        SecurityContextHolder.clearContext();
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void testResultsKeepTheOrderOfTheTasks() {
+        final BatchRequestExecutor underTest = executor(4, 10, 4, 4);
+        final List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final int index = i;
+            tasks.add(() -> {
+                // later tasks finish first
+                Thread.sleep((8 - index) * 5L);
+                return index;
+            });
+        }
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7), underTest.invokeAll(tasks));
+    }
+
+    @Test
+    public void testTasksRunWithTheTenantAndUserOfTheRequest() {
+        final BatchRequestExecutor underTest = executor(4, 10, 4, 4);
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        final List<Callable<String>> tasks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tasks.add(() -> {
+                assertSame(authentication, SecurityContextHolder.getContext().getAuthentication());
+                assertEquals(LocalDate.of(2022, 6, 1), ThreadLocalContextUtil.getBusinessDateByType(BusinessDateType.BUSINESS_DATE));
+                return ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+            });
+        }
+
+        assertEquals(Collections.nCopies(4, "default"), underTest.invokeAll(tasks));
+    }
+
+    @Test
+    public void testRequestThreadRunsTheTaskWhenThePoolIsSaturated() throws InterruptedException {
+        // one thread and a queue of one: the third task is rejected and run by the request thread
+        final BatchRequestExecutor underTest = executor(1, 1, 4, 4);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        final List<Callable<Integer>> tasks = List.of(() -> {
+            threads.add(Thread.currentThread());
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return 1;
+        }, () -> {
+            threads.add(Thread.currentThread());
+            return 2;
+        }, () -> {
+            threads.add(Thread.currentThread());
+            release.countDown();
+            return 3;
+        });
+
+        assertEquals(List.of(1, 2, 3), underTest.invokeAll(tasks));
+        assertTrue(threads.contains(Thread.currentThread()));
+        assertEquals(3, threads.size());
+    }
+
+    @Test
+    public void testTenantCannotHoldMoreThanItsShareOfThePool() {
+        final BatchRequestExecutor underTest = executor(4, 10, 4, 2);
+        final Thread requestThread = Thread.currentThread();
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            tasks.add(() -> {
+                if (Thread.currentThread() == requestThread) {
+                    return true;
+                }
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(10);
+                running.decrementAndGet();
+                return false;
+            });
+        }
+
+        final List<Boolean> ranOnRequestThread = underTest.invokeAll(tasks);
+
+        assertTrue(maxRunning.get() <= 2, "pool threads used at once: " + maxRunning.get());
+        assertTrue(ranOnRequestThread.contains(true));
+    }
+
+    @Test
+    public void testFailureSkipsTheTasksNotStartedAndWaitsForTheRunningOnes() {
+        final BatchRequestExecutor underTest = executor(2, 10, 2, 2);
+        final CountDownLatch secondStarted = new CountDownLatch(1);
+        final AtomicBoolean secondFinished = new AtomicBoolean();
+        final AtomicInteger laterTasksRun = new AtomicInteger();
+        final List<Callable<Integer>> tasks = new ArrayList<>();
+        tasks.add(() -> {
+            assertTrue(secondStarted.await(5, TimeUnit.SECONDS));
+            throw new IllegalArgumentException("first failed");
+        });
+        tasks.add(() -> {
+            secondStarted.countDown();
+            Thread.sleep(100);
+            secondFinished.set(true);
+            return 2;
+        });
+        for (int i = 0; i < 5; i++) {
+            tasks.add(() -> laterTasksRun.incrementAndGet());
+        }
+
+        final IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> underTest.invokeAll(tasks));
+
+        assertEquals("first failed", thrown.getMessage());
+        assertTrue(secondFinished.get());
+        assertEquals(0, laterTasksRun.get());
+    }
+
+    private BatchRequestExecutor executor(final int threads, final int queueCapacity, final int maxParallelism,
+            final int maxTenantThreads) {
+        final FineractProperties.FineractBatchProperties batch = new FineractProperties.FineractBatchProperties();
+        batch.setThreads(threads);
+        batch.setQueueCapacity(queueCapacity);
+        batch.setMaxParallelism(maxParallelism);
+        batch.setMaxTenantThreads(maxTenantThreads);
+        final FineractProperties properties = new FineractProperties();
+        properties.setBatch(batch);
+        final BatchRequestExecutor executor = new BatchRequestExecutor(properties);
+        this.executors.add(executor);
+        return executor;
+    }
+}
@@ -0,0 +1,216 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import org.apache.fineract.cob.data.COBPartition;
+import org.apache.fineract.cob.exception.COBPartitionLeaseLostException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class COBPartitionServiceImplTest {
+
+    private static final LocalDate COB_DATE = LocalDate.of(2022, 6, 1);
+
+    private RecordingJdbcTemplate jdbcTemplate;
+    private COBPartitionServiceImpl underTest;
+
+    @BeforeEach
+    public void setUp() {
+        this.jdbcTemplate = new RecordingJdbcTemplate();
+        this.underTest = new COBPartitionServiceImpl(this.jdbcTemplate, new RunningTransactionTemplate());
+    }
+
+    @Test
+    public void testEveryClaimTakesANewLease() {
+        this.jdbcTemplate.updateCounts.add(1);
+        this.jdbcTemplate.updateCounts.add(1);
+
+        final COBPartition first = this.underTest.claimPartition("JOB", COB_DATE, 30).orElseThrow();
+        final COBPartition second = this.underTest.claimPartition("JOB", COB_DATE, 30).orElseThrow();
+
+        assertNotEquals(first.getOwnerId(), second.getOwnerId());
+        assertEquals(first.getOwnerId(), this.jdbcTemplate.updates.get(0)[1]);
+        assertEquals(second.getOwnerId(), this.jdbcTemplate.updates.get(1)[1]);
+    }
+
+    @Test
+    public void testClaimOnlyTakesOverPartitionsWhoseHeartbeatIsOlderThanTheLease() {
+        this.jdbcTemplate.updateCounts.add(0);
+
+        assertTrue(this.underTest.claimPartition("JOB", COB_DATE, 30).isEmpty());
+
+        final Object[] claim = this.jdbcTemplate.updates.get(0);
+        final LocalDateTime heartbeat = (LocalDateTime) claim[2];
+        assertEquals(heartbeat.minusMinutes(30), claim[7]);
+    }
+
+    @Test
+    public void testCheckpointIsRejectedOnceTheLeaseHasBeenTakenOver() {
+        this.jdbcTemplate.updateCounts.add(0);
+        final COBPartition partition = partition("lease-1");
+
+        assertThrows(COBPartitionLeaseLostException.class, () -> this.underTest.checkpoint(partition, 42L));
+
+        final Object[] checkpoint = this.jdbcTemplate.updates.get(0);
+        assertEquals(42L, checkpoint[0]);
+        assertEquals(7L, checkpoint[3]);
+        assertEquals("lease-1", checkpoint[4]);
+    }
+
+    @Test
+    public void testFailureIsNotRecordedOnceTheLeaseHasBeenTakenOver() {
+        this.jdbcTemplate.updateCounts.add(0);
+
+        assertThrows(COBPartitionLeaseLostException.class, () -> this.underTest.failed(partition("lease-1"), 42L));
+        assertEquals(1, this.jdbcTemplate.updates.size());
+    }
+
+    @Test
+    public void testFailureIsRecordedWithoutMovingTheCheckpoint() {
+        this.jdbcTemplate.updateCounts.add(1);
+        this.jdbcTemplate.updateCounts.add(0);
+        this.jdbcTemplate.updateCounts.add(1);
+
+        this.underTest.failed(partition("lease-1"), 42L);
+
+        assertEquals(3, this.jdbcTemplate.updates.size());
+        assertTrue(this.jdbcTemplate.statements.get(0).startsWith("update m_cob_partition set error_count"));
+        assertTrue(this.jdbcTemplate.statements.get(2).startsWith("insert into m_cob_partition_failure"));
+        assertEquals(42L, this.jdbcTemplate.updates.get(2)[1]);
+    }
+
+    @Test
+    public void testPartitionWithRemainingFailuresIsMarkedFailed() {
+        this.jdbcTemplate.count = 2;
+        this.jdbcTemplate.updateCounts.add(1);
+
+        this.underTest.complete(partition("lease-1"));
+
+        assertEquals("FAILED", this.jdbcTemplate.updates.get(0)[0]);
+    }
+
+    @Test
+    public void testPartitionWithoutFailuresIsCompleted() {
+        this.jdbcTemplate.count = 0;
+        this.jdbcTemplate.updateCounts.add(1);
+
+        this.underTest.complete(partition("lease-1"));
+
+        assertEquals("COMPLETED", this.jdbcTemplate.updates.get(0)[0]);
+    }
+
+    @Test
+    public void testPartitionsAreCreatedFromConsecutiveIdRanges() {
+        this.jdbcTemplate.count = 0;
+        final Deque<Long[]> ranges = new ArrayDeque<>(List.of(new Long[] { 1L, 10L }, new Long[] { 12L, 30L }));
+        final List<Long> requestedAfter = new ArrayList<>();
+
+        final int created = this.underTest.createPartitionsIfAbsent("JOB", COB_DATE, 10, (afterId, size) -> {
+            requestedAfter.add(afterId);
+            return ranges.poll();
+        });
+
+        assertEquals(2, created);
+        assertEquals(List.of(0L, 10L, 30L), requestedAfter);
+        assertEquals(12L, this.jdbcTemplate.updates.get(1)[3]);
+        assertEquals(30L, this.jdbcTemplate.updates.get(1)[4]);
+    }
+
+    @Test
+    public void testPartitionsCreatedConcurrentlyByAnotherNodeAreResumed() {
+        this.jdbcTemplate.updateFailure = new DuplicateKeyException("uk_cob_partition_job_date_no");
+        final Deque<Long[]> ranges = new ArrayDeque<>(List.of(new Long[] { 1L, 10L }, new Long[] { 12L, 30L }));
+
+        final int resumed = this.underTest.createPartitionsIfAbsent("JOB", COB_DATE, 10, (afterId, size) -> {
+            this.jdbcTemplate.count = 3;
+            return ranges.poll();
+        });
+
+        assertEquals(3, resumed);
+        assertEquals(1, this.jdbcTemplate.updates.size());
+    }
+
+    private static COBPartition partition(final String ownerId) {
+        return new COBPartition(7L, "JOB", COB_DATE, 1, 1L, 100L, null, ownerId);
+    }
+
+    private static final class RecordingJdbcTemplate extends JdbcTemplate {
+
+        private final List<String> statements = new ArrayList<>();
+        private final List<Object[]> updates = new ArrayList<>();
+        private final Deque<Integer> updateCounts = new ArrayDeque<>();
+        private int count;
+        private RuntimeException updateFailure;
+
+        @Override
+        public int update(final String sql, final Object... args) {
+            this.statements.add(sql);
+            this.updates.add(args);
+            if (this.updateFailure != null) {
+                throw this.updateFailure;
+            }
+            return this.updateCounts.isEmpty() ? 1 : this.updateCounts.poll();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T queryForObject(final String sql, final Class<T> requiredType, final Object... args) {
+            return (T) Integer.valueOf(this.count);
+        }
+
+        @Override
+        public <T> List<T> queryForList(final String sql, final Class<T> elementType, final Object... args) {
+            return List.of(elementType.cast(5L));
+        }
+
+        @Override
+        public <T> T queryForObject(final String sql, final RowMapper<T> rowMapper, final Object... args) {
+            @SuppressWarnings("unchecked")
+            final T partition = (T) new COBPartition(5L, "JOB", COB_DATE, 1, 1L, 100L, null,
+                    (String) this.updates.get(this.updates.size() - 1)[1]);
+            return partition;
+        }
+    }
+
+    private static final class RunningTransactionTemplate extends TransactionTemplate {
+
+        @Override
+        public <T> T execute(final TransactionCallback<T> action) {
+            return action.doInTransaction(mock(TransactionStatus.class));
+        }
+    }
+}
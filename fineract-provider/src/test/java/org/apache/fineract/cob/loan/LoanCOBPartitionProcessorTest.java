@@ -0,0 +1,301 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.loan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.apache.fineract.cob.COBBusinessStepService;
+import org.apache.fineract.cob.COBIdRangeReader;
+import org.apache.fineract.cob.COBPartitionService;
+import org.apache.fineract.cob.data.COBPartition;
+import org.apache.fineract.cob.exception.COBPartitionLeaseLostException;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepositoryWrapper;
+import org.apache.fineract.portfolio.loanaccount.service.LoanAssembler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class LoanCOBPartitionProcessorTest {
+
+    private static final LocalDate COB_DATE = LocalDate.of(2022, 6, 1);
+
+    private final Map<Loan, Long> loanIds = new IdentityHashMap<>();
+    private final Map<Long, Integer> failuresBeforeSuccess = new HashMap<>();
+    private final List<Long> uncommitted = new ArrayList<>();
+    private final List<Long> committed = new ArrayList<>();
+
+    private InMemoryPartitionService partitionService;
+    private LoanCOBPartitionProcessor underTest;
+
+    @BeforeEach
+    public void setUp() {
+        final FineractPlatformTenantConnection connection = mock(FineractPlatformTenantConnection.class);
+        when(connection.getMaxRetriesOnDeadlock()).thenReturn(2);
+        final FineractPlatformTenant tenant = mock(FineractPlatformTenant.class);
+        when(tenant.getConnection()).thenReturn(connection);
+        ThreadLocalContextUtil.setTenant(tenant);
+
+        final COBBusinessStepService stepService = mock(COBBusinessStepService.class);
+        when(stepService.getBusinessSteps(LoanCOBConstants.JOB_NAME, LoanCOBBusinessStep.class)).thenReturn(List.of(new RecordingStep()));
+
+        final LoanAssembler loanAssembler = mock(LoanAssembler.class);
+        when(loanAssembler.assembleFrom(any(Long.class))).thenAnswer(invocation -> {
+            final Loan loan = mock(Loan.class);
+            this.loanIds.put(loan, invocation.getArgument(0));
+            return loan;
+        });
+
+        final RetrieveLoanIdService retrieveLoanIdService = mock(RetrieveLoanIdService.class);
+        when(retrieveLoanIdService.retrieveActiveLoanIds(anyLong(), eq(100L), anyInt())).thenAnswer(invocation -> {
+            final long afterId = invocation.getArgument(0);
+            return afterId < 5L ? List.of(afterId + 1) : List.of();
+        });
+
+        this.partitionService = new InMemoryPartitionService();
+        this.underTest = new LoanCOBPartitionProcessor(stepService, this.partitionService, retrieveLoanIdService, loanAssembler,
+                mock(LoanRepositoryWrapper.class), new CommittingTransactionTemplate());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void testEveryLoanIsCommittedWithItsCheckpoint() {
+        final List<Throwable> errors = this.underTest.process(this.partitionService.claim(null));
+
+        assertTrue(errors.isEmpty());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), this.committed);
+        assertEquals(5L, this.partitionService.checkpoint);
+        assertEquals("COMPLETED", this.partitionService.status);
+    }
+
+    @Test
+    public void testRestartResumesAfterTheCheckpoint() {
+        final List<Throwable> errors = this.underTest.process(this.partitionService.claim(3L));
+
+        assertTrue(errors.isEmpty());
+        assertEquals(List.of(4L, 5L), this.committed);
+    }
+
+    @Test
+    public void testWorkerStopsWithoutCommittingOnceThePartitionIsTakenOver() {
+        final COBPartition partition = this.partitionService.claim(null);
+        this.partitionService.takeOverAfter = 2L;
+
+        final List<Throwable> errors = this.underTest.process(partition);
+
+        assertTrue(errors.isEmpty());
+        assertEquals(List.of(1L, 2L), this.committed);
+        assertEquals(2L, this.partitionService.checkpoint);
+        assertEquals("PROCESSING", this.partitionService.status);
+    }
+
+    @Test
+    public void testFailedLoanIsRetriedAtTheEndOfThePartition() {
+        this.failuresBeforeSuccess.put(2L, 1);
+
+        final List<Throwable> errors = this.underTest.process(this.partitionService.claim(null));
+
+        assertTrue(errors.isEmpty());
+        assertEquals(List.of(1L, 3L, 4L, 5L, 2L), this.committed);
+        assertTrue(this.partitionService.failures.isEmpty());
+        assertEquals("COMPLETED", this.partitionService.status);
+    }
+
+    @Test
+    public void testLoanThatKeepsFailingIsRecordedAndLeavesThePartitionFailed() {
+        this.failuresBeforeSuccess.put(3L, Integer.MAX_VALUE);
+
+        final List<Throwable> errors = this.underTest.process(this.partitionService.claim(null));
+
+        assertEquals(1, errors.size());
+        assertEquals(List.of(1L, 2L, 4L, 5L), this.committed);
+        assertEquals(Set.of(3L), this.partitionService.failures);
+        assertEquals(5L, this.partitionService.checkpoint);
+        assertEquals("FAILED", this.partitionService.status);
+    }
+
+    @Test
+    public void testRecordedFailuresAreRetriedWhenThePartitionIsReopened() {
+        this.partitionService.failures.add(2L);
+
+        final List<Throwable> errors = this.underTest.process(this.partitionService.claim(5L));
+
+        assertTrue(errors.isEmpty());
+        assertEquals(List.of(2L), this.committed);
+        assertEquals("COMPLETED", this.partitionService.status);
+    }
+
+    @Test
+    public void testLockConflictsAreRetriedUpToTheTenantLimit() {
+        this.failuresBeforeSuccess.put(4L, 3);
+
+        final List<Throwable> errors = this.underTest.process(this.partitionService.claim(null));
+
+        assertTrue(errors.isEmpty());
+        assertEquals(List.of(1L, 2L, 3L, 5L, 4L), this.committed);
+    }
+
+    private final class RecordingStep implements LoanCOBBusinessStep {
+
+        @Override
+        public Loan execute(final Loan loan) {
+            final Long loanId = LoanCOBPartitionProcessorTest.this.loanIds.get(loan);
+            final int remainingFailures = LoanCOBPartitionProcessorTest.this.failuresBeforeSuccess.getOrDefault(loanId, 0);
+            if (remainingFailures > 0) {
+                LoanCOBPartitionProcessorTest.this.failuresBeforeSuccess.put(loanId, remainingFailures - 1);
+                throw new CannotAcquireLockException("Loan " + loanId + " is locked");
+            }
+            LoanCOBPartitionProcessorTest.this.uncommitted.add(loanId);
+            return loan;
+        }
+
+        @Override
+        public String getEnumStyledName() {
+            return "RECORD";
+        }
+
+        @Override
+        public String getHumanReadableName() {
+            return "Record";
+        }
+    }
+
+    /**
+     * Keeps the loans touched by a callback apart until it returns, so rolled back work never shows up as committed.
+     */
+    private final class CommittingTransactionTemplate extends TransactionTemplate {
+
+        @Override
+        public <T> T execute(final TransactionCallback<T> action) {
+            try {
+                final T result = action.doInTransaction(mock(TransactionStatus.class));
+                LoanCOBPartitionProcessorTest.this.committed.addAll(LoanCOBPartitionProcessorTest.this.uncommitted);
+                return result;
+            } finally {
+                LoanCOBPartitionProcessorTest.this.uncommitted.clear();
+            }
+        }
+    }
+
+    /**
+     * A single partition of loans 1 to 5 with the lease semantics of the database backed service.
+     */
+    private static final class InMemoryPartitionService implements COBPartitionService {
+
+        private final Set<Long> failures = new HashSet<>();
+        private String owner;
+        private String status = "PENDING";
+        private Long checkpoint;
+        private Long takeOverAfter;
+        private int leases;
+
+        private COBPartition claim(final Long lastProcessedId) {
+            this.checkpoint = lastProcessedId;
+            this.status = "PROCESSING";
+            this.owner = "lease-" + ++this.leases;
+            return new COBPartition(1L, LoanCOBConstants.JOB_NAME, COB_DATE, 1, 1L, 100L, lastProcessedId, this.owner);
+        }
+
+        private void assertOwned(final COBPartition partition) {
+            if (!partition.getOwnerId().equals(this.owner) || !"PROCESSING".equals(this.status)) {
+                throw new COBPartitionLeaseLostException(partition.getId(), partition.getOwnerId());
+            }
+        }
+
+        @Override
+        public int createPartitionsIfAbsent(final String jobName, final LocalDate cobDate, final int partitionSize,
+                final COBIdRangeReader idRangeReader) {
+            return 1;
+        }
+
+        @Override
+        public Optional<COBPartition> claimPartition(final String jobName, final LocalDate cobDate, final int leaseTimeoutMinutes) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void checkpoint(final COBPartition partition, final Long lastProcessedId) {
+            assertOwned(partition);
+            this.checkpoint = lastProcessedId;
+            if (lastProcessedId.equals(this.takeOverAfter)) {
+                this.owner = "lease-of-another-node";
+            }
+        }
+
+        @Override
+        public void failed(final COBPartition partition, final Long entityId) {
+            assertOwned(partition);
+            this.failures.add(entityId);
+        }
+
+        @Override
+        public void resolved(final COBPartition partition, final Long entityId) {
+            assertOwned(partition);
+            this.failures.remove(entityId);
+        }
+
+        @Override
+        public List<Long> retrieveFailedIds(final COBPartition partition) {
+            return new ArrayList<>(this.failures);
+        }
+
+        @Override
+        public void complete(final COBPartition partition) {
+            assertOwned(partition);
+            this.status = this.failures.isEmpty() ? "COMPLETED" : "FAILED";
+        }
+
+        @Override
+        public int reopenFailedPartitions(final String jobName, final LocalDate cobDate) {
+            return 0;
+        }
+
+        @Override
+        public int countUnfinishedPartitions(final String jobName, final LocalDate cobDate) {
+            return 0;
+        }
+    }
+}
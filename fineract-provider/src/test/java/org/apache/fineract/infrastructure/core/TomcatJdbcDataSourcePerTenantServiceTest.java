@@ -0,0 +1,131 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.sql.DataSource;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
+import org.apache.fineract.infrastructure.core.service.DataSourcePerTenantServiceFactory;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.TomcatJdbcDataSourcePerTenantService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TomcatJdbcDataSourcePerTenantServiceTest {
+
+    private final DataSource defaultDataSource = mock(DataSource.class);
+    private final DataSourcePerTenantServiceFactory dataSourceFactory = mock(DataSourcePerTenantServiceFactory.class);
+    private TomcatJdbcDataSourcePerTenantService underTest;
+
+    @BeforeEach
+    public void setUp() {
+        underTest = createService(Duration.ZERO, Duration.ZERO);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        underTest.stop();
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void returnsTheDefaultDataSourceWithoutTenant() {
+        ThreadLocalContextUtil.clearTenant();
+
+        assertSame(defaultDataSource, underTest.retrieveDataSource());
+    }
+
+    @Test
+    public void createsThePoolOfATenantOnceForConcurrentRequests() throws Exception {
+        FineractPlatformTenant tenant = mock(FineractPlatformTenant.class);
+        FineractPlatformTenantConnection connection = mock(FineractPlatformTenantConnection.class);
+        given(tenant.getConnection()).willReturn(connection);
+        given(connection.getConnectionId()).willReturn(1L);
+        DataSource tenantDataSource = mock(DataSource.class);
+        given(dataSourceFactory.createNewDataSourceFor(any())).willReturn(tenantDataSource);
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<DataSource>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                ThreadLocalContextUtil.setTenant(tenant);
+                start.await();
+                return underTest.retrieveDataSource();
+            }));
+        }
+        start.countDown();
+        for (Future<DataSource> result : results) {
+            assertSame(tenantDataSource, result.get());
+        }
+        executor.shutdown();
+
+        verify(dataSourceFactory, times(1)).createNewDataSourceFor(connection);
+    }
+
+    @Test
+    public void closesAnIdlePoolOnTheEvictionRunAfterTakingItOutOfTheLookup() {
+        underTest.stop();
+        underTest = createService(Duration.ofMillis(1), Duration.ofMillis(20));
+        FineractPlatformTenant tenant = mock(FineractPlatformTenant.class);
+        FineractPlatformTenantConnection connection = mock(FineractPlatformTenantConnection.class);
+        given(tenant.getConnection()).willReturn(connection);
+        given(connection.getConnectionId()).willReturn(1L);
+        HikariDataSource idlePool = mock(HikariDataSource.class);
+        HikariDataSource newPool = mock(HikariDataSource.class);
+        given(dataSourceFactory.createNewDataSourceFor(any())).willReturn(idlePool, newPool);
+        ThreadLocalContextUtil.setTenant(tenant);
+
+        assertSame(idlePool, underTest.retrieveDataSource());
+
+        verify(idlePool, timeout(5000)).close();
+        assertSame(newPool, underTest.retrieveDataSource());
+    }
+
+    private TomcatJdbcDataSourcePerTenantService createService(final Duration idleTimeout, final Duration evictionInterval) {
+        FineractProperties.FineractTenantPoolProperties tenantPool = new FineractProperties.FineractTenantPoolProperties();
+        tenantPool.setIdleTimeout(idleTimeout);
+        tenantPool.setEvictionInterval(evictionInterval);
+        FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setTenantPool(tenantPool);
+        TomcatJdbcDataSourcePerTenantService service = new TomcatJdbcDataSourcePerTenantService(defaultDataSource, dataSourceFactory,
+                fineractProperties);
+        service.start();
+        return service;
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+public class CacheConfigTest {
+
+    private static final Duration TIME_TO_LIVE = Duration.ofMinutes(10);
+    private static final Duration TIME_TO_IDLE = Duration.ofMinutes(3);
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final CacheConfig.IdleExpiryWithinTimeToLive underTest = new CacheConfig.IdleExpiryWithinTimeToLive(TIME_TO_LIVE,
+            TIME_TO_IDLE, nanoTime::get);
+
+    @Test
+    public void testReadMovesTheExpiryByTheTimeToIdle() {
+        assertEquals(TIME_TO_LIVE, underTest.getExpiryForCreation("key", "value"));
+        advance(Duration.ofMinutes(2));
+
+        assertEquals(TIME_TO_IDLE, underTest.getExpiryForAccess("key", () -> "value"));
+    }
+
+    @Test
+    public void testReadNeverMovesTheExpiryPastTheTimeToLive() {
+        underTest.getExpiryForCreation("key", "value");
+        advance(Duration.ofMinutes(8));
+
+        assertEquals(Duration.ofMinutes(2), underTest.getExpiryForAccess("key", () -> "value"));
+        advance(Duration.ofMinutes(2));
+        assertEquals(Duration.ZERO, underTest.getExpiryForAccess("key", () -> "value"));
+    }
+
+    @Test
+    public void testUpdateRestartsTheTimeToLive() {
+        underTest.getExpiryForCreation("key", "value");
+        advance(Duration.ofMinutes(8));
+
+        assertEquals(TIME_TO_LIVE, underTest.getExpiryForUpdate("key", () -> "value", "newValue"));
+        assertEquals(TIME_TO_IDLE, underTest.getExpiryForAccess("key", () -> "newValue"));
+    }
+
+    @Test
+    public void testReadOfAKeyWrittenBeforeThePurgeKeepsTheExpiry() {
+        underTest.getExpiryForCreation("key", "value");
+        advance(Duration.ofMinutes(11));
+        underTest.getExpiryForCreation("other", "value");
+
+        assertNull(underTest.getExpiryForAccess("key", () -> "value"));
+        assertEquals(TIME_TO_IDLE, underTest.getExpiryForAccess("other", () -> "value"));
+    }
+
+    private void advance(final Duration duration) {
+        nanoTime.addAndGet(duration.toNanos());
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fineract.infrastructure.core.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.fineract.infrastructure.core.domain.FineractEvent;
+import org.apache.fineract.infrastructure.core.domain.LongRunningEvent;
+import org.apache.fineract.infrastructure.core.exception.EventDispatchRejectedException;
+import org.apache.fineract.infrastructure.core.service.TenantFairEventExecutor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+
+public class FineractApplicationEventMulticasterTest {
+
+    private TenantFairEventExecutor executor;
+    private TenantFairEventExecutor longRunningExecutor;
+    private FineractApplicationEventMulticaster underTest;
+    private final AtomicInteger invocations = new AtomicInteger();
+    private final List<Runnable> taskExecutor = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        executor = mock(TenantFairEventExecutor.class);
+        longRunningExecutor = mock(TenantFairEventExecutor.class);
+        underTest = new FineractApplicationEventMulticaster(executor, longRunningExecutor);
+        underTest.setTaskExecutor(taskExecutor::add);
+        underTest.addApplicationListener((ApplicationListener<ApplicationEvent>) event -> invocations.incrementAndGet());
+    }
+
+    @Test
+    void testMulticastEvent_ShouldQueueFineractEventOnTheEventExecutor() {
+        given(executor.offer(anyString(), any(Runnable.class))).willReturn(true);
+
+        underTest.multicastEvent(new TestEvent());
+
+        verify(executor).offer(eq(""), any(Runnable.class));
+        verifyNoInteractions(longRunningExecutor);
+        assertEquals(0, invocations.get());
+    }
+
+    @Test
+    void testMulticastEvent_ShouldQueueLongRunningEventOnItsOwnExecutor() {
+        given(longRunningExecutor.offer(anyString(), any(Runnable.class))).willReturn(true);
+
+        underTest.multicastEvent(new TestLongRunningEvent());
+
+        verify(longRunningExecutor).offer(eq(""), any(Runnable.class));
+        verify(executor, never()).offer(anyString(), any(Runnable.class));
+        assertEquals(0, invocations.get());
+    }
+
+    @Test
+    void testMulticastEvent_ShouldRejectWithoutRunningTheListener_WhenExecutorIsSaturated() {
+        given(executor.offer(anyString(), any(Runnable.class))).willReturn(false);
+
+        assertThrows(EventDispatchRejectedException.class, () -> underTest.multicastEvent(new TestEvent()));
+
+        assertEquals(0, invocations.get());
+        assertTrue(taskExecutor.isEmpty());
+    }
+
+    @Test
+    void testMulticastEvent_ShouldDeliverOtherEventsOnTheTaskExecutor() {
+        underTest.multicastEvent(new ApplicationEvent(this) {});
+
+        assertEquals(0, invocations.get());
+        assertFalse(taskExecutor.isEmpty());
+        taskExecutor.forEach(Runnable::run);
+        assertEquals(1, invocations.get());
+        verifyNoInteractions(executor, longRunningExecutor);
+    }
+
+    private static class TestEvent extends FineractEvent {
+
+        TestEvent() {
+            super("test", null);
+        }
+    }
+
+    private static final class TestLongRunningEvent extends TestEvent implements LongRunningEvent {}
+}
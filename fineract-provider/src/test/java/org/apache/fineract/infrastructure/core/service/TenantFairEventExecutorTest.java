@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fineract.infrastructure.core.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class TenantFairEventExecutorTest {
+
+    private TenantFairEventExecutor underTest;
+
+    @AfterEach
+    void tearDown() {
+        if (underTest != null) {
+            underTest.destroy();
+        }
+    }
+
+    @Test
+    void testOffer_ShouldServeTenantsInRoundRobin() throws Exception {
+        underTest = new TenantFairEventExecutor("test", 1, 10, 10, 0);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(3);
+        final List<String> order = new CopyOnWriteArrayList<>();
+
+        assertTrue(underTest.offer("blocker", () -> block(started, release)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(underTest.offer("a", record(order, "a1", done)));
+        assertTrue(underTest.offer("a", record(order, "a2", done)));
+        assertTrue(underTest.offer("b", record(order, "b1", done)));
+        release.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("a1", "b1", "a2"), order);
+    }
+
+    @Test
+    void testOffer_ShouldWaitForAFreeSlot_WhenQueueIsFull() throws Exception {
+        underTest = new TenantFairEventExecutor("test", 1, 1, 1, 5000);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        assertTrue(underTest.offer("a", () -> block(started, release)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(underTest.offer("a", () -> {}));
+        final CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> underTest.offer("b", () -> {}));
+        assertFalse(waiting.isDone());
+        release.countDown();
+
+        assertTrue(waiting.get(5, TimeUnit.SECONDS));
+        assertEquals(0, underTest.getRefused());
+    }
+
+    @Test
+    void testOffer_ShouldRefuseAndCount_WhenQueueStaysFull() throws Exception {
+        underTest = new TenantFairEventExecutor("test", 1, 1, 1, 50);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        assertTrue(underTest.offer("a", () -> block(started, release)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(underTest.offer("a", () -> {}));
+
+        assertFalse(underTest.offer("b", () -> {}));
+        assertEquals(1, underTest.getRefused());
+        assertEquals(1, underTest.getQueued());
+        release.countDown();
+    }
+
+    @Test
+    void testOffer_ShouldRefuseOnlyTheSaturatedTenant_WhenItsQueueIsFull() throws Exception {
+        underTest = new TenantFairEventExecutor("test", 1, 10, 2, 50);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        assertTrue(underTest.offer("blocker", () -> block(started, release)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(underTest.offer("a", () -> {}));
+        assertTrue(underTest.offer("a", () -> {}));
+
+        assertFalse(underTest.offer("a", () -> {}));
+        assertTrue(underTest.offer("b", () -> {}));
+        assertEquals(1, underTest.getRefused());
+        assertEquals(3, underTest.getQueued());
+        release.countDown();
+    }
+
+    @Test
+    void testOffer_ShouldRefuse_WhenShutDown() {
+        underTest = new TenantFairEventExecutor("test", 1, 1, 1, 5000);
+        underTest.destroy();
+
+        assertFalse(underTest.offer("a", () -> {}));
+        assertEquals(1, underTest.getRefused());
+    }
+
+    private static void block(final CountDownLatch started, final CountDownLatch release) {
+        started.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Runnable record(final List<String> order, final String name, final CountDownLatch done) {
+        return () -> {
+            order.add(name);
+            done.countDown();
+        };
+    }
+}
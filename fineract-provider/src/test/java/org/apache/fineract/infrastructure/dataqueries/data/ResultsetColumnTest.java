@@ -0,0 +1,165 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fineract.infrastructure.dataqueries.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Every column type has to render its values exactly like <code>getObject().toString()</code> did in the row set the
+ * columns replaced.
+ */
+class ResultsetColumnTest {
+
+    private final ResultSet rs = mock(ResultSet.class);
+
+    @Test
+    void testWholeNumberColumn_ShouldRenderLikeTheJdbcObject() throws SQLException {
+        when(rs.getLong(1)).thenReturn(-42L);
+
+        assertRendered(Types.INTEGER, true, ResultsetColumn.WholeNumberColumn.class, Integer.valueOf(-42).toString());
+    }
+
+    @Test
+    void testWholeNumberColumn_ShouldKeepNulls() throws SQLException {
+        when(rs.getLong(1)).thenReturn(0L);
+        when(rs.wasNull()).thenReturn(true);
+
+        assertNullRendered(Types.SMALLINT, true);
+    }
+
+    @Test
+    void testUnsignedBigintColumn_ShouldRenderLikeTheJdbcObject() throws SQLException {
+        final BigInteger value = new BigInteger("18446744073709551615");
+        when(rs.getObject(1)).thenReturn(value);
+
+        assertRendered(Types.BIGINT, false, ResultsetColumn.TextColumn.class, value.toString());
+    }
+
+    @Test
+    void testDecimalColumn_ShouldRenderLikeTheJdbcObject() throws SQLException {
+        final BigDecimal value = new BigDecimal("1234.500000");
+        when(rs.getBigDecimal(1)).thenReturn(value);
+
+        assertRendered(Types.DECIMAL, true, ResultsetColumn.DecimalColumn.class, value.toString());
+    }
+
+    @Test
+    void testDecimalColumn_ShouldRenderLikeTheJdbcObject_WhenZeroHasAHighScale() throws SQLException {
+        final BigDecimal value = new BigDecimal("0.00000000");
+        when(rs.getBigDecimal(1)).thenReturn(value);
+
+        assertRendered(Types.NUMERIC, true, ResultsetColumn.DecimalColumn.class, value.toString());
+    }
+
+    @Test
+    void testDateColumn_ShouldRenderLikeTheJdbcObject() throws SQLException {
+        when(rs.getObject(1, LocalDate.class)).thenReturn(LocalDate.of(2022, 2, 1));
+
+        assertRendered(Types.DATE, true, ResultsetColumn.DateColumn.class, Date.valueOf("2022-02-01").toString());
+    }
+
+    @Test
+    void testDateColumn_ShouldKeepNulls() throws SQLException {
+        assertNullRendered(Types.DATE, true);
+    }
+
+    @Test
+    void testDateTimeColumn_ShouldRenderLikeTheJdbcObject_WhenThereAreNoFractionalSeconds() throws SQLException {
+        final Timestamp value = Timestamp.valueOf("2022-01-02 10:15:00");
+        when(rs.getTimestamp(1)).thenReturn(value);
+
+        assertRendered(Types.TIMESTAMP, true, ResultsetColumn.DateTimeColumn.class, value.toString());
+        assertEquals("2022-01-02 10:15:00.0", value.toString());
+    }
+
+    @Test
+    void testDateTimeColumn_ShouldRenderLikeTheJdbcObject_WhenThereAreFractionalSeconds() throws SQLException {
+        final Timestamp millis = Timestamp.valueOf("2022-12-31 23:59:59.120");
+        final Timestamp nanos = Timestamp.valueOf("1999-01-01 00:00:00.123456789");
+        when(rs.getTimestamp(1)).thenReturn(millis, nanos);
+
+        final ResultsetColumn column = ResultsetColumn.forType(Types.TIMESTAMP, true);
+        column.read(rs, 1);
+        column.read(rs, 1);
+
+        assertEquals(millis.toString(), column.getString(0));
+        assertEquals(nanos.toString(), column.getString(1));
+    }
+
+    @Test
+    void testDateTimeColumn_ShouldKeepNulls() throws SQLException {
+        assertNullRendered(Types.TIMESTAMP, true);
+    }
+
+    @Test
+    void testTextColumn_ShouldRenderLikeTheJdbcObject() throws SQLException {
+        when(rs.getObject(1)).thenReturn("with \"quotes\"");
+
+        assertRendered(Types.VARCHAR, true, ResultsetColumn.TextColumn.class, "with \"quotes\"");
+    }
+
+    @Test
+    void testTextColumn_ShouldRenderBooleansLikeTheJdbcObject() throws SQLException {
+        when(rs.getObject(1)).thenReturn(Boolean.TRUE);
+        when(rs.getString(1)).thenReturn("1");
+
+        assertRendered(Types.BIT, true, ResultsetColumn.TextColumn.class, "true");
+    }
+
+    @Test
+    void testTextColumn_ShouldKeepNulls() throws SQLException {
+        assertNullRendered(Types.VARCHAR, true);
+    }
+
+    private void assertRendered(final int sqlType, final boolean signed, final Class<? extends ResultsetColumn> expectedType,
+            final String expected) throws SQLException {
+        final ResultsetColumn column = ResultsetColumn.forType(sqlType, signed);
+        column.read(rs, 1);
+
+        assertInstanceOf(expectedType, column);
+        assertEquals(expected, column.getString(0));
+        final StringBuilder builder = new StringBuilder();
+        column.appendTo(builder, 0);
+        assertEquals(expected, builder.toString());
+    }
+
+    private void assertNullRendered(final int sqlType, final boolean signed) throws SQLException {
+        final ResultsetColumn column = ResultsetColumn.forType(sqlType, signed);
+        column.read(rs, 1);
+
+        assertTrue(column.isNull(0));
+        assertNull(column.getString(0));
+    }
+}
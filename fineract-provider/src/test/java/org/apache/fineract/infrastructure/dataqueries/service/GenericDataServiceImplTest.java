@@ -0,0 +1,196 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseIndependentQueryService;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseTypeResolver;
+import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class GenericDataServiceImplTest {
+
+    private PreparedStatement statement;
+    private ResultSet rs;
+    private GenericDataServiceImpl underTest;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        final RoutingDataSource dataSource = mock(RoutingDataSource.class);
+        final Connection connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        rs = mock(ResultSet.class);
+        final ResultSetMetaData rsmd = mock(ResultSetMetaData.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(rs);
+        when(rs.getMetaData()).thenReturn(rsmd);
+        when(rsmd.getColumnCount()).thenReturn(3);
+        when(rsmd.getColumnLabel(1)).thenReturn("name");
+        when(rsmd.getColumnTypeName(1)).thenReturn("VARCHAR");
+        when(rsmd.getColumnType(1)).thenReturn(Types.VARCHAR);
+        when(rsmd.getColumnLabel(2)).thenReturn("created");
+        when(rsmd.getColumnTypeName(2)).thenReturn("DATETIME");
+        when(rsmd.getColumnType(2)).thenReturn(Types.TIMESTAMP);
+        when(rsmd.getColumnLabel(3)).thenReturn("active");
+        when(rsmd.getColumnTypeName(3)).thenReturn("BIT");
+        when(rsmd.getColumnType(3)).thenReturn(Types.BIT);
+        when(rs.next()).thenReturn(true, true, false);
+        when(rs.getString(1)).thenReturn("a", "b");
+        when(rs.getObject(1)).thenReturn("a", "b");
+        when(rs.getString(2)).thenReturn("2022-01-02 10:15:00", (String) null);
+        when(rs.getObject(2)).thenReturn(Timestamp.valueOf("2022-01-02 10:15:00"), (Object) null);
+        when(rs.getTimestamp(2)).thenReturn(Timestamp.valueOf("2022-01-02 10:15:00"), (Timestamp) null);
+        when(rs.getString(3)).thenReturn("1", "0");
+        when(rs.getObject(3)).thenReturn(Boolean.TRUE, Boolean.FALSE);
+
+        final DatabaseTypeResolver databaseTypeResolver = mock(DatabaseTypeResolver.class);
+        when(databaseTypeResolver.isMySQL()).thenReturn(true);
+        underTest = new GenericDataServiceImpl(dataSource, new JdbcTemplate(), mock(DatabaseIndependentQueryService.class),
+                databaseTypeResolver, new FineractProperties());
+    }
+
+    @Test
+    void testStreamGenericResultSet_ShouldRenderValuesAsTheirJdbcObject() throws SQLException {
+        final RecordingConsumer consumer = new RecordingConsumer();
+
+        underTest.streamGenericResultSet("select 1", consumer);
+
+        assertEquals(List.of("name", "created", "active"), consumer.columnNames);
+        assertEquals(List.of(List.of("a", "2022-01-02 10:15:00.0", "true"), Arrays.asList("b", null, "false")), consumer.rows);
+        assertEquals(1, consumer.ends);
+        verify(statement, never()).cancel();
+    }
+
+    @Test
+    void testStreamAndCaptureGenericResultSet_ShouldKeepTheRows_WhenThereAreNoMoreThanTheLimit() throws SQLException {
+        final RecordingConsumer consumer = new RecordingConsumer();
+
+        final GenericResultsetData result = underTest.streamAndCaptureGenericResultSet("select 1", consumer, 2);
+
+        final List<List<String>> rows = List.of(List.of("a", "2022-01-02 10:15:00.0", "true"), Arrays.asList("b", null, "false"));
+        assertEquals(rows, consumer.rows);
+        assertEquals(2, result.getColumns().getRowCount());
+        assertEquals(rows.get(0), result.getColumns().getRow(0));
+        assertEquals(rows.get(1), result.getColumns().getRow(1));
+        verify(statement, never()).cancel();
+    }
+
+    @Test
+    void testStreamAndCaptureGenericResultSet_ShouldOnlyStreamTheRows_WhenThereAreMoreThanTheLimit() throws SQLException {
+        final RecordingConsumer consumer = new RecordingConsumer();
+
+        assertNull(underTest.streamAndCaptureGenericResultSet("select 1", consumer, 1));
+
+        assertEquals(List.of(List.of("a", "2022-01-02 10:15:00.0", "true"), Arrays.asList("b", null, "false")), consumer.rows);
+        assertEquals(1, consumer.ends);
+    }
+
+    @Test
+    void testStreamGenericResultSet_ShouldCancelTheQuery_WhenTheConsumerFails() throws SQLException {
+        final RecordingConsumer consumer = new RecordingConsumer() {
+
+            @Override
+            public void row(final List<String> row) {
+                throw new IllegalStateException("consumer failed");
+            }
+        };
+
+        assertThrows(IllegalStateException.class, () -> underTest.streamGenericResultSet("select 1", consumer));
+
+        verify(statement).cancel();
+    }
+
+    @Test
+    void testStreamGenericResultSet_ShouldCancelTheQuery_WhenWritingFails() throws SQLException {
+        final RecordingConsumer consumer = new RecordingConsumer() {
+
+            @Override
+            public void row(final List<String> row) throws IOException {
+                throw new IOException("connection reset");
+            }
+        };
+
+        assertThrows(UncheckedIOException.class, () -> underTest.streamGenericResultSet("select 1", consumer));
+
+        verify(statement).cancel();
+    }
+
+    @Test
+    void testStreamGenericResultSet_ShouldCancelTheQuery_WhenReadingFails() throws SQLException {
+        when(rs.next()).thenReturn(true).thenThrow(new SQLException("connection lost"));
+        final RecordingConsumer consumer = new RecordingConsumer();
+
+        assertThrows(PlatformDataIntegrityException.class, () -> underTest.streamGenericResultSet("select 1", consumer));
+
+        assertEquals(0, consumer.ends);
+        verify(statement).cancel();
+    }
+
+    private static class RecordingConsumer implements GenericResultsetConsumer {
+
+        private final List<String> columnNames = new ArrayList<>();
+        private final List<List<String>> rows = new ArrayList<>();
+        private int ends;
+
+        @Override
+        public void start(final List<ResultsetColumnHeaderData> columnHeaders) {
+            columnHeaders.forEach(columnHeader -> this.columnNames.add(columnHeader.getColumnName()));
+        }
+
+        @Override
+        public void row(final List<String> row) throws IOException {
+            this.rows.add(new ArrayList<>(row));
+        }
+
+        @Override
+        public void end() {
+            this.ends++;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.fineract.infrastructure.core.serialization.ExcludeNothingWithPrettyPrintingOffJsonSerializerGoogleGson;
+import org.apache.fineract.infrastructure.core.serialization.ExcludeNothingWithPrettyPrintingOnJsonSerializerGoogleGson;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetRowData;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the streaming writers produce exactly what the in-memory conversions they replaced produced.
+ */
+class GenericResultsetWritersTest {
+
+    private static final List<ResultsetColumnHeaderData> COLUMN_HEADERS = List.of(ResultsetColumnHeaderData.basic("id", "BIGINT"),
+            ResultsetColumnHeaderData.basic("name", "VARCHAR"), ResultsetColumnHeaderData.basic("amount", "DECIMAL"),
+            ResultsetColumnHeaderData.basic("count", "INT"), ResultsetColumnHeaderData.basic("created", "DATETIME"),
+            ResultsetColumnHeaderData.basic("due", "DATE"));
+
+    private static final List<List<String>> ROWS = List.of(
+            Arrays.asList("1", "plain", "10.50", "3", "2022-01-02 10:15:00.0", "2022-02-01"),
+            Arrays.asList("2", "with \"quotes\" and, comma", "-0.01", null, null, "2022-03-01"),
+            Arrays.asList("3", null, null, "0", "2022-12-31 23:59:59.123", null),
+            Arrays.asList("4", "line\nbreak and unicode é€", "1000000", "-7", "2022-06-30 00:00:00.0", "2022-06-30"));
+
+    @Test
+    void testCsvWriter_ShouldMatchTheInMemoryCsv() throws IOException {
+        final StringWriter out = new StringWriter();
+        write(new GenericResultsetCsvWriter(out), ROWS);
+
+        assertEquals(legacyCsv(COLUMN_HEADERS, ROWS), out.toString());
+    }
+
+    @Test
+    void testCsvWriter_ShouldMatchTheInMemoryCsv_WhenThereAreNoRows() throws IOException {
+        final StringWriter out = new StringWriter();
+        write(new GenericResultsetCsvWriter(out), List.of());
+
+        assertEquals(legacyCsv(COLUMN_HEADERS, List.of()), out.toString());
+    }
+
+    @Test
+    void testJsonWriter_ShouldMatchTheSerializedResultset() throws IOException {
+        final StringWriter out = new StringWriter();
+        write(new GenericResultsetJsonWriter(out, false), ROWS);
+
+        assertEquals(new ExcludeNothingWithPrettyPrintingOffJsonSerializerGoogleGson().serialize(legacyResultset(ROWS)), out.toString());
+    }
+
+    @Test
+    void testJsonWriter_ShouldMatchTheSerializedResultset_WhenPrettyPrinted() throws IOException {
+        final StringWriter out = new StringWriter();
+        write(new GenericResultsetJsonWriter(out, true), ROWS);
+
+        assertEquals(new ExcludeNothingWithPrettyPrintingOnJsonSerializerGoogleGson().serialize(legacyResultset(ROWS)), out.toString());
+    }
+
+    @Test
+    void testJsonWriter_ShouldMatchTheSerializedResultset_WhenThereAreNoRows() throws IOException {
+        final StringWriter out = new StringWriter();
+        write(new GenericResultsetJsonWriter(out, false), List.of());
+
+        assertEquals(new ExcludeNothingWithPrettyPrintingOffJsonSerializerGoogleGson().serialize(legacyResultset(List.of())),
+                out.toString());
+    }
+
+    @Test
+    void testCsvWriter_ShouldEndWithAnErrorLine_WhenTheReportFails() throws IOException {
+        final StringWriter out = new StringWriter();
+        final GenericResultsetCsvWriter writer = new GenericResultsetCsvWriter(out);
+        writer.start(COLUMN_HEADERS);
+        writer.row(ROWS.get(0));
+        writer.fail("query failed");
+
+        assertEquals(legacyCsv(COLUMN_HEADERS, ROWS.subList(0, 1)) + "#ERROR: query failed\n", out.toString());
+    }
+
+    @Test
+    void testJsonWriter_ShouldEndWithAnError_WhenTheReportFails() throws IOException {
+        final StringWriter out = new StringWriter();
+        final GenericResultsetJsonWriter writer = new GenericResultsetJsonWriter(out, false);
+        writer.start(COLUMN_HEADERS);
+        writer.row(ROWS.get(0));
+        writer.fail("query failed");
+
+        final JsonObject report = JsonParser.parseString(out.toString()).getAsJsonObject();
+        assertEquals(1, report.getAsJsonArray("data").size());
+        assertEquals("query failed", report.get("error").getAsString());
+    }
+
+    @Test
+    void testJsonWriter_ShouldWriteOnlyTheError_WhenTheReportFailsBeforeItsColumns() throws IOException {
+        final StringWriter out = new StringWriter();
+        new GenericResultsetJsonWriter(out, false).fail("query failed");
+
+        assertEquals("{\"error\":\"query failed\"}", out.toString());
+    }
+
+    private static void write(final GenericResultsetConsumer consumer, final List<List<String>> rows) throws IOException {
+        consumer.start(COLUMN_HEADERS);
+        for (final List<String> row : rows) {
+            consumer.row(row);
+        }
+        consumer.end();
+    }
+
+    private static LegacyResultsetData legacyResultset(final List<List<String>> rows) {
+        final List<ResultsetRowData> data = new ArrayList<>();
+        for (final List<String> row : rows) {
+            data.add(ResultsetRowData.create(row));
+        }
+        return new LegacyResultsetData(COLUMN_HEADERS, data);
+    }
+
+    /**
+     * The shape GenericResultsetData was serialized in before it held its values by column.
+     */
+    private static final class LegacyResultsetData {
+
+        private final List<ResultsetColumnHeaderData> columnHeaders;
+        private final List<ResultsetRowData> data;
+
+        LegacyResultsetData(final List<ResultsetColumnHeaderData> columnHeaders, final List<ResultsetRowData> data) {
+            this.columnHeaders = columnHeaders;
+            this.data = data;
+        }
+    }
+
+    /**
+     * The CSV conversion ReadReportingServiceImpl used before reports were streamed.
+     */
+    private static String legacyCsv(final List<ResultsetColumnHeaderData> columnHeaders, final List<List<String>> rows) {
+        final StringBuilder writer = new StringBuilder();
+        final int chSize = columnHeaders.size();
+        for (int i = 0; i < chSize; i++) {
+            writer.append('"' + columnHeaders.get(i).getColumnName() + '"');
+            if (i < (chSize - 1)) {
+                writer.append(",");
+            }
+        }
+        writer.append('\n');
+
+        for (final List<String> row : rows) {
+            final int rSize = row.size();
+            for (int j = 0; j < rSize; j++) {
+                final String currColType = columnHeaders.get(j).getColumnType();
+                final String currVal = row.get(j);
+                if (currVal != null) {
+                    if (currColType.equals("DECIMAL") || currColType.equals("DOUBLE") || currColType.equals("BIGINT")
+                            || currColType.equals("SMALLINT") || currColType.equals("INT")) {
+                        writer.append(currVal);
+                    } else {
+                        writer.append('"' + currVal.replace("\"", "\"\"") + '"');
+                    }
+                }
+                if (j < (rSize - 1)) {
+                    writer.append(",");
+                }
+            }
+            writer.append('\n');
+        }
+        return writer.toString();
+    }
+}
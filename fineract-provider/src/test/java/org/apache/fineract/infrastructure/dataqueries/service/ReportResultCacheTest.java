@@ -0,0 +1,262 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumns;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+class ReportResultCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch waiting = new CountDownLatch(1);
+
+    private ReportResultCache underTest;
+
+    @BeforeEach
+    void setUp() {
+        final FineractProperties fineractProperties = new FineractProperties();
+        final FineractProperties.FineractReportProperties reportProperties = new FineractProperties.FineractReportProperties();
+        reportProperties.setCacheEnabled(true);
+        reportProperties.setCacheMaxEntries(2);
+        reportProperties.setCacheMaxRows(100);
+        fineractProperties.setReport(reportProperties);
+        underTest = new ReportResultCache(fineractProperties) {
+
+            @Override
+            GenericResultsetData awaitRunning(final CompletableFuture<GenericResultsetData> running) {
+                waiting.countDown();
+                return super.awaitRunning(running);
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testGetReturnsCachedResultUntilItExpires() throws Exception {
+        final GenericResultsetData first = underTest.get(key("tenant", "Report", "1"), 60, this::load);
+        final GenericResultsetData second = underTest.get(key("tenant", "Report", "1"), 60, this::load);
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+
+        underTest.get(key("tenant", "Report", "2"), 0, this::load);
+        underTest.get(key("tenant", "Report", "2"), 0, this::load);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void testLeastRecentlyUsedResultIsEvicted() {
+        underTest.get(key("tenant", "Report", "1"), 60, this::load);
+        underTest.get(key("tenant", "Report", "2"), 60, this::load);
+        underTest.get(key("tenant", "Report", "1"), 60, this::load);
+        underTest.get(key("tenant", "Report", "3"), 60, this::load);
+        assertEquals(3, loads.get());
+
+        underTest.get(key("tenant", "Report", "1"), 60, this::load);
+        assertEquals(3, loads.get());
+        underTest.get(key("tenant", "Report", "2"), 60, this::load);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void testEvictReportOnlyDropsResultsOfThatReportAndTenant() {
+        underTest.get(key("tenant", "Report", "1"), 60, this::load);
+        underTest.get(key("other", "Report", "1"), 60, this::load);
+
+        underTest.evictReport("tenant", "Report");
+
+        underTest.get(key("other", "Report", "1"), 60, this::load);
+        assertEquals(2, loads.get());
+        underTest.get(key("tenant", "Report", "1"), 60, this::load);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void testEvictReportWaitsForTheTransactionToCommit() {
+        underTest.get(key("tenant", "Report", "1"), 60, this::load);
+        TransactionSynchronizationManager.initSynchronization();
+
+        underTest.evictReport("tenant", "Report");
+        underTest.get(key("tenant", "Report", "1"), 60, this::load);
+        assertEquals(1, loads.get());
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        underTest.get(key("tenant", "Report", "1"), 60, this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testConcurrentIdenticalRequestsRunTheReportOnce() throws Exception {
+        final CountDownLatch loading = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<GenericResultsetData> first = executor.submit(() -> underTest.get(key("tenant", "Report", "1"), 60, () -> {
+                loading.countDown();
+                // keeps running the report until the second request waits for it
+                await(waiting);
+                return load();
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            final Future<GenericResultsetData> second = executor.submit(() -> underTest.get(key("tenant", "Report", "1"), 60, this::load));
+
+            assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+            assertEquals(0, waiting.getCount());
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testStreamKeepsAtMostTheMaxRowsAndCachesTheResult() throws IOException {
+        final List<Integer> maxRows = new ArrayList<>();
+        final ReportResultCache.ReportStream report = (consumer, rowLimit) -> {
+            maxRows.add(rowLimit);
+            return load();
+        };
+        final CountingConsumer first = new CountingConsumer();
+        final CountingConsumer second = new CountingConsumer();
+
+        underTest.stream(key("tenant", "Report", "1"), 60, first, report);
+        underTest.stream(key("tenant", "Report", "1"), 60, second, report);
+
+        assertEquals(List.of(100), maxRows);
+        assertEquals(1, loads.get());
+        assertEquals(1, second.ends);
+    }
+
+    @Test
+    void testStreamDoesNotCacheAResultWithTooManyRows() throws IOException {
+        final ReportResultCache.ReportStream report = (consumer, rowLimit) -> {
+            loads.incrementAndGet();
+            // more rows than the limit, the rows were only streamed
+            return null;
+        };
+
+        underTest.stream(key("tenant", "Report", "1"), 60, new CountingConsumer(), report);
+        underTest.stream(key("tenant", "Report", "1"), 60, new CountingConsumer(), report);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testRequestWaitingForAStreamedResultWithTooManyRowsRunsTheReport() throws Exception {
+        final CountDownLatch streaming = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<?> first = executor.submit(() -> {
+                underTest.stream(key("tenant", "Report", "1"), 60, new CountingConsumer(), (consumer, rowLimit) -> {
+                    streaming.countDown();
+                    // keeps streaming the report until the second request waits for it
+                    await(waiting);
+                    loads.incrementAndGet();
+                    return null;
+                });
+                return null;
+            });
+            assertTrue(streaming.await(5, TimeUnit.SECONDS));
+
+            final Future<GenericResultsetData> second = executor.submit(() -> underTest.get(key("tenant", "Report", "1"), 60, this::load));
+
+            assertNull(first.get(5, TimeUnit.SECONDS));
+            assertEquals(0, second.get(5, TimeUnit.SECONDS).getColumns().getRowCount());
+            assertEquals(2, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ReportResultCache.Key key(final String tenant, final String reportName, final String parameterValue) {
+        return new ReportResultCache.Key(tenant, reportName, "report", Map.of("${officeId}", parameterValue), ".", null, false,
+                LocalDate.of(2022, 1, 1));
+    }
+
+    private GenericResultsetData load() {
+        loads.incrementAndGet();
+        try {
+            final ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+            when(metaData.getColumnCount()).thenReturn(0);
+            final ResultSet resultSet = mock(ResultSet.class);
+            when(resultSet.getMetaData()).thenReturn(metaData);
+            when(resultSet.next()).thenReturn(false);
+            return new GenericResultsetData(List.of(), ResultsetColumns.read(resultSet));
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class CountingConsumer implements GenericResultsetConsumer {
+
+        private int ends;
+
+        @Override
+        public void start(final List<ResultsetColumnHeaderData> columnHeaders) {}
+
+        @Override
+        public void row(final List<String> row) {}
+
+        @Override
+        public void end() {
+            this.ends++;
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
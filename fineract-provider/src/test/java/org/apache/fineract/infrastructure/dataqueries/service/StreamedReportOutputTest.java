@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+import org.junit.jupiter.api.Test;
+
+class StreamedReportOutputTest {
+
+    private static final List<ResultsetColumnHeaderData> COLUMN_HEADERS = List.of(ResultsetColumnHeaderData.basic("id", "BIGINT"),
+            ResultsetColumnHeaderData.basic("name", "VARCHAR"));
+
+    @Test
+    void testWrite_ShouldSendTheFirstRows_BeforeTheReportIsComplete() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final int[] sentBeforeEnd = new int[1];
+
+        new StreamedReportOutput(GenericResultsetCsvWriter::new, consumer -> {
+            consumer.start(COLUMN_HEADERS);
+            for (int i = 0; i < 10000; i++) {
+                consumer.row(List.of(String.valueOf(i), "name " + i));
+            }
+            sentBeforeEnd[0] = out.size();
+            consumer.end();
+        }).write(out);
+
+        assertTrue(sentBeforeEnd[0] > 0);
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("9999,\"name 9999\"\n"));
+    }
+
+    @Test
+    void testWrite_ShouldEndWithTheErrorTrailerAndThrow_WhenTheReportFailsHalfWay() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final IllegalStateException failure = new IllegalStateException("connection lost");
+        final StreamedReportOutput output = new StreamedReportOutput(GenericResultsetCsvWriter::new, consumer -> {
+            consumer.start(COLUMN_HEADERS);
+            consumer.row(List.of("1", "a"));
+            throw failure;
+        });
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> output.write(out)));
+
+        assertEquals("\"id\",\"name\"\n1,\"a\"\n#ERROR: " + StreamedReportOutput.FAILURE_MESSAGE + "\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testWrite_ShouldThrowTheWriteFailure_WhenTheClientHasGone() {
+        final IOException clientGone = new IOException("Broken pipe");
+        final OutputStream out = new OutputStream() {
+
+            @Override
+            public void write(final int b) throws IOException {
+                throw clientGone;
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) throws IOException {
+                throw clientGone;
+            }
+        };
+        // the cursor reports the failed write as the cause of an UncheckedIOException, see GenericDataServiceImpl
+        final StreamedReportOutput output = new StreamedReportOutput(GenericResultsetCsvWriter::new, consumer -> {
+            try {
+                consumer.start(COLUMN_HEADERS);
+                for (int i = 0; i < 10000; i++) {
+                    consumer.row(List.of(String.valueOf(i), "name " + i));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        assertSame(clientGone, assertThrows(IOException.class, () -> output.write(out)));
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import org.apache.fineract.infrastructure.businessdate.service.BusinessDateReadPlatformService;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.hooks.api.HookApiConstants;
+import org.apache.fineract.infrastructure.hooks.data.HookOutboxEntry;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.domain.HookRepository;
+import org.apache.fineract.infrastructure.hooks.domain.HookTemplate;
+import org.apache.fineract.infrastructure.hooks.exception.HookOutboxLeaseLostException;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessorProvider;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.apache.fineract.useradministration.domain.AppUserRepositoryWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class HookDeliveryWorkerTest {
+
+    private static final Long HOOK_ID = 3L;
+
+    private final FineractContext context = new FineractContext("default",
+            new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null), null, new HashMap<>(), null);
+    private final List<String> sent = new ArrayList<>();
+    private final List<String> sentTokens = new ArrayList<>();
+
+    private Hook hook;
+    private HookOutboxService hookOutboxService;
+    private HookDeliveryWorker underTest;
+    private String failingPayload;
+
+    @BeforeEach
+    public void setUp() {
+        final FineractProperties.FineractHookDeliveryProperties properties = new FineractProperties.FineractHookDeliveryProperties();
+        properties.setMaxAttempts(3);
+        properties.setRetryBaseDelaySeconds(30);
+        properties.setRetryMaxDelaySeconds(3600);
+        properties.getServiceAuthTokens().put("default", "c2VydmljZTpzZWNyZXQ=");
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setHookDelivery(properties);
+
+        this.hook = mock(Hook.class);
+        when(this.hook.isActive()).thenReturn(true);
+        final HookRepository hookRepository = mock(HookRepository.class);
+        when(hookRepository.findById(HOOK_ID)).thenReturn(Optional.of(this.hook));
+        final HookProcessorProvider hookProcessorProvider = mock(HookProcessorProvider.class);
+        when(hookProcessorProvider.getProcessor(this.hook)).thenReturn((h, payload, entityName, actionName, fineractContext) -> {
+            this.sent.add(payload);
+            this.sentTokens.add(fineractContext.getAuthTokenContext());
+            if (payload.equals(this.failingPayload)) {
+                throw new IllegalStateException("receiver answered 503");
+            }
+        });
+
+        this.hookOutboxService = mock(HookOutboxService.class);
+        this.underTest = new HookDeliveryWorker(fineractProperties, mock(TenantDetailsService.class), mock(AppUserRepositoryWrapper.class),
+                mock(BusinessDateReadPlatformService.class), this.hookOutboxService, hookRepository, hookProcessorProvider,
+                new ImmediateTransactionTemplate());
+    }
+
+    @Test
+    public void testEntriesOfAHookAreDeliveredInOrder() {
+        final List<HookOutboxEntry> entries = List.of(entry(1L, 0), entry(2L, 0), entry(3L, 0));
+
+        this.underTest.deliver(this.context, HOOK_ID, entries);
+
+        assertEquals(List.of("payload-1", "payload-2", "payload-3"), this.sent);
+        final InOrder inOrder = inOrder(this.hookOutboxService);
+        entries.forEach(entry -> inOrder.verify(this.hookOutboxService).delivered(entry));
+    }
+
+    @Test
+    public void testSmsBridgeHooksAreSentWithTheServiceTokenOfTheTenant() {
+        useTemplate(HookApiConstants.smsTemplateName);
+
+        this.underTest.deliver(this.context, HOOK_ID, List.of(entry(1L, 0), entry(2L, 0)));
+
+        assertEquals(List.of("c2VydmljZTpzZWNyZXQ=", "c2VydmljZTpzZWNyZXQ="), this.sentTokens);
+    }
+
+    @Test
+    public void testOtherHooksAreSentWithoutAToken() {
+        useTemplate(HookApiConstants.webTemplateName);
+
+        this.underTest.deliver(this.context, HOOK_ID, List.of(entry(1L, 0)));
+
+        assertEquals(Collections.singletonList(null), this.sentTokens);
+    }
+
+    @Test
+    public void testFailedEntryHoldsBackTheEntriesQueuedBehindIt() {
+        this.failingPayload = "payload-2";
+        final List<HookOutboxEntry> entries = List.of(entry(1L, 0), entry(2L, 0), entry(3L, 0));
+
+        this.underTest.deliver(this.context, HOOK_ID, entries);
+
+        assertEquals(List.of("payload-1", "payload-2"), this.sent);
+        verify(this.hookOutboxService).delivered(entries.get(0));
+        final ArgumentCaptor<LocalDateTime> retryAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(this.hookOutboxService).retryAt(eq(entries.get(1)), eq(1), retryAt.capture(), anyString());
+        verify(this.hookOutboxService).retryAt(eq(entries.get(2)), eq(0), eq(retryAt.getValue()), isNull());
+        verify(this.hookOutboxService, never()).delivered(entries.get(2));
+    }
+
+    @Test
+    public void testEntryThatUsedUpItsAttemptsIsDeadLetteredAndTheQueueMovesOn() {
+        this.failingPayload = "payload-1";
+        final List<HookOutboxEntry> entries = List.of(entry(1L, 2), entry(2L, 0));
+
+        this.underTest.deliver(this.context, HOOK_ID, entries);
+
+        verify(this.hookOutboxService).deadLetter(eq(entries.get(0)), eq(3), anyString());
+        verify(this.hookOutboxService).delivered(entries.get(1));
+        verify(this.hookOutboxService, never()).retryAt(any(), anyInt(), any(), any());
+    }
+
+    @Test
+    public void testDeliveryStopsOnceAnotherNodeHasTakenTheQueueOver() {
+        final List<HookOutboxEntry> entries = List.of(entry(1L, 0), entry(2L, 0));
+        doThrow(new HookOutboxLeaseLostException(1L, "claim-1")).when(this.hookOutboxService).delivered(entries.get(0));
+
+        this.underTest.deliver(this.context, HOOK_ID, entries);
+
+        assertEquals(List.of("payload-1"), this.sent);
+        verify(this.hookOutboxService, never()).delivered(entries.get(1));
+        verify(this.hookOutboxService, never()).retryAt(any(), anyInt(), any(), any());
+    }
+
+    private void useTemplate(final String templateName) {
+        final HookTemplate template = mock(HookTemplate.class);
+        when(template.getName()).thenReturn(templateName);
+        when(this.hook.getHookTemplate()).thenReturn(template);
+    }
+
+    private static HookOutboxEntry entry(final Long id, final int attempts) {
+        return new HookOutboxEntry(id, HOOK_ID, "CLIENT", "CREATE", "payload-" + id, attempts, "claim-1");
+    }
+
+    private static final class ImmediateTransactionTemplate extends TransactionTemplate {
+
+        @Override
+        public <T> T execute(final TransactionCallback<T> action) {
+            return action.doInTransaction(null);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.hooks.api.HookApiConstants;
+import org.apache.fineract.infrastructure.hooks.data.HookOutboxEntry;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.domain.HookTemplate;
+import org.apache.fineract.infrastructure.hooks.exception.HookOutboxLeaseLostException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+public class HookOutboxServiceImplTest {
+
+    private RecordingJdbcTemplate jdbcTemplate;
+    private RecordingNamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private HookReadPlatformService hookReadPlatformService;
+    private HookOutboxServiceImpl underTest;
+
+    @BeforeEach
+    public void setUp() {
+        this.jdbcTemplate = new RecordingJdbcTemplate();
+        this.namedParameterJdbcTemplate = new RecordingNamedParameterJdbcTemplate(this.jdbcTemplate);
+        this.hookReadPlatformService = mock(HookReadPlatformService.class);
+        final DatabaseSpecificSQLGenerator sqlGenerator = mock(DatabaseSpecificSQLGenerator.class);
+        when(sqlGenerator.limit(anyInt())).thenAnswer(invocation -> "LIMIT " + invocation.getArgument(0));
+        this.underTest = new HookOutboxServiceImpl(this.jdbcTemplate, this.namedParameterJdbcTemplate, sqlGenerator,
+                this.hookReadPlatformService);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.setAuthToken(null);
+    }
+
+    @Test
+    public void testEntriesDoNotKeepTheCredentialsOfTheRequest() throws SQLException {
+        ThreadLocalContextUtil.setAuthToken("dXNlcjpwYXNz");
+        final List<Hook> hooks = List.of(hook(1L, HookApiConstants.smsTemplateName), hook(2L, HookApiConstants.webTemplateName));
+        when(this.hookReadPlatformService.retrieveHooksByEvent("CLIENT", "CREATE")).thenReturn(hooks);
+
+        this.underTest.enqueue("CLIENT", "CREATE", () -> "{}");
+
+        final List<PreparedStatement> rows = this.jdbcTemplate.batchRows;
+        assertEquals(2, rows.size());
+        assertFalse(this.jdbcTemplate.statements.get(0).contains("auth_token"));
+        verify(rows.get(0)).setLong(1, 1L);
+        verify(rows.get(1)).setLong(1, 2L);
+        for (final PreparedStatement row : rows) {
+            verify(row, never()).setString(anyInt(), eq("dXNlcjpwYXNz"));
+        }
+    }
+
+    @Test
+    public void testHookQueueIsClaimedFromItsOldestEntryInIdOrder() {
+        this.jdbcTemplate.idLists.add(List.of(3L));
+        this.jdbcTemplate.idLists.add(List.of(10L, 11L, 12L));
+        this.namedParameterJdbcTemplate.updateCounts.add(3);
+
+        final List<HookOutboxEntry> claimed = this.underTest.claimDueEntries(50, 5);
+
+        assertEquals(3, claimed.size());
+        assertTrue(this.jdbcTemplate.queries.get(0).contains("min(id) as head_id"));
+        assertTrue(this.jdbcTemplate.queries.get(1).contains("where hook_id = ? and status in (?, ?) order by id"));
+        assertEquals(List.of(10L, 11L, 12L), this.namedParameterJdbcTemplate.params.get(0).get("ids"));
+        final String claimId = (String) this.namedParameterJdbcTemplate.params.get(0).get("claimId");
+        assertEquals(claimId, this.jdbcTemplate.lastQueryArgs[0]);
+        assertEquals(3L, this.jdbcTemplate.lastQueryArgs[1]);
+    }
+
+    @Test
+    public void testHookQueuePartlyClaimedByAnotherNodeIsReleased() {
+        this.jdbcTemplate.idLists.add(List.of(3L));
+        this.jdbcTemplate.idLists.add(List.of(10L, 11L, 12L));
+        this.namedParameterJdbcTemplate.updateCounts.add(2);
+
+        final List<HookOutboxEntry> claimed = this.underTest.claimDueEntries(50, 5);
+
+        assertTrue(claimed.isEmpty());
+        assertEquals(1, this.jdbcTemplate.statements.size());
+        assertTrue(this.jdbcTemplate.statements.get(0).contains("owner_id = null"));
+        assertEquals(3L, this.jdbcTemplate.updates.get(0)[2]);
+        assertEquals(this.namedParameterJdbcTemplate.params.get(0).get("claimId"), this.jdbcTemplate.updates.get(0)[3]);
+    }
+
+    @Test
+    public void testNothingIsClaimedWhenNoHookIsDue() {
+        this.jdbcTemplate.idLists.add(List.of());
+
+        assertTrue(this.underTest.claimDueEntries(50, 5).isEmpty());
+        assertTrue(this.namedParameterJdbcTemplate.params.isEmpty());
+    }
+
+    @Test
+    public void testDeliveryIsOnlyRecordedByTheOwnerOfTheClaim() {
+        this.jdbcTemplate.updateCounts.add(0);
+        final HookOutboxEntry entry = entry(9L, "claim-1");
+
+        assertThrows(HookOutboxLeaseLostException.class, () -> this.underTest.delivered(entry));
+
+        final Object[] args = this.jdbcTemplate.updates.get(0);
+        assertEquals(9L, args[2]);
+        assertEquals("claim-1", args[3]);
+        assertEquals("PROCESSING", args[4]);
+    }
+
+    @Test
+    public void testRetryAndDeadLetterAreOnlyRecordedByTheOwnerOfTheClaim() {
+        this.jdbcTemplate.updateCounts.add(0);
+        this.jdbcTemplate.updateCounts.add(0);
+        final HookOutboxEntry entry = entry(9L, "claim-1");
+
+        assertThrows(HookOutboxLeaseLostException.class,
+                () -> this.underTest.retryAt(entry, 2, LocalDateTime.of(2022, 6, 1, 10, 0), "timeout"));
+        assertThrows(HookOutboxLeaseLostException.class, () -> this.underTest.deadLetter(entry, 8, "timeout"));
+
+        assertEquals("claim-1", this.jdbcTemplate.updates.get(0)[6]);
+        assertEquals("claim-1", this.jdbcTemplate.updates.get(1)[5]);
+    }
+
+    @Test
+    public void testPurgeDeletesTheSelectedDeliveredEntries() {
+        this.jdbcTemplate.idLists.add(List.of(1L, 2L));
+        this.namedParameterJdbcTemplate.updateCounts.add(2);
+        final LocalDateTime deliveredBefore = LocalDateTime.of(2022, 6, 1, 0, 0);
+
+        assertEquals(2, this.underTest.purgeDelivered(deliveredBefore, 100));
+
+        assertTrue(this.jdbcTemplate.queries.get(0).endsWith("LIMIT 100"));
+        assertEquals("DELIVERED", this.jdbcTemplate.lastQueryArgs[0]);
+        assertEquals(deliveredBefore, this.jdbcTemplate.lastQueryArgs[1]);
+        assertEquals(List.of(1L, 2L), this.namedParameterJdbcTemplate.params.get(0).get("ids"));
+    }
+
+    @Test
+    public void testPurgeWithoutDeliveredEntriesDeletesNothing() {
+        this.jdbcTemplate.idLists.add(List.of());
+
+        assertEquals(0, this.underTest.purgeDelivered(LocalDateTime.of(2022, 6, 1, 0, 0), 100));
+        assertTrue(this.namedParameterJdbcTemplate.params.isEmpty());
+    }
+
+    private static Hook hook(final Long id, final String templateName) {
+        final Hook hook = mock(Hook.class);
+        final HookTemplate template = mock(HookTemplate.class);
+        when(hook.getId()).thenReturn(id);
+        when(hook.getHookTemplate()).thenReturn(template);
+        when(template.getName()).thenReturn(templateName);
+        return hook;
+    }
+
+    private static HookOutboxEntry entry(final Long id, final String ownerId) {
+        return new HookOutboxEntry(id, 3L, "CLIENT", "CREATE", "{}", 0, ownerId);
+    }
+
+    private static final class RecordingJdbcTemplate extends JdbcTemplate {
+
+        private final List<String> statements = new ArrayList<>();
+        private final List<Object[]> updates = new ArrayList<>();
+        private final Deque<Integer> updateCounts = new ArrayDeque<>();
+        private final List<String> queries = new ArrayList<>();
+        private final Deque<List<Long>> idLists = new ArrayDeque<>();
+        private final List<PreparedStatement> batchRows = new ArrayList<>();
+        private Object[] lastQueryArgs;
+
+        @Override
+        public int update(final String sql, final Object... args) {
+            this.statements.add(sql);
+            this.updates.add(args);
+            return this.updateCounts.isEmpty() ? 1 : this.updateCounts.poll();
+        }
+
+        @Override
+        public <T> List<T> queryForList(final String sql, final Class<T> elementType, final Object... args) {
+            this.queries.add(sql);
+            this.lastQueryArgs = args;
+            final List<T> ids = new ArrayList<>();
+            for (final Long id : this.idLists.isEmpty() ? List.<Long>of() : this.idLists.poll()) {
+                ids.add(elementType.cast(id));
+            }
+            return ids;
+        }
+
+        @Override
+        public <T> List<T> query(final String sql, final RowMapper<T> rowMapper, final Object... args) {
+            this.queries.add(sql);
+            this.lastQueryArgs = args;
+            final List<T> entries = new ArrayList<>();
+            for (long id = 10L; id <= 12L; id++) {
+                @SuppressWarnings("unchecked")
+                final T entry = (T) new HookOutboxEntry(id, (Long) args[1], "CLIENT", "CREATE", "{}", 0, (String) args[0]);
+                entries.add(entry);
+            }
+            return entries;
+        }
+
+        @Override
+        public <T> int[][] batchUpdate(final String sql, final Collection<T> batchArgs, final int batchSize,
+                final ParameterizedPreparedStatementSetter<T> pss) {
+            this.statements.add(sql);
+            for (final T arg : batchArgs) {
+                final PreparedStatement ps = mock(PreparedStatement.class);
+                try {
+                    pss.setValues(ps, arg);
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+                this.batchRows.add(ps);
+            }
+            return new int[][] { new int[batchArgs.size()] };
+        }
+    }
+
+    private static final class RecordingNamedParameterJdbcTemplate extends NamedParameterJdbcTemplate {
+
+        private final List<Map<String, ?>> params = new ArrayList<>();
+        private final Deque<Integer> updateCounts = new ArrayDeque<>();
+
+        RecordingNamedParameterJdbcTemplate(final JdbcTemplate jdbcTemplate) {
+            super(jdbcTemplate);
+        }
+
+        @Override
+        public int update(final String sql, final Map<String, ?> paramMap) {
+            this.params.add(paramMap);
+            return this.updateCounts.isEmpty() ? 0 : this.updateCounts.poll();
+        }
+    }
+}
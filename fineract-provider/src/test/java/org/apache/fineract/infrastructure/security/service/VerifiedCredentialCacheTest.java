@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.security.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class VerifiedCredentialCacheTest {
+
+    private VerifiedCredentialCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        FineractProperties.FineractCredentialCacheProperties credentialCache = new FineractProperties.FineractCredentialCacheProperties();
+        credentialCache.setEnabled(true);
+        credentialCache.setMaxEntries(2);
+        credentialCache.setTimeToLive(Duration.ofMinutes(5));
+        FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setCredentialCache(credentialCache);
+        cache = new VerifiedCredentialCache(fineractProperties);
+    }
+
+    @Test
+    public void matchesOnlyTheVerifiedPasswordAndHash() {
+        cache.verified("default", "mifos", "password", "{bcrypt}hash");
+
+        assertTrue(cache.isVerified("default", "mifos", "password", "{bcrypt}hash"));
+        assertFalse(cache.isVerified("default", "mifos", "wrong", "{bcrypt}hash"));
+        assertFalse(cache.isVerified("default", "mifos", "password", "{bcrypt}changed"));
+        assertFalse(cache.isVerified("other", "mifos", "password", "{bcrypt}hash"));
+    }
+
+    @Test
+    public void forgetsEvictedUsers() {
+        cache.verified("default", "mifos", "password", "{bcrypt}hash");
+        cache.evict("default", "mifos");
+
+        assertFalse(cache.isVerified("default", "mifos", "password", "{bcrypt}hash"));
+    }
+
+    @Test
+    public void keepsAtMostMaxEntries() {
+        cache.verified("default", "a", "password", "{bcrypt}hash");
+        cache.verified("default", "b", "password", "{bcrypt}hash");
+        cache.verified("default", "c", "password", "{bcrypt}hash");
+
+        assertFalse(cache.isVerified("default", "a", "password", "{bcrypt}hash"));
+        assertTrue(cache.isVerified("default", "c", "password", "{bcrypt}hash"));
+    }
+}
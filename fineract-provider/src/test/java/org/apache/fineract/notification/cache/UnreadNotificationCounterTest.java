@@ -0,0 +1,119 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+public class UnreadNotificationCounterTest {
+
+    private final UnreadNotificationCounter counter = new UnreadNotificationCounter();
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void loadsTheCountOnceAndFollowsTheWritePath() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertFalse(counter.hasUnreadNotifications(1L, 10L, () -> {
+            loads.incrementAndGet();
+            return 0L;
+        }));
+        counter.notificationsCreated(1L, 10L, 2);
+        assertTrue(counter.hasUnreadNotifications(1L, 10L, () -> {
+            loads.incrementAndGet();
+            return 0L;
+        }));
+        counter.notificationsRead(1L, 10L);
+        assertFalse(counter.hasUnreadNotifications(1L, 10L, () -> {
+            loads.incrementAndGet();
+            return 5L;
+        }));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void keepsTenantsApart() {
+        assertFalse(counter.hasUnreadNotifications(1L, 10L, () -> 0L));
+        assertTrue(counter.hasUnreadNotifications(2L, 10L, () -> 3L));
+
+        counter.notificationsRead(2L, 10L);
+        counter.notificationsCreated(1L, 10L, 1);
+
+        assertTrue(counter.hasUnreadNotifications(1L, 10L, () -> 0L));
+        assertFalse(counter.hasUnreadNotifications(2L, 10L, () -> 3L));
+    }
+
+    @Test
+    public void ignoresCreatedNotificationsOfUsersNotLoadedYet() {
+        counter.notificationsCreated(1L, 10L, 1);
+
+        assertFalse(counter.hasUnreadNotifications(1L, 10L, () -> 0L));
+    }
+
+    @Test
+    public void countsCreatedNotificationsOnlyOnceTheTransactionHasCommitted() {
+        assertFalse(counter.hasUnreadNotifications(1L, 10L, () -> 0L));
+        TransactionSynchronizationManager.initSynchronization();
+
+        counter.notificationsCreated(1L, 10L, 1);
+        assertFalse(counter.hasUnreadNotifications(1L, 10L, () -> 0L));
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertTrue(counter.hasUnreadNotifications(1L, 10L, () -> 0L));
+    }
+
+    @Test
+    public void ignoresNotificationsOfARolledBackTransaction() {
+        assertFalse(counter.hasUnreadNotifications(1L, 10L, () -> 0L));
+        TransactionSynchronizationManager.initSynchronization();
+
+        counter.notificationsCreated(1L, 10L, 1);
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertFalse(counter.hasUnreadNotifications(1L, 10L, () -> 0L));
+    }
+
+    @Test
+    public void keepsTheCountUntilMarkingAsReadHasCommitted() {
+        assertTrue(counter.hasUnreadNotifications(1L, 10L, () -> 2L));
+        TransactionSynchronizationManager.initSynchronization();
+
+        counter.notificationsRead(1L, 10L);
+        assertTrue(counter.hasUnreadNotifications(1L, 10L, () -> 2L));
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertFalse(counter.hasUnreadNotifications(1L, 10L, () -> 2L));
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.monetary.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Checks on randomly generated sequences that {@link MoneyAccumulator} ends up exactly where chaining
+ * {@link Money#plus(Money)}, {@link Money#plus(BigDecimal)} and {@link Money#minus(Money)} does.
+ */
+public class MoneyAccumulatorTest {
+
+    private static final int SEQUENCES = 500;
+    private static final int OPERATIONS = 60;
+
+    @BeforeAll
+    public static void setRoundingMode() {
+        ReflectionTestUtils.setField(MoneyHelper.class, "roundingMode", RoundingMode.HALF_EVEN);
+    }
+
+    @Test
+    public void matchesMoneyArithmeticForDecimalCurrencies() {
+        assertEquivalent(new MonetaryCurrency("USD", 2, null), 1L);
+        assertEquivalent(new MonetaryCurrency("KWD", 3, 0), 2L);
+        assertEquivalent(new MonetaryCurrency("XBT", 6, null), 3L);
+    }
+
+    @Test
+    public void matchesMoneyArithmeticForWholeUnitCurrencies() {
+        assertEquivalent(new MonetaryCurrency("JPY", 0, null), 4L);
+        assertEquivalent(new MonetaryCurrency("UGX", 0, 50), 5L);
+    }
+
+    @Test
+    public void startsFromAnInitialAmount() {
+        final MonetaryCurrency currency = new MonetaryCurrency("USD", 2, null);
+        final Money initial = Money.of(currency, new BigDecimal("10.25"));
+
+        final Money total = MoneyAccumulator.of(initial).plus(Money.of(currency, new BigDecimal("0.75"))).toMoney();
+
+        assertEquals(new BigDecimal("11.00"), total.getAmount());
+    }
+
+    @Test
+    public void rejectsOtherCurrencies() {
+        final MoneyAccumulator underTest = MoneyAccumulator.zero(new MonetaryCurrency("USD", 2, null));
+        final Money euros = Money.of(new MonetaryCurrency("EUR", 2, null), BigDecimal.ONE);
+
+        assertThrows(UnsupportedOperationException.class, () -> underTest.plus(euros));
+    }
+
+    private static void assertEquivalent(final MonetaryCurrency currency, final long seed) {
+        final Random random = new Random(seed);
+        for (int sequence = 0; sequence < SEQUENCES; sequence++) {
+            Money expected = Money.zero(currency);
+            final MoneyAccumulator underTest = MoneyAccumulator.zero(currency);
+            for (int operation = 0; operation < OPERATIONS; operation++) {
+                final Money amount = randomMoney(random, currency);
+                final int kind = random.nextInt(3);
+                if (kind == 0) {
+                    expected = expected.plus(amount);
+                    underTest.plus(amount);
+                } else if (kind == 1) {
+                    // percentage based charges add an unrounded BigDecimal and round the total
+                    final BigDecimal percentage = BigDecimal.valueOf(random.nextInt(1_000_000), currency.getDigitsAfterDecimal() + 4);
+                    expected = expected.plus(percentage);
+                    underTest.plus(percentage);
+                } else {
+                    expected = expected.minus(amount);
+                    underTest.minus(amount);
+                }
+                assertEquals(expected.isZero(), underTest.isZero());
+                assertEquals(expected.isGreaterThanZero(), underTest.isGreaterThanZero());
+                assertEquals(expected.isLessThanZero(), underTest.isLessThanZero());
+            }
+            assertEquals(expected.getAmount(), underTest.toMoney().getAmount(), "sequence " + sequence + " of " + currency.getCode());
+        }
+    }
+
+    private static Money randomMoney(final Random random, final MonetaryCurrency currency) {
+        final int digits = currency.getDigitsAfterDecimal();
+        return switch (random.nextInt(10)) {
+            // amounts loaded from the database keep the column scale, sometimes with digits the currency does not have
+            case 0 -> unrounded(currency, BigDecimal.valueOf(random.nextInt(1_000_000_000), digits + 4));
+            case 1 -> unrounded(currency, BigDecimal.valueOf(random.nextInt(100_000) * 10_000L, digits + 4));
+            // large enough to overflow a long of smallest currency units after a few additions
+            case 2 -> Money.of(currency, BigDecimal.valueOf(Long.MAX_VALUE / 3 + random.nextInt(1000), digits));
+            case 3 -> Money.zero(currency);
+            default -> Money.of(currency, BigDecimal.valueOf(random.nextInt(10_000_000), digits));
+        };
+    }
+
+    private static Money unrounded(final MonetaryCurrency currency, final BigDecimal amount) {
+        final Money money = Money.zero(currency);
+        ReflectionTestUtils.setField(money, "amount", amount);
+        return money;
+    }
+}
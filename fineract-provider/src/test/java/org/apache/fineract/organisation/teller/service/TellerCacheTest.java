@@ -0,0 +1,165 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.fineract.organisation.teller.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import org.apache.fineract.accounting.financialactivityaccount.domain.FinancialActivityAccountRepositoryWrapper;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryRepository;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.PaginationHelper;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.infrastructure.security.utils.ColumnValidator;
+import org.apache.fineract.organisation.monetary.service.CurrencyReadPlatformService;
+import org.apache.fineract.organisation.office.domain.Office;
+import org.apache.fineract.organisation.office.domain.OfficeRepositoryWrapper;
+import org.apache.fineract.organisation.office.service.OfficeReadPlatformService;
+import org.apache.fineract.organisation.staff.domain.StaffRepository;
+import org.apache.fineract.organisation.staff.service.StaffReadPlatformService;
+import org.apache.fineract.organisation.teller.data.CashierTransactionDataValidator;
+import org.apache.fineract.organisation.teller.domain.CashierRepository;
+import org.apache.fineract.organisation.teller.domain.CashierTransactionRepository;
+import org.apache.fineract.organisation.teller.domain.Teller;
+import org.apache.fineract.organisation.teller.domain.TellerRepositoryWrapper;
+import org.apache.fineract.organisation.teller.serialization.TellerCommandFromApiJsonDeserializer;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+class TellerCacheTest {
+
+    private final RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+    private AnnotationConfigApplicationContext applicationContext;
+    private TellerManagementReadPlatformService readPlatformService;
+    private TellerWritePlatformService writePlatformService;
+
+    @BeforeEach
+    void setUp() {
+        final Office office = mock(Office.class);
+        when(office.getHierarchy()).thenReturn(".1.");
+        final AppUser user = mock(AppUser.class);
+        when(user.getOffice()).thenReturn(office);
+        final PlatformSecurityContext context = mock(PlatformSecurityContext.class);
+        when(context.authenticatedUser()).thenReturn(user);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null));
+        useTenant("default");
+
+        final Teller teller = mock(Teller.class);
+        when(teller.getCashiers()).thenReturn(new HashSet<>());
+        final TellerRepositoryWrapper tellerRepositoryWrapper = mock(TellerRepositoryWrapper.class);
+        when(tellerRepositoryWrapper.findOneWithNotFoundDetection(1L)).thenReturn(teller);
+
+        applicationContext = new AnnotationConfigApplicationContext();
+        applicationContext.register(CachingConfiguration.class);
+        applicationContext.registerBean(TellerManagementReadPlatformService.class,
+                () -> new TellerManagementReadPlatformServiceImpl(jdbcTemplate, context, mock(OfficeReadPlatformService.class),
+                        mock(StaffReadPlatformService.class), mock(CurrencyReadPlatformService.class),
+                        mock(DatabaseSpecificSQLGenerator.class), mock(PaginationHelper.class), mock(ColumnValidator.class)));
+        applicationContext.registerBean(TellerWritePlatformService.class,
+                () -> new TellerWritePlatformServiceJpaImpl(context, mock(TellerCommandFromApiJsonDeserializer.class),
+                        tellerRepositoryWrapper, mock(OfficeRepositoryWrapper.class), mock(StaffRepository.class),
+                        mock(CashierRepository.class), mock(CashierTransactionRepository.class), mock(JournalEntryRepository.class),
+                        mock(FinancialActivityAccountRepositoryWrapper.class), mock(CashierTransactionDataValidator.class)));
+        applicationContext.refresh();
+        readPlatformService = applicationContext.getBean(TellerManagementReadPlatformService.class);
+        writePlatformService = applicationContext.getBean(TellerWritePlatformService.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        applicationContext.close();
+        SecurityContextHolder.clearContext();
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    void testRetrieveAllTellers_ShouldCacheByIncludeAllTellers() {
+        readPlatformService.retrieveAllTellers(false);
+        readPlatformService.retrieveAllTellers(false);
+        readPlatformService.retrieveAllTellers(true);
+        readPlatformService.retrieveAllTellers(true);
+
+        assertEquals(List.of(".1.%", ".%"), jdbcTemplate.hierarchySearches);
+    }
+
+    @Test
+    void testRetrieveAllTellers_ShouldCachePerTenant() {
+        readPlatformService.retrieveAllTellers(false);
+        useTenant("other");
+        readPlatformService.retrieveAllTellers(false);
+
+        assertEquals(2, jdbcTemplate.hierarchySearches.size());
+    }
+
+    @Test
+    void testDeleteTeller_ShouldEvictTheTellers() {
+        readPlatformService.retrieveAllTellers(false);
+        readPlatformService.retrieveAllTellers(true);
+
+        writePlatformService.deleteTeller(1L);
+        readPlatformService.retrieveAllTellers(false);
+        readPlatformService.retrieveAllTellers(true);
+
+        assertEquals(List.of(".1.%", ".%", ".1.%", ".%"), jdbcTemplate.hierarchySearches);
+    }
+
+    private static void useTenant(final String tenantIdentifier) {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, tenantIdentifier, tenantIdentifier, "UTC", null));
+    }
+
+    @Configuration
+    @EnableCaching
+    static class CachingConfiguration {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager("tellers");
+        }
+    }
+
+    private static final class RecordingJdbcTemplate extends JdbcTemplate {
+
+        private final List<Object> hierarchySearches = new ArrayList<>();
+
+        @Override
+        public <T> List<T> query(final String sql, final RowMapper<T> rowMapper, final Object... args) {
+            this.hierarchySearches.add(args[0]);
+            return new ArrayList<>();
+        }
+    }
+}
@@ -0,0 +1,363 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.portfolio.charge.domain.Charge;
+import org.apache.fineract.portfolio.charge.domain.ChargeCalculationType;
+import org.apache.fineract.portfolio.charge.domain.ChargePaymentMode;
+import org.apache.fineract.portfolio.charge.domain.ChargeTimeType;
+import org.apache.fineract.portfolio.loanaccount.domain.ChangedTransactionDetail;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanCharge;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransactionToRepaymentScheduleMapping;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.CreocoreLoanRepaymentScheduleTransactionProcessor;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.EarlyPaymentLoanRepaymentScheduleTransactionProcessor;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.FineractStyleLoanRepaymentScheduleTransactionProcessor;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.HeavensFamilyLoanRepaymentScheduleTransactionProcessor;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.InterestPrincipalPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.PrincipalInterestPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.RBILoanRepaymentScheduleTransactionProcessor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Checks for every repayment strategy that re-processing from the date of a backdated change ends up exactly where
+ * re-processing all transactions from the disbursement date does.
+ */
+public class IncrementalTransactionReprocessingTest {
+
+    private static final MonetaryCurrency CURRENCY = new MonetaryCurrency("USD", 2, null);
+    private static final LocalDate DISBURSEMENT_DATE = LocalDate.of(2022, 1, 1);
+
+    @BeforeAll
+    public static void setRoundingMode() {
+        ReflectionTestUtils.setField(MoneyHelper.class, "roundingMode", RoundingMode.HALF_EVEN);
+    }
+
+    @BeforeEach
+    public void setBusinessDate() {
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, LocalDate.of(2023, 1, 1))));
+    }
+
+    private static Stream<AbstractLoanRepaymentScheduleTransactionProcessor> processors() {
+        return Stream.of(new CreocoreLoanRepaymentScheduleTransactionProcessor(),
+                new EarlyPaymentLoanRepaymentScheduleTransactionProcessor(), new FineractStyleLoanRepaymentScheduleTransactionProcessor(),
+                new HeavensFamilyLoanRepaymentScheduleTransactionProcessor(),
+                new InterestPrincipalPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor(),
+                new PrincipalInterestPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor(),
+                new RBILoanRepaymentScheduleTransactionProcessor());
+    }
+
+    @ParameterizedTest
+    @MethodSource("processors")
+    public void reversalMatchesFullReprocessing(final AbstractLoanRepaymentScheduleTransactionProcessor processor) {
+        assertEquivalent(processor, loan -> {
+            final LoanTransaction reversed = loan.transactions.remove(3);
+            reversed.reverse();
+            return reversed.getTransactionDate();
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource("processors")
+    public void backdatedRepaymentMatchesFullReprocessing(final AbstractLoanRepaymentScheduleTransactionProcessor processor) {
+        assertEquivalent(processor, loan -> {
+            final LocalDate transactionDate = LocalDate.of(2022, 4, 20);
+            loan.add(LoanTransaction.repayment(null, money(150), null, transactionDate, null));
+            return transactionDate;
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource("processors")
+    public void adjustmentMatchesFullReprocessing(final AbstractLoanRepaymentScheduleTransactionProcessor processor) {
+        assertEquivalent(processor, loan -> {
+            final LoanTransaction adjusted = loan.transactions.remove(5);
+            adjusted.reverse();
+            loan.add(LoanTransaction.repayment(null, money(250), null, adjusted.getTransactionDate(), null));
+            return adjusted.getTransactionDate();
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource("processors")
+    public void reversalOfFirstRepaymentMatchesFullReprocessing(final AbstractLoanRepaymentScheduleTransactionProcessor processor) {
+        assertEquivalent(processor, loan -> {
+            final LoanTransaction reversed = loan.transactions.remove(0);
+            reversed.reverse();
+            return reversed.getTransactionDate();
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource("processors")
+    public void replaysUnchangedTransactionsWhenSupported(final AbstractLoanRepaymentScheduleTransactionProcessor processor) {
+        final LoanFixture loan = LoanFixture.withRepayments(processor);
+        final LoanTransaction unchanged = loan.transactions.get(1);
+        final Set<LoanTransactionToRepaymentScheduleMapping> mappingsBefore = new HashSet<>(
+                unchanged.getLoanTransactionToRepaymentScheduleMappings());
+        final LoanTransaction reversed = loan.transactions.remove(3);
+        reversed.reverse();
+
+        processor.handleTransactionsFrom(reversed.getTransactionDate(), DISBURSEMENT_DATE, loan.transactions, CURRENCY,
+                loan.installments, loan.charges);
+
+        // re-processing replaces the mappings of an unchanged transaction, replaying leaves them alone
+        final boolean replayed = mappingsBefore.equals(unchanged.getLoanTransactionToRepaymentScheduleMappings());
+        assertEquals(processor.isAllocationReplaySupported(), replayed);
+    }
+
+    @ParameterizedTest
+    @MethodSource("processors")
+    public void reversalWithChargesMatchesFullReprocessing(final AbstractLoanRepaymentScheduleTransactionProcessor processor) {
+        assertEquivalent(processor, true, loan -> {
+            final LoanTransaction reversed = loan.transactions.remove(5);
+            reversed.reverse();
+            return reversed.getTransactionDate();
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource("processors")
+    public void backdatedRepaymentWithChargesMatchesFullReprocessing(final AbstractLoanRepaymentScheduleTransactionProcessor processor) {
+        assertEquivalent(processor, true, loan -> {
+            final LocalDate transactionDate = LocalDate.of(2022, 6, 5);
+            loan.add(LoanTransaction.repayment(null, money(150), null, transactionDate, null));
+            return transactionDate;
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource("processors")
+    public void failedReplayMatchesFullReprocessing(final AbstractLoanRepaymentScheduleTransactionProcessor processor) {
+        assertEquivalent(processor, true, loan -> {
+            loan.transactions.get(1).getLoanTransactionToRepaymentScheduleMappings().clear();
+            final LoanTransaction reversed = loan.transactions.remove(3);
+            reversed.reverse();
+            return reversed.getTransactionDate();
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource("processors")
+    public void stopsReplayingOnceATransactionFailsReplay(final AbstractLoanRepaymentScheduleTransactionProcessor processor) {
+        final LoanFixture loan = LoanFixture.withRepayments(processor, true);
+        final LoanTransaction replayed = loan.transactions.get(0);
+        final LoanTransaction following = loan.transactions.get(2);
+        final Set<LoanTransactionToRepaymentScheduleMapping> replayedMappingsBefore = new HashSet<>(
+                replayed.getLoanTransactionToRepaymentScheduleMappings());
+        final Set<LoanTransactionToRepaymentScheduleMapping> followingMappingsBefore = new HashSet<>(
+                following.getLoanTransactionToRepaymentScheduleMappings());
+        // the persisted allocations of the second repayment no longer add up to its portions
+        loan.transactions.get(1).getLoanTransactionToRepaymentScheduleMappings().clear();
+        final LoanTransaction reversed = loan.transactions.remove(3);
+        reversed.reverse();
+
+        processor.handleTransactionsFrom(reversed.getTransactionDate(), DISBURSEMENT_DATE, loan.transactions, CURRENCY,
+                loan.installments, loan.charges);
+
+        assertEquals(processor.isAllocationReplaySupported(),
+                replayedMappingsBefore.equals(replayed.getLoanTransactionToRepaymentScheduleMappings()));
+        assertNotEquals(followingMappingsBefore, following.getLoanTransactionToRepaymentScheduleMappings());
+    }
+
+    @ParameterizedTest
+    @MethodSource("processors")
+    public void reversalAfterAnAccrualMatchesFullReprocessing(final AbstractLoanRepaymentScheduleTransactionProcessor processor) {
+        assertEquivalent(processor, loan -> {
+            loan.add(accrual(LocalDate.of(2022, 2, 15)));
+            final LoanTransaction reversed = loan.transactions.remove(4);
+            reversed.reverse();
+            return reversed.getTransactionDate();
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource("processors")
+    public void keepsReplayingAfterAnAccrual(final AbstractLoanRepaymentScheduleTransactionProcessor processor) {
+        final LoanFixture loan = LoanFixture.withRepayments(processor);
+        loan.add(accrual(LocalDate.of(2022, 2, 15)));
+        final LoanTransaction afterAccrual = loan.transactions.get(2);
+        final Set<LoanTransactionToRepaymentScheduleMapping> mappingsBefore = new HashSet<>(
+                afterAccrual.getLoanTransactionToRepaymentScheduleMappings());
+        final LoanTransaction reversed = loan.transactions.remove(4);
+        reversed.reverse();
+
+        processor.handleTransactionsFrom(reversed.getTransactionDate(), DISBURSEMENT_DATE, loan.transactions, CURRENCY,
+                loan.installments, loan.charges);
+
+        assertEquals(processor.isAllocationReplaySupported(),
+                mappingsBefore.equals(afterAccrual.getLoanTransactionToRepaymentScheduleMappings()));
+    }
+
+    private void assertEquivalent(final AbstractLoanRepaymentScheduleTransactionProcessor processor,
+            final Function<LoanFixture, LocalDate> change) {
+        assertEquivalent(processor, false, change);
+    }
+
+    private void assertEquivalent(final AbstractLoanRepaymentScheduleTransactionProcessor processor, final boolean withCharges,
+            final Function<LoanFixture, LocalDate> change) {
+        final LoanFixture fullyReprocessed = LoanFixture.withRepayments(processor, withCharges);
+        change.apply(fullyReprocessed);
+        final ChangedTransactionDetail fullDetail = processor.handleTransaction(DISBURSEMENT_DATE, fullyReprocessed.transactions,
+                CURRENCY, fullyReprocessed.installments, fullyReprocessed.charges);
+
+        final LoanFixture incrementallyReprocessed = LoanFixture.withRepayments(processor, withCharges);
+        final LocalDate reprocessFromDate = change.apply(incrementallyReprocessed);
+        final ChangedTransactionDetail incrementalDetail = processor.handleTransactionsFrom(reprocessFromDate, DISBURSEMENT_DATE,
+                incrementallyReprocessed.transactions, CURRENCY, incrementallyReprocessed.installments, incrementallyReprocessed.charges);
+
+        assertTrue(fullyReprocessed.installments.stream().anyMatch(installment -> installment.getTotalPaidInAdvance(CURRENCY)
+                .plus(installment.getTotalPaidLate(CURRENCY)).isGreaterThanZero()));
+        assertEquals(describe(fullDetail), describe(incrementalDetail));
+        assertEquals(fullyReprocessed.describe(), incrementallyReprocessed.describe());
+    }
+
+    private static List<String> describe(final ChangedTransactionDetail changedTransactionDetail) {
+        final List<String> description = new ArrayList<>();
+        changedTransactionDetail.getNewTransactionMappings().entrySet().stream().sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> description.add(entry.getKey() + " -> " + describe(entry.getValue())));
+        return description;
+    }
+
+    private static String describe(final LoanTransaction transaction) {
+        final List<String> mappings = new ArrayList<>();
+        for (final LoanTransactionToRepaymentScheduleMapping mapping : transaction.getLoanTransactionToRepaymentScheduleMappings()) {
+            mappings.add(mapping.getLoanRepaymentScheduleInstallment().getInstallmentNumber() + ":"
+                    + mapping.getPrincipalPortion(CURRENCY) + "/" + mapping.getInterestPortion(CURRENCY) + "/"
+                    + mapping.getFeeChargesPortion(CURRENCY) + "/" + mapping.getPenaltyChargesPortion(CURRENCY));
+        }
+        mappings.sort(Comparator.naturalOrder());
+        return transaction.getTransactionDate() + " " + transaction.getAmount(CURRENCY) + " reversed=" + transaction.isReversed()
+                + " principal=" + transaction.getPrincipalPortion(CURRENCY) + " interest=" + transaction.getInterestPortion(CURRENCY)
+                + " fees=" + transaction.getFeeChargesPortion(CURRENCY) + " penalties=" + transaction.getPenaltyChargesPortion(CURRENCY)
+                + " overpaid=" + transaction.getOverPaymentPortion(CURRENCY) + " " + mappings;
+    }
+
+    private static LoanTransaction accrual(final LocalDate transactionDate) {
+        final LoanTransaction accrual = LoanTransaction.accrueTransaction(null, null, transactionDate, BigDecimal.valueOf(12),
+                BigDecimal.valueOf(12), BigDecimal.ZERO, BigDecimal.ZERO);
+        ReflectionTestUtils.setField(accrual, "id", 100L);
+        return accrual;
+    }
+
+    private static Money money(final long amount) {
+        return Money.of(CURRENCY, BigDecimal.valueOf(amount));
+    }
+
+    /**
+     * A loan of twelve monthly installments with a history of early, late, partial and over-payments and an interest
+     * waiver, processed the way they were posted, optionally with a fee and a penalty due on the way.
+     */
+    private static final class LoanFixture {
+
+        private final List<LoanRepaymentScheduleInstallment> installments = new ArrayList<>();
+        private final List<LoanTransaction> transactions = new ArrayList<>();
+        private final Set<LoanCharge> charges = new HashSet<>();
+
+        private static LoanFixture withRepayments(final LoanRepaymentScheduleTransactionProcessor processor) {
+            return withRepayments(processor, false);
+        }
+
+        private static LoanFixture withRepayments(final LoanRepaymentScheduleTransactionProcessor processor, final boolean withCharges) {
+            final LoanFixture loan = new LoanFixture();
+            if (withCharges) {
+                loan.charges.add(charge(false, 10, LocalDate.of(2022, 3, 15)));
+                loan.charges.add(charge(true, 5, LocalDate.of(2022, 6, 10)));
+            }
+            for (int number = 1; number <= 12; number++) {
+                loan.installments.add(new LoanRepaymentScheduleInstallment(null, number, DISBURSEMENT_DATE.plusMonths(number - 1),
+                        DISBURSEMENT_DATE.plusMonths(number), BigDecimal.valueOf(100), BigDecimal.valueOf(12), BigDecimal.ZERO,
+                        BigDecimal.ZERO, false, null));
+            }
+            loan.add(LoanTransaction.repayment(null, money(112), null, LocalDate.of(2022, 2, 1), null));
+            loan.add(LoanTransaction.repayment(null, money(112), null, LocalDate.of(2022, 3, 10), null));
+            loan.add(LoanTransaction.repayment(null, money(50), null, LocalDate.of(2022, 3, 20), null));
+            loan.add(LoanTransaction.waiver(null, null, money(5), LocalDate.of(2022, 4, 1), money(5), money(0)));
+            loan.add(LoanTransaction.repayment(null, money(300), null, LocalDate.of(2022, 5, 15), null));
+            loan.add(LoanTransaction.repayment(null, money(112), null, LocalDate.of(2022, 7, 1), null));
+            loan.add(LoanTransaction.repayment(null, money(80), null, LocalDate.of(2022, 8, 5), null));
+            loan.add(LoanTransaction.repayment(null, money(200), null, LocalDate.of(2022, 10, 1), null));
+
+            processor.handleTransaction(DISBURSEMENT_DATE, loan.transactions, CURRENCY, loan.installments, loan.charges);
+            long id = 1;
+            for (final LoanTransaction transaction : loan.transactions) {
+                ReflectionTestUtils.setField(transaction, "id", id++);
+            }
+            return loan;
+        }
+
+        private static LoanCharge charge(final boolean penalty, final long amount, final LocalDate dueDate) {
+            final Charge chargeDefinition = mock(Charge.class);
+            given(chargeDefinition.isPenalty()).willReturn(penalty);
+            return new LoanCharge(null, chargeDefinition, BigDecimal.valueOf(1200), BigDecimal.valueOf(amount),
+                    ChargeTimeType.SPECIFIED_DUE_DATE, ChargeCalculationType.FLAT, dueDate, ChargePaymentMode.REGULAR, 1, BigDecimal.ZERO);
+        }
+
+        private void add(final LoanTransaction transaction) {
+            this.transactions.add(transaction);
+            this.transactions.sort(Comparator.comparing(LoanTransaction::getTransactionDate));
+        }
+
+        private List<String> describe() {
+            final List<String> description = new ArrayList<>();
+            for (final LoanRepaymentScheduleInstallment installment : this.installments) {
+                description.add(installment.getInstallmentNumber() + ": principal=" + installment.getPrincipalCompleted(CURRENCY)
+                        + " interest=" + installment.getInterestPaid(CURRENCY) + " waived=" + installment.getInterestWaived(CURRENCY)
+                        + " fees=" + installment.getFeeChargesPaid(CURRENCY) + " penalties=" + installment.getPenaltyChargesPaid(CURRENCY)
+                        + " advance=" + installment.getTotalPaidInAdvance(CURRENCY) + " late=" + installment.getTotalPaidLate(CURRENCY)
+                        + " met=" + installment.isObligationsMet() + " on " + installment.getObligationsMetOnDate());
+            }
+            for (final LoanTransaction transaction : this.transactions) {
+                description.add(IncrementalTransactionReprocessingTest.describe(transaction));
+            }
+            this.charges.stream().sorted(Comparator.comparing(LoanCharge::getDueLocalDate))
+                    .forEach(charge -> description.add(charge.getDueLocalDate() + " penalty=" + charge.isPenaltyCharge() + " paid="
+                            + charge.getAmountPaid(CURRENCY) + " outstanding=" + charge.getAmountOutstanding(CURRENCY)));
+            return description;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.loanschedule.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.gson.JsonObject;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.portfolio.calendar.domain.Calendar;
+import org.apache.fineract.portfolio.calendar.domain.CalendarType;
+import org.apache.fineract.portfolio.loanaccount.data.DisbursementData;
+import org.junit.jupiter.api.Test;
+
+public class LoanScheduleInputDigestTest {
+
+    private static final LocalDate DISBURSEMENT_DATE = LocalDate.of(2022, 3, 1);
+
+    @Test
+    public void equalInputsHaveEqualDigests() {
+        assertEquals(LoanScheduleInputDigest.of(disbursements("1000.00", "500"), currency(2), RoundingMode.HALF_EVEN),
+                LoanScheduleInputDigest.of(disbursements("1000", "500.0"), currency(2), RoundingMode.HALF_EVEN));
+    }
+
+    @Test
+    public void changedInputsChangeTheDigest() {
+        final String digest = LoanScheduleInputDigest.of(disbursements("1000", "500"), currency(2), RoundingMode.HALF_EVEN);
+
+        assertNotEquals(digest, LoanScheduleInputDigest.of(disbursements("1000", "501"), currency(2), RoundingMode.HALF_EVEN));
+        assertNotEquals(digest, LoanScheduleInputDigest.of(disbursements("500", "1000"), currency(2), RoundingMode.HALF_EVEN));
+        assertNotEquals(digest, LoanScheduleInputDigest.of(disbursements("1000", "500"), currency(0), RoundingMode.HALF_EVEN));
+        assertNotEquals(digest, LoanScheduleInputDigest.of(disbursements("1000", "500"), currency(2), RoundingMode.HALF_UP));
+    }
+
+    @Test
+    public void setsAreDescribedIndependentOfTheirOrder() {
+        final List<DisbursementData> disbursements = disbursements("1000", "500");
+        final Set<DisbursementData> inOrder = new LinkedHashSet<>(disbursements);
+        final List<DisbursementData> reversed = new ArrayList<>(disbursements);
+        Collections.reverse(reversed);
+
+        assertEquals(LoanScheduleInputDigest.of(inOrder), LoanScheduleInputDigest.of(new LinkedHashSet<>(reversed)));
+    }
+
+    @Test
+    public void calendarsAreDescribedByTheirRecurrence() {
+        final String weekly = LoanScheduleInputDigest.of(calendar("FREQ=WEEKLY;INTERVAL=1;BYDAY=TU"));
+
+        assertEquals(weekly, LoanScheduleInputDigest.of(calendar("FREQ=WEEKLY;INTERVAL=1;BYDAY=TU")));
+        assertNotEquals(weekly, LoanScheduleInputDigest.of(calendar("FREQ=WEEKLY;INTERVAL=2;BYDAY=TU")));
+    }
+
+    @Test
+    public void describesJdkTypesByTheirOwnToString() {
+        assertEquals("java.math.MathContext:precision=8 roundingMode=HALF_EVEN",
+                LoanScheduleInputDigest.describe(new MathContext(8, RoundingMode.HALF_EVEN)));
+    }
+
+    @Test
+    public void rejectsTypesThatCannotBeDescribedByValue() {
+        assertThrows(IllegalArgumentException.class, () -> LoanScheduleInputDigest.of(List.of(new Object())));
+        assertThrows(IllegalArgumentException.class, () -> LoanScheduleInputDigest.of(new JsonObject()));
+    }
+
+    private static List<DisbursementData> disbursements(final String... principals) {
+        final List<DisbursementData> disbursements = new ArrayList<>();
+        for (int i = 0; i < principals.length; i++) {
+            disbursements.add(new DisbursementData(null, DISBURSEMENT_DATE.plusMonths(i), null, new BigDecimal(principals[i]), null, null,
+                    null, null));
+        }
+        return disbursements;
+    }
+
+    private static MonetaryCurrency currency(final int digits) {
+        return new MonetaryCurrency("USD", digits, null);
+    }
+
+    private static Calendar calendar(final String recurrence) {
+        return Calendar.createRepeatingCalendar("loan_schedule", DISBURSEMENT_DATE, CalendarType.COLLECTION.getValue(), recurrence);
+    }
+}
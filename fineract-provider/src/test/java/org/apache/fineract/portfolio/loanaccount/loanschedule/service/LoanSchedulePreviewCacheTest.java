@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.loanschedule.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractLoanScheduleProperties;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.LoanScheduleModel;
+import org.junit.jupiter.api.Test;
+
+public class LoanSchedulePreviewCacheTest {
+
+    private static final LoanSchedulePreviewCache.Key FIRST = new LoanSchedulePreviewCache.Key("default", "first");
+    private static final LoanSchedulePreviewCache.Key SECOND = new LoanSchedulePreviewCache.Key("default", "second");
+    private static final LoanSchedulePreviewCache.Key THIRD = new LoanSchedulePreviewCache.Key("default", "third");
+
+    private final AtomicInteger generated = new AtomicInteger();
+
+    @Test
+    public void answersRepeatedPreviewsFromTheCache() {
+        final LoanSchedulePreviewCache underTest = cache(true, 10, Duration.ofHours(1));
+
+        final LoanScheduleModel schedule = underTest.get(FIRST, this::generate);
+
+        assertSame(schedule, underTest.get(FIRST, this::generate));
+        assertEquals(1, this.generated.get());
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedScheduleBeyondTheMaximum() {
+        final LoanSchedulePreviewCache underTest = cache(true, 2, Duration.ofHours(1));
+        final LoanScheduleModel first = underTest.get(FIRST, this::generate);
+        final LoanScheduleModel second = underTest.get(SECOND, this::generate);
+        // uses the first schedule again, so the second one is now the least recently used
+        underTest.get(FIRST, this::generate);
+
+        underTest.get(THIRD, this::generate);
+
+        assertEquals(2, underTest.size());
+        assertSame(first, underTest.get(FIRST, this::generate));
+        assertNotSame(second, underTest.get(SECOND, this::generate));
+        assertEquals(4, this.generated.get());
+    }
+
+    @Test
+    public void generatesTheScheduleAgainAfterTheTimeToLive() {
+        final LoanSchedulePreviewCache underTest = cache(true, 10, Duration.ZERO);
+
+        final LoanScheduleModel schedule = underTest.get(FIRST, this::generate);
+
+        assertNotSame(schedule, underTest.get(FIRST, this::generate));
+        assertEquals(2, this.generated.get());
+    }
+
+    @Test
+    public void keepsTheSchedulesOfTenantsApart() {
+        final LoanSchedulePreviewCache underTest = cache(true, 10, Duration.ofHours(1));
+        final String digest = "same inputs";
+
+        final LoanScheduleModel schedule = underTest.get(new LoanSchedulePreviewCache.Key("default", digest), this::generate);
+
+        assertNotSame(schedule, underTest.get(new LoanSchedulePreviewCache.Key("other", digest), this::generate));
+        assertEquals(2, this.generated.get());
+    }
+
+    @Test
+    public void generatesEverySchedulePreviewWhenDisabled() {
+        final LoanSchedulePreviewCache underTest = cache(false, 10, Duration.ofHours(1));
+
+        final LoanScheduleModel schedule = underTest.get(FIRST, this::generate);
+
+        assertNotSame(schedule, underTest.get(FIRST, this::generate));
+        assertEquals(2, this.generated.get());
+        assertEquals(0, underTest.size());
+    }
+
+    private LoanScheduleModel generate() {
+        this.generated.incrementAndGet();
+        return LoanScheduleModel.from(List.of(), null, 30, null, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO,
+                BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    private static LoanSchedulePreviewCache cache(final boolean enabled, final int maxEntries, final Duration timeToLive) {
+        final FineractLoanScheduleProperties loanSchedule = new FineractLoanScheduleProperties();
+        loanSchedule.setPreviewCacheEnabled(enabled);
+        loanSchedule.setPreviewCacheMaxEntries(maxEntries);
+        loanSchedule.setPreviewCacheTimeToLive(timeToLive);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setLoanSchedule(loanSchedule);
+        return new LoanSchedulePreviewCache(fineractProperties);
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.JobWorkerPoolService;
+import org.apache.fineract.portfolio.loanaccount.data.LoanScheduleAccrualData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class LoanAccrualPlatformServiceImplTest {
+
+    private static final LocalDate TILL_DATE = LocalDate.of(2022, 6, 30);
+
+    @Mock
+    private LoanReadPlatformService loanReadPlatformService;
+
+    @Mock
+    private LoanAccrualWritePlatformService loanAccrualWritePlatformService;
+
+    private final List<List<Long>> pages = new ArrayList<>();
+    private List<LoanScheduleAccrualData> firstChunk;
+    private List<LoanScheduleAccrualData> secondChunk;
+
+    private LoanAccrualPlatformServiceImpl underTest;
+
+    @BeforeEach
+    public void setUp() {
+        final FineractProperties properties = new FineractProperties();
+        final FineractProperties.FineractAccrualProperties accrual = new FineractProperties.FineractAccrualProperties();
+        accrual.setWorkerThreads(2);
+        accrual.setChunkSize(2);
+        properties.setAccrual(accrual);
+        this.underTest = new LoanAccrualPlatformServiceImpl(this.loanReadPlatformService, this.loanAccrualWritePlatformService,
+                new SequentialWorkerPool(), properties);
+
+        when(this.loanReadPlatformService.retrieveLoanIdsWithPeriodicAccrualData(eq(TILL_DATE), anyLong(), eq(2)))
+                .thenAnswer(invocation -> switch (((Long) invocation.getArgument(1)).intValue()) {
+                    case 0 -> List.of(1L, 2L);
+                    case 2 -> List.of(3L);
+                    default -> List.of();
+                });
+        this.firstChunk = List.of(accrual(1L), accrual(1L), accrual(2L));
+        this.secondChunk = List.of(accrual(3L));
+        when(this.loanReadPlatformService.retrivePeriodicAccrualData(TILL_DATE, 1L, 2L)).thenReturn(this.firstChunk);
+        when(this.loanReadPlatformService.retrivePeriodicAccrualData(TILL_DATE, 3L, 3L)).thenReturn(this.secondChunk);
+    }
+
+    @Test
+    public void postsEveryChunkOfLoansInOneCall() throws Exception {
+        this.underTest.addPeriodicAccruals(TILL_DATE);
+
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L)), this.pages);
+        verify(this.loanReadPlatformService).retrieveLoanIdsWithPeriodicAccrualData(TILL_DATE, 0L, 2);
+        verify(this.loanReadPlatformService).retrieveLoanIdsWithPeriodicAccrualData(TILL_DATE, 2L, 2);
+        verify(this.loanReadPlatformService).retrieveLoanIdsWithPeriodicAccrualData(TILL_DATE, 3L, 2);
+        verify(this.loanAccrualWritePlatformService).addPeriodicAccruals(eq(TILL_DATE), eq(Map.of(1L,
+                List.of(this.firstChunk.get(0), this.firstChunk.get(1)), 2L, List.of(this.firstChunk.get(2)))));
+        verify(this.loanAccrualWritePlatformService).addPeriodicAccruals(eq(TILL_DATE), eq(Map.of(3L, List.of(this.secondChunk.get(0)))));
+        verify(this.loanAccrualWritePlatformService, never()).addPeriodicAccruals(any(LocalDate.class), anyLong(), any());
+    }
+
+    @Test
+    public void postsTheLoansOfAFailedChunkOneByOne() throws Exception {
+        doThrow(new IllegalStateException("chunk failed")).when(this.loanAccrualWritePlatformService)
+                .addPeriodicAccruals(eq(TILL_DATE), eq(Map.of(1L, List.of(this.firstChunk.get(0), this.firstChunk.get(1)), 2L,
+                        List.of(this.firstChunk.get(2)))));
+        final IllegalStateException loanFailure = new IllegalStateException("loan 2 failed");
+        doThrow(loanFailure).when(this.loanAccrualWritePlatformService).addPeriodicAccruals(eq(TILL_DATE), eq(2L), any());
+
+        final JobExecutionException e = assertThrows(JobExecutionException.class, () -> this.underTest.addPeriodicAccruals(TILL_DATE));
+
+        verify(this.loanAccrualWritePlatformService).addPeriodicAccruals(TILL_DATE, 1L,
+                List.of(this.firstChunk.get(0), this.firstChunk.get(1)));
+        verify(this.loanAccrualWritePlatformService).addPeriodicAccruals(TILL_DATE, 2L, List.of(this.firstChunk.get(2)));
+        verify(this.loanAccrualWritePlatformService, never()).addPeriodicAccruals(eq(TILL_DATE), eq(3L), any());
+        verify(this.loanAccrualWritePlatformService).addPeriodicAccruals(eq(TILL_DATE), eq(Map.of(3L, List.of(this.secondChunk.get(0)))));
+        assertEquals(List.of(loanFailure), e.getCauses());
+    }
+
+    private static LoanScheduleAccrualData accrual(final Long loanId) {
+        final LoanScheduleAccrualData data = mock(LoanScheduleAccrualData.class);
+        when(data.getLoanId()).thenReturn(loanId);
+        return data;
+    }
+
+    /**
+     * Runs the pages one after the other on the calling thread, recording them.
+     */
+    private final class SequentialWorkerPool implements JobWorkerPoolService {
+
+        @Override
+        public <C> List<Throwable> processPages(final JobName jobName, final int concurrency, final LongFunction<List<Long>> pageFetcher,
+                final Function<List<Long>, C> pagePreparer, final BiConsumer<Long, C> itemProcessor) {
+            final List<Throwable> errors = new ArrayList<>();
+            List<Long> page = pageFetcher.apply(0L);
+            while (!page.isEmpty()) {
+                LoanAccrualPlatformServiceImplTest.this.pages.add(page);
+                final C pageContext = pagePreparer.apply(page);
+                for (final Long id : page) {
+                    try {
+                        itemProcessor.accept(id, pageContext);
+                    } catch (RuntimeException e) {
+                        errors.add(e);
+                    }
+                }
+                page = pageFetcher.apply(page.get(page.size() - 1));
+            }
+            return errors;
+        }
+
+        @Override
+        public List<Throwable> runWorkers(final JobName jobName, final int concurrency, final Runnable worker) {
+            worker.run();
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.accounting.common.AccountingRuleType;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class LoanReadPlatformServiceImplPeriodicAccrualTest {
+
+    private static final LocalDate TILL_DATE = LocalDate.of(2022, 6, 30);
+    private static final LocalDate ORGANISATION_START_DATE = LocalDate.of(2020, 1, 1);
+
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Mock
+    private ConfigurationDomainService configurationDomainService;
+
+    @Mock
+    private DatabaseSpecificSQLGenerator sqlGenerator;
+
+    @InjectMocks
+    private LoanReadPlatformServiceImpl underTest;
+
+    @Captor
+    private ArgumentCaptor<String> sql;
+
+    @Captor
+    private ArgumentCaptor<Map<String, Object>> params;
+
+    @BeforeEach
+    public void setUp() {
+        when(this.sqlGenerator.limit(anyInt())).thenAnswer(invocation -> "LIMIT " + invocation.getArgument(0));
+        when(this.configurationDomainService.retrieveOrganisationStartDate()).thenReturn(ORGANISATION_START_DATE);
+        when(this.namedParameterJdbcTemplate.queryForList(anyString(), anyMap(), eq(Long.class))).thenReturn(List.of(11L, 12L));
+    }
+
+    @Test
+    public void pagesTheLoanIdsAfterTheLastOneWithThePeriodicAccrualCriteria() {
+        assertEquals(List.of(11L, 12L), this.underTest.retrieveLoanIdsWithPeriodicAccrualData(TILL_DATE, 10L, 200));
+
+        verify(this.namedParameterJdbcTemplate).queryForList(this.sql.capture(), this.params.capture(), eq(Long.class));
+        final String query = this.sql.getValue();
+        assertTrue(query.startsWith("select distinct loan.id from m_loan_repayment_schedule ls "), query);
+        assertTrue(query.endsWith(" and loan.id > :afterLoanId order by loan.id LIMIT 200"), query);
+        assertCriteria(query, this.params.getValue(), true);
+        assertEquals(10L, this.params.getValue().get("afterLoanId"));
+    }
+
+    @Test
+    public void readsTheAccrualsOfALoanIdRangeWithTheSameCriteria() {
+        this.underTest.retrieveLoanIdsWithPeriodicAccrualData(TILL_DATE, 10L, 200);
+        this.underTest.retrivePeriodicAccrualData(TILL_DATE, 11L, 12L);
+
+        verify(this.namedParameterJdbcTemplate).queryForList(this.sql.capture(), anyMap(), eq(Long.class));
+        final String idQuery = this.sql.getValue();
+        verify(this.namedParameterJdbcTemplate).query(this.sql.capture(), this.params.capture(), any(RowMapper.class));
+        final String query = this.sql.getValue();
+        assertTrue(query.endsWith(" and loan.id >= :fromLoanId  and loan.id <= :toLoanId  order by loan.id,ls.duedate "), query);
+        assertCriteria(query, this.params.getValue(), true);
+        assertEquals(11L, this.params.getValue().get("fromLoanId"));
+        assertEquals(12L, this.params.getValue().get("toLoanId"));
+        assertEquals(criteria(idQuery, " and loan.id > "), criteria(query, " and loan.id >= "));
+    }
+
+    @Test
+    public void readsTheAccrualsOfAllLoansWithoutAStartDate() {
+        when(this.configurationDomainService.retrieveOrganisationStartDate()).thenReturn(null);
+
+        this.underTest.retrivePeriodicAccrualData(TILL_DATE, null);
+
+        verify(this.namedParameterJdbcTemplate).query(this.sql.capture(), this.params.capture(), any(RowMapper.class));
+        final String query = this.sql.getValue();
+        assertFalse(query.contains(":fromLoanId"), query);
+        assertFalse(query.contains(":toLoanId"), query);
+        assertTrue(query.endsWith(" order by loan.id,ls.duedate "), query);
+        assertCriteria(query, this.params.getValue(), false);
+    }
+
+    private static void assertCriteria(final String query, final Map<String, Object> params, final boolean withStartDate) {
+        assertTrue(query.contains(" where  (recaldet.is_compounding_to_be_posted_as_transaction is null "), query);
+        assertTrue(query.contains(" and loan.loan_status_id=:active and mpl.accounting_type=:type "), query);
+        assertTrue(query.contains(
+                " and loan.is_npa=false and (ls.duedate <= :tillDate or (ls.duedate > :tillDate and ls.fromdate < :tillDate))) "), query);
+        assertEquals(withStartDate, query.contains(" and ls.duedate > :organisationStartDate "), query);
+        assertEquals(LoanStatus.ACTIVE.getValue(), params.get("active"));
+        assertEquals(AccountingRuleType.ACCRUAL_PERIODIC.getValue(), params.get("type"));
+        assertEquals(TILL_DATE, params.get("tillDate"));
+        assertEquals(withStartDate ? ORGANISATION_START_DATE : null, params.get("organisationStartDate"));
+    }
+
+    private static String criteria(final String query, final String loanIdCriteria) {
+        return query.substring(query.indexOf(" where "), query.indexOf(loanIdCriteria));
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.apache.fineract.portfolio.loanaccount.data.LoanRepaymentIngestionFile;
+import org.apache.fineract.portfolio.loanaccount.data.LoanRepaymentIngestionLine;
+import org.apache.fineract.portfolio.loanaccount.data.LoanRepaymentIngestionResult;
+import org.junit.jupiter.api.Test;
+
+public class LoanRepaymentIngestionFileReaderTest {
+
+    @Test
+    public void readsColumnsInAnyOrder() {
+        final LoanRepaymentIngestionFile file = read(10, "\uFEFFloanId,transactionAmount,externalId,transactionDate,note,paymentTypeId",
+                "7,150.50,MM-1,2022-04-01,\"paid, \"\"late\"\"\",3", "", "8,20,MM-2,2022-04-02,,");
+
+        assertEquals(0, file.getInvalidLines().size());
+        assertEquals(2, file.getLines().size());
+        final LoanRepaymentIngestionLine first = file.getLines().get(0);
+        assertEquals(2, first.getLineNumber());
+        assertEquals("MM-1", first.getExternalId());
+        assertEquals(7L, first.getLoanId());
+        assertEquals(LocalDate.of(2022, 4, 1), first.getTransactionDate());
+        assertEquals(new BigDecimal("150.50"), first.getTransactionAmount());
+        assertEquals(3L, first.getPaymentTypeId());
+        assertEquals("paid, \"late\"", first.getNote());
+        assertNull(first.getReceiptNumber());
+        final LoanRepaymentIngestionLine second = file.getLines().get(1);
+        assertEquals(4, second.getLineNumber());
+        assertNull(second.getPaymentTypeId());
+        assertNull(second.getNote());
+    }
+
+    @Test
+    public void reportsLinesWhichCannotBeRead() {
+        final LoanRepaymentIngestionFile file = read(10, "externalId,loanId,transactionDate,transactionAmount", "MM-1,7,01/04/2022,10",
+                "MM-2,7,2022-04-01,-10", "MM-3,x,2022-04-01,10", ",7,2022-04-01,10", "\"MM-5,7,2022-04-01,10", "MM-6,7,2022-04-01,10");
+
+        assertEquals(1, file.getLines().size());
+        assertEquals("MM-6", file.getLines().get(0).getExternalId());
+        final List<LoanRepaymentIngestionResult> invalidLines = file.getInvalidLines();
+        assertEquals(5, invalidLines.size());
+        assertEquals(2, invalidLines.get(0).getLineNumber());
+        assertEquals("MM-1", invalidLines.get(0).getExternalId());
+        assertEquals("transactionDate is not a yyyy-MM-dd date", invalidLines.get(0).getMessage());
+        assertEquals("transactionAmount must be greater than zero", invalidLines.get(1).getMessage());
+        assertEquals("loanId is not a whole number", invalidLines.get(2).getMessage());
+        assertEquals("externalId is mandatory", invalidLines.get(3).getMessage());
+        assertNull(invalidLines.get(4).getExternalId());
+        for (final LoanRepaymentIngestionResult invalidLine : invalidLines) {
+            assertEquals(LoanRepaymentIngestionResult.Status.INVALID, invalidLine.getStatus());
+        }
+    }
+
+    @Test
+    public void rejectsFilesWithoutRequiredColumns() {
+        assertThrows(PlatformApiDataValidationException.class, () -> read(10, "externalId,loanId,transactionAmount", "MM-1,7,10"));
+    }
+
+    @Test
+    public void rejectsFilesWithTooManyLines() {
+        assertThrows(PlatformApiDataValidationException.class, () -> read(1, "externalId,loanId,transactionDate,transactionAmount",
+                "MM-1,7,2022-04-01,10", "MM-2,7,2022-04-01,10"));
+    }
+
+    private static LoanRepaymentIngestionFile read(final int maxLines, final String... lines) {
+        final byte[] content = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        return new LoanRepaymentIngestionFileReader(maxLines).read(new ByteArrayInputStream(content));
+    }
+}
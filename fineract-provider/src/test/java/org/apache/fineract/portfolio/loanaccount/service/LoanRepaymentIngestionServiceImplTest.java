@@ -0,0 +1,392 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import org.apache.fineract.accounting.journalentry.service.JournalEntryBatchWriter;
+import org.apache.fineract.commands.domain.CommandSourceRepository;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractRepaymentIngestionProperties;
+import org.apache.fineract.infrastructure.core.data.ApiParameterError;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
+import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.JobWorkerPoolService;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.portfolio.loanaccount.data.LoanRepaymentIngestionFile;
+import org.apache.fineract.portfolio.loanaccount.data.LoanRepaymentIngestionLine;
+import org.apache.fineract.portfolio.loanaccount.data.LoanRepaymentIngestionResult;
+import org.apache.fineract.portfolio.loanaccount.data.LoanRepaymentIngestionResult.Status;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.apache.fineract.portfolio.paymentdetail.service.PaymentDetailWritePlatformService;
+import org.apache.fineract.portfolio.paymenttype.domain.PaymentTypeRepositoryWrapper;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class LoanRepaymentIngestionServiceImplTest {
+
+    @Mock
+    private PlatformSecurityContext context;
+
+    @Mock
+    private ConfigurationDomainService configurationDomainService;
+
+    @Mock
+    private LoanAssembler loanAssembler;
+
+    @Mock
+    private LoanWritePlatformService loanWritePlatformService;
+
+    @Mock
+    private PaymentTypeRepositoryWrapper paymentTypeRepositoryWrapper;
+
+    @Mock
+    private PaymentDetailWritePlatformService paymentDetailWritePlatformService;
+
+    @Mock
+    private JournalEntryBatchWriter journalEntryBatchWriter;
+
+    @Mock
+    private CommandSourceRepository commandSourceRepository;
+
+    @Mock
+    private ToApiJsonSerializer<Map<String, Object>> toApiJsonSerializer;
+
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Mock
+    private AppUser currentUser;
+
+    /** external ids of the loan transactions in the database, with their ids */
+    private final Map<String, Long> existingTransactions = new HashMap<>();
+    /** external ids of the loan transactions posted by other requests once the file has been checked, with their ids */
+    private final Map<String, Long> postedMeanwhile = new HashMap<>();
+    /** failures rejecting the repayment with the external id every time it is applied */
+    private final Map<String, RuntimeException> rejectedRepayments = new HashMap<>();
+    /** failures to throw, one per call, when applying the repayment with the external id */
+    private final Map<String, Deque<RuntimeException>> repaymentFailures = new HashMap<>();
+    /** external ids of the repayments applied by every committed transaction */
+    private final List<List<String>> committedTransactions = new ArrayList<>();
+    private List<String> currentTransaction;
+    /** failure of the external id lookups made once a repayment has been rejected by the unique key */
+    private RuntimeException lookupFailureAfterDuplicate;
+    private boolean duplicateRejected;
+
+    private LoanRepaymentIngestionServiceImpl underTest;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        when(this.context.authenticatedUser()).thenReturn(this.currentUser);
+        when(this.currentUser.getId()).thenReturn(1L);
+        final Map<Long, Loan> loans = new HashMap<>();
+        for (long loanId = 1; loanId <= 3; loanId++) {
+            final Loan loan = mock(Loan.class);
+            when(loan.getId()).thenReturn(loanId);
+            loans.put(loanId, loan);
+        }
+        when(this.loanAssembler.assembleFrom(anyLong())).thenAnswer(invocation -> loans.get((Long) invocation.getArgument(0)));
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(this.journalEntryBatchWriter).runInUnitOfWork(any());
+        when(this.loanWritePlatformService.makeLoanRepayment(any(Loan.class), any(), any(), any(), any(), anyString(), anyMap()))
+                .thenAnswer(invocation -> {
+                    final String externalId = invocation.getArgument(5);
+                    if (this.postedMeanwhile.containsKey(externalId)) {
+                        this.existingTransactions.put(externalId, this.postedMeanwhile.get(externalId));
+                        this.duplicateRejected = true;
+                        throw new DataIntegrityViolationException("could not execute statement",
+                                new SQLIntegrityConstraintViolationException(
+                                        "Duplicate entry '" + externalId + "' for key 'm_loan_transaction.external_id'", "23000", 1062));
+                    }
+                    if (this.rejectedRepayments.containsKey(externalId)) {
+                        throw this.rejectedRepayments.get(externalId);
+                    }
+                    final Deque<RuntimeException> failures = this.repaymentFailures.get(externalId);
+                    if (failures != null && !failures.isEmpty()) {
+                        throw failures.poll();
+                    }
+                    this.currentTransaction.add(externalId);
+                    final Map<String, Object> changes = invocation.getArgument(6);
+                    return new CommandProcessingResultBuilder().withEntityId(transactionId(externalId)).with(changes).build();
+                });
+        doAnswer(invocation -> {
+            if (this.duplicateRejected && this.lookupFailureAfterDuplicate != null) {
+                throw this.lookupFailureAfterDuplicate;
+            }
+            final Map<String, Collection<String>> params = invocation.getArgument(1);
+            final RowCallbackHandler handler = invocation.getArgument(2);
+            for (final String externalId : params.get("externalIds")) {
+                if (this.existingTransactions.containsKey(externalId)) {
+                    final ResultSet rs = mock(ResultSet.class);
+                    when(rs.getString("external_id")).thenReturn(externalId);
+                    when(rs.getLong("id")).thenReturn(this.existingTransactions.get(externalId));
+                    handler.processRow(rs);
+                }
+            }
+            return null;
+        }).when(this.namedParameterJdbcTemplate).query(anyString(), anyMap(), any(RowCallbackHandler.class));
+
+        final FineractProperties properties = new FineractProperties();
+        final FineractRepaymentIngestionProperties repaymentIngestion = new FineractRepaymentIngestionProperties();
+        repaymentIngestion.setWorkerThreads(1);
+        repaymentIngestion.setMaxLines(1000);
+        properties.setRepaymentIngestion(repaymentIngestion);
+        final TransactionTemplate transactionTemplate = new TransactionTemplate() {
+
+            @Override
+            public <T> T execute(final TransactionCallback<T> action) {
+                final List<String> transaction = new ArrayList<>();
+                LoanRepaymentIngestionServiceImplTest.this.currentTransaction = transaction;
+                final T result = action.doInTransaction(new SimpleTransactionStatus());
+                LoanRepaymentIngestionServiceImplTest.this.committedTransactions.add(transaction);
+                return result;
+            }
+        };
+        this.underTest = new LoanRepaymentIngestionServiceImpl(this.context, this.configurationDomainService, properties,
+                this.loanAssembler, this.loanWritePlatformService, this.paymentTypeRepositoryWrapper,
+                this.paymentDetailWritePlatformService, this.journalEntryBatchWriter, this.commandSourceRepository,
+                this.toApiJsonSerializer, new RetryingWorkerPool(), this.namedParameterJdbcTemplate, transactionTemplate);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void appliesTheRepaymentsOfEveryLoanTogetherInTransactionDateOrder() {
+        final Map<Long, LoanRepaymentIngestionResult> results = apply(line(1, "R1", 2L, "2022-03-01"), line(2, "R2", 1L, "2022-02-01"),
+                line(3, "R3", 2L, "2022-01-15"), line(4, "R4", 1L, "2022-01-01"), line(5, "R5", 2L, "2022-03-01"));
+
+        // repayments of the same day keep their file order
+        assertEquals(List.of(List.of("R4", "R2"), List.of("R3", "R1", "R5")), this.committedTransactions);
+        assertEquals(5, results.size());
+        results.values().forEach(result -> assertEquals(Status.APPLIED, result.getStatus(), result.getExternalId()));
+        assertEquals(transactionId("R5"), results.get(5L).getTransactionId());
+    }
+
+    @Test
+    public void leavesOutTheDuplicatesOfTheFileAndOfTheDatabase() {
+        this.existingTransactions.put("R2", 42L);
+
+        final Map<Long, LoanRepaymentIngestionResult> results = apply(line(1, "R1", 1L, "2022-01-01"), line(2, "R2", 1L, "2022-01-02"),
+                line(3, "R1", 1L, "2022-01-03"), line(4, "R3", 1L, "2022-01-04"));
+
+        assertEquals(List.of(List.of("R1", "R3")), this.committedTransactions);
+        assertEquals(Status.APPLIED, results.get(1L).getStatus());
+        assertEquals(Status.DUPLICATE, results.get(2L).getStatus());
+        assertEquals(42L, results.get(2L).getTransactionId());
+        assertEquals(Status.DUPLICATE, results.get(3L).getStatus());
+        assertEquals("The externalId is already used on line 1", results.get(3L).getMessage());
+        assertEquals(Status.APPLIED, results.get(4L).getStatus());
+    }
+
+    @Test
+    public void appliesTheRepaymentsOneByOneWhenTheyFailTogether() {
+        this.rejectedRepayments.put("R2", new GeneralPlatformDomainRuleException("error.msg.repayment.rejected", "Repayment rejected"));
+
+        final Map<Long, LoanRepaymentIngestionResult> results = apply(line(1, "R1", 1L, "2022-01-01"), line(2, "R2", 1L, "2022-01-02"),
+                line(3, "R3", 1L, "2022-01-03"));
+
+        assertEquals(List.of(List.of("R1"), List.of("R3")), this.committedTransactions);
+        assertEquals(Status.APPLIED, results.get(1L).getStatus());
+        assertEquals(Status.FAILED, results.get(2L).getStatus());
+        assertEquals("Repayment rejected", results.get(2L).getMessage());
+        assertEquals(Status.APPLIED, results.get(3L).getStatus());
+    }
+
+    @Test
+    public void reportsAnExternalIdPostedMeanwhileAsDuplicate() {
+        final ApiParameterError notUnique = ApiParameterError.parameterError(
+                "validation.msg.loan.transaction.externalId.value.must.be.unique", "Failed data validation due to: value.must.be.unique.",
+                "externalId", "R2");
+        this.rejectedRepayments.put("R2", new PlatformApiDataValidationException(List.of(notUnique)));
+        this.postedMeanwhile.put("R4", 44L);
+
+        final Map<Long, LoanRepaymentIngestionResult> results = apply(line(1, "R1", 1L, "2022-01-01"), line(2, "R2", 1L, "2022-01-02"),
+                line(3, "R4", 2L, "2022-01-02"));
+
+        assertEquals(List.of(List.of("R1")), this.committedTransactions);
+        assertEquals(Status.APPLIED, results.get(1L).getStatus());
+        assertEquals(Status.DUPLICATE, results.get(2L).getStatus());
+        assertEquals(Status.DUPLICATE, results.get(3L).getStatus());
+        assertEquals(44L, results.get(3L).getTransactionId());
+    }
+
+    @Test
+    public void retriesTheLoanOnALockConflictWhileApplyingOneByOne() {
+        this.rejectedRepayments.put("R2", new GeneralPlatformDomainRuleException("error.msg.repayment.rejected", "Repayment rejected"));
+        this.repaymentFailures.computeIfAbsent("R3", externalId -> new ArrayDeque<>())
+                .add(new CannotAcquireLockException("lock wait timeout"));
+
+        final Map<Long, LoanRepaymentIngestionResult> results = apply(line(1, "R1", 1L, "2022-01-01"), line(2, "R2", 1L, "2022-01-02"),
+                line(3, "R3", 1L, "2022-01-03"));
+
+        // the retry leaves out R1, applied before the conflict, and applies R3, which the conflict rolled back
+        assertEquals(List.of(List.of("R1"), List.of("R3")), this.committedTransactions);
+        assertEquals(3, results.size());
+        assertEquals(Status.APPLIED, results.get(1L).getStatus());
+        assertEquals(transactionId("R1"), results.get(1L).getTransactionId());
+        assertEquals(Status.FAILED, results.get(2L).getStatus());
+        assertEquals(Status.APPLIED, results.get(3L).getStatus());
+    }
+
+    @Test
+    public void reportsAUniqueViolationOfAnotherKeyAsFailure() {
+        this.rejectedRepayments.put("R2", new DataIntegrityViolationException("could not execute statement",
+                new SQLException("duplicate key value violates unique constraint \"m_loan_transaction_other_key\"", "23505")));
+
+        final Map<Long, LoanRepaymentIngestionResult> results = apply(line(1, "R1", 1L, "2022-01-01"), line(2, "R2", 2L, "2022-01-02"));
+
+        assertEquals(Status.APPLIED, results.get(1L).getStatus());
+        assertEquals(Status.FAILED, results.get(2L).getStatus());
+    }
+
+    @Test
+    public void reportsTheLoanAsLockedWhenTheRetriesRunOut() {
+        final Deque<RuntimeException> conflicts = this.repaymentFailures.computeIfAbsent("R1", externalId -> new ArrayDeque<>());
+        for (int i = 0; i < 4; i++) {
+            conflicts.add(new CannotAcquireLockException("lock wait timeout"));
+        }
+
+        final Map<Long, LoanRepaymentIngestionResult> results = apply(line(1, "R1", 1L, "2022-01-01"), line(2, "R2", 2L, "2022-01-02"));
+
+        assertEquals(Status.FAILED, results.get(1L).getStatus());
+        assertEquals("The loan is locked by other transactions", results.get(1L).getMessage());
+        assertEquals(Status.APPLIED, results.get(2L).getStatus());
+    }
+
+    @Test
+    public void reportsTheErrorWhichStoppedTheLoan() {
+        this.postedMeanwhile.put("R1", 41L);
+        this.lookupFailureAfterDuplicate = new DataAccessResourceFailureException("Connection to the database lost");
+
+        final Map<Long, LoanRepaymentIngestionResult> results = apply(line(1, "R1", 1L, "2022-01-01"), line(2, "R2", 2L, "2022-01-02"));
+
+        assertEquals(Status.FAILED, results.get(1L).getStatus());
+        assertEquals("Connection to the database lost", results.get(1L).getMessage());
+        assertEquals(Status.APPLIED, results.get(2L).getStatus());
+    }
+
+    private Map<Long, LoanRepaymentIngestionResult> apply(final LoanRepaymentIngestionLine... lines) {
+        final Map<Long, LoanRepaymentIngestionResult> results = new HashMap<>();
+        this.underTest.apply(new LoanRepaymentIngestionFile(List.of(lines), List.of()),
+                result -> assertNull(results.put(result.getLineNumber(), result), "results of line " + result.getLineNumber()));
+        return results;
+    }
+
+    private static long transactionId(final String externalId) {
+        return 1000L + Long.parseLong(externalId.substring(1));
+    }
+
+    private static LoanRepaymentIngestionLine line(final long lineNumber, final String externalId, final Long loanId,
+            final String transactionDate) {
+        return new LoanRepaymentIngestionLine(lineNumber, externalId, loanId, LocalDate.parse(transactionDate), new BigDecimal("100"), null,
+                null, null);
+    }
+
+    /**
+     * Processes the loans on the calling thread, retries lock conflicts and collects the errors, as the job worker pool does.
+     */
+    private static final class RetryingWorkerPool implements JobWorkerPoolService {
+
+        @Override
+        public <C> List<Throwable> processPages(final JobName jobName, final int concurrency, final LongFunction<List<Long>> pageFetcher,
+                final Function<List<Long>, C> pagePreparer, final BiConsumer<Long, C> itemProcessor) {
+            final List<Throwable> errors = new ArrayList<>();
+            List<Long> page = pageFetcher.apply(0L);
+            while (!page.isEmpty()) {
+                final C pageContext = pagePreparer.apply(page);
+                for (final Long id : page) {
+                    for (int attempt = 0;; attempt++) {
+                        try {
+                            itemProcessor.accept(id, pageContext);
+                            break;
+                        } catch (CannotAcquireLockException e) {
+                            if (attempt >= 3) {
+                                errors.add(e);
+                                break;
+                            }
+                        } catch (RuntimeException e) {
+                            errors.add(e);
+                            break;
+                        }
+                    }
+                }
+                page = pageFetcher.apply(page.get(page.size() - 1));
+            }
+            return errors;
+        }
+
+        @Override
+        public List<Throwable> runWorkers(final JobName jobName, final int concurrency, final Runnable worker) {
+            worker.run();
+            return List.of();
+        }
+    }
+}
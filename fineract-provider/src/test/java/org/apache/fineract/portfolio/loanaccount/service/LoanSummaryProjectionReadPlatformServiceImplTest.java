@@ -0,0 +1,63 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import org.apache.fineract.infrastructure.core.service.PaginationHelper;
+import org.apache.fineract.infrastructure.core.service.SearchParameters;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class LoanSummaryProjectionReadPlatformServiceImplTest {
+
+    private final LoanSummaryProjectionReadPlatformServiceImpl service = new LoanSummaryProjectionReadPlatformServiceImpl(
+            mock(PlatformSecurityContext.class), mock(JdbcTemplate.class), mock(DatabaseSpecificSQLGenerator.class),
+            mock(PaginationHelper.class));
+
+    @Test
+    public void plainAndAccountNumberSearchesAreServedFromTheProjection() {
+        assertTrue(this.service.canSearchLoans(SearchParameters.forLoans(null, null, 0, 50, null, null, null)));
+        assertTrue(this.service.canSearchLoans(SearchParameters.forLoans(null, null, 0, 50, "accountNo", "desc", "000000001")));
+        assertTrue(this.service.canSearchLoans(SearchParameters.forLoans(null, null, null, null, "id", null, null)));
+    }
+
+    @Test
+    public void searchesTheProjectionCannotAnswerUseTheLoanTable() {
+        assertFalse(this.service.canSearchLoans(null));
+        assertFalse(this.service.canSearchLoans(SearchParameters.forLoans(null, null, 0, -1, null, null, null)));
+        assertFalse(this.service.canSearchLoans(SearchParameters.forLoans("l.loan_status_id = 300", null, 0, 50, null, null, null)));
+        assertFalse(this.service.canSearchLoans(SearchParameters.forLoans(null, "ext-1", 0, 50, null, null, null)));
+        assertFalse(this.service.canSearchLoans(SearchParameters.forLoans(null, null, 0, 50, "principal_amount", null, null)));
+        assertFalse(this.service.canSearchLoans(SearchParameters.forLoans(null, null, 0, 50, "id", "sideways", null)));
+    }
+
+    @Test
+    public void loansOfThePageAreOrderedLikeTheProjection() {
+        assertEquals("l.id asc", this.service.searchLoanOrder(SearchParameters.forLoans(null, null, 0, 50, null, null, null)));
+        assertEquals("l.account_no desc",
+                this.service.searchLoanOrder(SearchParameters.forLoans(null, null, 0, 50, "accountNo", "DESC", null)));
+        assertEquals("l.id asc", this.service.searchLoanOrder(SearchParameters.forLoans(null, null, 0, 50, "l.id", "asc", null)));
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import org.apache.fineract.portfolio.businessevent.service.BusinessEventNotifierService;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanStatus;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class LoanSummaryProjectionWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final LoanSummaryProjectionWriter writer = new LoanSummaryProjectionWriter(mock(BusinessEventNotifierService.class),
+            this.jdbcTemplate);
+
+    @Test
+    public void rowHoldsTheLoanSummaryWithTheLoanIdLast() {
+        final Object[] row = LoanSummaryProjectionWriter.row(loan(7L));
+
+        assertEquals(18, row.length);
+        assertEquals("000000007", row[0]);
+        assertEquals(2L, row[1]);
+        assertNull(row[2]);
+        assertEquals(LoanStatus.ACTIVE.getValue(), row[6]);
+        assertEquals(new BigDecimal("1000"), row[8]);
+        assertEquals(new BigDecimal("640"), row[13]);
+        assertEquals(Date.valueOf(LocalDate.of(2022, 1, 10)), row[14]);
+        assertEquals(7L, row[17]);
+    }
+
+    @Test
+    public void insertsTheRowOfALoanWithoutOne() {
+        when(this.jdbcTemplate.update(startsWith("UPDATE"), (Object[]) any())).thenReturn(0);
+
+        this.writer.write(loan(7L));
+
+        verify(this.jdbcTemplate).update(startsWith("INSERT"), (Object[]) any());
+    }
+
+    @Test
+    public void updatesAnExistingRow() {
+        when(this.jdbcTemplate.update(startsWith("UPDATE"), (Object[]) any())).thenReturn(1);
+
+        this.writer.write(loan(7L));
+
+        verify(this.jdbcTemplate, never()).update(startsWith("INSERT"), (Object[]) any());
+    }
+
+    @Test
+    public void skipsLoansNotSavedYet() {
+        this.writer.write(loan(null));
+
+        verify(this.jdbcTemplate, never()).update(anyString(), (Object[]) any());
+    }
+
+    private static Loan loan(final Long id) {
+        final LoanSummary summary = mock(LoanSummary.class);
+        when(summary.getTotalPrincipalDisbursed()).thenReturn(new BigDecimal("1000"));
+        when(summary.getTotalOutstanding()).thenReturn(new BigDecimal("640"));
+
+        final Loan loan = mock(Loan.class);
+        when(loan.getId()).thenReturn(id);
+        when(loan.getAccountNumber()).thenReturn("000000007");
+        when(loan.getOfficeId()).thenReturn(2L);
+        when(loan.getClientId()).thenReturn(3L);
+        when(loan.productId()).thenReturn(4L);
+        when(loan.status()).thenReturn(LoanStatus.ACTIVE);
+        when(loan.getCurrencyCode()).thenReturn("USD");
+        when(loan.getSummary()).thenReturn(summary);
+        when(loan.getDisbursementDate()).thenReturn(LocalDate.of(2022, 1, 10));
+        return loan;
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain.interest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.apache.fineract.infrastructure.core.domain.LocalDateInterval;
+import org.junit.jupiter.api.Test;
+
+public class PostingPeriodTransactionWindowTest {
+
+    private static final LocalDateInterval JANUARY = LocalDateInterval.create(LocalDate.of(2022, 1, 1), LocalDate.of(2022, 1, 31));
+    private static final LocalDateInterval FEBRUARY = LocalDateInterval.create(LocalDate.of(2022, 2, 1), LocalDate.of(2022, 2, 28));
+    private static final LocalDateInterval MARCH = LocalDateInterval.create(LocalDate.of(2022, 3, 1), LocalDate.of(2022, 3, 31));
+
+    private final Transaction openingDeposit = new Transaction(LocalDate.of(2022, 1, 5), LocalDate.of(2022, 1, 19));
+    private final Transaction longBalance = new Transaction(LocalDate.of(2022, 1, 20), LocalDate.of(2022, 2, 28));
+    private final Transaction firstOfMarch = new Transaction(LocalDate.of(2022, 3, 1), LocalDate.of(2022, 3, 1));
+    private final Transaction secondOfMarch = new Transaction(LocalDate.of(2022, 3, 1), LocalDate.of(2022, 3, 9));
+    private final Transaction lastDeposit = new Transaction(LocalDate.of(2022, 3, 10), LocalDate.of(2022, 3, 31));
+
+    private final List<Transaction> transactions = List.of(openingDeposit, longBalance, firstOfMarch, secondOfMarch, lastDeposit);
+
+    @Test
+    public void transactionsAffectingKeepsBalancesSpanningIntoThePeriodAndTheDayAfterIt() {
+        final PostingPeriodTransactionWindow<Transaction> underTest = window(this.transactions);
+
+        assertEquals(List.of(openingDeposit, longBalance), underTest.transactionsAffecting(JANUARY));
+        assertEquals(List.of(longBalance, firstOfMarch, secondOfMarch), underTest.transactionsAffecting(FEBRUARY));
+        assertEquals(List.of(firstOfMarch, secondOfMarch, lastDeposit), underTest.transactionsAffecting(MARCH));
+    }
+
+    @Test
+    public void transactionsSinceKeepsOnlyTheLastTransactionOnThePeriodStart() {
+        final PostingPeriodTransactionWindow<Transaction> underTest = window(this.transactions);
+
+        assertEquals(List.of(openingDeposit, longBalance), underTest.transactionsSince(JANUARY));
+        assertEquals(List.of(firstOfMarch, secondOfMarch), underTest.transactionsSince(FEBRUARY));
+        assertEquals(List.of(secondOfMarch, lastDeposit), underTest.transactionsSince(MARCH));
+    }
+
+    @Test
+    public void restartsWhenPeriodsGoBackInTime() {
+        final PostingPeriodTransactionWindow<Transaction> underTest = window(this.transactions);
+
+        underTest.transactionsAffecting(MARCH);
+
+        assertEquals(List.of(openingDeposit, longBalance), underTest.transactionsAffecting(JANUARY));
+    }
+
+    @Test
+    public void handsOverAllTransactionsWhenNotInDateOrder() {
+        final List<Transaction> unordered = List.of(lastDeposit, openingDeposit);
+        final PostingPeriodTransactionWindow<Transaction> underTest = window(unordered);
+
+        assertFalse(underTest.isOrderedByTransactionDate());
+        assertEquals(unordered, underTest.transactionsAffecting(JANUARY));
+    }
+
+    private static PostingPeriodTransactionWindow<Transaction> window(final List<Transaction> transactions) {
+        return new PostingPeriodTransactionWindow<>(transactions, Transaction::date, Transaction::endOfBalance);
+    }
+
+    private record Transaction(LocalDate date, LocalDate endOfBalance) {}
+}
@@ -0,0 +1,176 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.integrationtests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.builder.ResponseSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.ResponseSpecification;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import org.apache.fineract.integrationtests.common.ClientHelper;
+import org.apache.fineract.integrationtests.common.CollateralManagementHelper;
+import org.apache.fineract.integrationtests.common.LoanRescheduleRequestHelper;
+import org.apache.fineract.integrationtests.common.Utils;
+import org.apache.fineract.integrationtests.common.loans.LoanApplicationTestBuilder;
+import org.apache.fineract.integrationtests.common.loans.LoanProductTestBuilder;
+import org.apache.fineract.integrationtests.common.loans.LoanRescheduleRequestTestBuilder;
+import org.apache.fineract.integrationtests.common.loans.LoanStatusChecker;
+import org.apache.fineract.integrationtests.common.loans.LoanTransactionHelper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the loan summary projection row follows the loan after each kind of write, including the ones that raise
+ * no business event, and that the loan list served from the projection returns the loan.
+ */
+@SuppressWarnings({ "rawtypes" })
+public class LoanSummaryProjectionIntegrationTest {
+
+    private static final String DATE = "04 September 2014";
+
+    private ResponseSpecification responseSpec;
+    private RequestSpecification requestSpec;
+    private LoanTransactionHelper loanTransactionHelper;
+    private LoanRescheduleRequestHelper loanRescheduleRequestHelper;
+    private Integer clientId;
+    private Integer loanProductId;
+
+    @BeforeEach
+    public void setup() {
+        Utils.initializeRESTAssured();
+        this.requestSpec = new RequestSpecBuilder().setContentType(ContentType.JSON).build();
+        this.requestSpec.header("Authorization", "Basic " + Utils.loginIntoServerAndGetBase64EncodedAuthenticationKey());
+        this.responseSpec = new ResponseSpecBuilder().expectStatusCode(200).build();
+        this.loanTransactionHelper = new LoanTransactionHelper(this.requestSpec, this.responseSpec);
+        this.loanRescheduleRequestHelper = new LoanRescheduleRequestHelper(this.requestSpec, this.responseSpec);
+
+        this.clientId = ClientHelper.createClient(this.requestSpec, this.responseSpec);
+        this.loanProductId = this.loanTransactionHelper.getLoanProductId(new LoanProductTestBuilder().withPrincipal("100000.00")
+                .withNumberOfRepayments("12").withinterestRatePerPeriod("18").withInterestRateFrequencyTypeAsYear().build(null));
+    }
+
+    @Test
+    public void testSubmittedLoanIsProjected() {
+        final Integer loanId = applyForLoan("12");
+
+        final HashMap summary = getLoanSummary(loanId);
+        assertEquals(100, ((HashMap) summary.get("status")).get("id"));
+        assertProjectionMatchesLoan(loanId, summary);
+        assertEquals(loanId, getLoanByAccountNo((String) summary.get("accountNo")).get("id"));
+    }
+
+    @Test
+    public void testModifiedApplicationIsProjected() {
+        final Integer loanId = applyForLoan("12");
+        final HashMap submitted = getLoanSummary(loanId);
+
+        this.loanTransactionHelper.updateLoan(loanId, loanApplication("24"));
+
+        final HashMap summary = getLoanSummary(loanId);
+        assertEquals(100, ((HashMap) summary.get("status")).get("id"));
+        assertProjectionMatchesLoan(loanId, summary);
+        Assertions.assertNotEquals(submitted.get("expectedMaturityDate"), summary.get("expectedMaturityDate"));
+    }
+
+    @Test
+    public void testWithdrawnApplicationIsProjected() {
+        final Integer loanId = applyForLoan("12");
+
+        this.loanTransactionHelper.withdrawLoanApplicationByClient(DATE, loanId);
+        LoanStatusChecker.verifyLoanAccountIsNotActive(LoanStatusChecker.getStatusOfLoan(this.requestSpec, this.responseSpec, loanId));
+
+        final HashMap summary = getLoanSummary(loanId);
+        assertEquals(400, ((HashMap) summary.get("status")).get("id"));
+        final HashMap listed = getLoanByAccountNo((String) summary.get("accountNo"));
+        assertEquals(400, ((HashMap) listed.get("status")).get("id"));
+    }
+
+    @Test
+    public void testApprovedRescheduleIsProjected() {
+        final Integer loanId = applyForLoan("12");
+        this.loanTransactionHelper.approveLoan(DATE, loanId);
+        final String loanDetails = this.loanTransactionHelper.getLoanDetails(this.requestSpec, this.responseSpec, loanId);
+        this.loanTransactionHelper.disburseLoan(DATE, loanId, JsonPath.from(loanDetails).get("netDisbursalAmount").toString());
+        final HashMap disbursed = getLoanSummary(loanId);
+        assertEquals(300, ((HashMap) disbursed.get("status")).get("id"));
+
+        final Integer requestId = this.loanRescheduleRequestHelper
+                .createLoanRescheduleRequest(new LoanRescheduleRequestTestBuilder().build(loanId.toString()));
+        this.loanRescheduleRequestHelper.approveLoanRescheduleRequest(requestId,
+                new LoanRescheduleRequestTestBuilder().getApproveLoanRescheduleRequestJSON());
+
+        final HashMap summary = getLoanSummary(loanId);
+        assertProjectionMatchesLoan(loanId, summary);
+        Assertions.assertNotEquals(disbursed.get("expectedMaturityDate"), summary.get("expectedMaturityDate"));
+    }
+
+    private void assertProjectionMatchesLoan(final Integer loanId, final HashMap summary) {
+        final HashMap timeline = (HashMap) this.loanTransactionHelper.getLoanDetail(this.requestSpec, this.responseSpec, loanId,
+                "timeline");
+        assertEquals(timeline.get("expectedMaturityDate"), summary.get("expectedMaturityDate"));
+        final HashMap loanSummary = this.loanTransactionHelper.getLoanSummary(this.requestSpec, this.responseSpec, loanId);
+        if (loanSummary != null) {
+            assertEquals(new BigDecimal(String.valueOf(loanSummary.get("totalOutstanding"))).stripTrailingZeros(),
+                    new BigDecimal(String.valueOf(summary.get("totalOutstanding"))).stripTrailingZeros());
+        }
+    }
+
+    private HashMap getLoanSummary(final Integer loanId) {
+        final String url = "/fineract-provider/api/v1/loans/summaries?afterLoanId=" + (loanId - 1) + "&limit=1&" + Utils.TENANT_IDENTIFIER;
+        final List<HashMap> summaries = JsonPath.from(Utils.performServerGet(this.requestSpec, this.responseSpec, url)).getList("$");
+        assertEquals(1, summaries.size());
+        assertEquals(loanId, summaries.get(0).get("loanId"));
+        return summaries.get(0);
+    }
+
+    private HashMap getLoanByAccountNo(final String accountNo) {
+        final String url = "/fineract-provider/api/v1/loans?accountNo=" + accountNo + "&limit=10&" + Utils.TENANT_IDENTIFIER;
+        final List<HashMap> loans = Utils.performServerGet(this.requestSpec, this.responseSpec, url, "pageItems");
+        assertEquals(1, loans.size());
+        return loans.get(0);
+    }
+
+    private Integer applyForLoan(final String numberOfRepayments) {
+        return this.loanTransactionHelper.getLoanId(loanApplication(numberOfRepayments));
+    }
+
+    private String loanApplication(final String numberOfRepayments) {
+        final List<HashMap> collaterals = new ArrayList<>();
+        final Integer collateralId = CollateralManagementHelper.createCollateralProduct(this.requestSpec, this.responseSpec);
+        final Integer clientCollateralId = CollateralManagementHelper.createClientCollateral(this.requestSpec, this.responseSpec,
+                this.clientId.toString(), collateralId);
+        final HashMap<String, String> collateral = new HashMap<>(2);
+        collateral.put("clientCollateralId", clientCollateralId.toString());
+        collateral.put("quantity", BigDecimal.ONE.toString());
+        collaterals.add(collateral);
+        return new LoanApplicationTestBuilder().withPrincipal("100000.00").withLoanTermFrequency(numberOfRepayments)
+                .withLoanTermFrequencyAsMonths().withNumberOfRepayments(numberOfRepayments).withRepaymentEveryAfter("1")
+                .withRepaymentFrequencyTypeAsMonths().withAmortizationTypeAsEqualInstallments().withInterestCalculationPeriodTypeAsDays()
+                .withInterestRatePerPeriod("18").withSubmittedOnDate(DATE).withExpectedDisbursementDate(DATE).withPrincipalGrace("2")
+                .withInterestGrace("2").withCollaterals(collaterals).build(this.clientId.toString(), this.loanProductId.toString(), null);
+    }
+}